@@ -1,22 +1,38 @@
 import controlador.Controller;
+import controlador.MazeServer;
+import modelo.InformeJFR;
 import modelo.SolverRecursivo;
 import vista.MazeView;
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Clase principal que inicia la aplicación del solucionador de laberintos.
  * Su única responsabilidad es crear la Vista y el Controlador, enlazarlos,
  * y hacer visible la interfaz gráfica de usuario de una manera segura para Swing.
+ * Con el argumento {@code --server} arranca en su lugar el {@link MazeServer}, y
+ * con {@code --jfr-report} resume una grabación de Flight Recorder ({@link InformeJFR}).
  *
  * @author Einar Kaalhus
  * @version 1.0
  */
 public class App {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
+        // Con "--server [puerto]" se arranca el servicio HTTP local en lugar de la interfaz gráfica
+        if (args.length > 0 && args[0].equals("--server")) {
+            MazeServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
+        // Con "--jfr-report grabacion.jfr" se imprime el resumen por fases de la grabación
+        if (args.length > 0 && args[0].equals("--jfr-report")) {
+            InformeJFR.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         // SwingUtilities.invokeLater asegura que la creación de la GUI
         // se ejecute en el Event Dispatch Thread (EDT), lo cual es
@@ -5,9 +5,14 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
+import modelo.MetricasBusqueda;
+import modelo.RutaCompacta;
 
 /**
  * Clase utilitaria para registrar los resultados de las ejecuciones de los algoritmos
@@ -22,13 +27,30 @@ import java.util.Locale;
  * </ul>
  *
  * El formato del CSV es:
- * Timestamp,Algorithm,PathFound,PathLength,ExecutionTime(ms)
+ * Timestamp,Algorithm,PathFound,PathLength,ExecutionTime(ms),Source,Expanded,Generated,PeakFrontier,PeakDepth,AllocatedBytes,
+ * WarmUp,Repetitions,Min(ms),Median(ms),P95(ms),StdDev(ms),Path
+ *
+ * La columna Source vale {@code solver} cuando el resultado se calculó y
+ * {@code cache} cuando se obtuvo de la caché de resultados; en una carrera de
+ * algoritmos cada participante se registra con {@code race-} y su estado final
+ * ({@code race-ganador}, {@code race-cancelado}...); los participantes
+ * cancelados o con error dejan vacío el tiempo de ejecución. Las columnas de contadores
+ * vienen de {@link MetricasBusqueda} y quedan vacías cuando no se conocen (por
+ * ejemplo, en los resultados de la caché). Una medición repetida ("benchmark")
+ * se registra como una sola fila con Source {@code benchmark}, la mediana como
+ * tiempo de ejecución y sus estadísticas en las últimas columnas, que el resto
+ * de filas deja vacías. La columna Path es opcional: guarda la ruta
+ * con {@link RutaCompacta#codificar()} (2 bits por paso, sin comas) y se puede
+ * recuperar con {@link RutaCompacta#decodificar(String)}. Si el archivo ya
+ * existe con un encabezado anterior, se actualiza el encabezado conservando las filas.
  *
  */
 public class CSVLogger {
     private final String filePath;
     private static final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static final String CSV_HEADER = "Timestamp,Algorithm,PathFound,PathLength,ExecutionTime(ms)";
+    private static final String CSV_HEADER = "Timestamp,Algorithm,PathFound,PathLength,ExecutionTime(ms),Source,"
+            + "Expanded,Generated,PeakFrontier,PeakDepth,AllocatedBytes,"
+            + "WarmUp,Repetitions,Min(ms),Median(ms),P95(ms),StdDev(ms),Path";
 
     public CSVLogger(String filePath) {
         this.filePath = filePath;
@@ -46,6 +68,24 @@ public class CSVLogger {
             } catch (IOException e) {
                 System.err.println("Error al inicializar el archivo CSV: " + e.getMessage());
             }
+        } else {
+            updateHeader(file.toPath());
+        }
+    }
+
+    /**
+     * Reemplaza el encabezado de un archivo existente si es de una versión anterior.
+     * Las filas antiguas se conservan; simplemente tienen menos columnas.
+     */
+    private void updateHeader(Path path) {
+        try {
+            List<String> lines = Files.readAllLines(path);
+            if (!lines.isEmpty() && !lines.get(0).equals(CSV_HEADER)) {
+                lines.set(0, CSV_HEADER);
+                Files.write(path, lines);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al actualizar el encabezado del archivo CSV: " + e.getMessage());
         }
     }
 
@@ -58,19 +98,118 @@ public class CSVLogger {
      * @param timeMs    El tiempo de ejecución en milisegundos.
      */
     public void logResult(String algorithm, boolean success, int pathLength, double timeMs) {
+        logResult(algorithm, success, pathLength, timeMs, false);
+    }
+
+    /**
+     * Añade una nueva fila de resultados al archivo CSV indicando si el resultado
+     * se calculó o se obtuvo de la caché.
+     *
+     * @param algorithm  El nombre del algoritmo usado.
+     * @param success    Si se encontró una ruta o no.
+     * @param pathLength La longitud de la ruta (0 si no se encontró).
+     * @param timeMs     El tiempo de ejecución en milisegundos.
+     * @param fromCache  {@code true} si el resultado se obtuvo de la caché.
+     */
+    public void logResult(String algorithm, boolean success, int pathLength, double timeMs, boolean fromCache) {
+        logResult(algorithm, success, pathLength, timeMs, fromCache ? "cache" : "solver");
+    }
+
+    /**
+     * Añade una nueva fila de resultados al archivo CSV con un origen arbitrario,
+     * por ejemplo el estado de un participante de una carrera de algoritmos.
+     *
+     * @param algorithm  El nombre del algoritmo usado.
+     * @param success    Si se encontró una ruta o no.
+     * @param pathLength La longitud de la ruta (0 si no se encontró).
+     * @param timeMs     El tiempo de ejecución en milisegundos.
+     * @param source     El valor de la columna Source.
+     */
+    public void logResult(String algorithm, boolean success, int pathLength, double timeMs, String source) {
+        logResult(algorithm, success, pathLength, timeMs, source, null);
+    }
+
+    /**
+     * Añade una nueva fila de resultados al archivo CSV con los contadores de la búsqueda.
+     *
+     * @param algorithm  El nombre del algoritmo usado.
+     * @param success    Si se encontró una ruta o no.
+     * @param pathLength La longitud de la ruta (0 si no se encontró).
+     * @param timeMs     El tiempo de ejecución en milisegundos, o negativo si no se conoce
+     *                   (la celda queda vacía).
+     * @param source     El valor de la columna Source.
+     * @param metrics    Los contadores de la búsqueda, o {@code null} si no se conocen.
+     */
+    public void logResult(String algorithm, boolean success, int pathLength, double timeMs, String source,
+                          MetricasBusqueda metrics) {
+        writeResult(algorithm, success, pathLength, timeMs, source, metrics, null);
+    }
+
+    /**
+     * Añade una nueva fila de resultados al archivo CSV guardando también la ruta
+     * codificada en la columna Path. El éxito y la longitud se toman de la ruta.
+     *
+     * @param algorithm El nombre del algoritmo usado.
+     * @param path      La ruta encontrada ({@link RutaCompacta#VACIA} si no hay ruta).
+     * @param timeMs    El tiempo de ejecución en milisegundos.
+     * @param source    El valor de la columna Source.
+     * @param metrics   Los contadores de la búsqueda, o {@code null} si no se conocen.
+     */
+    public void logResult(String algorithm, RutaCompacta path, double timeMs, String source, MetricasBusqueda metrics) {
+        writeResult(algorithm, !path.isEmpty(), path.isEmpty() ? 0 : path.size(), timeMs, source, metrics, path);
+    }
+
+    private void writeResult(String algorithm, boolean success, int pathLength, double timeMs, String source,
+                             MetricasBusqueda metrics, RutaCompacta path) {
         try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, true))) {
             String timestamp = dtf.format(LocalDateTime.now());
             // Usamos Locale.US para asegurar que el punto decimal sea un punto.
-            String record = String.format(Locale.US, "%s,%s,%b,%d,%.4f",
+            String counters = metrics == null ? ",,,," : String.format("%d,%d,%d,%d,%s",
+                    metrics.getExpandidos(), metrics.getGenerados(), metrics.getPicoFrontera(),
+                    metrics.getPicoProfundidad(), metrics.getBytesAsignados() >= 0 ? metrics.getBytesAsignados() : "");
+            String time = timeMs < 0 ? "" : String.format(Locale.US, "%.4f", timeMs);
+            String record = String.format(Locale.US, "%s,%s,%b,%d,%s,%s,%s",
                     timestamp,
                     algorithm,
                     success,
                     pathLength,
-                    timeMs
+                    time,
+                    source,
+                    counters
             );
+            if (path != null) {
+                // Las columnas del benchmark quedan vacías antes de la ruta
+                record += ",,,,,,," + path.codificar();
+            }
+            writer.println(record);
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el archivo CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Añade una fila con el resumen de una medición repetida de un algoritmo.
+     *
+     * @param algorithm   El nombre del algoritmo medido.
+     * @param success     Si se encontró una ruta o no.
+     * @param pathLength  La longitud de la ruta (0 si no se encontró).
+     * @param warmUp      Búsquedas de calentamiento no medidas.
+     * @param repetitions Búsquedas medidas.
+     * @param minMs       Tiempo mínimo en milisegundos.
+     * @param medianMs    Mediana en milisegundos (también va a la columna ExecutionTime).
+     * @param p95Ms       Percentil 95 en milisegundos.
+     * @param stdDevMs    Desviación típica en milisegundos.
+     */
+    public void logBenchmark(String algorithm, boolean success, int pathLength, int warmUp, int repetitions,
+                             double minMs, double medianMs, double p95Ms, double stdDevMs) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, true))) {
+            String timestamp = dtf.format(LocalDateTime.now());
+            String record = String.format(Locale.US, "%s,%s,%b,%d,%.4f,benchmark,,,,,,%d,%d,%.4f,%.4f,%.4f,%.4f",
+                    timestamp, algorithm, success, pathLength, medianMs,
+                    warmUp, repetitions, minMs, medianMs, p95Ms, stdDevMs);
             writer.println(record);
         } catch (IOException e) {
             System.err.println("Error al escribir en el archivo CSV: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,20 @@
 package controlador;
 
 import modelo.*;
+import vista.ExplorationPlayer;
 import vista.MazeView;
 import util.CSVLogger;
 
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Controlador principal de la aplicación de laberintos.
@@ -27,8 +33,36 @@ import java.util.stream.Collectors;
  *
  */
 public class Controller {
+    // Pila de los hilos de medición: los algoritmos recursivos la necesitan en laberintos grandes
+    private static final long BENCHMARK_STACK_SIZE = 512L * 1024 * 1024;
+    // El editor trabaja con int[][] (4 bytes por celda): más allá de este tamaño no se carga
+    private static final long MAX_EDITOR_CELLS = 16L * 1024 * 1024;
+
     private final MazeView view;
     private final CSVLogger csvLogger;
+    private final ExplorationPlayer player;
+
+    // Caché de resultados, indexada por el hash incremental del contenido del laberinto
+    private final HashLaberinto mazeHash;
+    private final CacheResultados resultCache;
+
+    // Solver que conserva su estado entre búsquedas y se repara tras cada edición de celda
+    private final SolverIncremental incrementalSolver;
+    // Distancias BFS desde el inicio: con el mismo inicio, cualquier destino se responde sin buscar
+    private final CampoDistancias distanceField;
+    // Regiones conexas: descartan al instante las consultas sin camino posible
+    private final ComponentesConexas regions;
+    // Vista del laberinto sin callejones, reutilizada mientras no cambien el laberinto ni los extremos
+    private final RellenoCallejones deadEndFilter;
+    // Grafo de corredores contraídos, reconstruido solo cuando cambia el laberinto
+    private final SolverCorredores corridorSolver;
+    // Abstracción por bloques para laberintos grandes; una edición solo recalcula los bloques afectados
+    private final SolverJerarquico hierarchicalSolver;
+    // Información adicional del último solver ejecutado, para el área de resultados
+    private String solverNote;
+    private List<int[]> hierarchicalRawPath;
+    private final CarreraAlgoritmos race = new CarreraAlgoritmos();
+    private CarreraAlgoritmos.Resultado lastRace;
 
     // --- NUEVO: Atributos para guardar el último resultado ---
     private List<int[]> lastFinalPath;
@@ -37,6 +71,22 @@ public class Controller {
     public Controller(MazeView view) {
         this.view = view;
         this.csvLogger = new CSVLogger("resultados_laberinto.csv");
+        this.player = new ExplorationPlayer(view.getMazePanel());
+        this.mazeHash = new HashLaberinto(view.getMazePanel().getMazeData());
+        this.resultCache = new CacheResultados(64, 64L * 1024 * 1024);
+        this.incrementalSolver = new SolverIncremental();
+        view.getMazePanel().addMazeObserver(mazeHash);
+        this.distanceField = new CampoDistancias();
+        view.getMazePanel().addMazeObserver(incrementalSolver);
+        this.regions = new ComponentesConexas(view.getMazePanel().getMazeData());
+        view.getMazePanel().addMazeObserver(distanceField);
+        this.deadEndFilter = new RellenoCallejones();
+        view.getMazePanel().addMazeObserver(regions);
+        this.corridorSolver = new SolverCorredores();
+        view.getMazePanel().addMazeObserver(deadEndFilter);
+        this.hierarchicalSolver = new SolverJerarquico();
+        view.getMazePanel().addMazeObserver(corridorSolver);
+        view.getMazePanel().addMazeObserver(hierarchicalSolver);
         this.lastFinalPath = null;
         this.lastVisitedCells = null;
         initController();
@@ -45,18 +95,39 @@ public class Controller {
     private void initController() {
         view.getControlPanel().addGenerateListener(e -> generateNewMaze());
         view.getControlPanel().addSolveListener(e -> solveMaze());
+        view.getControlPanel().addBenchmarkListener(e -> benchmarkMaze());
         view.getControlPanel().addClearAllListener(e -> clearAll());
 
         // --- NUEVO: Listeners para los nuevos botones ---
         view.getControlPanel().addShowFullPathListener(e -> showFullPath());
         view.getControlPanel().addStepByStepListener(e -> showNextStep());
 
+        // Listeners para la reproducción de la exploración
+        view.getControlPanel().addPlayListener(e -> playExploration());
+        view.getControlPanel().addPauseListener(e -> player.pause());
+        view.getControlPanel().addPlaybackSettingsListener(e -> applyPlaybackSettings());
+        view.getControlPanel().addTerrainBrushListener(e ->
+                view.getMazePanel().setTerrainBrush(view.getControlPanel().getTerrainBrushCost()));
+        view.getControlPanel().addSeekListener(e -> {
+            player.pause();
+            player.seek(view.getControlPanel().getSeekPosition());
+        });
+        player.setProgressListener(e ->
+                view.getControlPanel().setPlaybackProgress(player.getPosition(), player.getTotal()));
+        applyPlaybackSettings();
+
+        // Listeners para abrir y guardar laberintos
+        view.addOpenMazeListener(e -> openMaze());
+        view.addSaveMazeListener(e -> saveMaze());
+        view.addImportImageListener(e -> importImage());
+
         // Listeners existentes para reportes
         view.addListResultsListener(e -> view.showResultsTable());
         view.addShowTimesChartListener(e -> view.showTimesChart());
     }
 
     private void generateNewMaze() {
+        player.stop();
         int rows = view.getControlPanel().getRows();
         int cols = view.getControlPanel().getCols();
         view.getMazePanel().setMazeData(new int[rows][cols]);
@@ -67,7 +138,94 @@ public class Controller {
         lastVisitedCells = null;
     }
 
+    private void openMaze() {
+        File file = view.chooseMazeFileToOpen();
+        if (file == null) return;
+        try {
+            LaberintoMapeado mapeado = ArchivoLaberinto.abrir(file.toPath());
+            // El archivo está mapeado, pero el editor lo copia entero a int[][]
+            if ((long) mapeado.getFilas() * mapeado.getColumnas() > MAX_EDITOR_CELLS) {
+                view.showError(String.format("El laberinto (%d x %d celdas) es demasiado grande para el editor."
+                                + "\nPuede resolverse con el servidor (algoritmos de bits) sin cargarlo en memoria.",
+                        mapeado.getFilas(), mapeado.getColumnas()));
+                return;
+            }
+            player.stop();
+            view.getMazePanel().setMazeData(mapeado.aMatrizEnteros());
+            int[] inicio = mapeado.getInicio();
+            int[] fin = mapeado.getFin();
+            view.getMazePanel().setStartPoint(inicio != null ? new Point(inicio[1], inicio[0]) : null);
+            view.getMazePanel().setEndPoint(fin != null ? new Point(fin[1], fin[0]) : null);
+            view.getControlPanel().setResultsText(String.format("Laberinto cargado: %s\n%d x %d celdas",
+                    file.getName(), mapeado.getFilas(), mapeado.getColumnas()));
+            lastFinalPath = null;
+            lastVisitedCells = null;
+        } catch (IOException e) {
+            view.showError("No se pudo abrir el laberinto.\nError: " + e.getMessage());
+        }
+    }
+
+    private void saveMaze() {
+        File file = view.chooseMazeFileToSave();
+        if (file == null) return;
+        Point start = view.getMazePanel().getStartPoint();
+        Point end = view.getMazePanel().getEndPoint();
+        try {
+            ArchivoLaberinto.guardar(file.toPath(), view.getMazePanel().getMazeData(),
+                    start != null ? new int[]{start.y, start.x} : null,
+                    end != null ? new int[]{end.y, end.x} : null);
+        } catch (IOException e) {
+            view.showError("No se pudo guardar el laberinto.\nError: " + e.getMessage());
+        }
+    }
+
+    private void importImage() {
+        File file = view.chooseImageFileToImport();
+        if (file == null) return;
+        Integer block = view.askImportBlockSize();
+        if (block == null) return;
+        view.getControlPanel().setResultsText("Importando " + file.getName() + "...");
+
+        // La importación de planos grandes tarda segundos: se hace fuera del EDT
+        new SwingWorker<int[][], Void>() {
+            private long durationMs;
+
+            @Override
+            protected int[][] doInBackground() throws IOException {
+                long start = System.nanoTime();
+                MatrizBits maze = ImportadorImagen.importar(file.toPath(), block, ImportadorImagen.UMBRAL_POR_DEFECTO);
+                durationMs = (System.nanoTime() - start) / 1_000_000;
+                if ((long) maze.getFilas() * maze.getColumnas() > MAX_EDITOR_CELLS) {
+                    throw new IOException(String.format(
+                            "el laberinto resultante (%d x %d celdas) es demasiado grande para el editor;"
+                                    + " use un bloque mayor", maze.getFilas(), maze.getColumnas()));
+                }
+                return maze.aMatrizEnteros();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int[][] data = get();
+                    player.stop();
+                    view.getMazePanel().setMazeData(data);
+                    view.getMazePanel().setStartPoint(null);
+                    view.getMazePanel().setEndPoint(null);
+                    view.getControlPanel().setResultsText(String.format("Imagen importada: %s\n%d x %d celdas\nTiempo: %d ms",
+                            file.getName(), data.length, data[0].length, durationMs));
+                    lastFinalPath = null;
+                    lastVisitedCells = null;
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    view.getControlPanel().setResultsText("");
+                    view.showError("No se pudo importar la imagen.\nError: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void solveMaze() {
+        player.stop();
         view.getMazePanel().clearVisuals(); // Limpia dibujos anteriores
 
         int[][] mazeData = view.getMazePanel().getMazeData();
@@ -81,81 +239,377 @@ public class Controller {
         }
         // ... (otras validaciones que ya tenías)
 
-        List<int[]> path;
-        List<int[]> visitedCells;
+        solverNote = null;
+        hierarchicalRawPath = null;
+        lastRace = null;
+        if (algorithm.equals(EjecutorAlgoritmos.CARRERA_VALIDA) || algorithm.equals(EjecutorAlgoritmos.CARRERA_OPTIMA)) {
+            raceMaze(algorithm, mazeData, startPoint, endPoint);
+            return;
+        }
+
+        ResultadoBusqueda result;
+        boolean fromCache = false;
+        // Los algoritmos con estado siguen las ediciones del laberinto original, así que no se podan
+        boolean prune = view.getControlPanel().isPruneDeadEndsSelected()
+                && !algorithm.equals(EjecutorAlgoritmos.INCREMENTAL)
+                && !algorithm.equals(EjecutorAlgoritmos.CAMPO_DISTANCIAS)
+                && !algorithm.equals(EjecutorAlgoritmos.CORREDORES)
+                && !algorithm.equals(EjecutorAlgoritmos.JERARQUICO);
+        int prunedCells = -1;
 
         long startTime = System.nanoTime();
 
-        // --- Lógica de ejecución movida aquí ---
-        Laberinto laberinto = createLaberintoFromData(mazeData);
-        Celda inicio = laberinto.getCelda(startPoint.y, startPoint.x);
-        Celda fin = laberinto.getCelda(endPoint.y, endPoint.x);
+        if (algorithm.equals(EjecutorAlgoritmos.RECURSIVO_2)
+                && (endPoint.y < startPoint.y || endPoint.x < startPoint.x)) {
+            result = new ResultadoBusqueda(algorithm, new ArrayList<>(), new ArrayList<>());
+            view.showError("El método recursivo de 2 direcciones solo funciona si el destino está a la derecha y abajo del inicio.");
+        } else {
+            // Si ya se resolvió este mismo laberinto con los mismos extremos y algoritmo,
+            // se reutiliza el resultado guardado en lugar de repetir la búsqueda.
+            // Los costes de terreno solo influyen en el solver con pesos, así que solo entran en su clave
+            long contentHash = mazeHash.getValor();
+            if (algorithm.equals(EjecutorAlgoritmos.TERRENO)) {
+                contentHash ^= view.getMazePanel().getTerrainCosts().getHash();
+            }
+            CacheResultados.Clave key = new CacheResultados.Clave(contentHash,
+                    mazeData.length, mazeData[0].length, startPoint.y, startPoint.x, endPoint.y, endPoint.x,
+                    prune ? algorithm + " + poda" : algorithm);
+            result = resultCache.obtener(key);
+            fromCache = result != null;
+            if (result == null) {
+                try {
+                    int[][] solveData = mazeData;
+                    if (prune) {
+                        solveData = deadEndFilter.reducir(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+                        prunedCells = deadEndFilter.getCeldasPodadas();
+                    }
+                    result = runSolver(algorithm, solveData, startPoint, endPoint);
+                    resultCache.guardar(key, result);
+                } catch (IllegalArgumentException e) {
+                    result = new ResultadoBusqueda(algorithm, new ArrayList<>(), new ArrayList<>());
+                    view.showError(e.getMessage());
+                }
+            }
+        }
 
-        switch (algorithm) {
-            case "BFS":
-                SolverBFS bfs = new SolverBFS();
-                path = convertCeldaPathToIntArrayPath(bfs.buscarRuta(laberinto, inicio, fin));
-                visitedCells = convertCeldaPathToIntArrayPath(bfs.getRecorrido());
-                break;
+        long endTime = System.nanoTime();
+        double durationMs = (endTime - startTime) / 1_000_000.0;
+        showSolution(algorithm, result, durationMs, fromCache, prunedCells, startPoint, endPoint);
+    }
 
-            case "Recursivo (2 dir)":
-                if (endPoint.y < startPoint.y || endPoint.x < startPoint.x) {
-                    path = new ArrayList<>();
-                    visitedCells = new ArrayList<>();
-                    view.showError("El método recursivo de 2 direcciones solo funciona si el destino está a la derecha y abajo del inicio.");
-                } else {
-                    SolverRecursivo rec2 = new SolverRecursivo();
-                    path = rec2.resolver2Direcciones(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
-                    visitedCells = rec2.getCeldasVisitadas();
-                }
-                break;
+    /**
+     * Corre la carrera de algoritmos en segundo plano, como la medición, para no
+     * bloquear la interfaz mientras compiten hasta cuatro solvers. Las carreras no
+     * pasan por la caché: su interés está en el tiempo de cada participante.
+     */
+    private void raceMaze(String algorithm, int[][] source, Point startPoint, Point endPoint) {
+        long startTime = System.nanoTime();
+        ResultadoBusqueda unreachable = EjecutorAlgoritmos.descartarSinConexion(algorithm, regions,
+                startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+        if (unreachable != null) {
+            showSolution(algorithm, unreachable, (System.nanoTime() - startTime) / 1_000_000.0, false, -1,
+                    startPoint, endPoint);
+            return;
+        }
+        // Copia del laberinto: el usuario puede seguir editándolo mientras corre la carrera
+        int[][] mazeData = new int[source.length][];
+        for (int i = 0; i < source.length; i++) {
+            mazeData[i] = source[i].clone();
+        }
+        CarreraAlgoritmos.Politica policy = algorithm.equals(EjecutorAlgoritmos.CARRERA_VALIDA)
+                ? CarreraAlgoritmos.Politica.PRIMERA_VALIDA : CarreraAlgoritmos.Politica.PRIMERA_OPTIMA;
+        view.getControlPanel().setSolveEnabled(false);
+        view.getControlPanel().setResultsText("Carrera en curso: " + String.join(", ", CarreraAlgoritmos.PARTICIPANTES) + "...");
 
-            case "DFS":
-                SolverDFS dfs = new SolverDFS();
-                path = convertCeldaPathToIntArrayPath(dfs.buscarRuta(laberinto, inicio, fin));
-                visitedCells = convertCeldaPathToIntArrayPath(dfs.getRecorrido());
-                break;
+        new SwingWorker<CarreraAlgoritmos.Resultado, Void>() {
+            @Override
+            protected CarreraAlgoritmos.Resultado doInBackground() {
+                return race.correr(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x, policy);
+            }
 
-            case "Backtracking":
-            case "Recursivo (4 dir)": // Asumimos que ambos usan la misma lógica de backtracking
-                SolverRecursivo backtrack = new SolverRecursivo();
-                path = backtrack.resolverBacktracking(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
-                visitedCells = backtrack.getCeldasVisitadas();
-                break;
+            @Override
+            protected void done() {
+                view.getControlPanel().setSolveEnabled(true);
+                double durationMs = (System.nanoTime() - startTime) / 1_000_000.0;
+                if (view.getMazePanel().getMazeData() != source) {
+                    // Se generó o abrió otro laberinto durante la carrera: su resultado ya no aplica
+                    view.getControlPanel().setResultsText("Carrera descartada: el laberinto cambió.");
+                    return;
+                }
+                try {
+                    lastRace = get();
+                    ResultadoBusqueda winner = lastRace.getGanador();
+                    ResultadoBusqueda result = new ResultadoBusqueda(algorithm, winner.getRuta(), winner.getVisitadas(),
+                            winner.getMetricas());
+                    result.getMetricas().setTiempoNanos(System.nanoTime() - startTime);
+                    recordMetrics(algorithm, result.getMetricas());
+                    showSolution(algorithm, result, durationMs, false, -1, startPoint, endPoint);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    view.getControlPanel().setResultsText("");
+                    view.showError("No se pudo completar la carrera.\nError: " + cause);
+                }
+            }
+        }.execute();
+    }
 
-            // Puedes añadir casos para los otros algoritmos recursivos si lo deseas
+    /**
+     * Muestra, anota y registra en el CSV el resultado de una búsqueda.
+     */
+    private void showSolution(String algorithm, ResultadoBusqueda result, double durationMs, boolean fromCache,
+                              int prunedCells, Point startPoint, Point endPoint) {
+        List<int[]> path = result.getRuta();
+        List<int[]> visitedCells = result.getVisitadas();
+        // La consulta al índice es O(1): solo sirve para explicar la ausencia de ruta
+        boolean differentRegions = path.isEmpty()
+                && !regions.estanConectadas(startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+        BigInteger monotonePaths = result.getRutasMonotonas();
+        MetricasBusqueda metrics = fromCache ? null : result.getMetricas();
 
-            default:
-                path = new ArrayList<>();
-                visitedCells = new ArrayList<>();
-                view.showError("Algoritmo no reconocido o implementado.");
-                break;
+        // La brecha frente a BFS se mide fuera del tiempo cronometrado
+        if (hierarchicalRawPath != null && !path.isEmpty()) {
+            // Una sola búsqueda del óptimo sirve para las dos brechas
+            int optimum = hierarchicalSolver.distanciaOptima(startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+            double rawGap = SolverJerarquico.brecha(hierarchicalRawPath, optimum);
+            double gap = SolverJerarquico.brecha(path, optimum);
+            solverNote = String.format("Brecha frente a BFS: %.2f %% (sin suavizar: %.2f %%)", gap * 100, rawGap * 100);
         }
 
-        long endTime = System.nanoTime();
-        double durationMs = (endTime - startTime) / 1_000_000.0;
+        if (lastRace != null) {
+            StringBuilder note = new StringBuilder("Ganador: " + lastRace.getGanador().getAlgoritmo());
+            for (CarreraAlgoritmos.Participante p : lastRace.getParticipantes()) {
+                note.append(String.format("\n  %s: %s", p.getAlgoritmo(), p.getEstado().name().toLowerCase()));
+                if (p.getTiempoMs() >= 0) {
+                    note.append(String.format(" (%.2f ms)", p.getTiempoMs()));
+                }
+            }
+            solverNote = note.toString();
+        }
+        if (monotonePaths != null) {
+            String count = monotonePaths.toString();
+            if (count.length() > 15) {
+                count = count.charAt(0) + "." + count.substring(1, 4) + "e" + (count.length() - 1);
+            }
+            solverNote = "Rutas monótonas distintas: " + count;
+        }
+        if (algorithm.equals(EjecutorAlgoritmos.TERRENO) && !path.isEmpty()) {
+            CostesTerreno costs = view.getMazePanel().getTerrainCosts();
+            long totalCost = 0;
+            for (int i = 1; i < path.size(); i++) {
+                totalCost += costs.getCoste(path.get(i)[0], path.get(i)[1]);
+            }
+            solverNote = "Coste total del terreno: " + totalCost;
+        }
 
         // Guardar los resultados para los otros botones
         this.lastFinalPath = path;
         this.lastVisitedCells = visitedCells;
 
         boolean success = !path.isEmpty();
+        // La ruta compacta se dibuja y se anima sin copiar la lista (la del resultado ya es una vista de ella);
+        // si algún solver devuelve una ruta no continua se usa la lista tal cual
+        RutaCompacta route = RutaCompacta.desdeSiContinua(path);
         String resultText;
         if (success) {
             resultText = String.format("Algoritmo: %s\nRuta encontrada.\nPasos: %d\nCeldas exploradas: %d\nTiempo: %.4f ms",
                     algorithm, path.size(), visitedCells.size(), durationMs);
-            // Por defecto, al resolver, mostramos el camino completo
-            view.getMazePanel().drawFullPath(visitedCells, path);
-            // Preparamos el panel para la animación paso a paso
-            view.getMazePanel().prepareForStepByStep(path);
+            // Por defecto, al resolver, mostramos el camino completo y preparamos la animación paso a paso
+            if (route != null) {
+                view.getMazePanel().drawFullPath(visitedCells, route);
+                view.getMazePanel().prepareForStepByStep(route);
+            } else {
+                view.getMazePanel().drawFullPath(visitedCells, path);
+                view.getMazePanel().prepareForStepByStep(path);
+            }
         } else {
             resultText = String.format("Algoritmo: %s\nNo se encontró ruta.\nCeldas exploradas: %d\nTiempo: %.4f ms",
                     algorithm, visitedCells.size(), durationMs);
             // Si no hay ruta, mostramos todas las celdas visitadas en el intento
-            view.getMazePanel().drawFullPath(visitedCells, null);
+            view.getMazePanel().drawFullPath(visitedCells, RutaCompacta.VACIA);
+        }
+        if (differentRegions) {
+            resultText += "\n(El inicio y el destino están en regiones no conectadas)";
+        }
+        if (solverNote != null) {
+            resultText += "\n" + solverNote;
+        }
+        if (metrics != null) {
+            resultText += String.format("\nExpandidos: %d | Generados: %d\nPico de frontera: %d | Pico de recursión: %d",
+                    metrics.getExpandidos(), metrics.getGenerados(), metrics.getPicoFrontera(), metrics.getPicoProfundidad());
+            if (metrics.getBytesAsignados() >= 0) {
+                resultText += String.format("\nMemoria reservada: %.1f KB", metrics.getBytesAsignados() / 1024.0);
+            }
+        }
+        if (prunedCells >= 0) {
+            resultText += String.format("\n(Celdas podadas: %d)", prunedCells);
+        }
+        if (fromCache) {
+            resultText += String.format("\n(Resultado de la caché: %d aciertos, %d fallos)",
+                    resultCache.getAciertos(), resultCache.getFallos());
         }
         view.setResults(resultText);
-        csvLogger.logResult(algorithm, success, path.size(), durationMs);
+        // La columna Path solo admite rutas continuas
+        if (view.getControlPanel().isStorePathSelected() && route != null) {
+            csvLogger.logResult(algorithm, route, durationMs, fromCache ? "cache" : "solver", metrics);
+        } else {
+            csvLogger.logResult(algorithm, success, path.size(), durationMs, fromCache ? "cache" : "solver", metrics);
+        }
+        if (lastRace != null) {
+            for (CarreraAlgoritmos.Participante p : lastRace.getParticipantes()) {
+                ResultadoBusqueda r = p.getResultado();
+                int length = r == null ? 0 : r.getRuta().size();
+                // Solo los que terminaron tienen un tiempo de búsqueda; el resto queda vacío
+                boolean finished = p.getEstado() == CarreraAlgoritmos.Estado.GANADOR
+                        || p.getEstado() == CarreraAlgoritmos.Estado.TERMINADO;
+                csvLogger.logResult(p.getAlgoritmo(), length > 0, length, finished ? p.getTiempoMs() : -1,
+                        "race-" + p.getEstado().name().toLowerCase(), r == null ? null : r.getMetricas());
+            }
+        }
+    }
+
+    /**
+     * Mide el algoritmo seleccionado sobre el laberinto actual: calentamiento,
+     * repeticiones medidas solo de la búsqueda y una fila de resumen en el CSV.
+     * Se ejecuta en un hilo aparte para no bloquear la interfaz.
+     */
+    private void benchmarkMaze() {
+        Point startPoint = view.getMazePanel().getStartPoint();
+        Point endPoint = view.getMazePanel().getEndPoint();
+        if (startPoint == null || endPoint == null) {
+            view.showError("Por favor, defina un punto de inicio y fin.");
+            return;
+        }
+        String algorithm = view.getControlPanel().getSelectedAlgorithm();
+        int warmUp = view.getControlPanel().getBenchmarkWarmUp();
+        int repetitions = view.getControlPanel().getBenchmarkRepetitions();
+        // Copia del laberinto y de los costes: el usuario puede seguir editándolos mientras se mide
+        int[][] source = view.getMazePanel().getMazeData();
+        int[][] mazeData = new int[source.length][];
+        for (int i = 0; i < source.length; i++) {
+            mazeData[i] = source[i].clone();
+        }
+        CostesTerreno costs = view.getMazePanel().getTerrainCosts().copiar();
+
+        player.stop();
+        view.getControlPanel().setBenchmarkEnabled(false);
+        view.getControlPanel().setResultsText(String.format("Midiendo %s: %d de calentamiento + %d repeticiones...",
+                algorithm, warmUp, repetitions));
+        BancoPruebas bench = new BancoPruebas(warmUp, repetitions);
+        Thread worker = new Thread(null, () -> {
+            BancoPruebas.Resultado result = null;
+            String error = null;
+            try {
+                result = bench.medir(algorithm, mazeData, costs, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            } catch (InterruptedException e) {
+                error = "Medición cancelada.";
+            } catch (StackOverflowError e) {
+                error = "El algoritmo " + algorithm + " agotó la pila en este laberinto.";
+            } catch (OutOfMemoryError e) {
+                error = "No hay memoria suficiente para medir " + algorithm + " en este laberinto.";
+            } catch (RuntimeException | Error e) {
+                error = "Error inesperado: " + e;
+            } finally {
+                // El botón se vuelve a habilitar pase lo que pase en la medición
+                BancoPruebas.Resultado finalResult = result;
+                String finalError = error;
+                SwingUtilities.invokeLater(() -> showBenchmark(finalResult, finalError));
+            }
+        }, "benchmark", BENCHMARK_STACK_SIZE);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void showBenchmark(BancoPruebas.Resultado result, String error) {
+        view.getControlPanel().setBenchmarkEnabled(true);
+        if (result == null) {
+            view.getControlPanel().setResultsText("");
+            view.showError("No se pudo medir el algoritmo.\n" + error);
+            return;
+        }
+        boolean success = result.getLongitudRuta() > 0;
+        view.getControlPanel().setResultsText(String.format(Locale.US,
+                "Medición de %s\n%d repeticiones tras %d de calentamiento\n"
+                        + "Ruta: %s\nMín: %.4f ms\nMediana: %.4f ms\np95: %.4f ms\nMáx: %.4f ms\nDesv. típica: %.4f ms",
+                result.getAlgoritmo(), result.getRepeticiones(), result.getCalentamiento(),
+                success ? result.getLongitudRuta() + " celdas" : "no encontrada",
+                result.getMinimoMs(), result.getMedianaMs(), result.getP95Ms(), result.getMaximoMs(),
+                result.getDesviacionMs()));
+        csvLogger.logBenchmark(result.getAlgoritmo(), success, result.getLongitudRuta(), result.getCalentamiento(),
+                result.getRepeticiones(), result.getMinimoMs(), result.getMedianaMs(), result.getP95Ms(),
+                result.getDesviacionMs());
+    }
+
+    /**
+     * Ejecuta el algoritmo indicado. Los algoritmos con estado (incremental, campo de
+     * distancias, corredores y jerárquico) usan las instancias del controlador, que se mantienen entre búsquedas;
+     * el resto se delega en {@link EjecutorAlgoritmos}. Las carreras no pasan por aquí (ver {@link #raceMaze}).
+     * Las búsquedas que no pasan por {@link EjecutorAlgoritmos} se anotan aquí en el {@link RegistroMetricas}.
+     */
+    private ResultadoBusqueda runSolver(String algorithm, int[][] mazeData, Point startPoint, Point endPoint) {
+        // Los solvers con estado no pasan por EjecutorAlgoritmos, así que el descarte por regiones se aplica aquí a todos
+        ResultadoBusqueda unreachable = EjecutorAlgoritmos.descartarSinConexion(algorithm, regions,
+                startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+        if (unreachable != null) {
+            return unreachable;
+        }
+        long start = System.nanoTime();
+        ResultadoBusqueda result;
+        switch (algorithm) {
+            case EjecutorAlgoritmos.INCREMENTAL: {
+                List<int[]> path = incrementalSolver.resolver(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+                result = new ResultadoBusqueda(algorithm, path, incrementalSolver.getCeldasExpandidas());
+                break;
+            }
+            case EjecutorAlgoritmos.CAMPO_DISTANCIAS: {
+                if (!distanceField.esValidoPara(startPoint.y, startPoint.x)) {
+                    distanceField.calcular(MatrizBits.desdeMatrizEnteros(mazeData), startPoint.y, startPoint.x);
+                }
+                result = new ResultadoBusqueda(algorithm, distanceField.rutaHacia(endPoint.y, endPoint.x),
+                        distanceField.getOrdenVisita());
+                break;
+            }
+            case EjecutorAlgoritmos.CORREDORES: {
+                List<int[]> path = corridorSolver.resolver(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+                result = new ResultadoBusqueda(algorithm, path, corridorSolver.getNodosVisitados());
+                break;
+            }
+            case EjecutorAlgoritmos.JERARQUICO: {
+                List<int[]> rawPath = hierarchicalSolver.resolver(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+                List<int[]> path = hierarchicalSolver.suavizar(rawPath);
+                hierarchicalRawPath = rawPath;
+                result = new ResultadoBusqueda(algorithm, path, hierarchicalSolver.getNodosExpandidos());
+                break;
+            }
+            case EjecutorAlgoritmos.RECURSIVO_2: {
+                // El conteo de rutas (BigInteger) cuesta más que la búsqueda: se hace una vez
+                // y viaja en el resultado, así que los aciertos de la caché no lo repiten
+                ResultadoBusqueda search = EjecutorAlgoritmos.resolver(algorithm, mazeData,
+                        startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+                if (!search.hayRuta()) {
+                    return search;
+                }
+                return new ResultadoBusqueda(algorithm, search.getRuta(), search.getVisitadas(), search.getMetricas(),
+                        SolverMonotono.contarRutas(mazeData, startPoint.y, startPoint.x, endPoint.y, endPoint.x));
+            }
+            default:
+                return EjecutorAlgoritmos.resolver(algorithm, mazeData, view.getMazePanel().getTerrainCosts(),
+                        startPoint.y, startPoint.x, endPoint.y, endPoint.x);
+        }
+        result.getMetricas().setTiempoNanos(System.nanoTime() - start);
+        recordMetrics(algorithm, result.getMetricas());
+        return result;
+    }
+
+    // Registra las métricas de una búsqueda y avisa una vez si no se pudieron publicar por JMX
+    private void recordMetrics(String algorithm, MetricasBusqueda metrics) {
+        RegistroMetricas registry = RegistroMetricas.getInstancia();
+        registry.registrar(algorithm, metrics);
+        String jmxError = registry.tomarErrorJmx();
+        if (jmxError != null) {
+            view.showError(jmxError + "\nLas métricas siguen registrándose en la aplicación.");
+        }
     }
 
     // Método para el botón "Mostrar Camino Completo" ---
@@ -164,6 +618,7 @@ public class Controller {
             view.showError("Primero debes resolver el laberinto con el botón '¡Resolver!'.");
             return;
         }
+        player.stop();
         view.getMazePanel().drawFullPath(lastVisitedCells, lastFinalPath);
     }
 
@@ -177,35 +632,32 @@ public class Controller {
             view.showError("No se encontró una ruta para mostrar paso a paso.");
             return;
         }
+        player.pause();
         view.getMazePanel().nextStep();
     }
 
+    // Método para el botón "Reproducir": repite la exploración y después la ruta ---
+    private void playExploration() {
+        if (lastVisitedCells == null) {
+            view.showError("Primero debes resolver el laberinto con el botón '¡Resolver!'.");
+            return;
+        }
+        if (player.getTotal() == 0) {
+            player.load(lastVisitedCells, lastFinalPath);
+        }
+        player.play();
+    }
+
+    private void applyPlaybackSettings() {
+        player.setFramesPerSecond(view.getControlPanel().getPlaybackSpeed());
+        player.setCellsPerFrame(view.getControlPanel().getCellsPerFrame());
+    }
+
     private void clearAll() {
+        player.stop();
         view.getMazePanel().clearMaze();
         view.getControlPanel().setResultsText("");
         lastFinalPath = null;
         lastVisitedCells = null;
     }
-
-    // --- Métodos de utilidad ---
-    private Laberinto createLaberintoFromData(int[][] mazeData) {
-        Laberinto laberinto = new Laberinto(mazeData.length, mazeData[0].length);
-        for (int i = 0; i < mazeData.length; i++) {
-            for (int j = 0; j < mazeData[0].length; j++) {
-                if (mazeData[i][j] == 0) {
-                    laberinto.setMuro(i, j);
-                }
-            }
-        }
-        return laberinto;
-    }
-
-    private List<int[]> convertCeldaPathToIntArrayPath(List<Celda> celdaPath) {
-        if (celdaPath == null) {
-            return new ArrayList<>();
-        }
-        return celdaPath.stream()
-                .map(c -> new int[]{c.getFila(), c.getColumna()})
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+package controlador;
+
+import modelo.ArchivoLaberinto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cliente de carga para {@link MazeServer}: mide peticiones por segundo y la
+ * latencia de cola de {@code /solve} en localhost.
+ *
+ * Genera un laberinto perfecto, lo sube una vez con {@code POST /mazes} y lanza
+ * varios clientes en hilos virtuales que, durante el tiempo indicado, piden rutas
+ * entre celdas aleatorias del laberinto guardado. Los primeros segundos son de
+ * calentamiento y no se cuentan.
+ *
+ * Uso: {@code LoadGenerator [url] [clientes] [segundos] [tamaño] [algoritmo]},
+ * por defecto {@code http://localhost:8080 16 10 201 BFS}.
+ */
+public class LoadGenerator {
+
+    private static final long WARM_UP_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:" + MazeServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) | 1 : 201; // Tamaño impar para el laberinto perfecto
+        String algorithm = args.length > 4 ? args[4] : "BFS";
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int[][] maze = generatePerfectMaze(size, size, new Random(42));
+        HttpResponse<String> upload = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/mazes"))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(ArchivoLaberinto.codificar(maze, null, null)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (upload.statusCode() != 201) {
+            throw new IOException("No se pudo subir el laberinto: " + upload.statusCode() + " " + upload.body());
+        }
+        String id = upload.body();
+        System.out.printf("Laberinto %dx%d subido con id %s; %d clientes, %d s, algoritmo %s%n",
+                size, size, id, clients, seconds, algorithm);
+
+        long begin = System.nanoTime();
+        long measureFrom = begin + WARM_UP_NANOS;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        List<Thread> threads = new ArrayList<>();
+        for (int k = 0; k < clients; k++) {
+            final int worker = k;
+            latencies[worker] = new long[1024];
+            threads.add(Thread.ofVirtual().start(() -> {
+                Random random = new Random(worker);
+                String encodedAlgorithm = URLEncoder.encode(algorithm, StandardCharsets.UTF_8);
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) break;
+                    // Celdas de coordenadas impares: siempre son pasillo en el laberinto perfecto
+                    String uri = String.format("%s/solve?id=%s&algorithm=%s&start=%d,%d&end=%d,%d", baseUrl, id,
+                            encodedAlgorithm, 1 + 2 * random.nextInt(size / 2), 1 + 2 * random.nextInt(size / 2),
+                            1 + 2 * random.nextInt(size / 2), 1 + 2 * random.nextInt(size / 2));
+                    try {
+                        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        long latency = System.nanoTime() - now;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else if (now >= measureFrom) {
+                            if (counts[worker] == latencies[worker].length) {
+                                latencies[worker] = Arrays.copyOf(latencies[worker], counts[worker] * 2);
+                            }
+                            latencies[worker][counts[worker]++] = latency;
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        int total = 0;
+        for (int c : counts) total += c;
+        long[] all = new long[total];
+        int pos = 0;
+        for (int k = 0; k < clients; k++) {
+            System.arraycopy(latencies[k], 0, all, pos, counts[k]);
+            pos += counts[k];
+        }
+        Arrays.sort(all);
+        System.out.printf(Locale.US, "Peticiones: %d (%d errores) en %d s -> %.1f peticiones/s%n",
+                total, errors.get(), seconds, total / (double) seconds);
+        if (total > 0) {
+            System.out.printf(Locale.US, "Latencia (ms): p50 %.3f | p90 %.3f | p99 %.3f | p99.9 %.3f | máx %.3f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    percentile(all, 0.999), all[total - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Genera un laberinto perfecto (un único camino entre dos celdas cualesquiera)
+     * con una búsqueda en profundidad aleatoria sobre las celdas de coordenadas impares.
+     */
+    private static int[][] generatePerfectMaze(int rows, int cols, Random random) {
+        int[][] maze = new int[rows][cols];
+        int[] stack = new int[(rows / 2 + 1) * (cols / 2 + 1)];
+        int top = 0;
+        maze[1][1] = 1;
+        stack[top++] = cols + 1;
+        int[] dx = {-2, 2, 0, 0};
+        int[] dy = {0, 0, -2, 2};
+        int[] options = new int[4];
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int row = cell / cols;
+            int col = cell % cols;
+            int n = 0;
+            for (int d = 0; d < 4; d++) {
+                int r = row + dx[d];
+                int c = col + dy[d];
+                if (r > 0 && r < rows - 1 && c > 0 && c < cols - 1 && maze[r][c] == 0) options[n++] = d;
+            }
+            if (n == 0) {
+                top--;
+                continue;
+            }
+            int d = options[random.nextInt(n)];
+            maze[row + dx[d] / 2][col + dy[d] / 2] = 1;
+            maze[row + dx[d]][col + dy[d]] = 1;
+            stack[top++] = (row + dx[d]) * cols + col + dy[d];
+        }
+        return maze;
+    }
+}
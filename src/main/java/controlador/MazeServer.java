@@ -0,0 +1,412 @@
+package controlador;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import modelo.ArchivoLaberinto;
+import modelo.ComponentesConexas;
+import modelo.EjecutorAlgoritmos;
+import modelo.LaberintoMapeado;
+import modelo.ResultadoBusqueda;
+import modelo.RutaCompacta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio HTTP local que expone los solvers a otros procesos de la misma
+ * máquina sin abrir la interfaz gráfica.
+ *
+ * Usa el servidor HTTP incluido en el JDK y atiende cada petición en un hilo
+ * virtual. Solo escucha en la interfaz de loopback.
+ *
+ * Endpoints:
+ * <ul>
+ *   <li>{@code POST /mazes}: el cuerpo es un laberinto en el formato binario de
+ *       {@link ArchivoLaberinto} (mapa de bits). Lo guarda en memoria y responde
+ *       {@code 201} con su identificador.</li>
+ *   <li>{@code GET /mazes/{id}}: dimensiones del laberinto guardado.</li>
+ *   <li>{@code DELETE /mazes/{id}}: libera un laberinto guardado.</li>
+ *   <li>{@code GET|POST /solve?algorithm=BFS&start=f,c&end=f,c[&id=N][&format=packed]}:
+ *       resuelve el laberinto guardado {@code id} o, si no se indica, el que llega en el cuerpo.
+ *       Si faltan los extremos se usan los guardados en el laberinto. Solo se admiten
+ *       los algoritmos de {@link #ALGORITHMS}: las búsquedas no tienen plazo, así que los
+ *       exponenciales (backtracking) se rechazan con {@code 400}.</li>
+ * </ul>
+ *
+ * La ruta se devuelve como texto compacto (ver {@link #encodePath}): la celda de
+ * inicio y los movimientos agrupados en tramos, por ejemplo {@code 1,1\nR4D2L1}.
+ * Con {@code format=packed} se devuelve {@link RutaCompacta#codificar()}, con 2
+ * bits por paso, que ocupa menos cuando la ruta gira a menudo y los tramos son cortos;
+ * si la ruta del algoritmo no es continua se responde {@code 422}.
+ * Las cabeceras {@code X-Path-Length}, {@code X-Visited-Cells} y
+ * {@code X-Solve-Time-Ms} acompañan a cada respuesta; una ruta vacía significa
+ * que no hay camino.
+ *
+ * Los laberintos se guardan como llegan, con un bit por celda.
+ * {@link EjecutorAlgoritmos#CAMPO_DISTANCIAS}, {@link EjecutorAlgoritmos#BFS_BITS} y
+ * {@link EjecutorAlgoritmos#TRANSFORMADA} resuelven sobre esos bits; el resto de algoritmos necesita una matriz
+ * {@code int[][]} (32 veces más grande) que se crea solo durante la búsqueda y
+ * solo si el laberinto no supera {@value #MAX_MATRIX_CELLS} celdas. Si una
+ * búsqueda se queda sin memoria se responde {@code 503}. Los laberintos
+ * guardados de hasta ese tamaño llevan además un índice de {@link ComponentesConexas}
+ * (contado en su memoria) que responde sin buscar cuando los extremos no están conectados.
+ *
+ * Para medir el servicio, ver {@link LoadGenerator}.
+ */
+public class MazeServer {
+
+    /** Puerto por defecto. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Tamaño máximo del cuerpo de una petición. */
+    private static final int MAX_BODY_BYTES = 256 * 1024 * 1024;
+    /** Celdas máximas para los algoritmos que necesitan la matriz {@code int[][]}. */
+    private static final long MAX_MATRIX_CELLS = 4L * 1024 * 1024;
+    /** Número máximo de laberintos guardados a la vez. */
+    private static final int MAX_STORED_MAZES = 64;
+    /** Memoria máxima de todos los laberintos guardados. */
+    private static final long MAX_STORED_BYTES = 1024L * 1024 * 1024;
+    /** Algoritmos admitidos: todos terminan en tiempo polinómico. */
+    public static final List<String> ALGORITHMS = List.of(
+            EjecutorAlgoritmos.BFS, EjecutorAlgoritmos.DFS, EjecutorAlgoritmos.RECURSIVO_2,
+            EjecutorAlgoritmos.INCREMENTAL, EjecutorAlgoritmos.CAMPO_DISTANCIAS, EjecutorAlgoritmos.BFS_BITS,
+            EjecutorAlgoritmos.TRANSFORMADA, EjecutorAlgoritmos.CORREDORES, EjecutorAlgoritmos.JERARQUICO, EjecutorAlgoritmos.TERRENO);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, StoredMaze> mazes = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private long storedBytes;
+
+    /**
+     * Laberinto guardado en memoria para consultas repetidas.
+     */
+    private static final class StoredMaze {
+        final LaberintoMapeado grid;
+        final int[] start;
+        final int[] end;
+        /** Índice de regiones (4 bytes por celda), o {@code null} si no se indexa. */
+        final ComponentesConexas regions;
+        final long bytes;
+
+        StoredMaze(LaberintoMapeado maze, boolean indexed) {
+            this.grid = maze;
+            this.start = maze.getInicio();
+            this.end = maze.getFin();
+            this.regions = indexed ? new ComponentesConexas(maze) : null;
+            this.bytes = 8L * maze.getFilas() * maze.getPalabrasPorFila()
+                    + (indexed ? 4L * maze.getFilas() * maze.getColumnas() : 0);
+        }
+    }
+
+    /**
+     * Crea el servidor sin arrancarlo.
+     *
+     * @param port El puerto en el que escuchar (0 para uno libre cualquiera).
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public MazeServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/mazes", this::handleMazes);
+        server.createContext("/solve", this::handleSolve);
+    }
+
+    /**
+     * Arranca el servidor.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Detiene el servidor esperando como mucho un segundo a las peticiones en curso.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el servidor.
+     *
+     * @return El puerto.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Arranca el servidor en modo autónomo.
+     *
+     * @param args Opcionalmente, el puerto.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        MazeServer mazeServer = new MazeServer(port);
+        mazeServer.start();
+        System.out.println("Servidor de laberintos escuchando en http://localhost:" + mazeServer.getPort());
+    }
+
+    /**
+     * Codifica una ruta como la celda de inicio seguida de los movimientos
+     * agrupados en tramos ({@code U}, {@code D}, {@code L}, {@code R} y el número
+     * de pasos). En laberintos con pasillos largos ocupa una fracción de la lista
+     * de coordenadas.
+     *
+     * @param path La ruta como coordenadas [fila, columna] consecutivas.
+     * @return La ruta codificada, o una cadena vacía si la ruta está vacía.
+     */
+    public static String encodePath(List<int[]> path) {
+        RutaCompacta route = RutaCompacta.desdeSiContinua(path);
+        if (route != null) {
+            return encodePath(route);
+        }
+        if (path.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder();
+        int[] first = path.get(0);
+        sb.append(first[0]).append(',').append(first[1]).append('\n');
+        char run = 0;
+        int length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int[] a = path.get(i - 1);
+            int[] b = path.get(i);
+            char move = b[0] < a[0] ? 'U' : b[0] > a[0] ? 'D' : b[1] < a[1] ? 'L' : 'R';
+            if (move != run && length > 0) {
+                sb.append(run).append(length);
+                length = 0;
+            }
+            run = move;
+            length++;
+        }
+        if (length > 0) {
+            sb.append(run).append(length);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Codifica una ruta compacta en el mismo formato de tramos que
+     * {@link #encodePath(List)}, leyendo las direcciones sin decodificar las celdas.
+     *
+     * @param path La ruta.
+     * @return La ruta codificada, o una cadena vacía si la ruta está vacía.
+     */
+    public static String encodePath(RutaCompacta path) {
+        if (path.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder();
+        int[] first = path.getInicio();
+        sb.append(first[0]).append(',').append(first[1]).append('\n');
+        char run = 0;
+        int length = 0;
+        for (int i = 0; i < path.getPasos(); i++) {
+            char move = "UDLR".charAt(path.getDireccion(i));
+            if (move != run && length > 0) {
+                sb.append(run).append(length);
+                length = 0;
+            }
+            run = move;
+            length++;
+        }
+        if (length > 0) {
+            sb.append(run).append(length);
+        }
+        return sb.toString();
+    }
+
+    private void handleMazes(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String id = exchange.getRequestURI().getPath().substring("/mazes".length()).replaceFirst("^/", "");
+            if (id.isEmpty() && method.equals("POST")) {
+                LaberintoMapeado maze = readMaze(exchange);
+                if (maze == null) return;
+                String newId = Long.toString(nextId.getAndIncrement());
+                if (!store(newId, new StoredMaze(maze, (long) maze.getFilas() * maze.getColumnas() <= MAX_MATRIX_CELLS))) {
+                    send(exchange, 507, "No se pueden guardar más laberintos (máximo " + MAX_STORED_MAZES
+                            + " y " + MAX_STORED_BYTES + " bytes); borre alguno con DELETE /mazes/{id}");
+                    return;
+                }
+                exchange.getResponseHeaders().set("Location", "/mazes/" + newId);
+                send(exchange, 201, newId);
+            } else if (!id.isEmpty() && method.equals("GET")) {
+                StoredMaze maze = mazes.get(id);
+                if (maze == null) {
+                    send(exchange, 404, "Laberinto no encontrado: " + id);
+                } else {
+                    send(exchange, 200, maze.grid.getFilas() + "x" + maze.grid.getColumnas());
+                }
+            } else if (!id.isEmpty() && method.equals("DELETE")) {
+                send(exchange, remove(id) ? 204 : 404, "");
+            } else {
+                send(exchange, 405, "Método no permitido");
+            }
+        }
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            StoredMaze maze;
+            if (params.containsKey("id")) {
+                maze = mazes.get(params.get("id"));
+                if (maze == null) {
+                    send(exchange, 404, "Laberinto no encontrado: " + params.get("id"));
+                    return;
+                }
+            } else {
+                LaberintoMapeado body = readMaze(exchange);
+                if (body == null) return;
+                // Un laberinto de un solo uso no se indexa: construir el índice cuesta tanto como buscar
+                maze = new StoredMaze(body, false);
+            }
+
+            int[] start = params.containsKey("start") ? parseCell(params.get("start")) : maze.start;
+            int[] end = params.containsKey("end") ? parseCell(params.get("end")) : maze.end;
+            int rows = maze.grid.getFilas();
+            int cols = maze.grid.getColumnas();
+            if (start == null || end == null || !inside(start, rows, cols) || !inside(end, rows, cols)) {
+                send(exchange, 400, "Extremos ausentes o fuera del laberinto (formato: start=fila,columna&end=fila,columna)");
+                return;
+            }
+            String algorithm = params.getOrDefault("algorithm", EjecutorAlgoritmos.BFS);
+            if (!ALGORITHMS.contains(algorithm)) {
+                send(exchange, 400, "Algoritmo no admitido por el servidor: " + algorithm
+                        + " (admitidos: " + String.join(", ", ALGORITHMS) + ")");
+                return;
+            }
+            if (!EjecutorAlgoritmos.trabajaSobreBits(algorithm) && (long) rows * cols > MAX_MATRIX_CELLS) {
+                send(exchange, 413, "El laberinto supera las " + MAX_MATRIX_CELLS + " celdas admitidas por " + algorithm
+                        + "; use " + EjecutorAlgoritmos.BFS_BITS + ", " + EjecutorAlgoritmos.CAMPO_DISTANCIAS
+                        + " o " + EjecutorAlgoritmos.TRANSFORMADA);
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            ResultadoBusqueda result;
+            try {
+                result = EjecutorAlgoritmos.resolver(algorithm, maze.grid, maze.regions, start[0], start[1], end[0], end[1]);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, e.getMessage());
+                return;
+            } catch (StackOverflowError e) {
+                send(exchange, 500, "El algoritmo " + algorithm + " agotó la pila en este laberinto");
+                return;
+            } catch (OutOfMemoryError e) {
+                send(exchange, 503, "No hay memoria suficiente para resolver este laberinto con " + algorithm);
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 500, "Error al resolver: " + e);
+                return;
+            }
+            double durationMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+            exchange.getResponseHeaders().set("X-Path-Length", Integer.toString(result.getRuta().size()));
+            exchange.getResponseHeaders().set("X-Visited-Cells", Integer.toString(result.getVisitadas().size()));
+            exchange.getResponseHeaders().set("X-Solve-Time-Ms", String.format(Locale.US, "%.4f", durationMs));
+            if ("packed".equals(params.get("format"))) {
+                RutaCompacta route = result.getRutaCompacta();
+                if (route == null) {
+                    send(exchange, 422, "La ruta de " + algorithm + " no es continua y no se puede empaquetar;"
+                            + " pídala sin format=packed");
+                } else {
+                    send(exchange, 200, route.codificar());
+                }
+            } else {
+                send(exchange, 200, encodePath(result.getRuta()));
+            }
+        }
+    }
+
+    /**
+     * Guarda un laberinto si no se superan los límites de número y memoria.
+     */
+    private synchronized boolean store(String id, StoredMaze maze) {
+        if (mazes.size() >= MAX_STORED_MAZES || storedBytes + maze.bytes > MAX_STORED_BYTES) {
+            return false;
+        }
+        mazes.put(id, maze);
+        storedBytes += maze.bytes;
+        return true;
+    }
+
+    private synchronized boolean remove(String id) {
+        StoredMaze maze = mazes.remove(id);
+        if (maze == null) return false;
+        storedBytes -= maze.bytes;
+        return true;
+    }
+
+    /**
+     * Lee y decodifica el laberinto del cuerpo. Si no es válido responde con el
+     * error y devuelve {@code null}.
+     */
+    private static LaberintoMapeado readMaze(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            send(exchange, 413, "El laberinto supera el tamaño máximo de " + MAX_BODY_BYTES + " bytes");
+            return null;
+        }
+        try {
+            return ArchivoLaberinto.decodificar(ByteBuffer.wrap(body), true);
+        } catch (IOException e) {
+            send(exchange, 400, "Cuerpo no válido: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int[] parseCell(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != 2) return null;
+        try {
+            return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean inside(int[] cell, int rows, int cols) {
+        return cell[0] >= 0 && cell[1] >= 0 && cell[0] < rows && cell[1] < cols;
+    }
+}
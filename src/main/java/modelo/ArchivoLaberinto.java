@@ -0,0 +1,369 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Lectura y escritura de laberintos en un formato binario compacto, pensado para
+ * laberintos de decenas de millones de celdas.
+ *
+ * Estructura del archivo (todos los enteros en little-endian):
+ * <pre>
+ *  offset  tamaño  campo
+ *  0       4       número mágico "LABR"
+ *  4       4       versión del formato (1)
+ *  8       4       filas
+ *  12      4       columnas
+ *  16      16      inicio (fila, columna) y fin (fila, columna); -1 si no están definidos
+ *  32      8       CRC32 del mapa de bits
+ *  40      24      reservado (ceros)
+ *  64      ...     mapa de bits, fila a fila
+ * </pre>
+ * Cada fila ocupa {@code ceil(columnas / 64)} palabras de 64 bits; el bit
+ * {@code c % 64} de la palabra {@code c / 64} vale 1 si la celda es transitable.
+ * Los bits de relleno al final de cada fila valen 0, es decir, se comportan como muros.
+ *
+ * Tanto la carga como el guardado pasan por {@link FileChannel#map}, de modo que el
+ * sistema operativo pagina el archivo bajo demanda y los solvers pueden leer las
+ * celdas directamente del búfer mapeado a través de {@link LaberintoMapeado}. El
+ * mismo formato se puede codificar y decodificar en memoria para enviarlo por red.
+ * Los archivos de más de 2 GB, que no caben en un único mapeo, se leen y escriben
+ * por bloques secuenciales a través de {@link MatrizFueraHeap}.
+ */
+public final class ArchivoLaberinto {
+
+    /** Extensión recomendada para los archivos de laberinto. */
+    public static final String EXTENSION = "lab";
+
+    static final int MAGICO = 0x5242414C; // "LABR" en little-endian
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 64;
+
+    private ArchivoLaberinto() {
+        // Clase de utilidad, no instanciable
+    }
+
+    /**
+     * Guarda un laberinto en el formato binario.
+     *
+     * @param archivo Ruta del archivo a escribir (se sobrescribe si existe).
+     * @param datos   Matriz del laberinto (1 = transitable, 0 = muro).
+     * @param inicio  Celda de inicio como [fila, columna], o {@code null} si no hay.
+     * @param fin     Celda de fin como [fila, columna], o {@code null} si no hay.
+     * @throws IOException Si ocurre un error de escritura.
+     */
+    public static void guardar(Path archivo, int[][] datos, int[] inicio, int[] fin) throws IOException {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        int palabrasPorFila = palabrasPorFila(columnas);
+        long tamano = TAMANO_CABECERA + (long) filas * palabrasPorFila * Long.BYTES;
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("El laberinto es demasiado grande para un único mapeo en memoria (máximo 2 GB).");
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+            escribir(buffer, datos, inicio, fin);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Codifica un laberinto en el formato binario, en memoria. El resultado es
+     * idéntico al contenido del archivo que escribiría {@link #guardar}, por lo que
+     * sirve para enviar laberintos compactos a otros procesos.
+     *
+     * @param datos  Matriz del laberinto (1 = transitable, 0 = muro).
+     * @param inicio Celda de inicio como [fila, columna], o {@code null} si no hay.
+     * @param fin    Celda de fin como [fila, columna], o {@code null} si no hay.
+     * @return Los bytes del laberinto codificado.
+     * @throws IllegalArgumentException Si el laberinto no cabe en un arreglo.
+     */
+    public static byte[] codificar(int[][] datos, int[] inicio, int[] fin) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        long tamano = TAMANO_CABECERA + (long) filas * palabrasPorFila(columnas) * Long.BYTES;
+        if (tamano > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para codificarlo en memoria: " + filas + "x" + columnas);
+        }
+        byte[] bytes = new byte[(int) tamano];
+        escribir(ByteBuffer.wrap(bytes), datos, inicio, fin);
+        return bytes;
+    }
+
+    /**
+     * Decodifica un laberinto en el formato binario a partir de un búfer en
+     * memoria (por ejemplo, el cuerpo de una petición). Las celdas se leen del
+     * propio búfer, que no debe modificarse después.
+     *
+     * @param contenido  El contenido completo, desde la cabecera; se lee entre su posición y su límite.
+     * @param verificar  Si es {@code true}, se comprueba el checksum del mapa de bits.
+     * @return El laberinto.
+     * @throws IOException Si el contenido no tiene el formato esperado o el checksum no coincide.
+     */
+    public static LaberintoMapeado decodificar(ByteBuffer contenido, boolean verificar) throws IOException {
+        return validar(contenido.slice().order(ByteOrder.LITTLE_ENDIAN), verificar);
+    }
+
+    /**
+     * Abre un archivo de laberinto mapeándolo en memoria y verifica su checksum.
+     *
+     * @param archivo Ruta del archivo a abrir.
+     * @return Un {@link LaberintoMapeado} que lee las celdas directamente del archivo.
+     * @throws IOException Si el archivo no se puede leer, no tiene el formato esperado
+     *                     o el checksum no coincide.
+     */
+    public static LaberintoMapeado abrir(Path archivo) throws IOException {
+        return abrir(archivo, true);
+    }
+
+    /**
+     * Abre un archivo de laberinto mapeándolo en memoria.
+     *
+     * @param archivo    Ruta del archivo a abrir.
+     * @param verificar  Si es {@code true}, se recalcula y comprueba el checksum del mapa de bits.
+     * @return Un {@link LaberintoMapeado} que lee las celdas directamente del archivo.
+     * @throws IOException Si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    public static LaberintoMapeado abrir(Path archivo, boolean verificar) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_CABECERA) {
+                throw new IOException("El archivo es demasiado pequeño para ser un laberinto.");
+            }
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("El archivo es demasiado grande para un único mapeo en memoria (máximo 2 GB); "
+                        + "use cargarFueraHeap.");
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return validar(buffer, verificar);
+        }
+    }
+
+    /**
+     * Carga un archivo de laberinto de cualquier tamaño en memoria nativa. El mapa
+     * de bits se lee de forma secuencial, bloque a bloque, directamente en los
+     * búferes de la {@link MatrizFueraHeap}, sin pasar por el heap.
+     *
+     * @param archivo   Ruta del archivo a cargar.
+     * @param verificar Si es {@code true}, se comprueba el checksum del mapa de bits.
+     * @return La cuadrícula fuera del heap, con los extremos guardados en el archivo.
+     * @throws IOException Si el archivo no se puede leer, no tiene el formato esperado
+     *                     o el checksum no coincide.
+     */
+    public static MatrizFueraHeap cargarFueraHeap(Path archivo, boolean verificar) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            leerCompleto(canal, cabecera, 0);
+            int[] dimensiones = comprobarCabecera(cabecera, canal.size());
+            int filas = dimensiones[0];
+            int columnas = dimensiones[1];
+            MatrizFueraHeap matriz = new MatrizFueraHeap(filas, columnas,
+                    leerCelda(cabecera, 16, filas, columnas), leerCelda(cabecera, 24, filas, columnas));
+
+            CRC32 crc = new CRC32();
+            long posicion = TAMANO_CABECERA;
+            for (int b = 0; b < matriz.getNumBloques(); b++) {
+                ByteBuffer bloque = matriz.getBloqueBytes(b);
+                posicion += leerCompleto(canal, bloque, posicion);
+                if (verificar) {
+                    crc.update(bloque.flip());
+                }
+            }
+            if (verificar && crc.getValue() != cabecera.getLong(32)) {
+                throw new IOException("El checksum no coincide: el archivo está dañado.");
+            }
+            return matriz;
+        }
+    }
+
+    /**
+     * Guarda una cuadrícula fuera del heap en el formato binario, escribiendo el
+     * mapa de bits por bloques secuenciales. Admite archivos de más de 2 GB.
+     *
+     * @param archivo Ruta del archivo a escribir (se sobrescribe si existe).
+     * @param matriz  La cuadrícula.
+     * @param inicio  Celda de inicio como [fila, columna], o {@code null} si no hay.
+     * @param fin     Celda de fin como [fila, columna], o {@code null} si no hay.
+     * @throws IOException Si ocurre un error de escritura.
+     */
+    public static void guardar(Path archivo, MatrizFueraHeap matriz, int[] inicio, int[] fin) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            long posicion = TAMANO_CABECERA;
+            for (int b = 0; b < matriz.getNumBloques(); b++) {
+                ByteBuffer bloque = matriz.getBloqueBytes(b);
+                crc.update(bloque.duplicate());
+                while (bloque.hasRemaining()) {
+                    posicion += canal.write(bloque, posicion);
+                }
+            }
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            escribirCabecera(cabecera, matriz.getFilas(), matriz.getColumnas(), inicio, fin, crc.getValue());
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Lee y comprueba la cabecera de un archivo abierto, sin leer el mapa de bits.
+     * El mapa de bits empieza en {@link #TAMANO_CABECERA} y cada fila ocupa
+     * {@link #palabrasPorFila} palabras.
+     *
+     * @param canal El canal del archivo.
+     * @return [filas, columnas, filaInicio, columnaInicio, filaFin, columnaFin]; los
+     *         extremos valen -1 si no están definidos.
+     * @throws IOException Si el archivo no tiene el formato esperado.
+     */
+    static int[] leerCabecera(FileChannel canal) throws IOException {
+        if (canal.size() < TAMANO_CABECERA) {
+            throw new IOException("El archivo es demasiado pequeño para ser un laberinto.");
+        }
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        leerCompleto(canal, cabecera, 0);
+        int[] dimensiones = comprobarCabecera(cabecera, canal.size());
+        int[] inicio = leerCelda(cabecera, 16, dimensiones[0], dimensiones[1]);
+        int[] fin = leerCelda(cabecera, 24, dimensiones[0], dimensiones[1]);
+        return new int[]{dimensiones[0], dimensiones[1],
+                inicio != null ? inicio[0] : -1, inicio != null ? inicio[1] : -1,
+                fin != null ? fin[0] : -1, fin != null ? fin[1] : -1};
+    }
+
+    /**
+     * Lee del canal hasta llenar el búfer o llegar al final del archivo.
+     *
+     * @return Los bytes leídos.
+     */
+    private static int leerCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        int leidos = 0;
+        while (buffer.hasRemaining()) {
+            int n = canal.read(buffer, posicion + leidos);
+            if (n < 0) {
+                throw new IOException("El archivo termina antes de lo esperado.");
+            }
+            leidos += n;
+        }
+        return leidos;
+    }
+
+    private static void escribir(ByteBuffer buffer, int[][] datos, int[] inicio, int[] fin) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        int palabrasPorFila = palabrasPorFila(columnas);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Mapa de bits
+        LongBuffer bits = buffer.slice(TAMANO_CABECERA, buffer.capacity() - TAMANO_CABECERA)
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        long[] fila = new long[palabrasPorFila];
+        for (int i = 0; i < filas; i++) {
+            Arrays.fill(fila, 0L);
+            int[] datosFila = datos[i];
+            for (int j = 0; j < columnas; j++) {
+                if (datosFila[j] == 1) {
+                    fila[j >>> 6] |= 1L << (j & 63);
+                }
+            }
+            bits.put(fila);
+        }
+
+        // Cabecera
+        escribirCabecera(buffer, filas, columnas, inicio, fin, calcularChecksum(buffer, buffer.capacity()));
+    }
+
+    private static void escribirCabecera(ByteBuffer buffer, int filas, int columnas, int[] inicio, int[] fin, long checksum) {
+        buffer.putInt(0, MAGICO);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, filas);
+        buffer.putInt(12, columnas);
+        buffer.putInt(16, inicio != null ? inicio[0] : -1);
+        buffer.putInt(20, inicio != null ? inicio[1] : -1);
+        buffer.putInt(24, fin != null ? fin[0] : -1);
+        buffer.putInt(28, fin != null ? fin[1] : -1);
+        buffer.putLong(32, checksum);
+    }
+
+    /**
+     * Comprueba la cabecera y el tamaño de un búfer en el formato binario y crea
+     * el laberinto que lo lee.
+     */
+    private static LaberintoMapeado validar(ByteBuffer buffer, boolean verificar) throws IOException {
+        long tamano = buffer.capacity();
+        int[] dimensiones = comprobarCabecera(buffer, tamano);
+        int filas = dimensiones[0];
+        int columnas = dimensiones[1];
+        if (verificar && calcularChecksum(buffer, tamano) != buffer.getLong(32)) {
+            throw new IOException("El checksum no coincide: el archivo está dañado.");
+        }
+        int[] inicio = leerCelda(buffer, 16, filas, columnas);
+        int[] fin = leerCelda(buffer, 24, filas, columnas);
+        return new LaberintoMapeado(buffer, filas, columnas, inicio, fin);
+    }
+
+    /**
+     * Comprueba el número mágico, la versión y que el tamaño total corresponda a
+     * las dimensiones de la cabecera.
+     *
+     * @return Las dimensiones como [filas, columnas].
+     */
+    private static int[] comprobarCabecera(ByteBuffer buffer, long tamano) throws IOException {
+        if (tamano < TAMANO_CABECERA) {
+            throw new IOException("El contenido es demasiado pequeño para ser un laberinto.");
+        }
+        if (buffer.getInt(0) != MAGICO) {
+            throw new IOException("El archivo no es un laberinto (número mágico incorrecto).");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versión de formato no soportada: " + buffer.getInt(4));
+        }
+        int filas = buffer.getInt(8);
+        int columnas = buffer.getInt(12);
+        if (filas < 0 || columnas < 0) {
+            throw new IOException("Dimensiones no válidas: " + filas + "x" + columnas);
+        }
+        long esperado = TAMANO_CABECERA + (long) filas * palabrasPorFila(columnas) * Long.BYTES;
+        if (tamano != esperado) {
+            throw new IOException("Tamaño de archivo inconsistente con las dimensiones " + filas + "x" + columnas + ".");
+        }
+        return new int[]{filas, columnas};
+    }
+
+    /**
+     * Calcula cuántas palabras de 64 bits ocupa una fila.
+     *
+     * @param columnas Número de columnas.
+     * @return Las palabras por fila.
+     */
+    static int palabrasPorFila(int columnas) {
+        return (columnas + 63) >>> 6;
+    }
+
+    private static long calcularChecksum(ByteBuffer buffer, long tamano) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(TAMANO_CABECERA, (int) (tamano - TAMANO_CABECERA)));
+        return crc.getValue();
+    }
+
+    private static int[] leerCelda(ByteBuffer buffer, int offset, int filas, int columnas) {
+        int fila = buffer.getInt(offset);
+        int columna = buffer.getInt(offset + 4);
+        if (fila < 0 || columna < 0 || fila >= filas || columna >= columnas) {
+            return null;
+        }
+        return new int[]{fila, columna};
+    }
+}
@@ -0,0 +1,155 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Mide el tiempo de búsqueda de un algoritmo con repeticiones, para comparar
+ * algoritmos sin que una única ejecución en frío (con el JIT aún compilando y
+ * la construcción del modelo incluida) decida el resultado.
+ *
+ * Primero ejecuta unas búsquedas de calentamiento que no se cuentan y después
+ * las repeticiones medidas, en lotes. Antes de la primera medida y entre lotes
+ * se pide una recolección de basura, de modo que cada lote empieza con el heap
+ * limpio y las pausas de GC provocadas por las búsquedas anteriores no caen en
+ * las siguientes. Cada repetición mide solo la búsqueda (ver
+ * {@link EjecutorAlgoritmos#prepararBusqueda}).
+ *
+ * Características:
+ * <ul>
+ *   <li>Calentamiento, repeticiones y tamaño de lote configurables</li>
+ *   <li>Mínimo, mediana, percentil 95, media, máximo y desviación típica</li>
+ *   <li>Se detiene entre repeticiones si se interrumpe el hilo</li>
+ * </ul>
+ */
+public class BancoPruebas {
+
+    /** Repeticiones medidas entre dos recolecciones de basura. */
+    public static final int TAMANO_LOTE = 10;
+
+    private final int calentamiento;
+    private final int repeticiones;
+    private final int tamanoLote;
+
+    /**
+     * Estadísticas de una medición.
+     */
+    public static final class Resultado {
+        private final String algoritmo;
+        private final int calentamiento;
+        private final long[] tiempos;
+        private final int longitudRuta;
+
+        Resultado(String algoritmo, int calentamiento, long[] tiempos, int longitudRuta) {
+            this.algoritmo = algoritmo;
+            this.calentamiento = calentamiento;
+            this.tiempos = tiempos.clone();
+            Arrays.sort(this.tiempos);
+            this.longitudRuta = longitudRuta;
+        }
+
+        public String getAlgoritmo() { return algoritmo; }
+        public int getCalentamiento() { return calentamiento; }
+        public int getRepeticiones() { return tiempos.length; }
+
+        /** @return La longitud de la ruta encontrada (0 si no hay ruta). */
+        public int getLongitudRuta() { return longitudRuta; }
+
+        public double getMinimoMs() { return tiempos[0] / 1e6; }
+        public double getMaximoMs() { return tiempos[tiempos.length - 1] / 1e6; }
+        public double getMedianaMs() { return percentil(0.50); }
+        public double getP95Ms() { return percentil(0.95); }
+
+        public double getMediaMs() {
+            double suma = 0;
+            for (long t : tiempos) suma += t;
+            return suma / tiempos.length / 1e6;
+        }
+
+        /** @return La desviación típica muestral, o 0 con una sola repetición. */
+        public double getDesviacionMs() {
+            if (tiempos.length < 2) return 0;
+            double media = getMediaMs() * 1e6;
+            double suma = 0;
+            for (long t : tiempos) suma += (t - media) * (t - media);
+            return Math.sqrt(suma / (tiempos.length - 1)) / 1e6;
+        }
+
+        private double percentil(double p) {
+            int indice = (int) Math.ceil(p * tiempos.length) - 1;
+            return tiempos[Math.max(0, Math.min(tiempos.length - 1, indice))] / 1e6;
+        }
+    }
+
+    /**
+     * Crea un banco de pruebas con lotes de {@value #TAMANO_LOTE} repeticiones.
+     *
+     * @param calentamiento Búsquedas de calentamiento, no medidas.
+     * @param repeticiones  Búsquedas medidas (al menos una).
+     */
+    public BancoPruebas(int calentamiento, int repeticiones) {
+        this(calentamiento, repeticiones, TAMANO_LOTE);
+    }
+
+    /**
+     * Crea un banco de pruebas.
+     *
+     * @param calentamiento Búsquedas de calentamiento, no medidas.
+     * @param repeticiones  Búsquedas medidas (al menos una).
+     * @param tamanoLote    Repeticiones entre dos recolecciones de basura.
+     */
+    public BancoPruebas(int calentamiento, int repeticiones, int tamanoLote) {
+        if (calentamiento < 0 || repeticiones < 1 || tamanoLote < 1) {
+            throw new IllegalArgumentException("Configuración de medida no válida: calentamiento=" + calentamiento
+                    + ", repeticiones=" + repeticiones + ", lote=" + tamanoLote);
+        }
+        this.calentamiento = calentamiento;
+        this.repeticiones = repeticiones;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Mide un algoritmo sobre un laberinto.
+     *
+     * @param algoritmo     El nombre del algoritmo (ver {@link EjecutorAlgoritmos}).
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param costes        Los costes de terreno, o {@code null} para coste unitario.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return Las estadísticas de la medición.
+     * @throws InterruptedException     Si se interrumpe el hilo durante la medición.
+     * @throws IllegalArgumentException Si el algoritmo no existe o no se puede medir.
+     */
+    public Resultado medir(String algoritmo, int[][] datos, CostesTerreno costes,
+                           int filaInicio, int columnaInicio, int filaFin, int columnaFin) throws InterruptedException {
+        IntSupplier busqueda = EjecutorAlgoritmos.prepararBusqueda(algoritmo, datos, costes,
+                filaInicio, columnaInicio, filaFin, columnaFin);
+
+        int longitud = 0;
+        for (int i = 0; i < calentamiento; i++) {
+            comprobarInterrupcion();
+            longitud = busqueda.getAsInt();
+        }
+
+        long[] tiempos = new long[repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            if (i % tamanoLote == 0) {
+                System.gc(); // Cada lote empieza con el heap recién recogido
+            }
+            comprobarInterrupcion();
+            long inicio = System.nanoTime();
+            int l = busqueda.getAsInt();
+            tiempos[i] = System.nanoTime() - inicio;
+            longitud = l; // El resultado se usa para que el JIT no elimine la búsqueda
+        }
+        return new Resultado(algoritmo, calentamiento, tiempos, longitud);
+    }
+
+    private static void comprobarInterrupcion() throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Medición cancelada");
+        }
+    }
+}
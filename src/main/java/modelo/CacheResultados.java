@@ -0,0 +1,178 @@
+package modelo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caché LRU de resultados de búsqueda.
+ *
+ * La clave combina el hash del contenido del laberinto ({@link HashLaberinto}),
+ * sus dimensiones, los puntos de inicio y fin y el algoritmo, de modo que volver
+ * a resolver el mismo laberinto con los mismos parámetros devuelve el resultado
+ * guardado en microsegundos en lugar de repetir la búsqueda.
+ *
+ * Características:
+ * <ul>
+ *   <li>Expulsa la entrada usada hace más tiempo al superar el número máximo de entradas</li>
+ *   <li>También expulsa entradas mientras la memoria estimada supere el límite</li>
+ *   <li>Cuenta aciertos y fallos</li>
+ *   <li>Es segura para usarse desde varios hilos</li>
+ * </ul>
+ */
+public class CacheResultados {
+    private final int maxEntradas;
+    private final long maxBytes;
+    private final LinkedHashMap<Clave, ResultadoBusqueda> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesUsados;
+    private long aciertos;
+    private long fallos;
+
+    /**
+     * Crea una caché con los límites indicados.
+     *
+     * @param maxEntradas Número máximo de resultados guardados.
+     * @param maxBytes    Memoria máxima estimada (en bytes) de los resultados guardados.
+     */
+    public CacheResultados(int maxEntradas, long maxBytes) {
+        this.maxEntradas = maxEntradas;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Busca un resultado en la caché y actualiza los contadores.
+     *
+     * @param clave La clave de la consulta.
+     * @return El resultado guardado, o {@code null} si no está en la caché.
+     */
+    public synchronized ResultadoBusqueda obtener(Clave clave) {
+        ResultadoBusqueda resultado = entradas.get(clave);
+        if (resultado != null) {
+            aciertos++;
+        } else {
+            fallos++;
+        }
+        return resultado;
+    }
+
+    /**
+     * Guarda un resultado y expulsa las entradas menos usadas recientemente
+     * mientras se superen los límites. Un resultado que por sí solo excede el
+     * límite de memoria no se guarda.
+     *
+     * @param clave     La clave de la consulta.
+     * @param resultado El resultado a guardar.
+     */
+    public synchronized void guardar(Clave clave, ResultadoBusqueda resultado) {
+        long bytes = resultado.estimarBytes();
+        if (bytes > maxBytes) return;
+        ResultadoBusqueda anterior = entradas.put(clave, resultado);
+        if (anterior != null) {
+            bytesUsados -= anterior.estimarBytes();
+        }
+        bytesUsados += bytes;
+        Iterator<Map.Entry<Clave, ResultadoBusqueda>> it = entradas.entrySet().iterator();
+        while ((entradas.size() > maxEntradas || bytesUsados > maxBytes) && it.hasNext()) {
+            Map.Entry<Clave, ResultadoBusqueda> masAntigua = it.next();
+            bytesUsados -= masAntigua.getValue().estimarBytes();
+            it.remove();
+        }
+    }
+
+    /** Elimina todas las entradas (los contadores se conservan). */
+    public synchronized void limpiar() {
+        entradas.clear();
+        bytesUsados = 0;
+    }
+
+    /**
+     * Obtiene el número de consultas que encontraron un resultado guardado.
+     *
+     * @return El número de aciertos.
+     */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Obtiene el número de consultas que no encontraron un resultado guardado.
+     *
+     * @return El número de fallos.
+     */
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Obtiene el número de resultados guardados actualmente.
+     *
+     * @return El número de entradas.
+     */
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Obtiene la memoria estimada que ocupan los resultados guardados.
+     *
+     * @return Los bytes estimados.
+     */
+    public synchronized long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    /**
+     * Clave de una consulta: contenido del laberinto, extremos y algoritmo.
+     */
+    public static final class Clave {
+        private final long hashLaberinto;
+        private final int filas;
+        private final int columnas;
+        private final int filaInicio;
+        private final int columnaInicio;
+        private final int filaFin;
+        private final int columnaFin;
+        private final String algoritmo;
+
+        /**
+         * Crea la clave de una consulta.
+         *
+         * @param hashLaberinto El hash del contenido del laberinto.
+         * @param filas         Filas del laberinto.
+         * @param columnas      Columnas del laberinto.
+         * @param filaInicio    Fila de la celda de inicio.
+         * @param columnaInicio Columna de la celda de inicio.
+         * @param filaFin       Fila de la celda de destino.
+         * @param columnaFin    Columna de la celda de destino.
+         * @param algoritmo     El nombre del algoritmo.
+         */
+        public Clave(long hashLaberinto, int filas, int columnas, int filaInicio, int columnaInicio,
+                     int filaFin, int columnaFin, String algoritmo) {
+            this.hashLaberinto = hashLaberinto;
+            this.filas = filas;
+            this.columnas = columnas;
+            this.filaInicio = filaInicio;
+            this.columnaInicio = columnaInicio;
+            this.filaFin = filaFin;
+            this.columnaFin = columnaFin;
+            this.algoritmo = algoritmo;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Clave)) return false;
+            Clave other = (Clave) obj;
+            return hashLaberinto == other.hashLaberinto && filas == other.filas && columnas == other.columnas
+                    && filaInicio == other.filaInicio && columnaInicio == other.columnaInicio
+                    && filaFin == other.filaFin && columnaFin == other.columnaFin
+                    && algoritmo.equals(other.algoritmo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hashLaberinto, filas, columnas, filaInicio, columnaInicio, filaFin, columnaFin, algoritmo);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Campo de distancias BFS desde un único origen.
+ *
+ * Se recorre el laberinto completo una sola vez desde el origen y se guarda,
+ * para cada celda, su distancia y la dirección por la que se llegó a ella. A
+ * partir de ahí, la ruta más corta hacia cualquier destino se obtiene siguiendo
+ * esas direcciones hacia atrás en O(longitud de la ruta), sin volver a buscar.
+ *
+ * Características:
+ * <ul>
+ *   <li>Distancias en un {@code int[]} y padres en un {@code byte[]} (una dirección por celda)</li>
+ *   <li>Conserva el orden de visita del recorrido para la animación</li>
+ *   <li>Se invalida automáticamente cuando cambia el laberinto ({@link ObservadorLaberinto})</li>
+ * </ul>
+ */
+public class CampoDistancias implements ObservadorLaberinto {
+
+    /** Valor de la dirección del padre para celdas no alcanzadas. */
+    private static final byte SIN_PADRE = -1;
+    /** Valor de la dirección del padre para el origen. */
+    private static final byte ORIGEN = 4;
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private int filas;
+    private int columnas;
+    private int origen = -1;
+    private boolean valido;
+
+    private int[] distancia;
+    private byte[] direccionPadre;
+    private int[] ordenVisita;
+    private int numVisitadas;
+
+    /**
+     * Indica si el campo está calculado para el laberinto actual y el origen indicado.
+     *
+     * @param filaOrigen    Fila del origen.
+     * @param columnaOrigen Columna del origen.
+     * @return {@code true} si el campo puede responder consultas desde ese origen.
+     */
+    public boolean esValidoPara(int filaOrigen, int columnaOrigen) {
+        return valido && origen == filaOrigen * columnas + columnaOrigen;
+    }
+
+    /**
+     * Recorre la cuadrícula completa en anchura desde el origen y guarda el campo.
+     *
+     * @param cuadricula    La cuadrícula a recorrer.
+     * @param filaOrigen    Fila del origen.
+     * @param columnaOrigen Columna del origen.
+     */
+    public void calcular(Cuadricula cuadricula, int filaOrigen, int columnaOrigen) {
+        filas = cuadricula.getFilas();
+        columnas = cuadricula.getColumnas();
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para una búsqueda en memoria: " + filas + "x" + columnas);
+        }
+        int n = (int) totalCeldas;
+        if (distancia == null || distancia.length != n) {
+            distancia = new int[n];
+            direccionPadre = new byte[n];
+            ordenVisita = new int[n];
+        }
+        Arrays.fill(distancia, -1);
+        Arrays.fill(direccionPadre, SIN_PADRE);
+        origen = filaOrigen * columnas + columnaOrigen;
+        numVisitadas = 0;
+        valido = true;
+        if (!cuadricula.esTransitable(filaOrigen, columnaOrigen)) {
+            return;
+        }
+
+        // La cola es el propio arreglo de orden de visita
+        int cabeza = 0;
+        ordenVisita[numVisitadas++] = origen;
+        distancia[origen] = 0;
+        direccionPadre[origen] = ORIGEN;
+        while (cabeza < numVisitadas) {
+            int actual = ordenVisita[cabeza++];
+            int fila = actual / columnas;
+            int columna = actual - fila * columnas;
+            int siguienteDistancia = distancia[actual] + 1;
+            for (int i = 0; i < 4; i++) {
+                int nuevaFila = fila + dx[i];
+                int nuevaColumna = columna + dy[i];
+                if (nuevaFila < 0 || nuevaFila >= filas || nuevaColumna < 0 || nuevaColumna >= columnas) {
+                    continue;
+                }
+                int vecino = nuevaFila * columnas + nuevaColumna;
+                if (direccionPadre[vecino] == SIN_PADRE && cuadricula.esTransitable(nuevaFila, nuevaColumna)) {
+                    direccionPadre[vecino] = (byte) i;
+                    distancia[vecino] = siguienteDistancia;
+                    ordenVisita[numVisitadas++] = vecino;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene la distancia más corta desde el origen hasta una celda.
+     *
+     * @param fila    La fila de la celda.
+     * @param columna La columna de la celda.
+     * @return El número de pasos, o -1 si la celda no es alcanzable.
+     */
+    public int getDistancia(int fila, int columna) {
+        comprobarValido();
+        return distancia[fila * columnas + columna];
+    }
+
+    /**
+     * Obtiene la ruta más corta desde el origen hasta una celda como índices
+     * lineales ({@code fila * columnas + columna}), sin crear un objeto por paso.
+     *
+     * @param fila    La fila del destino.
+     * @param columna La columna del destino.
+     * @return Los índices de la ruta desde el origen, o un arreglo vacío si no es alcanzable.
+     */
+    public int[] rutaIndices(int fila, int columna) {
+        comprobarValido();
+        int destino = fila * columnas + columna;
+        int pasos = distancia[destino];
+        if (pasos < 0) {
+            return new int[0];
+        }
+        int[] ruta = new int[pasos + 1];
+        int actual = destino;
+        for (int i = pasos; i > 0; i--) {
+            ruta[i] = actual;
+            int d = direccionPadre[actual];
+            actual -= dx[d] * columnas + dy[d];
+        }
+        ruta[0] = actual;
+        return ruta;
+    }
+
+    /**
+     * Obtiene la ruta más corta desde el origen hasta una celda.
+     *
+     * @param fila    La fila del destino.
+     * @param columna La columna del destino.
+     * @return La ruta como coordenadas [fila, columna], o una lista vacía si no es alcanzable.
+     */
+    public List<int[]> rutaHacia(int fila, int columna) {
+        int[] indices = rutaIndices(fila, columna);
+        List<int[]> ruta = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            ruta.add(new int[]{indice / columnas, indice % columnas});
+        }
+        return ruta;
+    }
+
+    /**
+     * Devuelve las celdas alcanzadas desde el origen en el orden en que las visitó el BFS.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getOrdenVisita() {
+        comprobarValido();
+        List<int[]> coordenadas = new ArrayList<>(numVisitadas);
+        for (int i = 0; i < numVisitadas; i++) {
+            coordenadas.add(new int[]{ordenVisita[i] / columnas, ordenVisita[i] % columnas});
+        }
+        return coordenadas;
+    }
+
+    /** Descarta el campo; la próxima consulta deberá recalcularlo. */
+    public void invalidar() {
+        valido = false;
+    }
+
+    @Override
+    public void celdaCambiada(int fila, int columna, int valor) {
+        invalidar();
+    }
+
+    @Override
+    public void laberintoReemplazado(int[][] datos) {
+        invalidar();
+    }
+
+    private void comprobarValido() {
+        if (!valido) {
+            throw new IllegalStateException("El campo de distancias no está calculado para el laberinto actual.");
+        }
+    }
+}
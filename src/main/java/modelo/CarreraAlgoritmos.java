@@ -0,0 +1,260 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lanza varios algoritmos a la vez sobre el mismo laberinto y se queda con el
+ * primero que responde, para obtener la respuesta con la menor latencia cuando no
+ * se sabe qué algoritmo conviene.
+ *
+ * Todos los solvers leen la misma matriz, que no se modifica durante la carrera;
+ * cada uno crea su propio estado a través de {@link EjecutorAlgoritmos}. En cuanto
+ * hay ganador, el resto se cancela interrumpiendo sus hilos: BFS, DFS y el
+ * backtracking comprueban la interrupción en su bucle principal y terminan solos.
+ *
+ * Los hilos son de plataforma y con pila grande (en lugar de hilos virtuales)
+ * porque el backtracking es recursivo y su profundidad crece con la longitud de
+ * la ruta.
+ *
+ * Características:
+ * <ul>
+ *   <li>Dos políticas: primera ruta válida o primera ruta óptima</li>
+ *   <li>Cancelación cooperativa de los perdedores</li>
+ *   <li>Registra el tiempo y el estado final de cada participante</li>
+ * </ul>
+ */
+public class CarreraAlgoritmos {
+
+    /** Participantes por defecto. */
+    public static final List<String> PARTICIPANTES = Collections.unmodifiableList(Arrays.asList(
+            EjecutorAlgoritmos.BFS, EjecutorAlgoritmos.DFS, EjecutorAlgoritmos.RECURSIVO_4, EjecutorAlgoritmos.BACKTRACKING));
+
+    /** Algoritmos que garantizan la ruta más corta. */
+    private static final List<String> OPTIMOS = Arrays.asList(
+            EjecutorAlgoritmos.BFS, EjecutorAlgoritmos.BACKTRACKING, EjecutorAlgoritmos.INCREMENTAL,
+            EjecutorAlgoritmos.CAMPO_DISTANCIAS, EjecutorAlgoritmos.BFS_BITS, EjecutorAlgoritmos.TRANSFORMADA,
+            EjecutorAlgoritmos.CORREDORES,
+            EjecutorAlgoritmos.TERRENO);
+
+    private static final long TAMANO_PILA = 512L * 1024 * 1024;
+    /** Tiempo que se espera a que los perdedores confirmen la cancelación, para registrar su tiempo. */
+    private static final long ESPERA_CANCELACION_MS = 200;
+
+    /**
+     * Criterio para aceptar un resultado como ganador.
+     */
+    public enum Politica {
+        /** Gana el primer algoritmo que encuentra una ruta cualquiera. */
+        PRIMERA_VALIDA,
+        /** Gana el primer algoritmo que garantiza la ruta más corta. */
+        PRIMERA_OPTIMA
+    }
+
+    /**
+     * Estado final de un participante.
+     */
+    public enum Estado { GANADOR, TERMINADO, CANCELADO, ERROR }
+
+    /**
+     * Tiempo y estado de un participante de la carrera.
+     */
+    public static final class Participante {
+        private final String algoritmo;
+        private volatile ResultadoBusqueda resultado;
+        private volatile Estado estado = Estado.CANCELADO;
+        private volatile double tiempoMs = -1;
+
+        Participante(String algoritmo) {
+            this.algoritmo = algoritmo;
+        }
+
+        public String getAlgoritmo() { return algoritmo; }
+
+        /** @return El resultado, o {@code null} si no terminó. */
+        public ResultadoBusqueda getResultado() { return resultado; }
+
+        public Estado getEstado() { return estado; }
+
+        /** @return El tiempo hasta que terminó o atendió la cancelación, o -1 si no respondió a tiempo. */
+        public double getTiempoMs() { return tiempoMs; }
+    }
+
+    /**
+     * Resultado de una carrera: el ganador y el detalle de todos los participantes.
+     */
+    public static final class Resultado {
+        private final ResultadoBusqueda ganador;
+        private final List<Participante> participantes;
+
+        Resultado(ResultadoBusqueda ganador, List<Participante> participantes) {
+            this.ganador = ganador;
+            this.participantes = Collections.unmodifiableList(participantes);
+        }
+
+        /** @return El resultado ganador; si nadie encontró ruta, un resultado vacío. */
+        public ResultadoBusqueda getGanador() { return ganador; }
+
+        public List<Participante> getParticipantes() { return participantes; }
+    }
+
+    private final ExecutorService hilos;
+
+    /**
+     * Crea una carrera con su propio conjunto de hilos, que se reutilizan entre
+     * carreras y se liberan solos tras un minuto sin uso.
+     */
+    public CarreraAlgoritmos() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread hilo = new Thread(null, r, "carrera-" + contador.incrementAndGet(), TAMANO_PILA);
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        this.hilos = Executors.newCachedThreadPool(fabrica);
+    }
+
+    /**
+     * Indica si un algoritmo garantiza la ruta más corta.
+     *
+     * @param algoritmo El nombre del algoritmo.
+     * @return {@code true} si es óptimo.
+     */
+    public static boolean esOptimo(String algoritmo) {
+        return OPTIMOS.contains(algoritmo);
+    }
+
+    /**
+     * Corre los participantes por defecto.
+     *
+     * @see #correr(List, int[][], int, int, int, int, Politica)
+     */
+    public Resultado correr(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin, Politica politica) {
+        return correr(PARTICIPANTES, datos, null, filaInicio, columnaInicio, filaFin, columnaFin, politica);
+    }
+
+    /**
+     * Corre los participantes por defecto consultando el índice de regiones.
+     *
+     * @see #correr(List, int[][], ComponentesConexas, int, int, int, int, Politica)
+     */
+    public Resultado correr(int[][] datos, ComponentesConexas regiones,
+                            int filaInicio, int columnaInicio, int filaFin, int columnaFin, Politica politica) {
+        return correr(PARTICIPANTES, datos, regiones, filaInicio, columnaInicio, filaFin, columnaFin, politica);
+    }
+
+    /**
+     * Ejecuta los algoritmos indicados en paralelo sin índice de regiones.
+     *
+     * @see #correr(List, int[][], ComponentesConexas, int, int, int, int, Politica)
+     */
+    public Resultado correr(List<String> algoritmos, int[][] datos, int filaInicio, int columnaInicio,
+                            int filaFin, int columnaFin, Politica politica) {
+        return correr(algoritmos, datos, null, filaInicio, columnaInicio, filaFin, columnaFin, politica);
+    }
+
+    /**
+     * Ejecuta los algoritmos indicados en paralelo y devuelve en cuanto uno cumple
+     * la política. Como todos los participantes son búsquedas completas, si uno
+     * termina sin ruta es que no existe y la carrera acaba también.
+     *
+     * @param algoritmos    Los nombres de los algoritmos participantes.
+     * @param datos         La matriz del laberinto; no debe modificarse durante la carrera.
+     * @param regiones      El índice de regiones de {@code datos}, o {@code null}. Si los extremos
+     *                      no están conectados, cada participante responde sin buscar.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @param politica      El criterio para elegir al ganador.
+     * @return El ganador y el tiempo y estado de cada participante.
+     */
+    public Resultado correr(List<String> algoritmos, int[][] datos, ComponentesConexas regiones,
+                            int filaInicio, int columnaInicio, int filaFin, int columnaFin, Politica politica) {
+        List<Participante> participantes = new ArrayList<>();
+        List<Future<Participante>> futuros = new ArrayList<>();
+        CountDownLatch terminados = new CountDownLatch(algoritmos.size());
+        ExecutorCompletionService<Participante> completados = new ExecutorCompletionService<>(hilos);
+        long inicio = System.nanoTime();
+
+        for (String algoritmo : algoritmos) {
+            Participante p = new Participante(algoritmo);
+            participantes.add(p);
+            futuros.add(completados.submit(() -> {
+                try {
+                    ResultadoBusqueda r = EjecutorAlgoritmos.resolver(algoritmo, datos, regiones, null,
+                            filaInicio, columnaInicio, filaFin, columnaFin);
+                    if (!Thread.currentThread().isInterrupted()) {
+                        p.resultado = r;
+                        p.estado = Estado.TERMINADO;
+                    }
+                } catch (RuntimeException | StackOverflowError e) {
+                    p.estado = Estado.ERROR;
+                } finally {
+                    p.tiempoMs = (System.nanoTime() - inicio) / 1_000_000.0;
+                    terminados.countDown();
+                }
+                return p;
+            }));
+        }
+
+        ResultadoBusqueda ganador = null;
+        ResultadoBusqueda primeraValida = null;
+        try {
+            for (int pendientes = futuros.size(); pendientes > 0 && ganador == null; pendientes--) {
+                Participante p = completados.take().get();
+                if (p.estado != Estado.TERMINADO) continue;
+                if (!p.resultado.hayRuta()) {
+                    ganador = p.resultado; // Búsqueda completa sin ruta: no hay ruta para nadie
+                    p.estado = Estado.GANADOR;
+                } else if (politica == Politica.PRIMERA_VALIDA || esOptimo(p.algoritmo)) {
+                    ganador = p.resultado;
+                    p.estado = Estado.GANADOR;
+                } else if (primeraValida == null) {
+                    primeraValida = p.resultado;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // No ocurre: las tareas capturan sus propios errores
+        } finally {
+            for (Future<Participante> f : futuros) {
+                f.cancel(true);
+            }
+        }
+
+        // Se da a los perdedores un momento para atender la cancelación y registrar su tiempo
+        try {
+            terminados.await(ESPERA_CANCELACION_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (ganador == null) {
+            // Ningún óptimo terminó (por ejemplo, por errores): se devuelve la mejor alternativa
+            ganador = primeraValida != null ? primeraValida
+                    : new ResultadoBusqueda(String.join(" | ", algoritmos), new ArrayList<>(), new ArrayList<>());
+        }
+        return new Resultado(ganador, participantes);
+    }
+
+    /**
+     * Detiene los hilos de la carrera, interrumpiendo las búsquedas en curso.
+     */
+    public void cerrar() {
+        hilos.shutdownNow();
+    }
+}
@@ -0,0 +1,249 @@
+package modelo;
+
+import java.util.stream.IntStream;
+
+/**
+ * Índice de regiones conexas del laberinto para responder al instante si existe
+ * algún camino entre dos celdas.
+ *
+ * Se construye con una estructura union-find sobre los índices de las celdas: el
+ * laberinto se divide en bandas de filas que se etiquetan en paralelo, después se
+ * unen las bandas a través de sus filas frontera y, por último, cada celda se
+ * apunta directamente a la raíz de su región. Consultar si dos celdas están
+ * conectadas es entonces O(1).
+ *
+ * Características:
+ * <ul>
+ *   <li>{@link EjecutorAlgoritmos} lo consulta para rechazar consultas imposibles sin explorar nada</li>
+ *   <li>Indexa la matriz del editor o cualquier {@link Cuadricula}, como los laberintos compactos</li>
+ *   <li>Quitar un muro se aplica al momento uniendo la celda con sus vecinas</li>
+ *   <li>Poner un muro puede dividir una región, así que el índice se reconstruye
+ *       de forma perezosa en la siguiente consulta</li>
+ * </ul>
+ */
+public final class ComponentesConexas implements ObservadorLaberinto {
+
+    /** Número mínimo de filas por banda en la construcción paralela. */
+    private static final int FILAS_MINIMAS_POR_BANDA = 64;
+
+    private int[][] datos;
+    /** Cuadrícula indexada cuando no se trabaja sobre una matriz de enteros. */
+    private Cuadricula cuadricula;
+    private int filas;
+    private int columnas;
+    /** Padre de cada celda en el union-find, o -1 si la celda es un muro. */
+    private int[] padre;
+    private int numComponentes;
+    private boolean desactualizado;
+
+    /**
+     * Crea el índice para un laberinto. La matriz se conserva por referencia, de
+     * modo que una reconstrucción perezosa usa siempre su contenido actual.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     */
+    public ComponentesConexas(int[][] datos) {
+        laberintoReemplazado(datos);
+    }
+
+    /**
+     * Crea el índice para una cuadrícula que no cambia, por ejemplo un laberinto
+     * compacto guardado en el servidor. El índice se construye en la primera consulta.
+     *
+     * @param cuadricula La cuadrícula del laberinto.
+     */
+    public ComponentesConexas(Cuadricula cuadricula) {
+        this.cuadricula = cuadricula;
+        this.filas = cuadricula.getFilas();
+        this.columnas = cuadricula.getColumnas();
+        this.desactualizado = true;
+    }
+
+    /**
+     * Indica si existe algún camino entre dos celdas.
+     *
+     * @param filaA    Fila de la primera celda.
+     * @param columnaA Columna de la primera celda.
+     * @param filaB    Fila de la segunda celda.
+     * @param columnaB Columna de la segunda celda.
+     * @return {@code true} si ambas celdas son transitables y pertenecen a la misma región.
+     */
+    public synchronized boolean estanConectadas(int filaA, int columnaA, int filaB, int columnaB) {
+        asegurarActualizado();
+        if (!dentro(filaA, columnaA) || !dentro(filaB, columnaB)) {
+            return false;
+        }
+        int a = filaA * columnas + columnaA;
+        int b = filaB * columnas + columnaB;
+        if (padre[a] < 0 || padre[b] < 0) {
+            return false;
+        }
+        return buscar(a) == buscar(b);
+    }
+
+    /**
+     * Obtiene el número de regiones conexas de celdas transitables.
+     *
+     * @return El número de regiones.
+     */
+    public synchronized int getNumComponentes() {
+        asegurarActualizado();
+        return numComponentes;
+    }
+
+    @Override
+    public synchronized void celdaCambiada(int fila, int columna, int valor) {
+        if (desactualizado || !dentro(fila, columna)) {
+            return;
+        }
+        int celda = fila * columnas + columna;
+        if (valor == 1 && padre[celda] < 0) {
+            // Quitar un muro solo puede unir regiones: se aplica al momento
+            padre[celda] = celda;
+            numComponentes++;
+            if (fila > 0) unirSiTransitable(celda, celda - columnas);
+            if (fila < filas - 1) unirSiTransitable(celda, celda + columnas);
+            if (columna > 0) unirSiTransitable(celda, celda - 1);
+            if (columna < columnas - 1) unirSiTransitable(celda, celda + 1);
+        } else if (valor != 1 && padre[celda] >= 0) {
+            // Poner un muro puede partir una región en varias: se reconstruye cuando se necesite
+            desactualizado = true;
+        }
+    }
+
+    @Override
+    public synchronized void laberintoReemplazado(int[][] datos) {
+        this.datos = datos;
+        this.cuadricula = null;
+        this.filas = datos.length;
+        this.columnas = filas == 0 ? 0 : datos[0].length;
+        this.desactualizado = true;
+    }
+
+    private void asegurarActualizado() {
+        if (desactualizado) {
+            construir();
+            desactualizado = false;
+        }
+    }
+
+    /**
+     * Construye el índice completo: etiquetado paralelo por bandas de filas,
+     * unión de las fronteras entre bandas y aplanado final.
+     */
+    private void construir() {
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para indexar sus regiones: " + filas + "x" + columnas);
+        }
+        int n = (int) totalCeldas;
+        if (padre == null || padre.length != n) {
+            padre = new int[n];
+        }
+        if (n == 0) {
+            numComponentes = 0;
+            return;
+        }
+
+        int numBandas = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                filas / FILAS_MINIMAS_POR_BANDA));
+        int filasPorBanda = (filas + numBandas - 1) / numBandas;
+
+        // 1. Cada banda solo toca los índices de sus propias filas, así que pueden etiquetarse a la vez
+        IntStream.range(0, numBandas).parallel().forEach(banda -> {
+            int desde = banda * filasPorBanda;
+            int hasta = Math.min(filas, desde + filasPorBanda);
+            for (int i = desde; i < hasta; i++) {
+                int[] fila = datos != null ? datos[i] : null;
+                int base = i * columnas;
+                for (int j = 0; j < columnas; j++) {
+                    int celda = base + j;
+                    boolean transitable = fila != null ? fila[j] == 1 : cuadricula.esTransitable(i, j);
+                    if (!transitable) {
+                        padre[celda] = -1;
+                        continue;
+                    }
+                    padre[celda] = celda;
+                    // La vecina izquierda y la de arriba (en la misma banda) ya están etiquetadas
+                    if (j > 0 && padre[celda - 1] >= 0) {
+                        unir(celda, celda - 1);
+                    }
+                    if (i > desde && padre[celda - columnas] >= 0) {
+                        unir(celda, celda - columnas);
+                    }
+                }
+            }
+        });
+
+        // 2. Se unen las regiones que cruzan la frontera entre bandas consecutivas
+        for (int banda = 1; banda < numBandas; banda++) {
+            int i = banda * filasPorBanda;
+            if (i >= filas) break;
+            int base = i * columnas;
+            for (int j = 0; j < columnas; j++) {
+                if (padre[base + j] >= 0 && padre[base + j - columnas] >= 0) {
+                    unir(base + j, base + j - columnas);
+                }
+            }
+        }
+
+        // 3. Cada celda apunta directamente a su raíz y se cuentan las regiones
+        numComponentes = (int) IntStream.range(0, numBandas).parallel().mapToLong(banda -> {
+            int desde = banda * filasPorBanda * columnas;
+            int hasta = Math.min(n, desde + filasPorBanda * columnas);
+            long raices = 0;
+            for (int celda = desde; celda < hasta; celda++) {
+                if (padre[celda] < 0) continue;
+                int raiz = celda;
+                while (padre[raiz] != raiz) {
+                    raiz = padre[raiz];
+                }
+                if (raiz == celda) raices++;
+                padre[celda] = raiz;
+            }
+            return raices;
+        }).sum();
+    }
+
+    private void unirSiTransitable(int celda, int vecina) {
+        if (padre[vecina] >= 0 && unir(celda, vecina)) {
+            numComponentes--;
+        }
+    }
+
+    /**
+     * Une las regiones de dos celdas. La raíz con índice mayor se cuelga de la de
+     * índice menor, por lo que las raíces son siempre la primera celda de su región
+     * en orden de filas.
+     *
+     * @return {@code true} si las celdas estaban en regiones distintas.
+     */
+    private boolean unir(int a, int b) {
+        int raizA = buscar(a);
+        int raizB = buscar(b);
+        if (raizA == raizB) {
+            return false;
+        }
+        if (raizA < raizB) {
+            padre[raizB] = raizA;
+        } else {
+            padre[raizA] = raizB;
+        }
+        return true;
+    }
+
+    /**
+     * Busca la raíz de una celda acortando el camino a la mitad en cada paso.
+     */
+    private int buscar(int celda) {
+        while (padre[celda] != celda) {
+            padre[celda] = padre[padre[celda]];
+            celda = padre[celda];
+        }
+        return celda;
+    }
+
+    private boolean dentro(int fila, int columna) {
+        return fila >= 0 && fila < filas && columna >= 0 && columna < columnas;
+    }
+}
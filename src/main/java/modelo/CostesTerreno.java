@@ -0,0 +1,131 @@
+package modelo;
+
+/**
+ * Capa de costes de terreno de un laberinto: cuánto cuesta entrar en cada celda
+ * (1 = terreno normal, hasta 255 para barro, escaleras, etc.).
+ *
+ * Se guarda un byte por celda con el valor {@code coste - 1}, de modo que un
+ * arreglo recién creado representa un mapa de coste unitario y no necesita
+ * inicializarse. Los muros siguen viviendo en la matriz del laberinto; esta capa
+ * solo tiene sentido en las celdas transitables.
+ *
+ * Características:
+ * <ul>
+ *   <li>Un byte por celda</li>
+ *   <li>Cuenta las celdas con coste distinto de 1 para detectar mapas unitarios</li>
+ *   <li>Mantiene un hash incremental del contenido, como {@link HashLaberinto}</li>
+ * </ul>
+ */
+public class CostesTerreno {
+
+    /** Coste mínimo (y por defecto) de una celda. */
+    public static final int COSTE_MINIMO = 1;
+    /** Coste máximo de una celda. */
+    public static final int COSTE_MAXIMO = 255;
+
+    private final int filas;
+    private final int columnas;
+    private final byte[] costes;
+    private int celdasConCoste;
+    private long hash;
+
+    /**
+     * Crea una capa en la que todas las celdas tienen coste 1.
+     *
+     * @param filas    El número de filas.
+     * @param columnas El número de columnas.
+     */
+    public CostesTerreno(int filas, int columnas) {
+        long total = (long) filas * columnas;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Laberinto demasiado grande para la capa de costes: " + filas + "x" + columnas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.costes = new byte[(int) total];
+    }
+
+    /**
+     * Crea una copia independiente de la capa, por ejemplo para medir un
+     * algoritmo en otro hilo mientras el usuario sigue editando los costes.
+     *
+     * @return La copia, con los mismos costes y el mismo hash.
+     */
+    public CostesTerreno copiar() {
+        CostesTerreno copia = new CostesTerreno(filas, columnas);
+        System.arraycopy(costes, 0, copia.costes, 0, costes.length);
+        copia.celdasConCoste = celdasConCoste;
+        copia.hash = hash;
+        return copia;
+    }
+
+    /**
+     * Obtiene el número de filas.
+     *
+     * @return El número de filas.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Obtiene el número de columnas.
+     *
+     * @return El número de columnas.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Obtiene el coste de entrar en una celda.
+     *
+     * @param fila    La fila de la celda.
+     * @param columna La columna de la celda.
+     * @return El coste, entre {@link #COSTE_MINIMO} y {@link #COSTE_MAXIMO}.
+     */
+    public int getCoste(int fila, int columna) {
+        return (costes[fila * columnas + columna] & 0xFF) + 1;
+    }
+
+    /**
+     * Cambia el coste de entrar en una celda.
+     *
+     * @param fila    La fila de la celda.
+     * @param columna La columna de la celda.
+     * @param coste   El nuevo coste, entre {@link #COSTE_MINIMO} y {@link #COSTE_MAXIMO}.
+     * @throws IllegalArgumentException Si el coste está fuera de rango.
+     */
+    public void setCoste(int fila, int columna, int coste) {
+        if (coste < COSTE_MINIMO || coste > COSTE_MAXIMO) {
+            throw new IllegalArgumentException("El coste debe estar entre " + COSTE_MINIMO + " y " + COSTE_MAXIMO + ": " + coste);
+        }
+        int idx = fila * columnas + columna;
+        int anterior = (costes[idx] & 0xFF) + 1;
+        if (anterior == coste) return;
+        if (anterior == COSTE_MINIMO) celdasConCoste++;
+        if (coste == COSTE_MINIMO) celdasConCoste--;
+        // Cada celda con coste distinto de 1 aporta un valor que depende de su índice y su coste
+        if (anterior != COSTE_MINIMO) hash ^= HashLaberinto.mezclar(((long) idx << 8) | anterior);
+        if (coste != COSTE_MINIMO) hash ^= HashLaberinto.mezclar(((long) idx << 8) | coste);
+        costes[idx] = (byte) (coste - 1);
+    }
+
+    /**
+     * Indica si todas las celdas tienen coste 1, en cuyo caso BFS ya da el camino de menor coste.
+     *
+     * @return {@code true} si el mapa es de coste unitario.
+     */
+    public boolean esUnitario() {
+        return celdasConCoste == 0;
+    }
+
+    /**
+     * Obtiene el hash del contenido de la capa. Vale 0 para un mapa unitario.
+     *
+     * @return El hash de 64 bits.
+     */
+    public long getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,55 @@
+package modelo;
+
+/**
+ * Vista de solo lectura de un laberinto como cuadrícula de celdas transitables
+ * o muros, independiente de cómo se almacene.
+ *
+ * La implementan tanto {@link Laberinto} (matriz de objetos {@link Celda}) como
+ * las representaciones compactas, de modo que los solvers que trabajan con
+ * índices primitivos pueden recorrer cualquiera de ellas con el mismo código.
+ *
+ * Características:
+ * <ul>
+ *   <li>Dimensiones en filas y columnas</li>
+ *   <li>Consulta de transitabilidad por coordenadas</li>
+ *   <li>Coste de entrar en cada celda (1 salvo que la implementación tenga costes de terreno)</li>
+ * </ul>
+ */
+public interface Cuadricula {
+
+    /**
+     * Obtiene el número total de filas.
+     *
+     * @return El número de filas.
+     */
+    int getFilas();
+
+    /**
+     * Obtiene el número total de columnas.
+     *
+     * @return El número de columnas.
+     */
+    int getColumnas();
+
+    /**
+     * Indica si la celda en las coordenadas dadas es transitable.
+     * Las coordenadas deben estar dentro de los límites de la cuadrícula.
+     *
+     * @param fila La coordenada de la fila.
+     * @param columna La coordenada de la columna.
+     * @return {@code true} si la celda es transitable, {@code false} si es un muro.
+     */
+    boolean esTransitable(int fila, int columna);
+
+    /**
+     * Obtiene el coste de entrar en la celda. Por defecto todas las celdas cuestan 1,
+     * por lo que los solvers sin pesos (BFS) siguen encontrando el camino de menor coste.
+     *
+     * @param fila La coordenada de la fila.
+     * @param columna La coordenada de la columna.
+     * @return El coste, entre {@link CostesTerreno#COSTE_MINIMO} y {@link CostesTerreno#COSTE_MAXIMO}.
+     */
+    default int getCoste(int fila, int columna) {
+        return CostesTerreno.COSTE_MINIMO;
+    }
+}
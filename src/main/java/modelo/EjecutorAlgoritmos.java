@@ -0,0 +1,476 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Punto único de ejecución de los algoritmos de búsqueda por nombre.
+ *
+ * Traduce el nombre que muestra la interfaz ("BFS", "DFS", "Recursivo (2 dir)"...)
+ * en la llamada al solver correspondiente y unifica su salida en un
+ * {@link ResultadoBusqueda}. Cada llamada crea sus propias instancias de solver,
+ * por lo que no comparte estado entre ejecuciones. Cada búsqueda se mide (tiempo,
+ * contadores y bytes reservados) y se anota en el {@link RegistroMetricas}; si
+ * se graba con Java Flight Recorder, las fases quedan como {@link EventosBusqueda}.
+ *
+ * Si se pasa el índice de {@link ComponentesConexas} del laberinto, las consultas
+ * cuyos extremos están en regiones distintas se responden al instante con un
+ * resultado vacío, sin explorar nada, sea cual sea el algoritmo.
+ */
+public final class EjecutorAlgoritmos {
+
+    public static final String BFS = "BFS";
+    public static final String DFS = "DFS";
+    public static final String RECURSIVO_2 = "Recursivo (2 dir)";
+    public static final String RECURSIVO_4 = "Recursivo (4 dir)";
+    public static final String BACKTRACKING = "Backtracking";
+    public static final String INCREMENTAL = "Incremental (LPA*)";
+    public static final String CAMPO_DISTANCIAS = "BFS (campo de distancias)";
+    public static final String BFS_BITS = "BFS (64 bits)";
+    public static final String TRANSFORMADA = "BFS (barridos de filas)";
+    public static final String CORREDORES = "Dijkstra (corredores)";
+    public static final String JERARQUICO = "HPA* (jerárquico)";
+    public static final String TERRENO = "Dijkstra (terreno)";
+    public static final String CARRERA_VALIDA = "Carrera (primera ruta)";
+    public static final String CARRERA_OPTIMA = "Carrera (primera óptima)";
+
+    private EjecutorAlgoritmos() {
+        // Clase de utilidad, no instanciable
+    }
+
+    /**
+     * Ejecuta un algoritmo sobre un laberinto.
+     *
+     * @param algoritmo     El nombre del algoritmo.
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El resultado de la búsqueda.
+     * @throws IllegalArgumentException Si el algoritmo no existe.
+     */
+    public static ResultadoBusqueda resolver(String algoritmo, int[][] datos,
+                                             int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return resolver(algoritmo, datos, null, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Ejecuta un algoritmo sobre un laberinto con costes de terreno. Solo
+     * {@link #TERRENO} tiene en cuenta los costes; el resto busca la ruta con
+     * menos pasos.
+     *
+     * @param algoritmo     El nombre del algoritmo.
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param costes        Los costes de terreno, o {@code null} para coste unitario.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El resultado de la búsqueda.
+     * @throws IllegalArgumentException Si el algoritmo no existe.
+     */
+    public static ResultadoBusqueda resolver(String algoritmo, int[][] datos, CostesTerreno costes,
+                                             int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return resolver(algoritmo, datos, null, null, costes, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Ejecuta un algoritmo sobre un laberinto consultando antes su índice de
+     * regiones: si el inicio y el destino no están conectados no se busca.
+     *
+     * @param algoritmo     El nombre del algoritmo.
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param regiones      El índice de regiones de {@code datos}, o {@code null} para buscar siempre.
+     * @param costes        Los costes de terreno, o {@code null} para coste unitario.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El resultado de la búsqueda.
+     * @throws IllegalArgumentException Si el algoritmo no existe.
+     */
+    public static ResultadoBusqueda resolver(String algoritmo, int[][] datos, ComponentesConexas regiones,
+                                             CostesTerreno costes,
+                                             int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return resolver(algoritmo, datos, null, regiones, costes, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Ejecuta un algoritmo sobre una cuadrícula compacta, por ejemplo un
+     * laberinto recibido en el formato binario de {@link ArchivoLaberinto}.
+     * {@link #CAMPO_DISTANCIAS}, {@link #BFS_BITS} y {@link #TRANSFORMADA}
+     * trabajan directamente sobre los bits; el resto necesita la matriz de enteros, que se crea solo para
+     * esta búsqueda (ver {@link #trabajaSobreBits(String)}).
+     *
+     * @param algoritmo     El nombre del algoritmo.
+     * @param cuadricula    La cuadrícula del laberinto.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El resultado de la búsqueda.
+     * @throws IllegalArgumentException Si el algoritmo no existe.
+     */
+    public static ResultadoBusqueda resolver(String algoritmo, Cuadricula cuadricula,
+                                             int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return resolver(algoritmo, cuadricula, null, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Ejecuta un algoritmo sobre una cuadrícula compacta consultando antes su
+     * índice de regiones. Una consulta imposible se descarta antes de crear la
+     * matriz de enteros.
+     *
+     * @param algoritmo     El nombre del algoritmo.
+     * @param cuadricula    La cuadrícula del laberinto.
+     * @param regiones      El índice de regiones de la cuadrícula, o {@code null} para buscar siempre.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El resultado de la búsqueda.
+     * @throws IllegalArgumentException Si el algoritmo no existe.
+     */
+    public static ResultadoBusqueda resolver(String algoritmo, Cuadricula cuadricula, ComponentesConexas regiones,
+                                             int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return resolver(algoritmo, null, cuadricula, regiones, null, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Responde sin buscar a una consulta cuyos extremos no están conectados.
+     * Sirve también a quien resuelve con solvers propios fuera de esta clase.
+     *
+     * @param algoritmo     El nombre del algoritmo, para el resultado.
+     * @param regiones      El índice de regiones del laberinto, o {@code null}.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return Un resultado vacío si el índice descarta la consulta, o {@code null} si hay que buscar.
+     */
+    public static ResultadoBusqueda descartarSinConexion(String algoritmo, ComponentesConexas regiones,
+                                                         int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        if (regiones == null || regiones.estanConectadas(filaInicio, columnaInicio, filaFin, columnaFin)) {
+            return null;
+        }
+        return new ResultadoBusqueda(algoritmo, new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Indica si un algoritmo resuelve directamente sobre una cuadrícula de bits,
+     * sin convertirla a {@code int[][]} (32 veces más grande).
+     *
+     * @param algoritmo El nombre del algoritmo.
+     * @return {@code true} para {@link #CAMPO_DISTANCIAS}, {@link #BFS_BITS} y {@link #TRANSFORMADA}.
+     */
+    public static boolean trabajaSobreBits(String algoritmo) {
+        return algoritmo.equals(CAMPO_DISTANCIAS) || algoritmo.equals(BFS_BITS) || algoritmo.equals(TRANSFORMADA);
+    }
+
+    /**
+     * Calcula en una sola pasada la distancia desde el inicio hasta varias metas.
+     * {@link #BFS} se detiene al alcanzar todas las metas transitables;
+     * {@link #CAMPO_DISTANCIAS} y {@link #TRANSFORMADA} calculan el campo completo,
+     * y la transformada lo hace por barridos de filas, que en laberintos abiertos
+     * necesitan pocas pasadas.
+     *
+     * @param algoritmo     {@link #BFS}, {@link #CAMPO_DISTANCIAS} o {@link #TRANSFORMADA}.
+     * @param cuadricula    La cuadrícula del laberinto.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param metas         Las metas como [fila, columna].
+     * @return La distancia a cada meta, en el mismo orden, o -1 si no es alcanzable.
+     * @throws IllegalArgumentException Si el algoritmo no calcula distancias a varias metas.
+     */
+    public static int[] distanciasAMetas(String algoritmo, Cuadricula cuadricula, int filaInicio, int columnaInicio,
+                                         List<int[]> metas) {
+        switch (algoritmo) {
+            case BFS:
+                return new SolverBFS().distanciasAMetas(cuadricula, filaInicio, columnaInicio, metas);
+            case CAMPO_DISTANCIAS: {
+                CampoDistancias campo = new CampoDistancias();
+                campo.calcular(cuadricula, filaInicio, columnaInicio);
+                int[] distancias = new int[metas.size()];
+                for (int i = 0; i < distancias.length; i++) {
+                    int[] meta = metas.get(i);
+                    boolean dentro = meta[0] >= 0 && meta[0] < cuadricula.getFilas()
+                            && meta[1] >= 0 && meta[1] < cuadricula.getColumnas();
+                    distancias[i] = dentro ? campo.getDistancia(meta[0], meta[1]) : -1;
+                }
+                return distancias;
+            }
+            case TRANSFORMADA: {
+                TransformadaDistancias transformada = new TransformadaDistancias();
+                transformada.calcular(cuadricula, filaInicio, columnaInicio);
+                return transformada.distanciasA(metas);
+            }
+            default:
+                throw new IllegalArgumentException("El algoritmo no calcula distancias a varias metas: " + algoritmo);
+        }
+    }
+
+    /**
+     * Núcleo de {@code resolver}: {@code datos} puede ser {@code null} si se pasa
+     * {@code cuadricula}; la matriz de enteros solo se crea si el algoritmo no
+     * trabaja sobre bits y el índice de regiones no descarta la consulta.
+     */
+    private static ResultadoBusqueda resolver(String algoritmo, int[][] datos, Cuadricula cuadricula,
+                                              ComponentesConexas regiones, CostesTerreno costes,
+                                              int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        ResultadoBusqueda descartado = descartarSinConexion(algoritmo, regiones, filaInicio, columnaInicio, filaFin, columnaFin);
+        if (descartado != null) {
+            return descartado;
+        }
+        if (datos == null && !trabajaSobreBits(algoritmo)) {
+            datos = aMatrizEnteros(cuadricula);
+        }
+        int filas = datos != null ? datos.length : cuadricula.getFilas();
+        int columnas = datos != null ? (filas == 0 ? 0 : datos[0].length) : cuadricula.getColumnas();
+        List<int[]> ruta;
+        List<int[]> visitadas;
+        MetricasBusqueda metricas = null;
+        RegistroMetricas registro = RegistroMetricas.getInstancia();
+        long bytesAntes = registro.bytesAsignadosHiloActual();
+        EventosBusqueda.Busqueda evento = new EventosBusqueda.Busqueda();
+        evento.begin();
+        long inicio = System.nanoTime();
+        switch (algoritmo) {
+            case BFS: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                SolverBFS bfs = new SolverBFS();
+                ruta = convertirRuta(bfs.buscarRuta(laberinto,
+                        laberinto.getCelda(filaInicio, columnaInicio), laberinto.getCelda(filaFin, columnaFin)), algoritmo, laberinto);
+                visitadas = convertirRuta(bfs.getRecorrido(), algoritmo, laberinto);
+                metricas = bfs.getMetricas();
+                break;
+            }
+            case DFS: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                SolverDFS dfs = new SolverDFS();
+                ruta = convertirRuta(dfs.buscarRuta(laberinto,
+                        laberinto.getCelda(filaInicio, columnaInicio), laberinto.getCelda(filaFin, columnaFin)), algoritmo, laberinto);
+                visitadas = convertirRuta(dfs.getRecorrido(), algoritmo, laberinto);
+                metricas = dfs.getMetricas();
+                break;
+            }
+            case RECURSIVO_2: {
+                SolverRecursivo rec2 = new SolverRecursivo();
+                ruta = rec2.resolver2Direcciones(datos, filaInicio, columnaInicio, filaFin, columnaFin);
+                visitadas = rec2.getCeldasVisitadas();
+                metricas = rec2.getMetricas();
+                break;
+            }
+            case BACKTRACKING:
+            case RECURSIVO_4: { // Ambos usan la misma lógica de backtracking
+                SolverRecursivo backtrack = new SolverRecursivo();
+                ruta = backtrack.resolverBacktracking(datos, filaInicio, columnaInicio, filaFin, columnaFin);
+                visitadas = backtrack.getCeldasVisitadas();
+                metricas = backtrack.getMetricas();
+                break;
+            }
+            case INCREMENTAL: {
+                // Sin un solver persistente no hay estado que reutilizar: equivale a una búsqueda A* completa
+                SolverIncremental incremental = new SolverIncremental();
+                ruta = incremental.resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin);
+                visitadas = incremental.getCeldasExpandidas();
+                break;
+            }
+            case CAMPO_DISTANCIAS: {
+                CampoDistancias campo = new CampoDistancias();
+                campo.calcular(cuadricula != null ? cuadricula : MatrizBits.desdeMatrizEnteros(datos), filaInicio, columnaInicio);
+                ruta = campo.rutaHacia(filaFin, columnaFin);
+                visitadas = campo.getOrdenVisita();
+                break;
+            }
+            case BFS_BITS: {
+                SolverOndaBits onda = new SolverOndaBits();
+                visitadas = new ArrayList<>();
+                MatrizBits bits = cuadricula != null ? MatrizBits.desdeCuadricula(cuadricula) : MatrizBits.desdeMatrizEnteros(datos);
+                ruta = onda.buscarRuta(bits, filaInicio, columnaInicio, filaFin, columnaFin, visitadas);
+                metricas = onda.getMetricas();
+                break;
+            }
+            case TRANSFORMADA: {
+                TransformadaDistancias transformada = new TransformadaDistancias();
+                transformada.calcular(cuadricula != null ? cuadricula : MatrizBits.desdeMatrizEnteros(datos),
+                        filaInicio, columnaInicio);
+                ruta = transformada.rutaHacia(filaFin, columnaFin);
+                // Los barridos no tienen orden de visita: no hay exploración que reproducir
+                visitadas = new ArrayList<>();
+                metricas = new MetricasBusqueda(transformada.getCeldasAlcanzadas(), transformada.getCeldasAlcanzadas(), 0);
+                break;
+            }
+            case CORREDORES: {
+                SolverCorredores corredores = new SolverCorredores();
+                ruta = corredores.resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin);
+                visitadas = corredores.getNodosVisitados();
+                break;
+            }
+            case JERARQUICO: {
+                SolverJerarquico jerarquico = new SolverJerarquico();
+                ruta = jerarquico.suavizar(jerarquico.resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin));
+                visitadas = jerarquico.getNodosExpandidos();
+                break;
+            }
+            case TERRENO: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                laberinto.setCostes(costes);
+                SolverDial dial = new SolverDial();
+                ruta = dial.buscarRuta(laberinto, filaInicio, columnaInicio, filaFin, columnaFin);
+                visitadas = dial.getRecorridoCoordenadas();
+                metricas = dial.getMetricas();
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Algoritmo no reconocido o implementado: " + algoritmo);
+        }
+        long tiempo = System.nanoTime() - inicio;
+        long bytesDespues = registro.bytesAsignadosHiloActual();
+        evento.terminar(algoritmo, filas, columnas, visitadas.size(), ruta.size());
+
+        if (metricas == null) {
+            metricas = new MetricasBusqueda(visitadas.size(), visitadas.size(), 0);
+        }
+        metricas.setTiempoNanos(tiempo);
+        metricas.setBytesAsignados(bytesAntes < 0 || bytesDespues < 0 ? -1 : bytesDespues - bytesAntes);
+        if (!Thread.currentThread().isInterrupted()) { // Las búsquedas canceladas no son representativas
+            registro.registrar(algoritmo, metricas);
+        }
+        return new ResultadoBusqueda(algoritmo, ruta, visitadas, metricas);
+    }
+
+    /**
+     * Prepara una búsqueda para ejecutarla muchas veces midiendo solo la búsqueda.
+     * La construcción del modelo de celdas se hace aquí, una vez, y cada llamada
+     * a la función devuelta crea un solver nuevo y busca sin convertir la ruta ni
+     * anotar métricas. Los solvers que trabajan sobre la matriz construyen sus
+     * estructuras dentro de la búsqueda, así que en ellos forman parte de la medida.
+     *
+     * @param algoritmo     El nombre del algoritmo (las carreras no se admiten).
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param costes        Los costes de terreno, o {@code null} para coste unitario.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return Una función que ejecuta una búsqueda y devuelve la longitud de la ruta.
+     * @throws IllegalArgumentException Si el algoritmo no existe o no se puede medir así.
+     */
+    public static IntSupplier prepararBusqueda(String algoritmo, int[][] datos, CostesTerreno costes,
+                                               int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        switch (algoritmo) {
+            case BFS: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                Celda inicio = laberinto.getCelda(filaInicio, columnaInicio);
+                Celda fin = laberinto.getCelda(filaFin, columnaFin);
+                return () -> new SolverBFS().buscarRuta(laberinto, inicio, fin).size();
+            }
+            case DFS: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                Celda inicio = laberinto.getCelda(filaInicio, columnaInicio);
+                Celda fin = laberinto.getCelda(filaFin, columnaFin);
+                return () -> new SolverDFS().buscarRuta(laberinto, inicio, fin).size();
+            }
+            case RECURSIVO_2:
+                return () -> new SolverRecursivo().resolver2Direcciones(datos, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            case BACKTRACKING:
+            case RECURSIVO_4:
+                return () -> new SolverRecursivo().resolverBacktracking(datos, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            case INCREMENTAL:
+                return () -> new SolverIncremental().resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            case CAMPO_DISTANCIAS: {
+                MatrizBits matriz = MatrizBits.desdeMatrizEnteros(datos);
+                return () -> {
+                    CampoDistancias campo = new CampoDistancias();
+                    campo.calcular(matriz, filaInicio, columnaInicio);
+                    return campo.rutaHacia(filaFin, columnaFin).size();
+                };
+            }
+            case BFS_BITS: {
+                MatrizBits matriz = MatrizBits.desdeMatrizEnteros(datos);
+                return () -> new SolverOndaBits().buscarRuta(matriz, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            }
+            case TRANSFORMADA: {
+                MatrizBits matriz = MatrizBits.desdeMatrizEnteros(datos);
+                return () -> {
+                    TransformadaDistancias transformada = new TransformadaDistancias();
+                    transformada.calcular(matriz, filaInicio, columnaInicio);
+                    return transformada.rutaIndices(filaFin, columnaFin).length;
+                };
+            }
+            case CORREDORES:
+                return () -> new SolverCorredores().resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            case JERARQUICO:
+                return () -> new SolverJerarquico().resolver(datos, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            case TERRENO: {
+                Laberinto laberinto = crearLaberinto(datos, algoritmo);
+                laberinto.setCostes(costes);
+                return () -> new SolverDial().buscarRuta(laberinto, filaInicio, columnaInicio, filaFin, columnaFin).size();
+            }
+            case CARRERA_VALIDA:
+            case CARRERA_OPTIMA:
+                throw new IllegalArgumentException("Las carreras no se pueden medir repetidamente: " + algoritmo);
+            default:
+                throw new IllegalArgumentException("Algoritmo no reconocido o implementado: " + algoritmo);
+        }
+    }
+
+    private static int[][] aMatrizEnteros(Cuadricula cuadricula) {
+        if (cuadricula instanceof LaberintoMapeado) {
+            return ((LaberintoMapeado) cuadricula).aMatrizEnteros();
+        }
+        return MatrizBits.desdeCuadricula(cuadricula).aMatrizEnteros();
+    }
+
+    /**
+     * Construye un {@link Laberinto} a partir de la matriz de enteros.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     * @return El laberinto equivalente.
+     */
+    public static Laberinto crearLaberinto(int[][] datos) {
+        return crearLaberinto(datos, null);
+    }
+
+    private static Laberinto crearLaberinto(int[][] datos, String algoritmo) {
+        EventosBusqueda.Construccion evento = new EventosBusqueda.Construccion();
+        evento.begin();
+        Laberinto laberinto = new Laberinto(datos.length, datos[0].length);
+        for (int i = 0; i < datos.length; i++) {
+            for (int j = 0; j < datos[0].length; j++) {
+                if (datos[i][j] == 0) {
+                    laberinto.setMuro(i, j);
+                }
+            }
+        }
+        evento.terminar(algoritmo, datos.length, datos[0].length, (long) datos.length * datos[0].length);
+        return laberinto;
+    }
+
+    /**
+     * Convierte una lista de celdas en una lista de coordenadas [fila, columna].
+     *
+     * @param celdas La lista de celdas (puede ser {@code null}).
+     * @return La lista de coordenadas.
+     */
+    public static List<int[]> convertirRuta(List<Celda> celdas) {
+        return convertirRuta(celdas, null, null);
+    }
+
+    private static List<int[]> convertirRuta(List<Celda> celdas, String algoritmo, Laberinto laberinto) {
+        if (celdas == null) {
+            return new ArrayList<>();
+        }
+        EventosBusqueda.Conversion evento = new EventosBusqueda.Conversion();
+        evento.begin();
+        List<int[]> coordenadas = celdas.stream()
+                .map(c -> new int[]{c.getFila(), c.getColumna()})
+                .collect(Collectors.toList());
+        evento.terminar(algoritmo, laberinto == null ? 0 : laberinto.getFilas(),
+                laberinto == null ? 0 : laberinto.getColumnas(), coordenadas.size());
+        return coordenadas;
+    }
+}
@@ -0,0 +1,133 @@
+package modelo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos de Java Flight Recorder para cada fase de una resolución, para saber
+ * en una grabación si el tiempo se fue en construir el modelo, buscar,
+ * reconstruir la ruta, convertirla o pintarla.
+ *
+ * Todos están desactivados por defecto. Se activan al grabar, por ejemplo con
+ * {@code -XX:StartFlightRecording:filename=laberinto.jfr,+modelo.Busqueda#enabled=true,+modelo.Construccion#enabled=true,...}
+ * o con un fichero {@code .jfc} que los active. Desactivados, cada fase solo crea un objeto que
+ * no escapa y consulta {@code shouldCommit()}; los campos se rellenan solo si
+ * el evento se va a grabar.
+ *
+ * Las fases se anidan: {@link Busqueda} cubre la búsqueda entera, incluida la
+ * reconstrucción de la ruta; {@link InformeJFR} descuenta las fases internas
+ * para dar el tiempo propio de cada una.
+ *
+ * Características:
+ * <ul>
+ *   <li>Un evento por fase con el algoritmo, las dimensiones y las celdas tratadas</li>
+ *   <li>Sin pila de llamadas, para que grabar las fases cueste lo mínimo</li>
+ *   <li>Categoría "Laberinto" en JDK Mission Control</li>
+ * </ul>
+ */
+public final class EventosBusqueda {
+
+    private EventosBusqueda() {
+        // Solo agrupa las clases de eventos
+    }
+
+    /**
+     * Campos comunes a todas las fases.
+     */
+    @Category("Laberinto")
+    @Enabled(false)
+    @StackTrace(false)
+    abstract static class Fase extends Event {
+        @Label("Algoritmo")
+        String algoritmo;
+
+        @Label("Filas")
+        int filas;
+
+        @Label("Columnas")
+        int columnas;
+
+        @Label("Celdas")
+        @Description("Celdas tratadas en la fase (ver cada evento)")
+        long celdas;
+
+        /**
+         * Termina la fase y la graba si el evento está activo.
+         */
+        void terminar(String algoritmo, int filas, int columnas, long celdas) {
+            end();
+            if (shouldCommit()) {
+                this.algoritmo = algoritmo;
+                this.filas = filas;
+                this.columnas = columnas;
+                this.celdas = celdas;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Construcción del modelo de celdas a partir de la matriz. Las celdas son
+     * las del laberinto completo.
+     */
+    @Name("modelo.Construccion")
+    @Label("Construcción del laberinto")
+    public static final class Construccion extends Fase {
+    }
+
+    /**
+     * Búsqueda completa de un algoritmo. Las celdas son las visitadas.
+     */
+    @Name("modelo.Busqueda")
+    @Label("Búsqueda")
+    public static final class Busqueda extends Fase {
+        @Label("Longitud de la ruta")
+        int longitudRuta;
+
+        /**
+         * Termina la búsqueda y la graba si el evento está activo.
+         */
+        void terminar(String algoritmo, int filas, int columnas, long visitadas, int longitudRuta) {
+            this.longitudRuta = longitudRuta;
+            terminar(algoritmo, filas, columnas, visitadas);
+        }
+    }
+
+    /**
+     * Reconstrucción de la ruta a partir de los predecesores. Las celdas son las
+     * de la ruta.
+     */
+    @Name("modelo.Reconstruccion")
+    @Label("Reconstrucción de la ruta")
+    public static final class Reconstruccion extends Fase {
+    }
+
+    /**
+     * Conversión de una lista de celdas a coordenadas. Las celdas son las convertidas.
+     */
+    @Name("modelo.Conversion")
+    @Label("Conversión a coordenadas")
+    public static final class Conversion extends Fase {
+    }
+
+    /**
+     * Pintado del laberinto en la interfaz. Las celdas son las de la región
+     * repintada.
+     */
+    @Name("modelo.Pintado")
+    @Label("Pintado")
+    public static final class Pintado extends Fase {
+
+        /**
+         * Termina el pintado y lo graba si el evento está activo.
+         */
+        public void terminar(int filas, int columnas, long celdas) {
+            terminar(null, filas, columnas, celdas);
+        }
+    }
+}
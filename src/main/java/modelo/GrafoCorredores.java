@@ -0,0 +1,231 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Grafo del laberinto en el que cada corredor se contrae en una única arista.
+ *
+ * Solo son nodos las celdas transitables que no tienen exactamente dos vecinas
+ * transitables: cruces, bifurcaciones y callejones. Todo tramo de celdas con dos
+ * vecinas que une dos nodos se convierte en una arista cuyo peso es el número de
+ * pasos. En laberintos con muchos pasillos el número de nodos es una pequeña
+ * fracción del de celdas.
+ *
+ * La adyacencia se guarda en formato CSR (arreglos primitivos): las aristas del
+ * nodo {@code u} ocupan las posiciones {@code [inicio[u], inicio[u + 1])} de
+ * {@code destino}, {@code peso} y {@code direccion}. La dirección es el primer
+ * paso desde el nodo, suficiente para volver a recorrer el corredor y expandir
+ * una arista en celdas, así que el grafo no guarda las celdas de cada corredor.
+ *
+ * Características:
+ * <ul>
+ *   <li>Se construye en un único recorrido de la cuadrícula y no se modifica después</li>
+ *   <li>Los nodos se numeran en orden de filas, así que buscar el nodo de una celda es una búsqueda binaria</li>
+ *   <li>Permite recorrer un corredor celda a celda para reconstruir rutas</li>
+ * </ul>
+ */
+public class GrafoCorredores {
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    static final int[] dx = {-1, 1, 0, 0};
+    static final int[] dy = {0, 0, -1, 1};
+
+    private final Cuadricula cuadricula;
+    private final int filas;
+    private final int columnas;
+    private final int celdasTransitables;
+
+    /** Celda (índice lineal) de cada nodo, en orden creciente. */
+    final int[] celdaNodo;
+    final int[] inicio;
+    final int[] destino;
+    final int[] peso;
+    final byte[] direccion;
+
+    private GrafoCorredores(Cuadricula cuadricula, int celdasTransitables, int[] celdaNodo,
+                            int[] inicio, int[] destino, int[] peso, byte[] direccion) {
+        this.cuadricula = cuadricula;
+        this.filas = cuadricula.getFilas();
+        this.columnas = cuadricula.getColumnas();
+        this.celdasTransitables = celdasTransitables;
+        this.celdaNodo = celdaNodo;
+        this.inicio = inicio;
+        this.destino = destino;
+        this.peso = peso;
+        this.direccion = direccion;
+    }
+
+    /**
+     * Construye el grafo contraído de una cuadrícula. La cuadrícula se conserva por
+     * referencia para recorrer los corredores, así que no debe modificarse después.
+     *
+     * @param cuadricula La cuadrícula del laberinto.
+     * @return El grafo de corredores.
+     */
+    public static GrafoCorredores construir(Cuadricula cuadricula) {
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        if ((long) filas * columnas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para contraer sus corredores: " + filas + "x" + columnas);
+        }
+
+        // 1. Nodos: celdas transitables con un número de vecinas distinto de dos
+        int[] celdaNodo = new int[64];
+        int numNodos = 0;
+        int celdasTransitables = 0;
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                if (!cuadricula.esTransitable(i, j)) continue;
+                celdasTransitables++;
+                if (contarVecinas(cuadricula, i, j) != 2) {
+                    if (numNodos == celdaNodo.length) {
+                        celdaNodo = Arrays.copyOf(celdaNodo, numNodos * 2);
+                    }
+                    celdaNodo[numNodos++] = i * columnas + j;
+                }
+            }
+        }
+        celdaNodo = Arrays.copyOf(celdaNodo, numNodos);
+
+        // 2. Aristas: desde cada nodo se sigue cada corredor hasta el siguiente nodo
+        GrafoCorredores parcial = new GrafoCorredores(cuadricula, celdasTransitables, celdaNodo,
+                new int[numNodos + 1], null, null, null);
+        int[] inicio = parcial.inicio;
+        int[] destino = new int[Math.max(16, numNodos * 2)];
+        int[] peso = new int[destino.length];
+        byte[] direccion = new byte[destino.length];
+        int numAristas = 0;
+        for (int u = 0; u < numNodos; u++) {
+            inicio[u] = numAristas;
+            int celda = celdaNodo[u];
+            for (int d = 0; d < 4; d++) {
+                if (parcial.vecina(celda, d) < 0) continue;
+                long fin = parcial.recorrerCorredor(celda, d, -1, null);
+                int celdaFin = (int) (fin >>> 32);
+                if (celdaFin == celda) continue; // Corredor que vuelve al mismo nodo: nunca acorta una ruta
+                if (numAristas == destino.length) {
+                    destino = Arrays.copyOf(destino, numAristas * 2);
+                    peso = Arrays.copyOf(peso, numAristas * 2);
+                    direccion = Arrays.copyOf(direccion, numAristas * 2);
+                }
+                destino[numAristas] = Arrays.binarySearch(celdaNodo, celdaFin);
+                peso[numAristas] = (int) fin;
+                direccion[numAristas] = (byte) d;
+                numAristas++;
+            }
+        }
+        inicio[numNodos] = numAristas;
+        return new GrafoCorredores(cuadricula, celdasTransitables, celdaNodo, inicio,
+                Arrays.copyOf(destino, numAristas), Arrays.copyOf(peso, numAristas), Arrays.copyOf(direccion, numAristas));
+    }
+
+    /**
+     * Obtiene el número de nodos del grafo.
+     *
+     * @return Los nodos (cruces, bifurcaciones y callejones).
+     */
+    public int getNumNodos() {
+        return celdaNodo.length;
+    }
+
+    /**
+     * Obtiene el número de aristas dirigidas del grafo (cada corredor cuenta dos veces).
+     *
+     * @return Las aristas.
+     */
+    public int getNumAristas() {
+        return destino.length;
+    }
+
+    /**
+     * Obtiene el número de celdas transitables de la cuadrícula original.
+     *
+     * @return Las celdas transitables.
+     */
+    public int getCeldasTransitables() {
+        return celdasTransitables;
+    }
+
+    int getColumnas() {
+        return columnas;
+    }
+
+    boolean esTransitable(int celda) {
+        return celda >= 0 && cuadricula.esTransitable(celda / columnas, celda % columnas);
+    }
+
+    /**
+     * Devuelve el nodo de una celda, o -1 si la celda no es un nodo.
+     */
+    int nodoDeCelda(int celda) {
+        int nodo = Arrays.binarySearch(celdaNodo, celda);
+        return nodo >= 0 ? nodo : -1;
+    }
+
+    /**
+     * Devuelve la vecina transitable en la dirección indicada, o -1 si no existe.
+     */
+    int vecina(int celda, int direccion) {
+        int fila = celda / columnas + dx[direccion];
+        int columna = celda % columnas + dy[direccion];
+        if (fila < 0 || fila >= filas || columna < 0 || columna >= columnas || !cuadricula.esTransitable(fila, columna)) {
+            return -1;
+        }
+        return fila * columnas + columna;
+    }
+
+    /**
+     * Recorre un corredor desde una celda dando el primer paso en la dirección
+     * indicada y siguiendo la única continuación posible hasta llegar a un nodo, a
+     * la celda de parada o de vuelta a la celda de partida.
+     *
+     * @param desde        La celda de partida.
+     * @param primerPaso   La dirección del primer paso.
+     * @param parada       Una celda en la que detenerse aunque no sea nodo (-1 para ninguna).
+     * @param celdas       Si no es {@code null}, recibe las celdas recorridas (sin la de partida).
+     * @return La celda final en los 32 bits altos y el número de pasos en los bajos.
+     */
+    long recorrerCorredor(int desde, int primerPaso, int parada, RutaIndices celdas) {
+        int anterior = desde;
+        int actual = vecina(desde, primerPaso);
+        int pasos = 1;
+        while (true) {
+            if (celdas != null) celdas.agregar(actual);
+            if (actual == parada || actual == desde || nodoDeCelda(actual) >= 0) {
+                return ((long) actual << 32) | pasos;
+            }
+            int siguiente = -1;
+            for (int d = 0; d < 4 && siguiente < 0; d++) {
+                int v = vecina(actual, d);
+                if (v >= 0 && v != anterior) siguiente = v;
+            }
+            anterior = actual;
+            actual = siguiente;
+            pasos++;
+        }
+    }
+
+    private static int contarVecinas(Cuadricula cuadricula, int fila, int columna) {
+        int vecinas = 0;
+        if (fila > 0 && cuadricula.esTransitable(fila - 1, columna)) vecinas++;
+        if (fila < cuadricula.getFilas() - 1 && cuadricula.esTransitable(fila + 1, columna)) vecinas++;
+        if (columna > 0 && cuadricula.esTransitable(fila, columna - 1)) vecinas++;
+        if (columna < cuadricula.getColumnas() - 1 && cuadricula.esTransitable(fila, columna + 1)) vecinas++;
+        return vecinas;
+    }
+
+    /**
+     * Lista creciente de índices de celda, para acumular rutas sin crear objetos por paso.
+     */
+    static final class RutaIndices {
+        int[] celdas = new int[64];
+        int tamano;
+
+        void agregar(int celda) {
+            if (tamano == celdas.length) {
+                celdas = Arrays.copyOf(celdas, tamano * 2);
+            }
+            celdas[tamano++] = celda;
+        }
+    }
+}
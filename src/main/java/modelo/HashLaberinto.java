@@ -0,0 +1,104 @@
+package modelo;
+
+/**
+ * Hash de 64 bits del contenido de un laberinto que se mantiene de forma
+ * incremental.
+ *
+ * El hash es la combinación XOR de un valor derivado de las dimensiones y de un
+ * valor pseudoaleatorio por cada celda que es muro (hashing de Zobrist). Al
+ * cambiar una celda basta con aplicar XOR con el valor de esa celda, así que
+ * mantenerlo cuesta O(1) por edición; solo al reemplazar el laberinto completo
+ * se recorre la matriz.
+ *
+ * Dos laberintos con el mismo hash se consideran iguales. Con 64 bits la
+ * probabilidad de colisión entre laberintos distintos es despreciable para el
+ * uso como clave de caché.
+ */
+public final class HashLaberinto implements ObservadorLaberinto {
+    private long valor;
+    private int columnas;
+
+    /**
+     * Crea el hash del laberinto indicado.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     */
+    public HashLaberinto(int[][] datos) {
+        laberintoReemplazado(datos);
+    }
+
+    /**
+     * Obtiene el valor actual del hash.
+     *
+     * @return El hash de 64 bits del contenido del laberinto.
+     */
+    public long getValor() {
+        return valor;
+    }
+
+    @Override
+    public void celdaCambiada(int fila, int columna, int nuevoValor) {
+        // Tanto al poner como al quitar un muro, su contribución se invierte con XOR
+        valor ^= mezclar((long) fila * columnas + columna);
+    }
+
+    @Override
+    public void laberintoReemplazado(int[][] datos) {
+        this.valor = calcular(datos);
+        this.columnas = datos.length == 0 ? 0 : datos[0].length;
+    }
+
+    /**
+     * Calcula desde cero el hash de una matriz de laberinto.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     * @return El hash de 64 bits.
+     */
+    public static long calcular(int[][] datos) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        long hash = mezclar(((long) filas << 32) ^ columnas ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < filas; i++) {
+            long base = (long) i * columnas;
+            for (int j = 0; j < columnas; j++) {
+                if (datos[i][j] == 0) {
+                    hash ^= mezclar(base + j);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Calcula desde cero el hash de cualquier {@link Cuadricula}. Da el mismo
+     * resultado que {@link #calcular(int[][])} para el mismo contenido.
+     *
+     * @param cuadricula La cuadrícula.
+     * @return El hash de 64 bits.
+     */
+    public static long calcular(Cuadricula cuadricula) {
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        long hash = mezclar(((long) filas << 32) ^ columnas ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < filas; i++) {
+            long base = (long) i * columnas;
+            for (int j = 0; j < columnas; j++) {
+                if (!cuadricula.esTransitable(i, j)) {
+                    hash ^= mezclar(base + j);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Función de mezcla de 64 bits (finalizador de SplitMix64): convierte el
+     * índice de una celda en un valor pseudoaleatorio bien distribuido.
+     */
+    static long mezclar(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,389 @@
+package modelo;
+
+import javax.imageio.ImageIO;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Convierte una imagen (por ejemplo, un plano escaneado) en un laberinto.
+ *
+ * Cada bloque de {@code bloque × bloque} píxeles se convierte en una celda. La
+ * celda es un muro si alguno de sus píxeles tiene una luminancia menor que el
+ * umbral; así, las paredes finas del plano no desaparecen al reducir la imagen y
+ * no se abren huecos entre habitaciones. Los píxeles transparentes se componen
+ * sobre blanco.
+ *
+ * Para archivos PNG no entrelazados la imagen nunca se carga completa:
+ * <ul>
+ *   <li>El flujo IDAT se descomprime y desfiltra fila a fila en un único hilo.</li>
+ *   <li>Las filas se agrupan en franjas de unos pocos MB (múltiplo del bloque).</li>
+ *   <li>Cada franja se umbraliza en paralelo por filas de salida mientras se decodifica la siguiente.</li>
+ *   <li>La memoria usada, aparte del laberinto resultante, es constante (dos franjas).</li>
+ * </ul>
+ * Cualquier otro formato se lee con {@link ImageIO} como imagen completa.
+ */
+public final class ImportadorImagen {
+
+    /** Umbral de luminancia (0..255) por defecto: más oscuro que esto es muro. */
+    public static final int UMBRAL_POR_DEFECTO = 128;
+
+    private static final byte[] FIRMA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int BYTES_POR_FRANJA = 8 << 20;
+
+    private ImportadorImagen() {
+        // Clase de utilidad, no instanciable
+    }
+
+    /**
+     * Importa una imagen como laberinto.
+     *
+     * @param archivo La imagen a importar.
+     * @param bloque  Lado del bloque de píxeles que forma cada celda (1 = una celda por píxel).
+     * @param umbral  Luminancia (0..255) por debajo de la cual un píxel se considera muro.
+     * @return El laberinto resultante, con una celda por bloque.
+     * @throws IOException Si la imagen no se puede leer o su formato no es válido.
+     */
+    public static MatrizBits importar(Path archivo, int bloque, int umbral) throws IOException {
+        if (bloque < 1) {
+            throw new IllegalArgumentException("El factor de reducción debe ser al menos 1.");
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16)) {
+            byte[] firma = in.readNBytes(FIRMA_PNG.length);
+            if (Arrays.equals(firma, FIRMA_PNG)) {
+                LectorPng png = new LectorPng(new DataInputStream(in));
+                if (!png.entrelazado) {
+                    return importarPng(png, bloque, umbral);
+                }
+            }
+        }
+        return importarConImageIO(archivo, bloque, umbral);
+    }
+
+    /**
+     * Decodifica el PNG franja a franja. Mientras una franja se umbraliza en
+     * paralelo, el hilo actual decodifica la siguiente en el otro búfer.
+     */
+    private static MatrizBits importarPng(LectorPng png, int bloque, int umbral) throws IOException {
+        int ancho = png.ancho;
+        int alto = png.alto;
+        MatrizBits resultado = new MatrizBits((alto + bloque - 1) / bloque, (ancho + bloque - 1) / bloque);
+        int filasPorFranja = bloque * Math.max(1, BYTES_POR_FRANJA / (png.bytesPorFila * bloque));
+        byte[][][] buffers = {
+                new byte[filasPorFranja][png.bytesPorFila],
+                new byte[filasPorFranja][png.bytesPorFila]
+        };
+
+        CompletableFuture<Void> pendiente = CompletableFuture.completedFuture(null);
+        int actual = 0;
+        for (int filaInicial = 0; filaInicial < alto; filaInicial += filasPorFranja) {
+            int filasFranja = Math.min(filasPorFranja, alto - filaInicial);
+            byte[][] franja = buffers[actual];
+            for (int k = 0; k < filasFranja; k++) {
+                png.leerFila(franja[k]);
+            }
+            pendiente.join(); // La franja anterior debe terminar antes de reutilizar su búfer
+            int filaSalida = filaInicial / bloque;
+            pendiente = CompletableFuture.runAsync(
+                    () -> umbralizarFranja(franja, filasFranja, filaSalida, bloque, umbral, ancho, png::luminancia, resultado));
+            actual ^= 1;
+        }
+        pendiente.join();
+        return resultado;
+    }
+
+    /**
+     * Respaldo para formatos distintos de PNG (o PNG entrelazado): carga la imagen
+     * completa con ImageIO y la umbraliza en paralelo por filas de salida.
+     */
+    private static MatrizBits importarConImageIO(Path archivo, int bloque, int umbral) throws IOException {
+        BufferedImage imagen = ImageIO.read(archivo.toFile());
+        if (imagen == null) {
+            throw new IOException("Formato de imagen no reconocido: " + archivo.getFileName());
+        }
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+        MatrizBits resultado = new MatrizBits((alto + bloque - 1) / bloque, (ancho + bloque - 1) / bloque);
+        // En imágenes en escala de grises getRGB aplica una corrección de gamma; se leen
+        // las muestras directamente para obtener el mismo resultado que la ruta PNG.
+        Raster raster = imagen.getRaster();
+        boolean gris = imagen.getColorModel().getColorSpace().getType() == ColorSpace.TYPE_GRAY
+                && raster.getNumBands() == 1;
+        int desplazamiento = Math.max(0, raster.getSampleModel().getSampleSize(0) - 8);
+        IntStream.range(0, resultado.getFilas()).parallel().forEach(filaSalida -> {
+            long[] oscuro = new long[resultado.getPalabrasPorFila()];
+            int[] muestras = new int[ancho];
+            int hasta = Math.min(alto, (filaSalida + 1) * bloque);
+            for (int y = filaSalida * bloque; y < hasta; y++) {
+                if (gris) {
+                    raster.getSamples(0, y, ancho, 1, 0, muestras);
+                } else {
+                    imagen.getRGB(0, y, ancho, 1, muestras, 0, ancho);
+                }
+                for (int x = 0; x < ancho; x++) {
+                    int lum = gris ? muestras[x] >>> desplazamiento : luminanciaArgb(muestras[x]);
+                    if (lum < umbral) {
+                        int celda = x / bloque;
+                        oscuro[celda >>> 6] |= 1L << (celda & 63);
+                    }
+                }
+            }
+            resultado.setFila(filaSalida, invertir(oscuro));
+        });
+        return resultado;
+    }
+
+    /**
+     * Umbraliza en paralelo las filas de salida contenidas en una franja de filas
+     * de la imagen. Cada tarea escribe una fila distinta del resultado.
+     */
+    private static void umbralizarFranja(byte[][] franja, int filasFranja, int primeraFilaSalida, int bloque,
+                                         int umbral, int ancho, Luminancia luminancia, MatrizBits resultado) {
+        int filasSalida = (filasFranja + bloque - 1) / bloque;
+        IntStream.range(0, filasSalida).parallel().forEach(r -> {
+            long[] oscuro = new long[resultado.getPalabrasPorFila()];
+            int hasta = Math.min(filasFranja, (r + 1) * bloque);
+            for (int k = r * bloque; k < hasta; k++) {
+                byte[] fila = franja[k];
+                for (int x = 0; x < ancho; x++) {
+                    if (luminancia.de(fila, x) < umbral) {
+                        int celda = x / bloque;
+                        oscuro[celda >>> 6] |= 1L << (celda & 63);
+                    }
+                }
+            }
+            resultado.setFila(primeraFilaSalida + r, invertir(oscuro));
+        });
+    }
+
+    private static long[] invertir(long[] palabras) {
+        for (int i = 0; i < palabras.length; i++) {
+            palabras[i] = ~palabras[i];
+        }
+        return palabras;
+    }
+
+    private static int luminanciaArgb(int argb) {
+        int a = argb >>> 24;
+        int lum = (299 * ((argb >> 16) & 0xFF) + 587 * ((argb >> 8) & 0xFF) + 114 * (argb & 0xFF)) / 1000;
+        return (lum * a + 255 * (255 - a)) / 255;
+    }
+
+    /** Luminancia (0..255) del píxel {@code x} de una fila sin filtrar. */
+    @FunctionalInterface
+    private interface Luminancia {
+        int de(byte[] fila, int x);
+    }
+
+    /**
+     * Lector secuencial de PNG: interpreta los chunks de cabecera y entrega las
+     * filas de píxeles ya descomprimidas y desfiltradas, una a una, guardando
+     * solo la fila anterior.
+     */
+    private static final class LectorPng {
+        final int ancho;
+        final int alto;
+        final boolean entrelazado;
+        final int bytesPorFila;
+        private final int profundidad;
+        private final int tipoColor;
+        private final int canales;
+        private final int bytesPorPixel; // Distancia del filtro (mínimo 1)
+        private final int[] luminanciaPaleta = new int[256];
+        private final DataInputStream entrada;
+        private InputStream datos;
+        private byte[] anterior;
+        private byte[] actual;
+
+        LectorPng(DataInputStream entrada) throws IOException {
+            this.entrada = entrada;
+            int longitud = entrada.readInt();
+            if (!"IHDR".equals(leerTipo())) {
+                throw new IOException("PNG no válido: falta la cabecera IHDR.");
+            }
+            ancho = entrada.readInt();
+            alto = entrada.readInt();
+            profundidad = entrada.readUnsignedByte();
+            tipoColor = entrada.readUnsignedByte();
+            entrada.readUnsignedByte(); // Método de compresión (siempre 0)
+            entrada.readUnsignedByte(); // Método de filtro (siempre 0)
+            entrelazado = entrada.readUnsignedByte() != 0;
+            entrada.skipNBytes(longitud - 13 + 4L); // Resto del chunk y CRC
+
+            switch (tipoColor) {
+                case 0: case 3: canales = 1; break;
+                case 2: canales = 3; break;
+                case 4: canales = 2; break;
+                case 6: canales = 4; break;
+                default: throw new IOException("Tipo de color PNG no soportado: " + tipoColor);
+            }
+            int bitsPorPixel = canales * profundidad;
+            bytesPorPixel = Math.max(1, bitsPorPixel / 8);
+            bytesPorFila = (int) (((long) ancho * bitsPorPixel + 7) / 8);
+            anterior = new byte[bytesPorFila];
+            actual = new byte[bytesPorFila];
+
+            // Chunks hasta el primer IDAT
+            while (true) {
+                longitud = entrada.readInt();
+                String tipo = leerTipo();
+                if ("IDAT".equals(tipo)) {
+                    datos = new InflaterInputStream(new FlujoIdat(longitud), new Inflater(), 1 << 16);
+                    return;
+                } else if ("PLTE".equals(tipo)) {
+                    for (int i = 0; i < longitud / 3; i++) {
+                        int r = entrada.readUnsignedByte();
+                        int g = entrada.readUnsignedByte();
+                        int b = entrada.readUnsignedByte();
+                        luminanciaPaleta[i] = (299 * r + 587 * g + 114 * b) / 1000;
+                    }
+                    entrada.skipNBytes(longitud % 3 + 4L);
+                } else if ("IEND".equals(tipo)) {
+                    throw new IOException("PNG no válido: no contiene datos de imagen.");
+                } else {
+                    entrada.skipNBytes(longitud + 4L);
+                }
+            }
+        }
+
+        /**
+         * Lee la siguiente fila, la desfiltra y la copia en {@code destino}.
+         */
+        void leerFila(byte[] destino) throws IOException {
+            int filtro = datos.read();
+            if (filtro < 0 || datos.readNBytes(actual, 0, bytesPorFila) != bytesPorFila) {
+                throw new EOFException("PNG truncado: faltan filas de imagen.");
+            }
+            desfiltrar(filtro);
+            System.arraycopy(actual, 0, destino, 0, bytesPorFila);
+            byte[] temporal = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+
+        private void desfiltrar(int filtro) throws IOException {
+            byte[] cur = actual;
+            byte[] prev = anterior;
+            int bpp = bytesPorPixel;
+            switch (filtro) {
+                case 0:
+                    break;
+                case 1: // Sub
+                    for (int i = bpp; i < bytesPorFila; i++) cur[i] = (byte) (cur[i] + cur[i - bpp]);
+                    break;
+                case 2: // Up
+                    for (int i = 0; i < bytesPorFila; i++) cur[i] = (byte) (cur[i] + prev[i]);
+                    break;
+                case 3: // Average
+                    for (int i = 0; i < bytesPorFila; i++) {
+                        int izquierda = i >= bpp ? cur[i - bpp] & 0xFF : 0;
+                        cur[i] = (byte) (cur[i] + ((izquierda + (prev[i] & 0xFF)) >>> 1));
+                    }
+                    break;
+                case 4: // Paeth
+                    for (int i = 0; i < bytesPorFila; i++) {
+                        int a = i >= bpp ? cur[i - bpp] & 0xFF : 0;
+                        int b = prev[i] & 0xFF;
+                        int c = i >= bpp ? prev[i - bpp] & 0xFF : 0;
+                        int p = a + b - c;
+                        int pa = Math.abs(p - a);
+                        int pb = Math.abs(p - b);
+                        int pc = Math.abs(p - c);
+                        cur[i] = (byte) (cur[i] + ((pa <= pb && pa <= pc) ? a : (pb <= pc ? b : c)));
+                    }
+                    break;
+                default:
+                    throw new IOException("PNG no válido: tipo de filtro " + filtro);
+            }
+        }
+
+        /**
+         * Luminancia del píxel {@code x} de una fila desfiltrada. Para muestras de
+         * 16 bits se usa el byte más significativo.
+         */
+        int luminancia(byte[] fila, int x) {
+            if (profundidad < 8) {
+                int bit = x * profundidad;
+                int mascara = (1 << profundidad) - 1;
+                int muestra = (fila[bit >>> 3] >>> (8 - profundidad - (bit & 7))) & mascara;
+                return tipoColor == 3 ? luminanciaPaleta[muestra] : muestra * 255 / mascara;
+            }
+            int bps = profundidad / 8;
+            int o = x * canales * bps;
+            switch (tipoColor) {
+                case 0:
+                    return fila[o] & 0xFF;
+                case 3:
+                    return luminanciaPaleta[fila[o] & 0xFF];
+                case 4:
+                    return sobreBlanco(fila[o] & 0xFF, fila[o + bps] & 0xFF);
+                case 2:
+                    return (299 * (fila[o] & 0xFF) + 587 * (fila[o + bps] & 0xFF) + 114 * (fila[o + 2 * bps] & 0xFF)) / 1000;
+                default: // 6: RGBA
+                    int lum = (299 * (fila[o] & 0xFF) + 587 * (fila[o + bps] & 0xFF) + 114 * (fila[o + 2 * bps] & 0xFF)) / 1000;
+                    return sobreBlanco(lum, fila[o + 3 * bps] & 0xFF);
+            }
+        }
+
+        private static int sobreBlanco(int lum, int alfa) {
+            return (lum * alfa + 255 * (255 - alfa)) / 255;
+        }
+
+        private String leerTipo() throws IOException {
+            byte[] tipo = new byte[4];
+            entrada.readFully(tipo);
+            return new String(tipo, StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Flujo con los datos comprimidos de la imagen: concatena el contenido de
+         * los chunks IDAT consecutivos, saltando sus CRC y cabeceras.
+         */
+        private final class FlujoIdat extends InputStream {
+            private int restante;
+            private boolean terminado;
+
+            FlujoIdat(int longitudPrimerChunk) {
+                this.restante = longitudPrimerChunk;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] uno = new byte[1];
+                return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                while (restante == 0) {
+                    if (terminado) return -1;
+                    entrada.skipNBytes(4); // CRC del chunk actual
+                    int longitud = entrada.readInt();
+                    if ("IDAT".equals(leerTipo())) {
+                        restante = longitud;
+                    } else {
+                        terminado = true;
+                        return -1;
+                    }
+                }
+                int leidos = entrada.read(b, off, Math.min(len, restante));
+                if (leidos < 0) throw new EOFException("PNG truncado dentro de un chunk IDAT.");
+                restante -= leidos;
+                return leidos;
+            }
+        }
+    }
+}
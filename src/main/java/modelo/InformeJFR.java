@@ -0,0 +1,167 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Resume por fases una grabación de Java Flight Recorder con los
+ * {@link EventosBusqueda}.
+ *
+ * Para cada fase da el número de eventos, el tiempo total, el tiempo propio (sin
+ * las fases anidadas dentro de ella en el mismo hilo, como la construcción o la
+ * reconstrucción dentro de una búsqueda), la media, el percentil 95, el máximo y
+ * las celdas tratadas de media.
+ *
+ * Uso: {@code java modelo.InformeJFR grabacion.jfr} (o {@code App --jfr-report grabacion.jfr}).
+ */
+public final class InformeJFR {
+
+    /** Nombres de los eventos en el orden en que se listan. */
+    private static final String[] FASES = {
+            "modelo.Construccion", "modelo.Busqueda", "modelo.Reconstruccion", "modelo.Conversion", "modelo.Pintado"
+    };
+
+    private InformeJFR() {
+        // Clase de utilidad, no instanciable
+    }
+
+    /**
+     * Evento de fase leído de la grabación.
+     */
+    private static final class Fase {
+        final String nombre;
+        final long hilo;
+        final Instant inicio;
+        final Instant fin;
+        final long duracion;
+        final long celdas;
+        long propio;
+
+        Fase(RecordedEvent e) {
+            this.nombre = e.getEventType().getName();
+            RecordedThread t = e.getThread();
+            this.hilo = t == null ? -1 : t.getId();
+            this.inicio = e.getStartTime();
+            this.fin = e.getEndTime();
+            this.duracion = e.getDuration().toNanos();
+            this.celdas = e.getLong("celdas");
+            this.propio = duracion;
+        }
+    }
+
+    /**
+     * Lee una grabación y devuelve el resumen por fases como texto.
+     *
+     * @param grabacion El fichero {@code .jfr}.
+     * @return El informe.
+     * @throws IOException Si no se puede leer la grabación.
+     */
+    public static String resumir(Path grabacion) throws IOException {
+        List<Fase> fases = new ArrayList<>();
+        List<String> nombres = Arrays.asList(FASES);
+        try (RecordingFile fichero = new RecordingFile(grabacion)) {
+            while (fichero.hasMoreEvents()) {
+                RecordedEvent e = fichero.readEvent();
+                if (nombres.contains(e.getEventType().getName())) {
+                    fases.add(new Fase(e));
+                }
+            }
+        }
+        descontarAnidadas(fases);
+
+        Map<String, List<Fase>> porFase = new LinkedHashMap<>();
+        for (String nombre : FASES) {
+            porFase.put(nombre, new ArrayList<>());
+        }
+        for (Fase f : fases) {
+            porFase.get(f.nombre).add(f);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-24s %8s %12s %12s %10s %10s %10s %12s%n", "Fase", "Eventos",
+                "Total (ms)", "Propio (ms)", "Media (ms)", "p95 (ms)", "Máx (ms)", "Celdas/ev"));
+        for (Map.Entry<String, List<Fase>> entrada : porFase.entrySet()) {
+            List<Fase> lista = entrada.getValue();
+            long[] duraciones = new long[lista.size()];
+            long total = 0;
+            long propio = 0;
+            long celdas = 0;
+            for (int i = 0; i < lista.size(); i++) {
+                Fase f = lista.get(i);
+                duraciones[i] = f.duracion;
+                total += f.duracion;
+                propio += f.propio;
+                celdas += f.celdas;
+            }
+            Arrays.sort(duraciones);
+            int n = duraciones.length;
+            sb.append(String.format(Locale.US, "%-24s %8d %12.3f %12.3f %10.3f %10.3f %10.3f %12.1f%n",
+                    entrada.getKey().substring("modelo.".length()), n, total / 1e6, propio / 1e6,
+                    n == 0 ? 0 : total / (n * 1e6),
+                    n == 0 ? 0 : duraciones[Math.max(0, (int) Math.ceil(0.95 * n) - 1)] / 1e6,
+                    n == 0 ? 0 : duraciones[n - 1] / 1e6,
+                    n == 0 ? 0 : celdas / (double) n));
+        }
+        if (fases.isEmpty()) {
+            sb.append("La grabación no tiene eventos de fase: ¿se activaron al grabar?").append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resta a cada fase la duración de las fases anidadas directamente en ella.
+     * Dentro de un hilo los intervalos están bien anidados, así que basta una
+     * pila recorriendo los eventos por orden de inicio.
+     */
+    private static void descontarAnidadas(List<Fase> fases) {
+        Map<Long, List<Fase>> porHilo = new HashMap<>();
+        for (Fase f : fases) {
+            porHilo.computeIfAbsent(f.hilo, h -> new ArrayList<>()).add(f);
+        }
+        for (List<Fase> lista : porHilo.values()) {
+            lista.sort(Comparator.comparing((Fase f) -> f.inicio)
+                    .thenComparing(f -> f.duracion, Comparator.reverseOrder()));
+            Deque<Fase> abiertas = new ArrayDeque<>();
+            for (Fase f : lista) {
+                while (!abiertas.isEmpty() && !abiertas.peek().fin.isAfter(f.inicio)) {
+                    abiertas.pop();
+                }
+                if (!abiertas.isEmpty() && !abiertas.peek().fin.isBefore(f.fin)) {
+                    abiertas.peek().propio -= f.duracion;
+                }
+                abiertas.push(f);
+            }
+        }
+    }
+
+    /**
+     * Imprime el resumen de una grabación.
+     *
+     * @param args La ruta del fichero {@code .jfr}.
+     * @throws IOException Si no se puede leer la grabación.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: InformeJFR grabacion.jfr");
+            return;
+        }
+        Path grabacion = Paths.get(args[0]);
+        System.out.println("Grabación: " + grabacion);
+        System.out.print(resumir(grabacion));
+    }
+}
@@ -11,13 +11,16 @@ package modelo;
  *   <li>Permite colocar y quitar muros</li>
  *   <li>Provee acceso a celdas individuales</li>
  *   <li>Permite convertir el laberinto a formato de matriz de enteros</li>
+ *   <li>Implementa {@link Cuadricula} para los solvers basados en índices</li>
+ *   <li>Admite una capa opcional de costes de terreno</li>
  * </ul>
  *
  */
-public class Laberinto {
+public class Laberinto implements Cuadricula {
     private Celda[][] matriz;
     private int filas;
     private int columnas;
+    private CostesTerreno costes; // null = todas las celdas cuestan 1
 
     /**
      * Constructor para crear un nuevo laberinto de un tamaño específico.
@@ -68,11 +71,49 @@ public class Laberinto {
         return matriz[fila][columna];
     }
 
+    /**
+     * Indica si la celda en las coordenadas especificadas es transitable.
+     *
+     * @param fila La coordenada de la fila.
+     * @param columna La coordenada de la columna.
+     * @return {@code true} si la celda es transitable, {@code false} si es un muro.
+     */
+    @Override
+    public boolean esTransitable(int fila, int columna) {
+        return matriz[fila][columna].esTransitable();
+    }
+
+    /**
+     * Asigna la capa de costes de terreno del laberinto.
+     *
+     * @param costes La capa de costes, del mismo tamaño que el laberinto, o {@code null} para coste unitario.
+     * @throws IllegalArgumentException Si la capa no tiene el tamaño del laberinto.
+     */
+    public void setCostes(CostesTerreno costes) {
+        if (costes != null && (costes.getFilas() != filas || costes.getColumnas() != columnas)) {
+            throw new IllegalArgumentException("La capa de costes no coincide con el tamaño del laberinto.");
+        }
+        this.costes = costes;
+    }
+
+    /**
+     * Obtiene el coste de entrar en la celda en las coordenadas especificadas.
+     *
+     * @param fila La coordenada de la fila.
+     * @param columna La coordenada de la columna.
+     * @return El coste de la celda (1 si el laberinto no tiene capa de costes).
+     */
+    @Override
+    public int getCoste(int fila, int columna) {
+        return costes == null ? CostesTerreno.COSTE_MINIMO : costes.getCoste(fila, columna);
+    }
+
     /**
      * Obtiene el número total de filas del laberinto.
      *
      * @return El número de filas.
      */
+    @Override
     public int getFilas() {
         return filas;
     }
@@ -82,6 +123,7 @@ public class Laberinto {
      *
      * @return El número de columnas.
      */
+    @Override
     public int getColumnas() {
         return columnas;
     }
@@ -0,0 +1,122 @@
+package modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Laberinto de solo lectura respaldado por un archivo mapeado en memoria con el
+ * formato de {@link ArchivoLaberinto}.
+ *
+ * Las celdas se leen directamente del mapa de bits del archivo, sin copiarlo a
+ * una matriz {@code int[][]} ni crear objetos {@link Celda}: un laberinto de
+ * 20000×20000 ocupa 50 MB de páginas del sistema operativo y casi nada de heap.
+ *
+ * Características:
+ * <ul>
+ *   <li>Implementa {@link Cuadricula}, por lo que sirve a los solvers basados en índices</li>
+ *   <li>Expone las palabras de 64 bits de cada fila para algoritmos a nivel de bits</li>
+ *   <li>Conserva los puntos de inicio y fin guardados en el archivo</li>
+ * </ul>
+ */
+public class LaberintoMapeado implements Cuadricula {
+    private final LongBuffer bits;
+    private final int filas;
+    private final int columnas;
+    private final int palabrasPorFila;
+    private final int[] inicio;
+    private final int[] fin;
+
+    /**
+     * Crea la vista sobre un archivo (o un búfer en memoria con el mismo formato)
+     * ya validado. Solo la usa {@link ArchivoLaberinto}.
+     */
+    LaberintoMapeado(ByteBuffer buffer, int filas, int columnas, int[] inicio, int[] fin) {
+        this.bits = buffer.slice(ArchivoLaberinto.TAMANO_CABECERA, buffer.capacity() - ArchivoLaberinto.TAMANO_CABECERA)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+        this.filas = filas;
+        this.columnas = columnas;
+        this.palabrasPorFila = ArchivoLaberinto.palabrasPorFila(columnas);
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    @Override
+    public int getFilas() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnas() {
+        return columnas;
+    }
+
+    @Override
+    public boolean esTransitable(int fila, int columna) {
+        long palabra = bits.get(fila * palabrasPorFila + (columna >>> 6));
+        return ((palabra >>> (columna & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Obtiene el número de palabras de 64 bits que ocupa cada fila.
+     *
+     * @return Las palabras por fila.
+     */
+    public int getPalabrasPorFila() {
+        return palabrasPorFila;
+    }
+
+    /**
+     * Obtiene una palabra de 64 celdas de una fila. El bit {@code b} corresponde
+     * a la columna {@code 64 * indicePalabra + b}; los bits de relleno valen 0.
+     *
+     * @param fila          La fila.
+     * @param indicePalabra El índice de la palabra dentro de la fila.
+     * @return Las 64 celdas como máscara de bits (1 = transitable).
+     */
+    public long getPalabra(int fila, int indicePalabra) {
+        return bits.get(fila * palabrasPorFila + indicePalabra);
+    }
+
+    /**
+     * Obtiene la celda de inicio guardada en el archivo.
+     *
+     * @return La celda como [fila, columna], o {@code null} si no estaba definida.
+     */
+    public int[] getInicio() {
+        return inicio == null ? null : inicio.clone();
+    }
+
+    /**
+     * Obtiene la celda de fin guardada en el archivo.
+     *
+     * @return La celda como [fila, columna], o {@code null} si no estaba definida.
+     */
+    public int[] getFin() {
+        return fin == null ? null : fin.clone();
+    }
+
+    /**
+     * Copia el laberinto a una matriz de enteros, donde 1 representa una celda
+     * transitable y 0 un muro. Solo es necesario para la interfaz gráfica y los
+     * solvers que trabajan sobre {@code int[][]}.
+     *
+     * @return Una matriz bidimensional de enteros que representa el laberinto.
+     */
+    public int[][] aMatrizEnteros() {
+        int[][] mat = new int[filas][columnas];
+        for (int i = 0; i < filas; i++) {
+            int[] fila = mat[i];
+            int base = i * palabrasPorFila;
+            for (int w = 0; w < palabrasPorFila; w++) {
+                long palabra = bits.get(base + w);
+                int limite = Math.min(64, columnas - (w << 6));
+                for (int b = 0; b < limite; b++) {
+                    fila[(w << 6) + b] = (int) ((palabra >>> b) & 1L);
+                }
+            }
+        }
+        return mat;
+    }
+}
@@ -0,0 +1,188 @@
+package modelo;
+
+/**
+ * Laberinto compacto en memoria: un bit por celda, con cada fila rellenada hasta
+ * un número entero de palabras de 64 bits (la misma disposición que el mapa de
+ * bits de {@link ArchivoLaberinto}).
+ *
+ * Ocupa 32 veces menos que una matriz {@code int[][]} equivalente y permite a los
+ * algoritmos que trabajan a nivel de bits procesar 64 celdas por operación.
+ *
+ * Características:
+ * <ul>
+ *   <li>Implementa {@link Cuadricula}, por lo que sirve a los solvers basados en índices</li>
+ *   <li>Permite modificar celdas individuales o filas completas de palabras</li>
+ *   <li>Convierte desde y hacia el formato {@code int[][]} de la interfaz gráfica</li>
+ * </ul>
+ */
+public class MatrizBits implements Cuadricula {
+    private final int filas;
+    private final int columnas;
+    private final int palabrasPorFila;
+    private final long[] palabras;
+
+    /**
+     * Crea una cuadrícula en la que todas las celdas son muros.
+     *
+     * @param filas    El número de filas.
+     * @param columnas El número de columnas.
+     */
+    public MatrizBits(int filas, int columnas) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.palabrasPorFila = ArchivoLaberinto.palabrasPorFila(columnas);
+        long total = (long) filas * palabrasPorFila;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Laberinto demasiado grande para MatrizBits: " + filas + "x" + columnas);
+        }
+        this.palabras = new long[(int) total];
+    }
+
+    /**
+     * Crea una cuadrícula compacta a partir de una matriz de enteros.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     * @return La cuadrícula equivalente.
+     */
+    public static MatrizBits desdeMatrizEnteros(int[][] datos) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        MatrizBits matriz = new MatrizBits(filas, columnas);
+        for (int i = 0; i < filas; i++) {
+            int base = i * matriz.palabrasPorFila;
+            for (int j = 0; j < columnas; j++) {
+                if (datos[i][j] == 1) {
+                    matriz.palabras[base + (j >>> 6)] |= 1L << (j & 63);
+                }
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * Crea una cuadrícula compacta a partir de cualquier otra. Si ya es una
+     * {@code MatrizBits} la devuelve tal cual; de un {@link LaberintoMapeado}
+     * copia las palabras de 64 celdas sin recorrer las celdas una a una.
+     *
+     * @param cuadricula La cuadrícula de origen.
+     * @return La cuadrícula compacta equivalente.
+     */
+    public static MatrizBits desdeCuadricula(Cuadricula cuadricula) {
+        if (cuadricula instanceof MatrizBits) {
+            return (MatrizBits) cuadricula;
+        }
+        MatrizBits matriz = new MatrizBits(cuadricula.getFilas(), cuadricula.getColumnas());
+        if (cuadricula instanceof LaberintoMapeado) {
+            LaberintoMapeado mapeado = (LaberintoMapeado) cuadricula;
+            for (int i = 0; i < matriz.filas; i++) {
+                int base = i * matriz.palabrasPorFila;
+                for (int w = 0; w < matriz.palabrasPorFila; w++) {
+                    matriz.palabras[base + w] = mapeado.getPalabra(i, w);
+                }
+            }
+            return matriz;
+        }
+        for (int i = 0; i < matriz.filas; i++) {
+            for (int j = 0; j < matriz.columnas; j++) {
+                if (cuadricula.esTransitable(i, j)) {
+                    matriz.palabras[i * matriz.palabrasPorFila + (j >>> 6)] |= 1L << (j & 63);
+                }
+            }
+        }
+        return matriz;
+    }
+
+    @Override
+    public int getFilas() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnas() {
+        return columnas;
+    }
+
+    @Override
+    public boolean esTransitable(int fila, int columna) {
+        return ((palabras[fila * palabrasPorFila + (columna >>> 6)] >>> (columna & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Cambia el estado de una celda.
+     *
+     * @param fila        La coordenada de la fila.
+     * @param columna     La coordenada de la columna.
+     * @param transitable {@code true} para hacerla transitable, {@code false} para hacerla muro.
+     */
+    public void setTransitable(int fila, int columna, boolean transitable) {
+        int idx = fila * palabrasPorFila + (columna >>> 6);
+        long bit = 1L << (columna & 63);
+        if (transitable) {
+            palabras[idx] |= bit;
+        } else {
+            palabras[idx] &= ~bit;
+        }
+    }
+
+    /**
+     * Obtiene el número de palabras de 64 bits que ocupa cada fila.
+     *
+     * @return Las palabras por fila.
+     */
+    public int getPalabrasPorFila() {
+        return palabrasPorFila;
+    }
+
+    /**
+     * Obtiene una palabra de 64 celdas de una fila. El bit {@code b} corresponde
+     * a la columna {@code 64 * indicePalabra + b}; los bits de relleno valen 0.
+     *
+     * @param fila          La fila.
+     * @param indicePalabra El índice de la palabra dentro de la fila.
+     * @return Las 64 celdas como máscara de bits (1 = transitable).
+     */
+    public long getPalabra(int fila, int indicePalabra) {
+        return palabras[fila * palabrasPorFila + indicePalabra];
+    }
+
+    /**
+     * Da acceso directo al arreglo de palabras, fila tras fila, sin copiarlo.
+     * Solo lo usan los solvers del paquete que recorren la cuadrícula a nivel de bits.
+     */
+    long[] getPalabras() {
+        return palabras;
+    }
+
+    /**
+     * Reemplaza todas las palabras de una fila. Los bits más allá de la última
+     * columna se fuerzan a 0 para que sigan comportándose como muros.
+     *
+     * @param fila         La fila a reemplazar.
+     * @param palabrasFila Las palabras de la fila (al menos {@link #getPalabrasPorFila()}).
+     */
+    public void setFila(int fila, long[] palabrasFila) {
+        int base = fila * palabrasPorFila;
+        System.arraycopy(palabrasFila, 0, palabras, base, palabrasPorFila);
+        int sobrantes = (palabrasPorFila << 6) - columnas;
+        if (sobrantes > 0) {
+            palabras[base + palabrasPorFila - 1] &= -1L >>> sobrantes;
+        }
+    }
+
+    /**
+     * Devuelve el laberinto como una matriz de enteros, donde 1 representa una
+     * celda transitable y 0 representa un muro.
+     *
+     * @return Una matriz bidimensional de enteros que representa el laberinto.
+     */
+    public int[][] aMatrizEnteros() {
+        int[][] mat = new int[filas][columnas];
+        for (int i = 0; i < filas; i++) {
+            int[] fila = mat[i];
+            for (int j = 0; j < columnas; j++) {
+                fila[j] = esTransitable(i, j) ? 1 : 0;
+            }
+        }
+        return mat;
+    }
+}
@@ -0,0 +1,221 @@
+package modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Laberinto compacto fuera del heap: un bit por celda, con la misma disposición
+ * que {@link MatrizBits} (cada fila rellenada hasta un número entero de palabras
+ * de 64 bits), pero guardado en memoria nativa.
+ *
+ * Un arreglo de Java no puede tener más de 2^31 elementos y el recolector de
+ * basura tiene que tenerlo en cuenta aunque solo contenga números. Aquí las
+ * palabras se reparten en bloques de {@link ByteBuffer} directos de hasta 1 GB
+ * y se indexan con {@code long}, así que un laberinto de 100000×100000 (unos
+ * 1,2 GB) cabe con un heap pequeño y el GC solo ve unos pocos objetos.
+ *
+ * La memoria nativa se libera cuando el objeto deja de usarse y el GC lo
+ * recoge. Su máximo lo fija {@code -XX:MaxDirectMemorySize} (por defecto, el
+ * tamaño máximo del heap).
+ *
+ * Características:
+ * <ul>
+ *   <li>Implementa {@link Cuadricula}, por lo que sirve a los solvers basados en índices</li>
+ *   <li>Acceso por celdas o por palabras de 64 celdas, con índices {@code long}</li>
+ *   <li>Se carga de un archivo de {@link ArchivoLaberinto} de cualquier tamaño</li>
+ * </ul>
+ */
+public class MatrizFueraHeap implements Cuadricula {
+
+    /** Palabras de 64 bits por bloque: 2^27 palabras son 1 GB. */
+    private static final int BITS_PALABRAS_BLOQUE = 27;
+    static final long PALABRAS_POR_BLOQUE = 1L << BITS_PALABRAS_BLOQUE;
+    private static final long MASCARA_BLOQUE = PALABRAS_POR_BLOQUE - 1;
+
+    private final int filas;
+    private final int columnas;
+    private final int palabrasPorFila;
+    private final long totalPalabras;
+    private final ByteBuffer[] bloquesBytes;
+    private final LongBuffer[] bloques;
+    private final int[] inicio;
+    private final int[] fin;
+
+    /**
+     * Crea una cuadrícula en la que todas las celdas son muros.
+     *
+     * @param filas    El número de filas.
+     * @param columnas El número de columnas.
+     * @throws OutOfMemoryError Si no hay memoria nativa suficiente.
+     */
+    public MatrizFueraHeap(int filas, int columnas) {
+        this(filas, columnas, null, null);
+    }
+
+    /**
+     * Crea una cuadrícula vacía con los extremos dados. Solo la usa {@link ArchivoLaberinto}.
+     */
+    MatrizFueraHeap(int filas, int columnas, int[] inicio, int[] fin) {
+        if (filas < 0 || columnas < 0) {
+            throw new IllegalArgumentException("Dimensiones no válidas: " + filas + "x" + columnas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.palabrasPorFila = ArchivoLaberinto.palabrasPorFila(columnas);
+        this.totalPalabras = (long) filas * palabrasPorFila;
+        int numBloques = (int) ((totalPalabras + MASCARA_BLOQUE) >>> BITS_PALABRAS_BLOQUE);
+        this.bloquesBytes = new ByteBuffer[numBloques];
+        this.bloques = new LongBuffer[numBloques];
+        for (int b = 0; b < numBloques; b++) {
+            long palabras = Math.min(PALABRAS_POR_BLOQUE, totalPalabras - ((long) b << BITS_PALABRAS_BLOQUE));
+            // La memoria de allocateDirect llega a ceros: todo son muros
+            bloquesBytes[b] = ByteBuffer.allocateDirect((int) (palabras * Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+            bloques[b] = bloquesBytes[b].asLongBuffer();
+        }
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    /**
+     * Crea una cuadrícula fuera del heap a partir de una matriz de enteros.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     * @return La cuadrícula equivalente.
+     */
+    public static MatrizFueraHeap desdeMatrizEnteros(int[][] datos) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        MatrizFueraHeap matriz = new MatrizFueraHeap(filas, columnas);
+        for (int i = 0; i < filas; i++) {
+            for (int w = 0; w < matriz.palabrasPorFila; w++) {
+                long palabra = 0;
+                int limite = Math.min(64, columnas - (w << 6));
+                for (int b = 0; b < limite; b++) {
+                    if (datos[i][(w << 6) + b] == 1) {
+                        palabra |= 1L << b;
+                    }
+                }
+                matriz.setPalabra(i, w, palabra);
+            }
+        }
+        return matriz;
+    }
+
+    @Override
+    public int getFilas() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnas() {
+        return columnas;
+    }
+
+    @Override
+    public boolean esTransitable(int fila, int columna) {
+        return ((leer((long) fila * palabrasPorFila + (columna >>> 6)) >>> (columna & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Cambia el estado de una celda.
+     *
+     * @param fila        La coordenada de la fila.
+     * @param columna     La coordenada de la columna.
+     * @param transitable {@code true} para camino, {@code false} para muro.
+     */
+    public void setTransitable(int fila, int columna, boolean transitable) {
+        long indice = (long) fila * palabrasPorFila + (columna >>> 6);
+        long bit = 1L << (columna & 63);
+        long palabra = leer(indice);
+        escribir(indice, transitable ? palabra | bit : palabra & ~bit);
+    }
+
+    /**
+     * Obtiene el número de palabras de 64 bits que ocupa cada fila.
+     *
+     * @return Las palabras por fila.
+     */
+    public int getPalabrasPorFila() {
+        return palabrasPorFila;
+    }
+
+    /**
+     * Obtiene una palabra de 64 celdas de una fila. El bit {@code b} corresponde
+     * a la columna {@code 64 * indicePalabra + b}; los bits de relleno valen 0.
+     *
+     * @param fila          La fila.
+     * @param indicePalabra El índice de la palabra dentro de la fila.
+     * @return Las 64 celdas como máscara de bits (1 = transitable).
+     */
+    public long getPalabra(int fila, int indicePalabra) {
+        return leer((long) fila * palabrasPorFila + indicePalabra);
+    }
+
+    /**
+     * Reemplaza una palabra de 64 celdas de una fila. Los bits de relleno más
+     * allá de la última columna se ponen a 0.
+     *
+     * @param fila          La fila.
+     * @param indicePalabra El índice de la palabra dentro de la fila.
+     * @param palabra       Las 64 celdas como máscara de bits (1 = transitable).
+     */
+    public void setPalabra(int fila, int indicePalabra, long palabra) {
+        int resto = columnas - (indicePalabra << 6);
+        if (resto < 64) {
+            palabra &= (1L << resto) - 1;
+        }
+        escribir((long) fila * palabrasPorFila + indicePalabra, palabra);
+    }
+
+    /**
+     * Obtiene la memoria nativa que ocupa el mapa de bits.
+     *
+     * @return Los bytes reservados fuera del heap.
+     */
+    public long getBytesReservados() {
+        return totalPalabras * Long.BYTES;
+    }
+
+    /**
+     * Obtiene la celda de inicio guardada en el archivo del que se cargó.
+     *
+     * @return La celda como [fila, columna], o {@code null} si no estaba definida.
+     */
+    public int[] getInicio() {
+        return inicio == null ? null : inicio.clone();
+    }
+
+    /**
+     * Obtiene la celda de fin guardada en el archivo del que se cargó.
+     *
+     * @return La celda como [fila, columna], o {@code null} si no estaba definida.
+     */
+    public int[] getFin() {
+        return fin == null ? null : fin.clone();
+    }
+
+    /**
+     * Obtiene el número de bloques de memoria nativa. Solo lo usa
+     * {@link ArchivoLaberinto} para leer y escribir el mapa de bits por bloques.
+     */
+    int getNumBloques() {
+        return bloques.length;
+    }
+
+    /**
+     * Obtiene una vista de bytes de un bloque, con posición 0 y límite al final
+     * del bloque. Las escrituras en la vista modifican la cuadrícula.
+     */
+    ByteBuffer getBloqueBytes(int bloque) {
+        return bloquesBytes[bloque].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private long leer(long indice) {
+        return bloques[(int) (indice >>> BITS_PALABRAS_BLOQUE)].get((int) (indice & MASCARA_BLOQUE));
+    }
+
+    private void escribir(long indice, long palabra) {
+        bloques[(int) (indice >>> BITS_PALABRAS_BLOQUE)].put((int) (indice & MASCARA_BLOQUE), palabra);
+    }
+}
@@ -0,0 +1,48 @@
+package modelo;
+
+/**
+ * Interfaz de gestión (JMX) de las métricas de un algoritmo. Los percentiles e
+ * histogramas se calculan sobre una ventana con las últimas búsquedas.
+ *
+ * @see RegistroMetricas
+ */
+public interface MetricasAlgoritmoMBean {
+
+    /** @return Las búsquedas registradas desde el inicio o el último reinicio. */
+    long getBusquedas();
+
+    /** @return El tamaño de la ventana sobre la que se calculan los percentiles. */
+    int getVentana();
+
+    double getTiempoMedioMs();
+
+    double getTiempoP50Ms();
+
+    double getTiempoP95Ms();
+
+    double getTiempoP99Ms();
+
+    double getTiempoMaximoMs();
+
+    /** @return Histograma de tiempos de la ventana, en intervalos de potencias de 2 ms. */
+    String getHistogramaTiempos();
+
+    long getExpandidosP50();
+
+    long getExpandidosP95();
+
+    long getGeneradosP50();
+
+    long getPicoFronteraMaximo();
+
+    int getPicoProfundidadMaximo();
+
+    /** @return Mediana de bytes reservados por búsqueda, o -1 si la JVM no los mide. */
+    long getBytesAsignadosP50();
+
+    /** @return Percentil 95 de bytes reservados por búsqueda, o -1 si la JVM no los mide. */
+    long getBytesAsignadosP95();
+
+    /** Vacía la ventana y los contadores. */
+    void reiniciar();
+}
@@ -0,0 +1,87 @@
+package modelo;
+
+/**
+ * Contadores de una búsqueda, para entender por qué una resolución fue lenta y no
+ * solo cuánto tardó.
+ *
+ * Los solvers la rellenan mientras buscan con incrementos de campos, sin
+ * sincronización: cada búsqueda tiene su propia instancia. {@link EjecutorAlgoritmos}
+ * añade después el tiempo y los bytes reservados por el hilo.
+ *
+ * Características:
+ * <ul>
+ *   <li>Nodos expandidos (sacados de la frontera) y generados (añadidos a ella)</li>
+ *   <li>Tamaño máximo de la cola o pila, y profundidad máxima de recursión</li>
+ *   <li>Bytes reservados durante la búsqueda según {@code ThreadMXBean} (-1 si no se conocen)</li>
+ * </ul>
+ */
+public class MetricasBusqueda {
+
+    long expandidos;
+    long generados;
+    long picoFrontera;
+    int picoProfundidad;
+    long bytesAsignados = -1;
+    long tiempoNanos;
+
+    /**
+     * Crea unas métricas vacías.
+     */
+    public MetricasBusqueda() {
+    }
+
+    /**
+     * Crea unas métricas a partir de valores ya conocidos, para solvers que no
+     * llevan sus propios contadores.
+     *
+     * @param expandidos   Nodos expandidos.
+     * @param generados    Nodos generados.
+     * @param picoFrontera Tamaño máximo de la frontera.
+     */
+    public MetricasBusqueda(long expandidos, long generados, long picoFrontera) {
+        this.expandidos = expandidos;
+        this.generados = generados;
+        this.picoFrontera = picoFrontera;
+    }
+
+    /**
+     * Actualiza el tamaño máximo de la frontera.
+     */
+    void frontera(long tamano) {
+        if (tamano > picoFrontera) picoFrontera = tamano;
+    }
+
+    /**
+     * Actualiza la profundidad máxima de recursión.
+     */
+    void profundidad(int nivel) {
+        if (nivel > picoProfundidad) picoProfundidad = nivel;
+    }
+
+    public long getExpandidos() { return expandidos; }
+    public long getGenerados() { return generados; }
+    public long getPicoFrontera() { return picoFrontera; }
+    public int getPicoProfundidad() { return picoProfundidad; }
+    public long getBytesAsignados() { return bytesAsignados; }
+    public long getTiempoNanos() { return tiempoNanos; }
+
+    /**
+     * Asigna los bytes reservados durante la búsqueda.
+     *
+     * @param bytes Los bytes, o -1 si no se conocen.
+     */
+    public void setBytesAsignados(long bytes) { this.bytesAsignados = bytes; }
+
+    /**
+     * Asigna la duración de la búsqueda.
+     *
+     * @param nanos La duración en nanosegundos.
+     */
+    public void setTiempoNanos(long nanos) { this.tiempoNanos = nanos; }
+
+    @Override
+    public String toString() {
+        return String.format("expandidos=%d, generados=%d, pico frontera=%d, pico recursión=%d, bytes=%d",
+                expandidos, generados, picoFrontera, picoProfundidad, bytesAsignados);
+    }
+}
@@ -0,0 +1,27 @@
+package modelo;
+
+/**
+ * Recibe los cambios que se hacen sobre la matriz del laberinto que edita la
+ * interfaz gráfica, para que las estructuras derivadas (hashes, cachés,
+ * índices, estado de búsquedas incrementales) se mantengan al día sin tener
+ * que recalcularse desde cero en cada consulta.
+ */
+public interface ObservadorLaberinto {
+
+    /**
+     * Se invoca después de que una única celda cambie de estado.
+     *
+     * @param fila    La fila de la celda.
+     * @param columna La columna de la celda.
+     * @param valor   El nuevo valor de la celda (1 = transitable, 0 = muro).
+     */
+    void celdaCambiada(int fila, int columna, int valor);
+
+    /**
+     * Se invoca cuando el laberinto se reemplaza o modifica por completo
+     * (nuevo tamaño, limpieza, carga de un archivo, importación...).
+     *
+     * @param datos La nueva matriz del laberinto (1 = transitable, 0 = muro).
+     */
+    void laberintoReemplazado(int[][] datos);
+}
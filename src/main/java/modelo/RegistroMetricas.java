@@ -0,0 +1,223 @@
+package modelo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Registro global de las métricas de búsqueda, agrupadas por algoritmo y
+ * publicadas como MBeans en el servidor JMX de la plataforma (visibles con
+ * JConsole o VisualVM bajo {@code modelo:type=MetricasAlgoritmo}).
+ *
+ * Cada algoritmo guarda sus últimas {@value #VENTANA} búsquedas en búferes
+ * circulares de primitivos; los percentiles e histogramas se calculan al
+ * consultarlos, de modo que registrar una búsqueda solo copia unos números.
+ *
+ * Características:
+ * <ul>
+ *   <li>Seguro entre hilos: un algoritmo se registra una vez y sus ventanas están sincronizadas</li>
+ *   <li>Mide los bytes reservados por el hilo actual con {@code ThreadMXBean} si la JVM lo permite</li>
+ *   <li>Si JMX no está disponible, las métricas siguen consultándose desde el código
+ *       y el fallo queda disponible en {@link #tomarErrorJmx()}</li>
+ *   <li>Los bytes reservados solo se promedian sobre las búsquedas en que se midieron</li>
+ * </ul>
+ */
+public final class RegistroMetricas {
+
+    /** Búsquedas que se conservan por algoritmo para los percentiles. */
+    public static final int VENTANA = 1024;
+
+    private static final RegistroMetricas INSTANCIA = new RegistroMetricas();
+
+    private final Map<String, MetricasAlgoritmo> porAlgoritmo = new ConcurrentHashMap<>();
+    private final com.sun.management.ThreadMXBean hilos;
+    private volatile String errorJmx;
+
+    private RegistroMetricas() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean hilosSun = null;
+        if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            hilosSun = (com.sun.management.ThreadMXBean) bean;
+            hilosSun.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.hilos = hilosSun;
+    }
+
+    /**
+     * Obtiene el registro global.
+     *
+     * @return El registro.
+     */
+    public static RegistroMetricas getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Devuelve los bytes reservados hasta ahora por el hilo actual.
+     *
+     * @return Los bytes, o -1 si la JVM no los mide (por ejemplo, en hilos virtuales).
+     */
+    public long bytesAsignadosHiloActual() {
+        return hilos == null ? -1 : hilos.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Registra una búsqueda terminada.
+     *
+     * @param algoritmo El nombre del algoritmo.
+     * @param metricas  Las métricas de la búsqueda, con su tiempo.
+     */
+    public void registrar(String algoritmo, MetricasBusqueda metricas) {
+        porAlgoritmo.computeIfAbsent(algoritmo, this::crear).registrar(metricas);
+    }
+
+    /**
+     * Obtiene las métricas acumuladas de un algoritmo.
+     *
+     * @param algoritmo El nombre del algoritmo.
+     * @return Las métricas, o {@code null} si el algoritmo no ha registrado búsquedas.
+     */
+    public MetricasAlgoritmoMBean getMetricas(String algoritmo) {
+        return porAlgoritmo.get(algoritmo);
+    }
+
+    /**
+     * Obtiene los algoritmos que han registrado búsquedas.
+     *
+     * @return Los nombres de los algoritmos.
+     */
+    public Set<String> getAlgoritmos() {
+        return Collections.unmodifiableSet(porAlgoritmo.keySet());
+    }
+
+    /**
+     * Devuelve y olvida el último error al publicar métricas por JMX, para que
+     * quien muestra los errores al usuario lo haga una sola vez.
+     *
+     * @return El mensaje del error, o {@code null} si no hubo ninguno desde la última consulta.
+     */
+    public synchronized String tomarErrorJmx() {
+        String error = errorJmx;
+        errorJmx = null;
+        return error;
+    }
+
+    private MetricasAlgoritmo crear(String algoritmo) {
+        MetricasAlgoritmo metricas = new MetricasAlgoritmo();
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName("modelo:type=MetricasAlgoritmo,name=" + ObjectName.quote(algoritmo));
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(new StandardMBean(metricas, MetricasAlgoritmoMBean.class), nombre);
+            }
+        } catch (JMException | SecurityException e) {
+            errorJmx = "No se pudieron publicar las métricas de " + algoritmo + " por JMX: " + e.getMessage();
+        }
+        return metricas;
+    }
+
+    /**
+     * Métricas de un algoritmo: búferes circulares con las últimas búsquedas.
+     */
+    static final class MetricasAlgoritmo implements MetricasAlgoritmoMBean {
+        private final long[] tiempos = new long[VENTANA];
+        private final long[] expandidos = new long[VENTANA];
+        private final long[] generados = new long[VENTANA];
+        private final long[] bytes = new long[VENTANA];
+        private long busquedas;
+        private long muestrasBytes;
+        private long picoFrontera;
+        private int picoProfundidad;
+
+        synchronized void registrar(MetricasBusqueda m) {
+            int i = (int) (busquedas % VENTANA);
+            tiempos[i] = m.getTiempoNanos();
+            expandidos[i] = m.getExpandidos();
+            generados[i] = m.getGenerados();
+            // -1 significa que la JVM no midió la reserva: no entra en los percentiles
+            if (m.getBytesAsignados() >= 0) {
+                bytes[(int) (muestrasBytes % VENTANA)] = m.getBytesAsignados();
+                muestrasBytes++;
+            }
+            busquedas++;
+            picoFrontera = Math.max(picoFrontera, m.getPicoFrontera());
+            picoProfundidad = Math.max(picoProfundidad, m.getPicoProfundidad());
+        }
+
+        /** Copia ordenada de la parte ocupada de una ventana. */
+        private synchronized long[] ordenada(long[] ventana) {
+            long ocupadas = ventana == bytes ? muestrasBytes : busquedas;
+            long[] copia = Arrays.copyOf(ventana, (int) Math.min(ocupadas, VENTANA));
+            Arrays.sort(copia);
+            return copia;
+        }
+
+        private static long percentil(long[] ordenados, double p) {
+            if (ordenados.length == 0) return 0;
+            int indice = (int) Math.ceil(p * ordenados.length) - 1;
+            return ordenados[Math.max(0, Math.min(ordenados.length - 1, indice))];
+        }
+
+        @Override public synchronized long getBusquedas() { return busquedas; }
+        @Override public int getVentana() { return VENTANA; }
+
+        @Override
+        public double getTiempoMedioMs() {
+            long[] t = ordenada(tiempos);
+            long suma = 0;
+            for (long v : t) suma += v;
+            return t.length == 0 ? 0 : suma / (t.length * 1e6);
+        }
+
+        @Override public double getTiempoP50Ms() { return percentil(ordenada(tiempos), 0.50) / 1e6; }
+        @Override public double getTiempoP95Ms() { return percentil(ordenada(tiempos), 0.95) / 1e6; }
+        @Override public double getTiempoP99Ms() { return percentil(ordenada(tiempos), 0.99) / 1e6; }
+        @Override public double getTiempoMaximoMs() { return percentil(ordenada(tiempos), 1.0) / 1e6; }
+
+        @Override
+        public String getHistogramaTiempos() {
+            long[] t = ordenada(tiempos);
+            StringBuilder sb = new StringBuilder();
+            int i = 0;
+            for (long limiteMs = 1; i < t.length; limiteMs *= 2) {
+                int desde = i;
+                while (i < t.length && t[i] < limiteMs * 1_000_000L) i++;
+                if (i > desde) {
+                    if (sb.length() > 0) sb.append(", ");
+                    sb.append("<").append(limiteMs).append(" ms: ").append(i - desde);
+                }
+            }
+            return sb.toString();
+        }
+
+        @Override public long getExpandidosP50() { return percentil(ordenada(expandidos), 0.50); }
+        @Override public long getExpandidosP95() { return percentil(ordenada(expandidos), 0.95); }
+        @Override public long getGeneradosP50() { return percentil(ordenada(generados), 0.50); }
+        @Override public synchronized long getPicoFronteraMaximo() { return picoFrontera; }
+        @Override public synchronized int getPicoProfundidadMaximo() { return picoProfundidad; }
+        @Override public long getBytesAsignadosP50() { return percentilBytes(0.50); }
+        @Override public long getBytesAsignadosP95() { return percentilBytes(0.95); }
+
+        /** Percentil de los bytes medidos, o -1 si ninguna búsqueda de la ventana se pudo medir. */
+        private long percentilBytes(double p) {
+            long[] b = ordenada(bytes);
+            return b.length == 0 ? -1 : percentil(b, p);
+        }
+
+        @Override
+        public synchronized void reiniciar() {
+            busquedas = 0;
+            muestrasBytes = 0;
+            picoFrontera = 0;
+            picoProfundidad = 0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Preprocesador que rellena los callejones sin salida del laberinto.
+ *
+ * Una celda transitable con una sola vecina transitable (o ninguna) que no sea
+ * el inicio ni el destino no puede formar parte de ninguna ruta entre ellos, así
+ * que se convierte en muro; al hacerlo, la celda anterior del callejón puede
+ * quedar a su vez sin salida, y así sucesivamente. En un laberinto perfecto solo
+ * sobrevive la ruta solución. El resultado es una matriz {@code int[][]} normal,
+ * por lo que cualquier solver existente puede trabajar sobre ella.
+ *
+ * Características:
+ * <ul>
+ *   <li>Mantiene siempre abiertos el inicio y el destino</li>
+ *   <li>Informa de cuántas celdas se han podado</li>
+ *   <li>Reutiliza la vista reducida mientras no cambien el laberinto ni los extremos</li>
+ *   <li>El relleno se reparte en bloques que se procesan en paralelo</li>
+ * </ul>
+ */
+public class RellenoCallejones implements ObservadorLaberinto {
+
+    /** Lado de los bloques en que se reparte el relleno paralelo. */
+    private static final int TAMANO_BLOQUE = 256;
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private int[][] reducida;
+    private int celdasPodadas;
+    private int filaInicio = -1;
+    private int columnaInicio = -1;
+    private int filaFin = -1;
+    private int columnaFin = -1;
+
+    /**
+     * Obtiene la vista reducida del laberinto para los extremos indicados. Si ya
+     * se calculó para el mismo laberinto y los mismos extremos, se devuelve la
+     * misma matriz sin volver a procesarla.
+     *
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro). No se modifica.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return Una copia del laberinto con los callejones rellenados como muros.
+     */
+    public synchronized int[][] reducir(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        if (reducida != null && reducida.length == datos.length && reducida[0].length == datos[0].length
+                && this.filaInicio == filaInicio && this.columnaInicio == columnaInicio
+                && this.filaFin == filaFin && this.columnaFin == columnaFin) {
+            return reducida;
+        }
+        int[][] copia = new int[datos.length][];
+        for (int i = 0; i < datos.length; i++) {
+            copia[i] = datos[i].clone();
+        }
+        this.celdasPodadas = rellenar(copia, filaInicio, columnaInicio, filaFin, columnaFin);
+        this.reducida = copia;
+        this.filaInicio = filaInicio;
+        this.columnaInicio = columnaInicio;
+        this.filaFin = filaFin;
+        this.columnaFin = columnaFin;
+        return copia;
+    }
+
+    /**
+     * Obtiene el número de celdas podadas en la última vista reducida.
+     *
+     * @return Las celdas transitables convertidas en muro.
+     */
+    public synchronized int getCeldasPodadas() {
+        return celdasPodadas;
+    }
+
+    @Override
+    public synchronized void celdaCambiada(int fila, int columna, int valor) {
+        reducida = null;
+    }
+
+    @Override
+    public synchronized void laberintoReemplazado(int[][] datos) {
+        reducida = null;
+    }
+
+    /**
+     * Rellena los callejones de una matriz sobre ella misma.
+     *
+     * El trabajo se hace por rondas: en cada una, todos los bloques se procesan en
+     * paralelo, y dentro de cada bloque los callejones se siguen con una pila
+     * mientras no salgan del bloque. Lo que cruza a un bloque vecino se completa
+     * en la ronda siguiente, y se termina cuando una ronda no rellena nada. Tras
+     * la primera ronda solo pueden aparecer callejones nuevos en el borde de los
+     * bloques, así que las rondas siguientes parten únicamente de esas celdas.
+     *
+     * Leer el estado de una celda de otro bloque mientras se modifica es seguro:
+     * las celdas solo pasan de transitables a muro, así que un valor desactualizado
+     * solo puede hacer que una celda parezca tener más salidas de las que tiene y
+     * se deje para la ronda siguiente, nunca que se rellene una celda necesaria.
+     *
+     * @param datos         La matriz a modificar (1 = transitable, 0 = muro).
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El número de celdas rellenadas.
+     */
+    public static int rellenar(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        int filas = datos.length;
+        int columnas = filas == 0 ? 0 : datos[0].length;
+        int bloquesFila = (filas + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE;
+        int bloquesColumna = (columnas + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE;
+        int totalBloques = bloquesFila * bloquesColumna;
+
+        int total = 0;
+        boolean primeraRonda = true;
+        while (true) {
+            boolean soloBorde = !primeraRonda;
+            int ronda = IntStream.range(0, totalBloques).parallel().map(bloque -> {
+                int desdeFila = (bloque / bloquesColumna) * TAMANO_BLOQUE;
+                int desdeColumna = (bloque % bloquesColumna) * TAMANO_BLOQUE;
+                return rellenarBloque(datos, desdeFila, Math.min(filas, desdeFila + TAMANO_BLOQUE),
+                        desdeColumna, Math.min(columnas, desdeColumna + TAMANO_BLOQUE),
+                        soloBorde, filaInicio, columnaInicio, filaFin, columnaFin);
+            }).sum();
+            primeraRonda = false;
+            if (ronda == 0) {
+                return total;
+            }
+            total += ronda;
+        }
+    }
+
+    private static int rellenarBloque(int[][] datos, int desdeFila, int hastaFila, int desdeColumna, int hastaColumna,
+                                      boolean soloBorde, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        int anchoBloque = hastaColumna - desdeColumna;
+        int[] pila = new int[16];
+        int tope = 0;
+        int rellenadas = 0;
+        for (int i = desdeFila; i < hastaFila; i++) {
+            boolean filaBorde = i == desdeFila || i == hastaFila - 1;
+            for (int j = desdeColumna; j < hastaColumna; j++) {
+                if (soloBorde && !filaBorde && j != desdeColumna && j != hastaColumna - 1) {
+                    j = hastaColumna - 2; // Salta al final de la fila; el incremento lleva a la última columna
+                    continue;
+                }
+                if (tope == pila.length) {
+                    pila = Arrays.copyOf(pila, pila.length * 2);
+                }
+                pila[tope++] = (i - desdeFila) * anchoBloque + (j - desdeColumna);
+                while (tope > 0) {
+                    int local = pila[--tope];
+                    int fila = desdeFila + local / anchoBloque;
+                    int columna = desdeColumna + local % anchoBloque;
+                    if (!esCallejon(datos, fila, columna, filaInicio, columnaInicio, filaFin, columnaFin)) {
+                        continue;
+                    }
+                    datos[fila][columna] = 0;
+                    rellenadas++;
+                    // La vecina abierta (si está en este bloque) puede haberse quedado sin salida
+                    for (int d = 0; d < 4; d++) {
+                        int vecinaFila = fila + dx[d];
+                        int vecinaColumna = columna + dy[d];
+                        if (vecinaFila >= desdeFila && vecinaFila < hastaFila
+                                && vecinaColumna >= desdeColumna && vecinaColumna < hastaColumna
+                                && datos[vecinaFila][vecinaColumna] == 1) {
+                            if (tope == pila.length) {
+                                pila = Arrays.copyOf(pila, pila.length * 2);
+                            }
+                            pila[tope++] = (vecinaFila - desdeFila) * anchoBloque + (vecinaColumna - desdeColumna);
+                        }
+                    }
+                }
+            }
+        }
+        return rellenadas;
+    }
+
+    private static boolean esCallejon(int[][] datos, int fila, int columna,
+                                      int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        if (datos[fila][columna] != 1
+                || (fila == filaInicio && columna == columnaInicio)
+                || (fila == filaFin && columna == columnaFin)) {
+            return false;
+        }
+        int filas = datos.length;
+        int columnas = datos[0].length;
+        int salidas = 0;
+        if (fila > 0 && datos[fila - 1][columna] == 1) salidas++;
+        if (fila < filas - 1 && datos[fila + 1][columna] == 1) salidas++;
+        if (columna > 0 && datos[fila][columna - 1] == 1) salidas++;
+        if (columna < columnas - 1 && datos[fila][columna + 1] == 1) salidas++;
+        return salidas <= 1;
+    }
+}
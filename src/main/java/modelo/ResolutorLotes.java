@@ -0,0 +1,320 @@
+package modelo;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Resuelve lotes de laberintos en paralelo sobre un conjunto de hilos.
+ *
+ * Los solvers guardan el estado de cada búsqueda en campos de instancia, así que
+ * una misma instancia no puede compartirse entre hilos. Aquí cada trabajo pasa
+ * por {@link EjecutorAlgoritmos}, que crea sus propias instancias, y devuelve un
+ * {@link ResultadoTrabajo} propio: los hilos no comparten nada mutable salvo la
+ * cola de resultados.
+ *
+ * El número de trabajos enviados y aún sin terminar está acotado por un
+ * semáforo: quien envía se bloquea cuando se alcanza el límite, de modo que un
+ * productor rápido no llena la memoria con laberintos pendientes. Los lotes
+ * tampoco adelantan más trabajos de los que el consumidor ha recogido más ese
+ * mismo límite.
+ *
+ * Características:
+ * <ul>
+ *   <li>Hilos de plataforma con pila grande (para los solvers recursivos) o hilos virtuales</li>
+ *   <li>Envío individual con {@link CompletableFuture} o por lotes con iterador y {@link Stream}</li>
+ *   <li>Los resultados del lote se entregan en orden de finalización</li>
+ * </ul>
+ */
+public class ResolutorLotes implements AutoCloseable {
+
+    private static final long TAMANO_PILA = 256L * 1024 * 1024;
+
+    /**
+     * Un trabajo del lote: un laberinto, sus extremos y el algoritmo a usar.
+     * La matriz no debe modificarse mientras el trabajo esté pendiente.
+     */
+    public static final class Trabajo {
+        private final long id;
+        private final String algoritmo;
+        private final int[][] datos;
+        private final CostesTerreno costes;
+        private final ComponentesConexas regiones;
+        private final int filaInicio;
+        private final int columnaInicio;
+        private final int filaFin;
+        private final int columnaFin;
+
+        /**
+         * Crea un trabajo sin costes de terreno.
+         *
+         * @param id            Identificador libre para relacionar el resultado con el trabajo.
+         * @param algoritmo     El nombre del algoritmo (ver {@link EjecutorAlgoritmos}).
+         * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+         * @param filaInicio    Fila de la celda de inicio.
+         * @param columnaInicio Columna de la celda de inicio.
+         * @param filaFin       Fila de la celda de destino.
+         * @param columnaFin    Columna de la celda de destino.
+         */
+        public Trabajo(long id, String algoritmo, int[][] datos,
+                       int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+            this(id, algoritmo, datos, null, filaInicio, columnaInicio, filaFin, columnaFin);
+        }
+
+        /**
+         * Crea un trabajo con costes de terreno.
+         *
+         * @param costes Los costes de terreno, o {@code null} para coste unitario.
+         * @see #Trabajo(long, String, int[][], int, int, int, int)
+         */
+        public Trabajo(long id, String algoritmo, int[][] datos, CostesTerreno costes,
+                       int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+            this(id, algoritmo, datos, null, costes, filaInicio, columnaInicio, filaFin, columnaFin);
+        }
+
+        /**
+         * Crea un trabajo que consulta el índice de regiones del laberinto antes
+         * de buscar. Los trabajos sobre la misma matriz pueden compartir el índice.
+         *
+         * @param regiones El índice de regiones de {@code datos}, o {@code null}.
+         * @param costes   Los costes de terreno, o {@code null} para coste unitario.
+         * @see #Trabajo(long, String, int[][], int, int, int, int)
+         */
+        public Trabajo(long id, String algoritmo, int[][] datos, ComponentesConexas regiones, CostesTerreno costes,
+                       int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+            this.id = id;
+            this.algoritmo = algoritmo;
+            this.datos = datos;
+            this.regiones = regiones;
+            this.costes = costes;
+            this.filaInicio = filaInicio;
+            this.columnaInicio = columnaInicio;
+            this.filaFin = filaFin;
+            this.columnaFin = columnaFin;
+        }
+
+        public long getId() { return id; }
+        public String getAlgoritmo() { return algoritmo; }
+    }
+
+    /**
+     * Resultado de un trabajo: la búsqueda o el error que la interrumpió.
+     */
+    public static final class ResultadoTrabajo {
+        private final Trabajo trabajo;
+        private final ResultadoBusqueda resultado;
+        private final String error;
+        private final long tiempoNanos;
+
+        ResultadoTrabajo(Trabajo trabajo, ResultadoBusqueda resultado, String error, long tiempoNanos) {
+            this.trabajo = trabajo;
+            this.resultado = resultado;
+            this.error = error;
+            this.tiempoNanos = tiempoNanos;
+        }
+
+        public Trabajo getTrabajo() { return trabajo; }
+
+        /** @return El resultado, o {@code null} si el trabajo falló. */
+        public ResultadoBusqueda getResultado() { return resultado; }
+
+        /** @return El mensaje de error, o {@code null} si el trabajo terminó bien. */
+        public String getError() { return error; }
+
+        /** @return El tiempo de resolución del trabajo, sin contar la espera en cola. */
+        public long getTiempoNanos() { return tiempoNanos; }
+    }
+
+    private final ExecutorService hilos;
+    private final Semaphore pendientes;
+    private final int maxPendientes;
+
+    /**
+     * Crea un resolutor con un hilo por procesador y hasta cuatro trabajos
+     * pendientes por hilo.
+     */
+    public ResolutorLotes() {
+        this(Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un resolutor con un número fijo de hilos de plataforma.
+     *
+     * @param numHilos      El número de hilos.
+     * @param maxPendientes El máximo de trabajos enviados y aún sin terminar.
+     */
+    public ResolutorLotes(int numHilos, int maxPendientes) {
+        this(Executors.newFixedThreadPool(numHilos, fabricaHilos()), maxPendientes);
+    }
+
+    private ResolutorLotes(ExecutorService hilos, int maxPendientes) {
+        if (maxPendientes < 1) {
+            throw new IllegalArgumentException("Debe admitirse al menos un trabajo pendiente: " + maxPendientes);
+        }
+        this.hilos = hilos;
+        this.maxPendientes = maxPendientes;
+        this.pendientes = new Semaphore(maxPendientes);
+    }
+
+    /**
+     * Crea un resolutor que ejecuta cada trabajo en su propio hilo virtual. Los
+     * hilos virtuales tienen la pila limitada, así que los algoritmos recursivos
+     * pueden fallar en laberintos grandes; el fallo queda en el resultado del trabajo.
+     *
+     * @param maxPendientes El máximo de trabajos enviados y aún sin terminar.
+     * @return El resolutor.
+     */
+    public static ResolutorLotes conHilosVirtuales(int maxPendientes) {
+        return new ResolutorLotes(Executors.newVirtualThreadPerTaskExecutor(), maxPendientes);
+    }
+
+    /**
+     * Envía un trabajo. Si ya hay {@code maxPendientes} trabajos sin terminar,
+     * espera a que acabe alguno.
+     *
+     * @param trabajo El trabajo.
+     * @return El resultado futuro del trabajo.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public CompletableFuture<ResultadoTrabajo> enviar(Trabajo trabajo) throws InterruptedException {
+        pendientes.acquire();
+        CompletableFuture<ResultadoTrabajo> futuro = new CompletableFuture<>();
+        lanzar(trabajo, r -> {
+            pendientes.release();
+            futuro.complete(r);
+        });
+        return futuro;
+    }
+
+    /**
+     * Resuelve un lote de trabajos. Los trabajos se leen del iterador a medida que
+     * hay hueco, así que el lote puede generarse sobre la marcha, y los resultados
+     * se devuelven en el orden en que terminan.
+     *
+     * @param trabajos Los trabajos del lote.
+     * @return Un iterador de resultados; cada {@code next()} espera al siguiente que termine.
+     */
+    public Iterator<ResultadoTrabajo> resolver(Iterator<Trabajo> trabajos) {
+        return new IteradorResultados(trabajos);
+    }
+
+    /**
+     * Resuelve un lote de trabajos y devuelve los resultados como un flujo
+     * secuencial, en orden de finalización.
+     *
+     * @param trabajos Los trabajos del lote.
+     * @return El flujo de resultados.
+     * @see #resolver(Iterator)
+     */
+    public Stream<ResultadoTrabajo> resolver(Stream<Trabajo> trabajos) {
+        Iterator<ResultadoTrabajo> resultados = resolver(trabajos.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(resultados,
+                Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Detiene los hilos. Los trabajos en curso se interrumpen.
+     */
+    @Override
+    public void close() {
+        hilos.shutdownNow();
+    }
+
+    /**
+     * Ejecuta un trabajo y entrega su resultado a {@code alTerminar} pase lo que
+     * pase, también si el ejecutor rechaza el trabajo porque ya está cerrado:
+     * de ello depende que se libere el cupo de {@code pendientes}.
+     */
+    private void lanzar(Trabajo t, Consumer<ResultadoTrabajo> alTerminar) {
+        try {
+            hilos.execute(() -> {
+                long inicio = System.nanoTime();
+                ResultadoTrabajo r = null;
+                try {
+                    ResultadoBusqueda resultado = EjecutorAlgoritmos.resolver(t.algoritmo, t.datos, t.regiones, t.costes,
+                            t.filaInicio, t.columnaInicio, t.filaFin, t.columnaFin);
+                    r = new ResultadoTrabajo(t, resultado, null, System.nanoTime() - inicio);
+                } catch (RuntimeException | Error e) {
+                    r = new ResultadoTrabajo(t, null, e.toString(), System.nanoTime() - inicio);
+                } finally {
+                    alTerminar.accept(r != null ? r
+                            : new ResultadoTrabajo(t, null, "El trabajo terminó sin resultado", System.nanoTime() - inicio));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            alTerminar.accept(new ResultadoTrabajo(t, null, "El resolutor está cerrado", 0));
+        }
+    }
+
+    private static ThreadFactory fabricaHilos() {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread hilo = new Thread(null, r, "lotes-" + contador.incrementAndGet(), TAMANO_PILA);
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    /**
+     * Iterador que mantiene el ejecutor alimentado: antes de esperar un resultado
+     * envía tantos trabajos del origen como permita el semáforo.
+     */
+    private final class IteradorResultados implements Iterator<ResultadoTrabajo> {
+        private final Iterator<Trabajo> origen;
+        private final BlockingQueue<ResultadoTrabajo> terminados = new LinkedBlockingQueue<>();
+        private int enCurso;
+
+        IteradorResultados(Iterator<Trabajo> origen) {
+            this.origen = origen;
+        }
+
+        @Override
+        public boolean hasNext() {
+            alimentar();
+            return enCurso > 0;
+        }
+
+        @Override
+        public ResultadoTrabajo next() {
+            alimentar();
+            if (enCurso == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                ResultadoTrabajo r = terminados.take();
+                enCurso--;
+                return r;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido mientras se esperaba un resultado", e);
+            }
+        }
+
+        private void alimentar() {
+            while (enCurso < maxPendientes && origen.hasNext()) {
+                if (!pendientes.tryAcquire()) {
+                    if (enCurso > 0) return; // Hay resultados por llegar: se esperará a uno de ellos
+                    pendientes.acquireUninterruptibly(); // Otros envíos ocupan todo el cupo
+                }
+                enCurso++;
+                lanzar(origen.next(), r -> {
+                    pendientes.release();
+                    terminados.add(r);
+                });
+            }
+        }
+    }
+}
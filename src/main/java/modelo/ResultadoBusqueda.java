@@ -0,0 +1,147 @@
+package modelo;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado inmutable de la ejecución de un algoritmo de búsqueda: la ruta
+ * encontrada y las celdas exploradas, ambas como coordenadas [fila, columna].
+ *
+ * Unifica las salidas de los distintos solvers (que devuelven {@code List<Celda>}
+ * o {@code List<int[]>}) para que el controlador, la caché y los demás
+ * consumidores las traten igual.
+ *
+ * La ruta se guarda como {@link RutaCompacta} (2 bits por paso) y
+ * {@link #getRuta()} devuelve una vista de ella, así que los resultados en la
+ * caché no conservan un {@code int[]} por paso. Si la ruta no es continua se
+ * guarda tal cual.
+ */
+public class ResultadoBusqueda {
+    private final String algoritmo;
+    private final List<int[]> ruta;
+    private final RutaCompacta rutaCompacta;
+    private final List<int[]> visitadas;
+    private final MetricasBusqueda metricas;
+    private final BigInteger rutasMonotonas;
+
+    /**
+     * Crea un resultado sin contadores propios del solver: se toman como
+     * expandidas y generadas las celdas exploradas.
+     *
+     * @param algoritmo El nombre del algoritmo que lo produjo.
+     * @param ruta      La ruta encontrada (vacía si no hay ruta).
+     * @param visitadas Las celdas exploradas, en orden de exploración.
+     */
+    public ResultadoBusqueda(String algoritmo, List<int[]> ruta, List<int[]> visitadas) {
+        this(algoritmo, ruta, visitadas, new MetricasBusqueda(visitadas.size(), visitadas.size(), 0));
+    }
+
+    /**
+     * Crea un resultado con las métricas de la búsqueda.
+     *
+     * @param algoritmo El nombre del algoritmo que lo produjo.
+     * @param ruta      La ruta encontrada (vacía si no hay ruta).
+     * @param visitadas Las celdas exploradas, en orden de exploración.
+     * @param metricas  Los contadores de la búsqueda.
+     */
+    public ResultadoBusqueda(String algoritmo, List<int[]> ruta, List<int[]> visitadas, MetricasBusqueda metricas) {
+        this(algoritmo, ruta, visitadas, metricas, null);
+    }
+
+    /**
+     * Crea un resultado que además guarda el número de rutas monótonas entre los
+     * extremos, para no repetir el conteo cuando el resultado sale de la caché.
+     *
+     * @param algoritmo      El nombre del algoritmo que lo produjo.
+     * @param ruta           La ruta encontrada (vacía si no hay ruta).
+     * @param visitadas      Las celdas exploradas, en orden de exploración.
+     * @param metricas       Los contadores de la búsqueda.
+     * @param rutasMonotonas El número de rutas monótonas, o {@code null} si no se calculó.
+     */
+    public ResultadoBusqueda(String algoritmo, List<int[]> ruta, List<int[]> visitadas, MetricasBusqueda metricas,
+                             BigInteger rutasMonotonas) {
+        this.algoritmo = algoritmo;
+        this.rutaCompacta = RutaCompacta.desdeSiContinua(ruta);
+        this.ruta = rutaCompacta != null ? rutaCompacta.comoLista() : Collections.unmodifiableList(ruta);
+        this.visitadas = Collections.unmodifiableList(visitadas);
+        this.metricas = metricas;
+        this.rutasMonotonas = rutasMonotonas;
+    }
+
+    /**
+     * Obtiene el nombre del algoritmo.
+     *
+     * @return El algoritmo que produjo el resultado.
+     */
+    public String getAlgoritmo() {
+        return algoritmo;
+    }
+
+    /**
+     * Obtiene la ruta encontrada.
+     *
+     * @return La ruta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> getRuta() {
+        return ruta;
+    }
+
+    /**
+     * Obtiene la ruta encontrada en forma compacta.
+     *
+     * @return La ruta ({@link RutaCompacta#VACIA} si no hay ruta), o {@code null} si no es continua.
+     */
+    public RutaCompacta getRutaCompacta() {
+        return rutaCompacta;
+    }
+
+    /**
+     * Obtiene las celdas exploradas.
+     *
+     * @return Las celdas exploradas como coordenadas [fila, columna], en orden.
+     */
+    public List<int[]> getVisitadas() {
+        return visitadas;
+    }
+
+    /**
+     * Obtiene los contadores de la búsqueda que produjo el resultado.
+     *
+     * @return Las métricas.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Obtiene el número de rutas distintas que solo avanzan hacia la derecha y
+     * hacia abajo (ver {@link SolverMonotono#contarRutas}).
+     *
+     * @return El número de rutas, o {@code null} si no se calculó.
+     */
+    public BigInteger getRutasMonotonas() {
+        return rutasMonotonas;
+    }
+
+    /**
+     * Indica si se encontró una ruta.
+     *
+     * @return {@code true} si la ruta no está vacía.
+     */
+    public boolean hayRuta() {
+        return !ruta.isEmpty();
+    }
+
+    /**
+     * Estima la memoria que ocupa el resultado. Cada coordenada explorada es un
+     * {@code int[2]} (unos 24 bytes) más la referencia en la lista; la ruta
+     * compacta ocupa 2 bits por paso.
+     *
+     * @return Los bytes aproximados.
+     */
+    public long estimarBytes() {
+        long bytesRuta = rutaCompacta != null ? rutaCompacta.estimarBytes() : 32L * ruta.size();
+        return 64 + bytesRuta + 32L * visitadas.size();
+    }
+}
@@ -0,0 +1,453 @@
+package modelo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Ruta guardada como su celda de inicio y un movimiento de 2 bits por paso,
+ * 32 movimientos por {@code long}.
+ *
+ * Una {@code List<int[]>} cuesta unos 32 bytes por paso (el arreglo de dos
+ * enteros, su cabecera y la referencia); aquí un paso ocupa 2 bits, así que una
+ * ruta de un millón de pasos baja de unos 32 MB a 250 KB. Las direcciones
+ * siguen el orden de {@code dx}/{@code dy} de los solvers: 0 arriba, 1 abajo,
+ * 2 izquierda, 3 derecha (el bit alto indica movimiento horizontal y el bajo,
+ * sentido positivo).
+ *
+ * El acceso a un paso arbitrario parte del punto de control más cercano (uno
+ * cada {@value #PASOS_POR_CONTROL} pasos) y suma palabras enteras contando bits,
+ * sin recorrer los movimientos uno a uno. Es inmutable.
+ *
+ * Características:
+ * <ul>
+ *   <li>Acceso aleatorio por índice de paso y recorrido secuencial sin objetos por paso</li>
+ *   <li>Vista {@code List<int[]>} de solo lectura para el código que espera listas</li>
+ *   <li>Forma de texto compacta para el CSV de resultados o para transferirla</li>
+ * </ul>
+ */
+public final class RutaCompacta implements Iterable<int[]> {
+
+    public static final int ARRIBA = 0;
+    public static final int ABAJO = 1;
+    public static final int IZQUIERDA = 2;
+    public static final int DERECHA = 3;
+
+    /** Ruta sin celdas (no se encontró camino). */
+    public static final RutaCompacta VACIA = new RutaCompacta(0, 0, -1, new long[0]);
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private static final int MOVIMIENTOS_POR_PALABRA = 32;
+    /** Pasos entre dos puntos de control; múltiplo de los movimientos por palabra. */
+    static final int PASOS_POR_CONTROL = 1024;
+    /** Bits pares de una palabra: el bit bajo de cada movimiento. */
+    private static final long BITS_PARES = 0x5555555555555555L;
+
+    private final int filaInicio;
+    private final int columnaInicio;
+    private final int pasos;
+    private final long[] movimientos;
+    /** Posición al comienzo de cada tramo de {@value #PASOS_POR_CONTROL} pasos. */
+    private final int[] controlFila;
+    private final int[] controlColumna;
+
+    /**
+     * Recibe una celda con sus coordenadas, sin crear arreglos.
+     */
+    @FunctionalInterface
+    public interface ConsumidorCelda {
+        void aceptar(int fila, int columna);
+    }
+
+    private RutaCompacta(int filaInicio, int columnaInicio, int pasos, long[] movimientos) {
+        this.filaInicio = filaInicio;
+        this.columnaInicio = columnaInicio;
+        this.pasos = pasos;
+        this.movimientos = movimientos;
+        int controles = pasos < 0 ? 0 : pasos / PASOS_POR_CONTROL + 1;
+        this.controlFila = new int[controles];
+        this.controlColumna = new int[controles];
+        int fila = filaInicio;
+        int columna = columnaInicio;
+        for (int k = 0; k < controles; k++) {
+            controlFila[k] = fila;
+            controlColumna[k] = columna;
+            int hasta = Math.min(pasos, (k + 1) * PASOS_POR_CONTROL);
+            for (int w = k * PASOS_POR_CONTROL / MOVIMIENTOS_POR_PALABRA; w * MOVIMIENTOS_POR_PALABRA < hasta; w++) {
+                int m = Math.min(MOVIMIENTOS_POR_PALABRA, hasta - w * MOVIMIENTOS_POR_PALABRA);
+                long palabra = movimientos[w];
+                fila += desplazamientoFila(palabra, m);
+                columna += desplazamientoColumna(palabra, m);
+            }
+        }
+    }
+
+    /**
+     * Comprime una ruta de coordenadas. Si la lista ya es la vista de una ruta
+     * compacta ({@link #comoLista()}), devuelve esa ruta sin copiarla.
+     *
+     * @param ruta La ruta como coordenadas [fila, columna], con celdas consecutivas vecinas.
+     * @return La ruta compacta ({@link #VACIA} si la lista está vacía).
+     * @throws IllegalArgumentException Si dos celdas consecutivas no son vecinas.
+     */
+    public static RutaCompacta desde(List<int[]> ruta) {
+        RutaCompacta compacta = desdeSiContinua(ruta);
+        if (compacta == null) {
+            throw new IllegalArgumentException("La ruta no es continua: hay celdas consecutivas que no son vecinas");
+        }
+        return compacta;
+    }
+
+    /**
+     * Comprime una ruta de coordenadas si es continua.
+     *
+     * @param ruta La ruta como coordenadas [fila, columna].
+     * @return La ruta compacta, o {@code null} si dos celdas consecutivas no son vecinas.
+     */
+    public static RutaCompacta desdeSiContinua(List<int[]> ruta) {
+        if (ruta instanceof Vista) {
+            return ((Vista) ruta).ruta;
+        }
+        if (ruta == null || ruta.isEmpty()) {
+            return VACIA;
+        }
+        int pasos = ruta.size() - 1;
+        long[] movimientos = new long[palabrasPara(pasos)];
+        Iterator<int[]> it = ruta.iterator();
+        int[] anterior = it.next();
+        for (int i = 0; it.hasNext(); i++) {
+            int[] actual = it.next();
+            int direccion = direccionEntre(anterior[0], anterior[1], actual[0], actual[1]);
+            if (direccion < 0) {
+                return null;
+            }
+            movimientos[i / MOVIMIENTOS_POR_PALABRA] |= (long) direccion << (2 * (i % MOVIMIENTOS_POR_PALABRA));
+            anterior = actual;
+        }
+        int[] inicio = ruta.get(0);
+        return new RutaCompacta(inicio[0], inicio[1], pasos, movimientos);
+    }
+
+    /**
+     * Comprime una ruta de índices lineales ({@code fila * columnas + columna}),
+     * como la de {@link CampoDistancias#rutaIndices}.
+     *
+     * @param indices  Los índices de las celdas, con celdas consecutivas vecinas.
+     * @param columnas Las columnas del laberinto.
+     * @return La ruta compacta ({@link #VACIA} si no hay índices).
+     * @throws IllegalArgumentException Si dos celdas consecutivas no son vecinas.
+     */
+    public static RutaCompacta desdeIndices(int[] indices, int columnas) {
+        if (indices.length == 0) {
+            return VACIA;
+        }
+        int pasos = indices.length - 1;
+        long[] movimientos = new long[palabrasPara(pasos)];
+        for (int i = 0; i < pasos; i++) {
+            int direccion = direccionEntre(indices[i] / columnas, indices[i] % columnas,
+                    indices[i + 1] / columnas, indices[i + 1] % columnas);
+            if (direccion < 0) {
+                throw new IllegalArgumentException("La ruta no es continua en el paso " + i);
+            }
+            movimientos[i / MOVIMIENTOS_POR_PALABRA] |= (long) direccion << (2 * (i % MOVIMIENTOS_POR_PALABRA));
+        }
+        return new RutaCompacta(indices[0] / columnas, indices[0] % columnas, pasos, movimientos);
+    }
+
+    /**
+     * Crea una ruta a partir de movimientos ya empaquetados (el movimiento
+     * {@code i} en los bits {@code 2 * (i % 32)} de la palabra {@code i / 32}).
+     * La usan los solvers que reconstruyen la ruta hacia atrás sin guardar las celdas.
+     */
+    static RutaCompacta desdeMovimientos(int filaInicio, int columnaInicio, int pasos, long[] movimientos) {
+        return new RutaCompacta(filaInicio, columnaInicio, pasos, movimientos);
+    }
+
+    /**
+     * Obtiene el número de celdas de la ruta, incluidos el inicio y el fin.
+     *
+     * @return Las celdas, o 0 si la ruta está vacía.
+     */
+    public int size() {
+        return pasos + 1;
+    }
+
+    /**
+     * Indica si la ruta no tiene celdas.
+     *
+     * @return {@code true} si no se encontró camino.
+     */
+    public boolean isEmpty() {
+        return pasos < 0;
+    }
+
+    /**
+     * Obtiene el número de movimientos de la ruta.
+     *
+     * @return Los movimientos ({@code size() - 1}), o 0 si la ruta está vacía.
+     */
+    public int getPasos() {
+        return Math.max(0, pasos);
+    }
+
+    /**
+     * Obtiene la dirección de un movimiento.
+     *
+     * @param paso El índice del movimiento, de 0 a {@code getPasos() - 1}.
+     * @return {@link #ARRIBA}, {@link #ABAJO}, {@link #IZQUIERDA} o {@link #DERECHA}.
+     */
+    public int getDireccion(int paso) {
+        if (paso < 0 || paso >= pasos) {
+            throw new IndexOutOfBoundsException("Movimiento " + paso + " de " + getPasos());
+        }
+        return (int) (movimientos[paso / MOVIMIENTOS_POR_PALABRA] >>> (2 * (paso % MOVIMIENTOS_POR_PALABRA))) & 3;
+    }
+
+    /**
+     * Obtiene una celda de la ruta.
+     *
+     * @param indice El índice de la celda, de 0 a {@code size() - 1}.
+     * @return La celda como [fila, columna].
+     */
+    public int[] get(int indice) {
+        if (indice < 0 || indice > pasos) {
+            throw new IndexOutOfBoundsException("Celda " + indice + " de " + size());
+        }
+        int k = indice / PASOS_POR_CONTROL;
+        int fila = controlFila[k];
+        int columna = controlColumna[k];
+        int w = k * PASOS_POR_CONTROL / MOVIMIENTOS_POR_PALABRA;
+        for (; (w + 1) * MOVIMIENTOS_POR_PALABRA <= indice; w++) {
+            fila += desplazamientoFila(movimientos[w], MOVIMIENTOS_POR_PALABRA);
+            columna += desplazamientoColumna(movimientos[w], MOVIMIENTOS_POR_PALABRA);
+        }
+        int resto = indice - w * MOVIMIENTOS_POR_PALABRA;
+        if (resto > 0) {
+            fila += desplazamientoFila(movimientos[w], resto);
+            columna += desplazamientoColumna(movimientos[w], resto);
+        }
+        return new int[]{fila, columna};
+    }
+
+    /**
+     * Obtiene la primera celda.
+     *
+     * @return La celda como [fila, columna], o {@code null} si la ruta está vacía.
+     */
+    public int[] getInicio() {
+        return isEmpty() ? null : new int[]{filaInicio, columnaInicio};
+    }
+
+    /**
+     * Obtiene la última celda.
+     *
+     * @return La celda como [fila, columna], o {@code null} si la ruta está vacía.
+     */
+    public int[] getFin() {
+        return isEmpty() ? null : get(pasos);
+    }
+
+    /**
+     * Recorre la ruta en orden sin crear objetos por celda.
+     *
+     * @param consumidor Recibe cada celda, del inicio al fin.
+     */
+    public void paraCada(ConsumidorCelda consumidor) {
+        if (isEmpty()) {
+            return;
+        }
+        int fila = filaInicio;
+        int columna = columnaInicio;
+        consumidor.aceptar(fila, columna);
+        for (int i = 0; i < pasos; i++) {
+            int direccion = (int) (movimientos[i / MOVIMIENTOS_POR_PALABRA] >>> (2 * (i % MOVIMIENTOS_POR_PALABRA))) & 3;
+            fila += dx[direccion];
+            columna += dy[direccion];
+            consumidor.aceptar(fila, columna);
+        }
+    }
+
+    /**
+     * Recorre la ruta en orden; cada paso cuesta O(1).
+     *
+     * @return Un iterador que devuelve un arreglo [fila, columna] nuevo por celda.
+     */
+    @Override
+    public Iterator<int[]> iterator() {
+        return new Iterator<int[]>() {
+            private int siguiente = 0;
+            private int fila = filaInicio;
+            private int columna = columnaInicio;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente <= pasos;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (siguiente > 0) {
+                    int direccion = getDireccion(siguiente - 1);
+                    fila += dx[direccion];
+                    columna += dy[direccion];
+                }
+                siguiente++;
+                return new int[]{fila, columna};
+            }
+        };
+    }
+
+    /**
+     * Devuelve una vista de solo lectura como lista de coordenadas. No copia la
+     * ruta: cada {@code get} la decodifica y la iteración es secuencial.
+     *
+     * @return La vista de la ruta.
+     */
+    public List<int[]> comoLista() {
+        return new Vista(this);
+    }
+
+    /**
+     * Estima la memoria que ocupa la ruta.
+     *
+     * @return Los bytes aproximados.
+     */
+    public long estimarBytes() {
+        return 64 + 8L * movimientos.length + 8L * controlFila.length;
+    }
+
+    /**
+     * Codifica la ruta como texto de una línea sin comas, apto para una columna
+     * CSV: {@code fila:columna:pasos:movimientos}, con los movimientos en
+     * Base64 URL sin relleno (4 movimientos por byte, en orden).
+     *
+     * @return La ruta codificada, o una cadena vacía si la ruta está vacía.
+     */
+    public String codificar() {
+        if (isEmpty()) {
+            return "";
+        }
+        byte[] bytes = new byte[(pasos + 3) / 4];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (movimientos[i / 8] >>> (8 * (i % 8)));
+        }
+        return filaInicio + ":" + columnaInicio + ":" + pasos + ":"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodifica una ruta escrita con {@link #codificar()}.
+     *
+     * @param texto La ruta codificada (una cadena vacía es la ruta vacía).
+     * @return La ruta.
+     * @throws IllegalArgumentException Si el texto no tiene el formato esperado.
+     */
+    public static RutaCompacta decodificar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return VACIA;
+        }
+        String[] partes = texto.split(":", -1);
+        if (partes.length != 4) {
+            throw new IllegalArgumentException("Ruta codificada no válida: " + texto);
+        }
+        int fila = Integer.parseInt(partes[0]);
+        int columna = Integer.parseInt(partes[1]);
+        int pasos = Integer.parseInt(partes[2]);
+        byte[] bytes = Base64.getUrlDecoder().decode(partes[3]);
+        if (pasos < 0 || bytes.length != (pasos + 3) / 4) {
+            throw new IllegalArgumentException("Ruta codificada no válida: " + pasos + " pasos en " + bytes.length + " bytes");
+        }
+        long[] movimientos = new long[palabrasPara(pasos)];
+        for (int i = 0; i < bytes.length; i++) {
+            movimientos[i / 8] |= (bytes[i] & 0xFFL) << (8 * (i % 8));
+        }
+        if (pasos % MOVIMIENTOS_POR_PALABRA != 0) {
+            movimientos[movimientos.length - 1] &= (1L << (2 * (pasos % MOVIMIENTOS_POR_PALABRA))) - 1;
+        }
+        return new RutaCompacta(fila, columna, pasos, movimientos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RutaCompacta)) return false;
+        RutaCompacta otra = (RutaCompacta) o;
+        return pasos == otra.pasos && (isEmpty() || filaInicio == otra.filaInicio
+                && columnaInicio == otra.columnaInicio && Arrays.equals(movimientos, otra.movimientos));
+    }
+
+    @Override
+    public int hashCode() {
+        return isEmpty() ? 0 : 31 * (31 * filaInicio + columnaInicio) + Arrays.hashCode(movimientos);
+    }
+
+    private static int palabrasPara(int pasos) {
+        return (pasos + MOVIMIENTOS_POR_PALABRA - 1) / MOVIMIENTOS_POR_PALABRA;
+    }
+
+    private static int direccionEntre(int fila, int columna, int nuevaFila, int nuevaColumna) {
+        for (int d = 0; d < 4; d++) {
+            if (nuevaFila == fila + dx[d] && nuevaColumna == columna + dy[d]) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Desplazamiento vertical de los primeros {@code m} movimientos de una
+     * palabra: bajadas menos subidas, contadas con {@code bitCount}.
+     */
+    private static int desplazamientoFila(long palabra, int m) {
+        long validos = m == MOVIMIENTOS_POR_PALABRA ? BITS_PARES : BITS_PARES & ((1L << (2 * m)) - 1);
+        long horizontales = (palabra >>> 1) & validos;
+        long positivos = palabra & validos;
+        int abajo = Long.bitCount(positivos & ~horizontales);
+        int arriba = m - Long.bitCount(horizontales | positivos);
+        return abajo - arriba;
+    }
+
+    private static int desplazamientoColumna(long palabra, int m) {
+        long validos = m == MOVIMIENTOS_POR_PALABRA ? BITS_PARES : BITS_PARES & ((1L << (2 * m)) - 1);
+        long horizontales = (palabra >>> 1) & validos;
+        long positivos = palabra & validos;
+        int derecha = Long.bitCount(horizontales & positivos);
+        return 2 * derecha - Long.bitCount(horizontales);
+    }
+
+    /**
+     * Vista de solo lectura de una ruta compacta como lista.
+     */
+    private static final class Vista extends AbstractList<int[]> implements RandomAccess {
+        private final RutaCompacta ruta;
+
+        Vista(RutaCompacta ruta) {
+            this.ruta = ruta;
+        }
+
+        @Override
+        public int[] get(int indice) {
+            return ruta.get(indice);
+        }
+
+        @Override
+        public int size() {
+            return ruta.size();
+        }
+
+        @Override
+        public Iterator<int[]> iterator() {
+            return ruta.iterator();
+        }
+    }
+}
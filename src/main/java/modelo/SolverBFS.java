@@ -4,6 +4,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 
 /**
@@ -28,6 +30,15 @@ public class SolverBFS {
     /** Lista que almacena el orden en que las celdas fueron visitadas para el recorrido. */
     private List<Celda> recorrido;
 
+    /** Orden de visita de la última búsqueda sobre una {@link Cuadricula}, como índices lineales. */
+    private int[] ordenVisita;
+    private int numVisitadas;
+    private int columnasVisita;
+    private int[] predecesorVisita;
+
+    /** Contadores de la última búsqueda. */
+    private MetricasBusqueda metricas = new MetricasBusqueda();
+
     /**
      * Devuelve la lista de celdas visitadas en el orden de exploración.
      * Esta lista puede ser utilizada por el controlador para animar el proceso de búsqueda.
@@ -38,6 +49,36 @@ public class SolverBFS {
         return recorrido;
     }
 
+    /**
+     * Devuelve los contadores de la última búsqueda.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Devuelve las celdas visitadas en la última búsqueda, en orden de exploración,
+     * como coordenadas [fila, columna]. Sirve tanto para búsquedas sobre
+     * {@link Laberinto} como sobre cualquier {@link Cuadricula}.
+     *
+     * @return Una lista de coordenadas que representa el recorrido completo del algoritmo.
+     */
+    public List<int[]> getRecorridoCoordenadas() {
+        List<int[]> coordenadas = new ArrayList<>();
+        if (ordenVisita != null) {
+            for (int i = 0; i < numVisitadas; i++) {
+                coordenadas.add(new int[]{ordenVisita[i] / columnasVisita, ordenVisita[i] % columnasVisita});
+            }
+        } else if (recorrido != null) {
+            for (Celda c : recorrido) {
+                coordenadas.add(new int[]{c.getFila(), c.getColumna()});
+            }
+        }
+        return coordenadas;
+    }
+
     /**
      * Busca la ruta más corta desde un punto de inicio hasta un punto de destino
      * en un laberinto usando el algoritmo BFS.
@@ -55,13 +96,21 @@ public class SolverBFS {
         boolean[][] visitado = new boolean[laberinto.getFilas()][laberinto.getColumnas()];
         Celda[][] predecesor = new Celda[laberinto.getFilas()][laberinto.getColumnas()];
         this.recorrido = new ArrayList<>(); // Inicializar la lista de recorrido al inicio de la búsqueda
+        this.ordenVisita = null;
+        MetricasBusqueda m = new MetricasBusqueda();
+        this.metricas = m;
 
         cola.add(inicio);
+        m.generados++;
         visitado[inicio.getFila()][inicio.getColumna()] = true;
         this.recorrido.add(inicio); // Añadir el inicio al recorrido
 
         while (!cola.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return Collections.emptyList(); // Búsqueda cancelada (por ejemplo, al perder una carrera)
+            }
             Celda actual = cola.poll();
+            m.expandidos++;
 
             // Usamos las coordenadas para la comparación de celdas
             if (actual.getFila() == fin.getFila() && actual.getColumna() == fin.getColumna()) {
@@ -79,6 +128,8 @@ public class SolverBFS {
                     visitado[nuevaFila][nuevaColumna] = true;
                     predecesor[nuevaFila][nuevaColumna] = actual;
                     cola.add(vecino);
+                    m.generados++;
+                    m.frontera(cola.size());
                     this.recorrido.add(vecino); // Añadir la celda visitada al recorrido
                 }
             }
@@ -86,15 +137,247 @@ public class SolverBFS {
         return Collections.emptyList(); // No se encontró ruta
     }
 
+    /**
+     * Busca la ruta más corta sobre cualquier {@link Cuadricula} (por ejemplo, un
+     * {@link LaberintoMapeado}) trabajando solo con índices primitivos: la cola es
+     * un {@code int[]} que, al ser BFS, coincide con el orden de visita, y los
+     * predecesores se guardan en otro {@code int[]}. No se crean objetos por celda.
+     *
+     * @param cuadricula    La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta más corta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> buscarRuta(Cuadricula cuadricula, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        int destino = filaFin * (cuadricula == null ? 0 : cuadricula.getColumnas()) + columnaFin;
+        int encontrado = recorrer(cuadricula, filaInicio, columnaInicio, (celda, distancia) -> celda == destino);
+        return encontrado < 0 ? Collections.emptyList() : rutaDesdePredecesores(encontrado);
+    }
+
+    /**
+     * Busca, en un único recorrido, la meta más cercana al inicio entre todas las
+     * celdas que cumplen un criterio (por ejemplo, "cualquier salida del borde").
+     *
+     * @param cuadricula    La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param criterio      Indica qué celdas son metas.
+     * @return La ruta más corta hasta la meta más cercana, o una lista vacía si no se alcanza ninguna.
+     */
+    public List<int[]> buscarMetaMasCercana(Cuadricula cuadricula, int filaInicio, int columnaInicio, CriterioMeta criterio) {
+        int columnas = cuadricula == null ? 0 : cuadricula.getColumnas();
+        int encontrado = recorrer(cuadricula, filaInicio, columnaInicio,
+                (celda, distancia) -> criterio.esMeta(celda / columnas, celda % columnas));
+        return encontrado < 0 ? Collections.emptyList() : rutaDesdePredecesores(encontrado);
+    }
+
+    /**
+     * Busca, en un único recorrido, la meta más cercana al inicio entre varias celdas candidatas.
+     *
+     * @param cuadricula    La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param metas         Las celdas candidatas como [fila, columna].
+     * @return La ruta más corta hasta la meta más cercana, o una lista vacía si no se alcanza ninguna.
+     */
+    public List<int[]> buscarMetaMasCercana(Cuadricula cuadricula, int filaInicio, int columnaInicio, List<int[]> metas) {
+        BitSet esMeta = marcarMetas(cuadricula, metas);
+        int encontrado = recorrer(cuadricula, filaInicio, columnaInicio, (celda, distancia) -> esMeta.get(celda));
+        return encontrado < 0 ? Collections.emptyList() : rutaDesdePredecesores(encontrado);
+    }
+
+    /**
+     * Calcula, en un único recorrido, la distancia desde el inicio hasta cada una
+     * de las metas. El recorrido se detiene en cuanto se han alcanzado todas las
+     * metas transitables; si alguna está en otra región, recorre entera la región
+     * del inicio antes de terminar.
+     *
+     * @param cuadricula    La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param metas         Las celdas candidatas como [fila, columna].
+     * @return Un arreglo con la distancia a cada meta, en el mismo orden, o -1 si no es alcanzable.
+     */
+    public int[] distanciasAMetas(Cuadricula cuadricula, int filaInicio, int columnaInicio, List<int[]> metas) {
+        int[] distancias = new int[metas.size()];
+        Arrays.fill(distancias, -1);
+        if (cuadricula == null) {
+            return distancias;
+        }
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        // Cada meta transitable como (celda << 32 | posición en la lista), ordenadas por celda:
+        // al visitar una celda se localizan sus posiciones con una búsqueda binaria
+        long[] porCelda = new long[metas.size()];
+        int numMetas = 0;
+        BitSet esMeta = new BitSet();
+        for (int i = 0; i < metas.size(); i++) {
+            int[] meta = metas.get(i);
+            if (meta[0] >= 0 && meta[0] < filas && meta[1] >= 0 && meta[1] < columnas
+                    && cuadricula.esTransitable(meta[0], meta[1])) {
+                int celda = meta[0] * columnas + meta[1];
+                esMeta.set(celda);
+                porCelda[numMetas++] = (long) celda << 32 | i;
+            }
+        }
+        if (numMetas == 0) {
+            return distancias;
+        }
+        long[] ordenadas = Arrays.copyOf(porCelda, numMetas);
+        Arrays.sort(ordenadas);
+        int[] pendientes = {esMeta.cardinality()};
+        recorrer(cuadricula, filaInicio, columnaInicio, (celda, distancia) -> {
+            if (!esMeta.get(celda)) {
+                return false;
+            }
+            int p = Arrays.binarySearch(ordenadas, (long) celda << 32);
+            for (p = p >= 0 ? p : -p - 1; p < ordenadas.length && (int) (ordenadas[p] >>> 32) == celda; p++) {
+                distancias[(int) ordenadas[p]] = distancia;
+            }
+            return --pendientes[0] == 0;
+        });
+        predecesorVisita = null;
+        return distancias;
+    }
+
+    /**
+     * Criterio que decide si una celda es una meta de la búsqueda.
+     */
+    public interface CriterioMeta {
+        /**
+         * @param fila    La fila de la celda.
+         * @param columna La columna de la celda.
+         * @return {@code true} si la celda es una meta.
+         */
+        boolean esMeta(int fila, int columna);
+    }
+
+    /**
+     * Acción que se ejecuta al sacar cada celda de la cola. Devuelve {@code true}
+     * para detener el recorrido en esa celda.
+     */
+    private interface VisitaCelda {
+        boolean visitar(int celda, int distancia);
+    }
+
+    /**
+     * Recorrido en anchura sobre índices primitivos: la cola es un {@code int[]} que,
+     * al ser BFS, coincide con el orden de visita, y los predecesores se guardan en
+     * otro {@code int[]}. No se crean objetos por celda.
+     *
+     * @return La celda en la que se detuvo el recorrido, o -1 si se agotó sin detenerse.
+     */
+    private int recorrer(Cuadricula cuadricula, int filaInicio, int columnaInicio, VisitaCelda visita) {
+        this.recorrido = null;
+        this.ordenVisita = null;
+        this.numVisitadas = 0;
+        this.predecesorVisita = null;
+        this.metricas = new MetricasBusqueda();
+        if (cuadricula == null || !cuadricula.esTransitable(filaInicio, columnaInicio)) {
+            return -1;
+        }
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para una búsqueda en memoria: " + filas + "x" + columnas);
+        }
+
+        int[] cola = new int[(int) totalCeldas];
+        int[] predecesor = new int[(int) totalCeldas];
+        Arrays.fill(predecesor, -1);
+        int origen = filaInicio * columnas + columnaInicio;
+        int cabeza = 0;
+        int colaFin = 0;
+        cola[colaFin++] = origen;
+        predecesor[origen] = origen;
+
+        // finNivel marca dónde termina en la cola el nivel (distancia) actual
+        int distancia = 0;
+        int finNivel = colaFin;
+        int encontrado = -1;
+        int picoFrontera = 1;
+        while (cabeza < colaFin) {
+            if (colaFin - cabeza > picoFrontera) picoFrontera = colaFin - cabeza;
+            if (cabeza == finNivel) {
+                distancia++;
+                finNivel = colaFin;
+            }
+            int actual = cola[cabeza++];
+            if (visita.visitar(actual, distancia)) {
+                encontrado = actual;
+                break;
+            }
+            int fila = actual / columnas;
+            int columna = actual - fila * columnas;
+            for (int i = 0; i < 4; i++) {
+                int nuevaFila = fila + dx[i];
+                int nuevaColumna = columna + dy[i];
+                if (nuevaFila < 0 || nuevaFila >= filas || nuevaColumna < 0 || nuevaColumna >= columnas) {
+                    continue;
+                }
+                int vecino = nuevaFila * columnas + nuevaColumna;
+                if (predecesor[vecino] == -1 && cuadricula.esTransitable(nuevaFila, nuevaColumna)) {
+                    predecesor[vecino] = actual;
+                    cola[colaFin++] = vecino;
+                }
+            }
+        }
+
+        // La cola es el orden de visita: los contadores salen de sus índices sin coste por celda
+        metricas.expandidos = cabeza;
+        metricas.generados = colaFin;
+        metricas.picoFrontera = picoFrontera;
+        this.ordenVisita = cola;
+        this.numVisitadas = colaFin;
+        this.columnasVisita = columnas;
+        this.predecesorVisita = predecesor;
+        return encontrado;
+    }
+
+    /**
+     * Reconstruye la ruta del último recorrido desde el origen hasta la celda indicada.
+     */
+    private List<int[]> rutaDesdePredecesores(int destino) {
+        List<int[]> ruta = new ArrayList<>();
+        for (int at = destino; ; at = predecesorVisita[at]) {
+            ruta.add(new int[]{at / columnasVisita, at % columnasVisita});
+            if (predecesorVisita[at] == at) break;
+        }
+        predecesorVisita = null; // No se conserva más allá de la reconstrucción
+        Collections.reverse(ruta);
+        return ruta;
+    }
+
+    private static BitSet marcarMetas(Cuadricula cuadricula, List<int[]> metas) {
+        BitSet esMeta = new BitSet();
+        if (cuadricula == null) {
+            return esMeta;
+        }
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        for (int[] meta : metas) {
+            if (meta[0] >= 0 && meta[0] < filas && meta[1] >= 0 && meta[1] < columnas) {
+                esMeta.set(meta[0] * columnas + meta[1]);
+            }
+        }
+        return esMeta;
+    }
+
     /**
      * Reconstruye la ruta desde el destino hasta el inicio usando el arreglo de predecesores.
      */
     private List<Celda> reconstruirRuta(Celda[][] predecesor, Celda inicio, Celda fin) {
+        EventosBusqueda.Reconstruccion evento = new EventosBusqueda.Reconstruccion();
+        evento.begin();
         List<Celda> ruta = new ArrayList<>();
         for (Celda at = fin; at != null; at = predecesor[at.getFila()][at.getColumna()]) {
             ruta.add(at);
         }
         Collections.reverse(ruta);
+        evento.terminar("BFS", predecesor.length, predecesor[0].length, ruta.size());
         return ruta;
     }
 
@@ -0,0 +1,256 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solver que aplica Dijkstra sobre el {@link GrafoCorredores} del laberinto.
+ *
+ * Como cada corredor es una sola arista con peso, la búsqueda solo toca los
+ * cruces y callejones; la ruta resultante se expande después celda a celda
+ * recorriendo de nuevo los corredores elegidos, para que la interfaz la dibuje
+ * igual que la de cualquier otro solver.
+ *
+ * Si el inicio o el destino están en mitad de un corredor, se enlazan con los
+ * dos nodos de sus extremos (y directamente entre sí si comparten corredor), sin
+ * modificar el grafo.
+ *
+ * Características:
+ * <ul>
+ *   <li>Encuentra el camino más corto (movimientos en 4 direcciones)</li>
+ *   <li>Guarda el grafo contraído y lo reutiliza mientras el laberinto no cambie</li>
+ *   <li>La cola de prioridad es un montículo de {@code long} con distancia y nodo empaquetados</li>
+ * </ul>
+ */
+public class SolverCorredores implements ObservadorLaberinto {
+
+    private GrafoCorredores grafo;
+    private final List<int[]> nodosVisitados = new ArrayList<>();
+
+    /**
+     * Obtiene el grafo contraído del laberinto, construyéndolo si no existe o si
+     * el laberinto cambió desde la última vez. Para detectar los cambios, la
+     * instancia debe estar registrada como observador del laberinto; una instancia
+     * no registrada solo debe usarse con un único laberinto.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     * @return El grafo de corredores.
+     */
+    public synchronized GrafoCorredores getGrafo(int[][] datos) {
+        if (grafo == null) {
+            // Se trabaja sobre una copia compacta para que las ediciones posteriores no alteren el grafo
+            grafo = GrafoCorredores.construir(MatrizBits.desdeMatrizEnteros(datos));
+        }
+        return grafo;
+    }
+
+    /**
+     * Devuelve los nodos (cruces y callejones) que asentó la última búsqueda, en orden.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getNodosVisitados() {
+        return nodosVisitados;
+    }
+
+    /**
+     * Busca la ruta más corta entre dos celdas.
+     *
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta más corta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> resolver(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        GrafoCorredores g = getGrafo(datos);
+        nodosVisitados.clear();
+        int columnas = g.getColumnas();
+        int origen = filaInicio * columnas + columnaInicio;
+        int meta = filaFin * columnas + columnaFin;
+        if (!g.esTransitable(origen) || !g.esTransitable(meta)) {
+            return Collections.emptyList();
+        }
+        if (origen == meta) {
+            return Collections.singletonList(new int[]{filaInicio, columnaInicio});
+        }
+
+        // Enlaces de los extremos con el grafo: {nodo, distancia, dirección del primer paso}
+        int mejor = Integer.MAX_VALUE;
+        int direccionDirecta = -1;
+        int[][] salidas = enlazar(g, origen, meta);
+        int[][] llegadas = enlazar(g, meta, -1);
+        for (int[] salida : salidas) {
+            if (salida[0] == -2 && salida[1] < mejor) { // El destino está en el mismo corredor
+                mejor = salida[1];
+                direccionDirecta = salida[2];
+            }
+        }
+
+        int numNodos = g.getNumNodos();
+        int[] distancia = new int[numNodos];
+        int[] arista = new int[numNodos]; // Arista por la que se llegó, o -1 si es un nodo de salida
+        int[] previo = new int[numNodos];
+        int[] salidaUsada = new int[numNodos];
+        Arrays.fill(distancia, Integer.MAX_VALUE);
+        long[] monticulo = new long[16];
+        int tamano = 0;
+        for (int k = 0; k < salidas.length; k++) {
+            int nodo = salidas[k][0];
+            if (nodo >= 0 && salidas[k][1] < distancia[nodo]) {
+                distancia[nodo] = salidas[k][1];
+                arista[nodo] = -1;
+                salidaUsada[nodo] = k;
+                monticulo = insertar(monticulo, tamano++, ((long) distancia[nodo] << 32) | nodo);
+            }
+        }
+        int[] distanciaLlegada = new int[numNodos];
+        Arrays.fill(distanciaLlegada, -1);
+        int[] llegadaDe = new int[numNodos];
+        for (int k = 0; k < llegadas.length; k++) {
+            int nodo = llegadas[k][0];
+            if (nodo >= 0 && (distanciaLlegada[nodo] < 0 || llegadas[k][1] < distanciaLlegada[nodo])) {
+                distanciaLlegada[nodo] = llegadas[k][1];
+                llegadaDe[nodo] = k;
+            }
+        }
+
+        int nodoFinal = -1;
+        while (tamano > 0) {
+            long minimo = monticulo[0];
+            tamano = extraer(monticulo, tamano);
+            int u = (int) minimo;
+            int d = (int) (minimo >>> 32);
+            if (d != distancia[u]) continue; // Entrada obsoleta
+            if (d >= mejor) break;
+            nodosVisitados.add(new int[]{g.celdaNodo[u] / columnas, g.celdaNodo[u] % columnas});
+            if (distanciaLlegada[u] >= 0 && d + distanciaLlegada[u] < mejor) {
+                mejor = d + distanciaLlegada[u];
+                nodoFinal = u;
+            }
+            for (int e = g.inicio[u]; e < g.inicio[u + 1]; e++) {
+                int v = g.destino[e];
+                int nd = d + g.peso[e];
+                if (nd < distancia[v]) {
+                    distancia[v] = nd;
+                    arista[v] = e;
+                    previo[v] = u;
+                    monticulo = insertar(monticulo, tamano++, ((long) nd << 32) | v);
+                }
+            }
+        }
+        if (mejor == Integer.MAX_VALUE) {
+            return Collections.emptyList(); // No se encontró ruta
+        }
+
+        // Expansión de la ruta a celdas
+        GrafoCorredores.RutaIndices ruta = new GrafoCorredores.RutaIndices();
+        ruta.agregar(origen);
+        if (nodoFinal < 0) {
+            g.recorrerCorredor(origen, direccionDirecta, meta, ruta);
+        } else {
+            // Nodos desde el final hasta el nodo de salida
+            GrafoCorredores.RutaIndices nodos = new GrafoCorredores.RutaIndices();
+            for (int u = nodoFinal; ; ) {
+                nodos.agregar(u);
+                if (arista[u] < 0) break;
+                u = previo[u];
+            }
+            int primero = nodos.celdas[nodos.tamano - 1];
+            if (g.celdaNodo[primero] != origen) {
+                g.recorrerCorredor(origen, salidas[salidaUsada[primero]][2], -1, ruta);
+            }
+            for (int i = nodos.tamano - 1; i > 0; i--) {
+                int v = nodos.celdas[i - 1];
+                g.recorrerCorredor(g.celdaNodo[nodos.celdas[i]], g.direccion[arista[v]], -1, ruta);
+            }
+            if (g.celdaNodo[nodoFinal] != meta) {
+                // El tramo final se recorre desde el destino y se añade al revés
+                GrafoCorredores.RutaIndices tramo = new GrafoCorredores.RutaIndices();
+                g.recorrerCorredor(meta, llegadas[llegadaDe[nodoFinal]][2], -1, tramo);
+                for (int i = tramo.tamano - 2; i >= 0; i--) {
+                    ruta.agregar(tramo.celdas[i]);
+                }
+                ruta.agregar(meta);
+            }
+        }
+        List<int[]> coordenadas = new ArrayList<>(ruta.tamano);
+        for (int i = 0; i < ruta.tamano; i++) {
+            coordenadas.add(new int[]{ruta.celdas[i] / columnas, ruta.celdas[i] % columnas});
+        }
+        return coordenadas;
+    }
+
+    @Override
+    public synchronized void celdaCambiada(int fila, int columna, int valor) {
+        grafo = null;
+    }
+
+    @Override
+    public synchronized void laberintoReemplazado(int[][] datos) {
+        grafo = null;
+    }
+
+    /**
+     * Calcula cómo se enlaza una celda con el grafo. Si es un nodo, el enlace es el
+     * propio nodo a distancia 0; si está en un corredor, son los nodos de sus dos
+     * extremos. Un enlace con nodo -2 indica que el recorrido encontró la celda de
+     * parada (el otro extremo de la consulta) en el mismo corredor.
+     *
+     * @return Enlaces {nodo, distancia, dirección del primer paso}.
+     */
+    private static int[][] enlazar(GrafoCorredores g, int celda, int parada) {
+        int nodo = g.nodoDeCelda(celda);
+        if (nodo >= 0) {
+            return new int[][]{{nodo, 0, -1}};
+        }
+        int[][] enlaces = new int[2][];
+        int k = 0;
+        for (int d = 0; d < 4; d++) {
+            if (g.vecina(celda, d) < 0) continue;
+            long fin = g.recorrerCorredor(celda, d, parada, null);
+            int celdaFin = (int) (fin >>> 32);
+            int pasos = (int) fin;
+            if (celdaFin == parada) {
+                enlaces[k++] = new int[]{-2, pasos, d};
+            } else if (celdaFin == celda) {
+                enlaces[k++] = new int[]{-1, pasos, d}; // Corredor cerrado sin nodos
+            } else {
+                enlaces[k++] = new int[]{g.nodoDeCelda(celdaFin), pasos, d};
+            }
+        }
+        return Arrays.copyOf(enlaces, k);
+    }
+
+    private static long[] insertar(long[] monticulo, int i, long valor) {
+        if (i == monticulo.length) {
+            monticulo = Arrays.copyOf(monticulo, i * 2);
+        }
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (monticulo[padre] <= valor) break;
+            monticulo[i] = monticulo[padre];
+            i = padre;
+        }
+        monticulo[i] = valor;
+        return monticulo;
+    }
+
+    private static int extraer(long[] monticulo, int tamano) {
+        long valor = monticulo[--tamano];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamano) break;
+            if (hijo + 1 < tamano && monticulo[hijo + 1] < monticulo[hijo]) hijo++;
+            if (monticulo[hijo] >= valor) break;
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = valor;
+        return tamano;
+    }
+}
@@ -27,6 +27,18 @@ public class SolverDFS {
     /** Lista que almacena el orden en que las celdas fueron visitadas para el recorrido. */
     private List<Celda> recorrido;
 
+    /** Contadores de la última búsqueda. */
+    private MetricasBusqueda metricas = new MetricasBusqueda();
+
+    /**
+     * Devuelve los contadores de la última búsqueda.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
     /**
      * Devuelve la lista de celdas visitadas en el orden de exploración.
      * Esta lista puede ser utilizada por el controlador para animar el proceso de búsqueda.
@@ -54,13 +66,20 @@ public class SolverDFS {
         boolean[][] visitado = new boolean[laberinto.getFilas()][laberinto.getColumnas()];
         Celda[][] predecesor = new Celda[laberinto.getFilas()][laberinto.getColumnas()];
         this.recorrido = new ArrayList<>(); // Inicializar la lista de recorrido al inicio de la búsqueda
+        MetricasBusqueda m = new MetricasBusqueda();
+        this.metricas = m;
 
         pila.push(inicio);
+        m.generados++;
         visitado[inicio.getFila()][inicio.getColumna()] = true;
         this.recorrido.add(inicio); // Añadir el inicio al recorrido
 
         while (!pila.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return Collections.emptyList(); // Búsqueda cancelada (por ejemplo, al perder una carrera)
+            }
             Celda actual = pila.pop();
+            m.expandidos++;
 
             // Usamos las coordenadas para la comparación de celdas
             if (actual.getFila() == fin.getFila() && actual.getColumna() == fin.getColumna()) {
@@ -78,6 +97,8 @@ public class SolverDFS {
                     visitado[nuevaFila][nuevaColumna] = true;
                     predecesor[nuevaFila][nuevaColumna] = actual;
                     pila.push(vecino);
+                    m.generados++;
+                    m.frontera(pila.size());
                     this.recorrido.add(vecino); // Añadir la celda visitada al recorrido
                 }
             }
@@ -89,11 +110,14 @@ public class SolverDFS {
      * Reconstruye la ruta desde el destino hasta el inicio usando el arreglo de predecesores.
      */
     private List<Celda> reconstruirRuta(Celda[][] predecesor, Celda inicio, Celda fin) {
+        EventosBusqueda.Reconstruccion evento = new EventosBusqueda.Reconstruccion();
+        evento.begin();
         List<Celda> ruta = new ArrayList<>();
         for (Celda at = fin; at != null; at = predecesor[at.getFila()][at.getColumna()]) {
             ruta.add(at);
         }
         Collections.reverse(ruta);
+        evento.terminar("DFS", predecesor.length, predecesor[0].length, ruta.size());
         return ruta;
     }
 
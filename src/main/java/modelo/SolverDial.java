@@ -0,0 +1,181 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementa el algoritmo de Dijkstra con la cola de cubetas circular de Dial
+ * para encontrar el camino de menor coste en un laberinto con costes de terreno.
+ *
+ * Como los costes son enteros pequeños (1 a {@link CostesTerreno#COSTE_MAXIMO}),
+ * todas las distancias pendientes caen dentro de una ventana de
+ * {@code COSTE_MAXIMO + 1} valores consecutivos. Basta entonces con un arreglo
+ * circular de cubetas, una por distancia, y avanzar por él en orden: cada
+ * inserción y extracción es O(1) y el total es O(V + C) sin ningún montículo.
+ *
+ * Características:
+ * <ul>
+ *   <li>Encuentra el camino de menor coste (coste de entrar en cada celda)</li>
+ *   <li>Funciona sobre cualquier {@link Cuadricula}; sin costes equivale a BFS</li>
+ *   <li>Trabaja con arreglos primitivos indexados por celda</li>
+ * </ul>
+ */
+public class SolverDial {
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private static final int NUM_CUBETAS = CostesTerreno.COSTE_MAXIMO + 1;
+
+    /** Celdas asentadas en la última búsqueda, en orden, como índices lineales. */
+    private int[] ordenVisita;
+    private int numVisitadas;
+    private int columnasVisita;
+    private long costeRuta = -1;
+    private MetricasBusqueda metricas = new MetricasBusqueda();
+
+    /**
+     * Devuelve los contadores de la última búsqueda. Los generados incluyen las
+     * entradas que después se descartan por obsoletas.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Devuelve las celdas asentadas en la última búsqueda, en orden de coste creciente.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getRecorridoCoordenadas() {
+        List<int[]> coordenadas = new ArrayList<>(numVisitadas);
+        for (int i = 0; i < numVisitadas; i++) {
+            coordenadas.add(new int[]{ordenVisita[i] / columnasVisita, ordenVisita[i] % columnasVisita});
+        }
+        return coordenadas;
+    }
+
+    /**
+     * Obtiene el coste total de la última ruta encontrada (sin contar la celda de inicio).
+     *
+     * @return El coste, o -1 si no se encontró ruta.
+     */
+    public long getCosteRuta() {
+        return costeRuta;
+    }
+
+    /**
+     * Busca la ruta de menor coste entre dos celdas.
+     *
+     * @param cuadricula    La cuadrícula a recorrer; sus costes se leen con {@link Cuadricula#getCoste}.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta de menor coste como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> buscarRuta(Cuadricula cuadricula, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        this.numVisitadas = 0;
+        this.costeRuta = -1;
+        MetricasBusqueda m = new MetricasBusqueda();
+        this.metricas = m;
+        if (cuadricula == null || !cuadricula.esTransitable(filaInicio, columnaInicio)) {
+            return Collections.emptyList();
+        }
+        int filas = cuadricula.getFilas();
+        int columnas = cuadricula.getColumnas();
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para una búsqueda en memoria: " + filas + "x" + columnas);
+        }
+        int n = (int) totalCeldas;
+        int origen = filaInicio * columnas + columnaInicio;
+        int destino = filaFin * columnas + columnaFin;
+
+        long[] distancia = new long[n];
+        Arrays.fill(distancia, Long.MAX_VALUE);
+        int[] predecesor = new int[n];
+        boolean[] asentada = new boolean[n];
+        int[] orden = new int[16];
+
+        // Cubetas circulares: la cubeta d % NUM_CUBETAS guarda las celdas con distancia provisional d
+        int[][] cubetas = new int[NUM_CUBETAS][8];
+        int[] tamanos = new int[NUM_CUBETAS];
+        int pendientes = 0;
+
+        distancia[origen] = 0;
+        predecesor[origen] = origen;
+        cubetas[0][tamanos[0]++] = origen;
+        pendientes++;
+        m.generados++;
+        long actualDistancia = 0;
+        boolean encontrado = false;
+
+        while (pendientes > 0) {
+            int c = (int) (actualDistancia % NUM_CUBETAS);
+            if (tamanos[c] == 0) {
+                actualDistancia++;
+                continue;
+            }
+            int actual = cubetas[c][--tamanos[c]];
+            pendientes--;
+            // Entrada obsoleta: la celda ya se asentó o se mejoró después de insertarla
+            if (asentada[actual] || distancia[actual] != actualDistancia) continue;
+            asentada[actual] = true;
+            m.expandidos++;
+            if (numVisitadas == orden.length) {
+                orden = Arrays.copyOf(orden, numVisitadas * 2);
+            }
+            orden[numVisitadas++] = actual;
+            if (actual == destino) {
+                encontrado = true;
+                break;
+            }
+            int fila = actual / columnas;
+            int columna = actual - fila * columnas;
+            for (int i = 0; i < 4; i++) {
+                int nuevaFila = fila + dx[i];
+                int nuevaColumna = columna + dy[i];
+                if (nuevaFila < 0 || nuevaFila >= filas || nuevaColumna < 0 || nuevaColumna >= columnas) {
+                    continue;
+                }
+                int vecino = nuevaFila * columnas + nuevaColumna;
+                if (asentada[vecino] || !cuadricula.esTransitable(nuevaFila, nuevaColumna)) {
+                    continue;
+                }
+                long nuevaDistancia = actualDistancia + cuadricula.getCoste(nuevaFila, nuevaColumna);
+                if (nuevaDistancia < distancia[vecino]) {
+                    distancia[vecino] = nuevaDistancia;
+                    predecesor[vecino] = actual;
+                    int cv = (int) (nuevaDistancia % NUM_CUBETAS);
+                    if (tamanos[cv] == cubetas[cv].length) {
+                        cubetas[cv] = Arrays.copyOf(cubetas[cv], tamanos[cv] * 2);
+                    }
+                    cubetas[cv][tamanos[cv]++] = vecino;
+                    pendientes++;
+                    m.generados++;
+                    m.frontera(pendientes);
+                }
+            }
+        }
+
+        this.ordenVisita = orden;
+        this.columnasVisita = columnas;
+        if (!encontrado) {
+            return Collections.emptyList(); // No se encontró ruta
+        }
+        this.costeRuta = distancia[destino];
+        List<int[]> ruta = new ArrayList<>();
+        for (int at = destino; ; at = predecesor[at]) {
+            ruta.add(new int[]{at / columnas, at % columnas});
+            if (at == origen) break;
+        }
+        Collections.reverse(ruta);
+        return ruta;
+    }
+}
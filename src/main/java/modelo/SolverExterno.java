@@ -0,0 +1,766 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Búsqueda en anchura en memoria externa para laberintos que no caben en RAM.
+ *
+ * Sigue el esquema de Munagala y Ranade para grafos no dirigidos: cada nivel de
+ * la BFS se guarda en disco como una secuencia ordenada de índices de celda
+ * ({@code fila * columnas + columna}, en {@code long}). Todos los niveles se
+ * añaden a un único archivo y un segundo archivo guarda dónde termina cada uno,
+ * así que el número de archivos no crece con la profundidad. El nivel {@code t + 1}
+ * son los vecinos transitables del nivel {@code t} menos los que ya están en los
+ * niveles {@code t} y {@code t - 1}; no hace falta una matriz de visitadas.
+ *
+ * Todo el acceso a disco es secuencial y por bloques a través de
+ * {@link FileChannel}:
+ * <ul>
+ *   <li>El laberinto se lee del archivo de {@link ArchivoLaberinto} por franjas
+ *       de filas completas. Como el nivel está ordenado, las filas se piden en
+ *       orden creciente y cada franja se lee una sola vez por nivel.</li>
+ *   <li>Los vecinos candidatos se acumulan en un búfer acotado; al llenarse se
+ *       ordenan y se vuelcan como una ejecución ordenada ("run"). Los niveles
+ *       cuyos candidatos caben en el búfer no generan ejecuciones.</li>
+ *   <li>Las ejecuciones se mezclan (en varias pasadas si hay demasiadas) a la vez
+ *       que se descartan los duplicados y las celdas de los dos niveles anteriores.</li>
+ *   <li>La ruta se reconstruye hacia atrás: desde el destino, se recorre cada
+ *       nivel anterior buscando un vecino de la celda actual. Se guarda como
+ *       {@link RutaCompacta}, con 2 bits por paso.</li>
+ * </ul>
+ *
+ * El heap usado está acotado por el presupuesto de memoria indicado más la ruta
+ * compacta; los búferes de E/S son directos y se reutilizan. Cada búsqueda
+ * devuelve un {@link Informe} con el volumen y el tiempo de E/S.
+ *
+ * Uso desde la línea de comandos: {@code SolverExterno laberinto.lab [filaInicio
+ * columnaInicio filaFin columnaFin] [directorioTrabajo] [memoriaMB]}.
+ */
+public class SolverExterno {
+
+    /** Tamaño del búfer de cada archivo abierto. */
+    private static final int TAMANO_BUFER = 64 * 1024;
+    /** Presupuesto de memoria por defecto. */
+    public static final long MEMORIA_POR_DEFECTO = 64L * 1024 * 1024;
+
+    private final Path directorioTrabajo;
+    private final int capacidadCandidatos;
+    private final long bytesVentana;
+    private final int maxFusion;
+
+    // Estado de la búsqueda en curso: contadores, búfer de candidatos y búferes de E/S reutilizables
+    private Informe informe;
+    private long[] candidatos;
+    private int enMemoria; // Candidatos del nivel que no llegaron a volcarse a disco
+    private final ArrayDeque<ByteBuffer> buferesLibres = new ArrayDeque<>();
+
+    /**
+     * Volumen y tiempo de E/S de una búsqueda.
+     */
+    public static final class Informe {
+        long bytesLeidos;
+        long bytesEscritos;
+        long lecturas;
+        long escrituras;
+        long nanosES;
+        long nanosTotal;
+        long nanosReconstruccion;
+        int niveles;
+        long celdasVisitadas;
+        long picoNivel;
+        int ejecuciones;
+        int pasadasFusion;
+
+        public long getBytesLeidos() { return bytesLeidos; }
+        public long getBytesEscritos() { return bytesEscritos; }
+        public long getLecturas() { return lecturas; }
+        public long getEscrituras() { return escrituras; }
+        public long getNanosES() { return nanosES; }
+        public long getNanosTotal() { return nanosTotal; }
+        public int getNiveles() { return niveles; }
+        public long getCeldasVisitadas() { return celdasVisitadas; }
+        public long getPicoNivel() { return picoNivel; }
+        public int getEjecuciones() { return ejecuciones; }
+
+        @Override
+        public String toString() {
+            double segundosES = nanosES / 1e9;
+            return String.format(Locale.US,
+                    "Niveles: %d | celdas visitadas: %d | nivel más grande: %d celdas%n"
+                            + "Leído: %.1f MB en %d lecturas | escrito: %.1f MB en %d escrituras%n"
+                            + "Ejecuciones ordenadas: %d | pasadas de fusión extra: %d%n"
+                            + "Tiempo: %.3f s total, %.3f s en E/S (%.1f MB/s), %.3f s reconstruyendo la ruta",
+                    niveles, celdasVisitadas, picoNivel,
+                    bytesLeidos / 1e6, lecturas, bytesEscritos / 1e6, escrituras,
+                    ejecuciones, pasadasFusion,
+                    nanosTotal / 1e9, segundosES,
+                    segundosES == 0 ? 0 : (bytesLeidos + bytesEscritos) / 1e6 / segundosES,
+                    nanosReconstruccion / 1e9);
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda externa.
+     */
+    public static final class Resultado {
+        private final RutaCompacta ruta;
+        private final int columnas;
+        private final Informe informe;
+
+        Resultado(RutaCompacta ruta, int columnas, Informe informe) {
+            this.ruta = ruta;
+            this.columnas = columnas;
+            this.informe = informe;
+        }
+
+        /** @return El número de pasos de la ruta más corta, o -1 si no hay ruta. */
+        public long getDistancia() { return ruta.size() - 1; }
+
+        /** @return La ruta como índices de celda {@code fila * columnas + columna}, vacía si no hay ruta. */
+        public long[] getIndices() {
+            long[] indices = new long[ruta.size()];
+            int[] i = {0};
+            ruta.paraCada((fila, columna) -> indices[i[0]++] = (long) fila * columnas + columna);
+            return indices;
+        }
+
+        /** @return La ruta con 2 bits por paso ({@link RutaCompacta#VACIA} si no hay ruta). */
+        public RutaCompacta getRutaCompacta() { return ruta; }
+
+        /**
+         * Obtiene la ruta como vista de coordenadas de la ruta compacta.
+         *
+         * @return La ruta como coordenadas [fila, columna], vacía si no hay ruta.
+         */
+        public List<int[]> getRuta() { return ruta.comoLista(); }
+
+        public Informe getInforme() { return informe; }
+    }
+
+    /**
+     * Crea el solver con el presupuesto de memoria por defecto, trabajando en el
+     * directorio temporal del sistema.
+     */
+    public SolverExterno() {
+        this(Paths.get(System.getProperty("java.io.tmpdir")), MEMORIA_POR_DEFECTO);
+    }
+
+    /**
+     * Crea el solver.
+     *
+     * @param directorioTrabajo Directorio donde se crean los archivos temporales de la búsqueda.
+     * @param memoriaBytes      Presupuesto aproximado de memoria: la mitad para los
+     *                          vecinos candidatos, una cuarta parte para la franja de
+     *                          filas del laberinto y el resto para las fusiones.
+     */
+    public SolverExterno(Path directorioTrabajo, long memoriaBytes) {
+        if (memoriaBytes < 64 * 1024) {
+            throw new IllegalArgumentException("El presupuesto de memoria debe ser de al menos 64 KB: " + memoriaBytes);
+        }
+        this.directorioTrabajo = directorioTrabajo;
+        this.capacidadCandidatos = (int) Math.min(Integer.MAX_VALUE - 8, memoriaBytes / 2 / Long.BYTES);
+        this.bytesVentana = memoriaBytes / 4;
+        this.maxFusion = (int) Math.max(2, Math.min(1024, memoriaBytes / 4 / TAMANO_BUFER));
+    }
+
+    /**
+     * Busca la ruta más corta en un archivo de laberinto.
+     *
+     * @param archivo       El archivo en el formato de {@link ArchivoLaberinto}.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta y el informe de E/S.
+     * @throws IOException          Si falla la lectura del laberinto o la escritura de los niveles.
+     * @throws InterruptedException Si se interrumpe el hilo entre dos niveles.
+     */
+    public Resultado resolver(Path archivo, int filaInicio, int columnaInicio, int filaFin, int columnaFin)
+            throws IOException, InterruptedException {
+        long inicioTotal = System.nanoTime();
+        informe = new Informe();
+        candidatos = new long[capacidadCandidatos];
+        Path directorio = Files.createTempDirectory(directorioTrabajo, "bfs-externo");
+        // Todos los niveles van seguidos en un archivo; el índice guarda el final (en bytes) de cada uno
+        Path archivoNiveles = directorio.resolve("niveles");
+        Path archivoIndice = directorio.resolve("indice");
+        try (FileChannel laberinto = FileChannel.open(archivo, StandardOpenOption.READ);
+             FileChannel niveles = FileChannel.open(archivoNiveles, StandardOpenOption.CREATE_NEW,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int[] dimensiones = ArchivoLaberinto.leerCabecera(laberinto);
+            int filas = dimensiones[0];
+            int columnas = dimensiones[1];
+            if (!dentro(filaInicio, columnaInicio, filas, columnas) || !dentro(filaFin, columnaFin, filas, columnas)) {
+                throw new IllegalArgumentException("Los extremos están fuera del laberinto " + filas + "x" + columnas);
+            }
+            VentanaFilas ventana = new VentanaFilas(laberinto, filas, columnas);
+            long origen = (long) filaInicio * columnas + columnaInicio;
+            long destino = (long) filaFin * columnas + columnaFin;
+            ventana.asegurar(filaFin);
+            boolean finTransitable = ventana.transitable(filaFin, columnaFin);
+            ventana.asegurar(filaInicio);
+            if (!finTransitable || !ventana.transitable(filaInicio, columnaInicio)) {
+                return terminar(RutaCompacta.VACIA, columnas, inicioTotal);
+            }
+
+            int numNiveles;
+            try (Escritor indice = new Escritor(archivoIndice)) {
+                // Nivel 0: solo el origen
+                long ultimaCelda = origen;
+                try (Escritor e = new Escritor(niveles, 0)) {
+                    e.escribir(origen);
+                }
+                long inicioAnterior = 0;
+                long inicioActual = 0;
+                long finActual = Long.BYTES;
+                indice.escribir(finActual);
+                numNiveles = 1;
+                contarNivel(1);
+
+                boolean encontrado = origen == destino;
+                while (!encontrado) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Búsqueda externa cancelada");
+                    }
+                    ventana.setFilaMaxima((int) (ultimaCelda / columnas));
+                    List<Path> ejecuciones = generarCandidatos(new Lector(niveles, inicioActual, finActual),
+                            ventana, filas, columnas, directorio);
+                    ejecuciones = reducirEjecuciones(ejecuciones, directorio);
+                    long[] resultado;
+                    try (Escritor siguiente = new Escritor(niveles, finActual);
+                         Lector actual = new Lector(niveles, inicioActual, finActual);
+                         Lector anterior = numNiveles > 1 ? new Lector(niveles, inicioAnterior, inicioActual) : null) {
+                        resultado = fusionarNivel(ejecuciones, actual, anterior, siguiente, destino);
+                    }
+                    borrar(ejecuciones);
+                    if (resultado[0] == 0) {
+                        return terminar(RutaCompacta.VACIA, columnas, inicioTotal); // Frontera vacía: no hay ruta
+                    }
+                    inicioAnterior = inicioActual;
+                    inicioActual = finActual;
+                    finActual += resultado[0] * Long.BYTES;
+                    indice.escribir(finActual);
+                    numNiveles++;
+                    contarNivel(resultado[0]);
+                    encontrado = resultado[1] != 0;
+                    ultimaCelda = resultado[2];
+                }
+            }
+
+            long inicioReconstruccion = System.nanoTime();
+            RutaCompacta ruta;
+            try (FileChannel indice = FileChannel.open(archivoIndice, StandardOpenOption.READ)) {
+                ruta = reconstruir(niveles, new IndiceNiveles(indice), numNiveles, destino, columnas);
+            }
+            informe.nanosReconstruccion = System.nanoTime() - inicioReconstruccion;
+            return terminar(ruta, columnas, inicioTotal);
+        } finally {
+            candidatos = null;
+            buferesLibres.clear();
+            Files.deleteIfExists(archivoNiveles);
+            Files.deleteIfExists(archivoIndice);
+            Files.deleteIfExists(directorio);
+        }
+    }
+
+    private Resultado terminar(RutaCompacta ruta, int columnas, long inicioTotal) {
+        informe.nanosTotal = System.nanoTime() - inicioTotal;
+        return new Resultado(ruta, columnas, informe);
+    }
+
+    private void contarNivel(long celdas) {
+        informe.niveles++;
+        informe.celdasVisitadas += celdas;
+        informe.picoNivel = Math.max(informe.picoNivel, celdas);
+    }
+
+    /**
+     * Recorre un nivel ordenado y vuelca sus vecinos transitables en ejecuciones
+     * ordenadas y sin duplicados. Si todos caben en el búfer no se escribe ninguna
+     * ejecución: quedan ordenados en {@code candidatos} y se devuelve una lista vacía.
+     */
+    private List<Path> generarCandidatos(Lector nivel, VentanaFilas ventana, int filas, int columnas, Path directorio)
+            throws IOException {
+        // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+        int[] dx = {-1, 1, 0, 0};
+        int[] dy = {0, 0, -1, 1};
+        List<Path> ejecuciones = new ArrayList<>();
+        int n = 0;
+        try (Lector lector = nivel) {
+            while (lector.hayMas()) {
+                long celda = lector.siguiente();
+                int fila = (int) (celda / columnas);
+                int columna = (int) (celda % columnas);
+                ventana.asegurar(fila);
+                for (int d = 0; d < 4; d++) {
+                    int nf = fila + dx[d];
+                    int nc = columna + dy[d];
+                    if (dentro(nf, nc, filas, columnas) && ventana.transitable(nf, nc)) {
+                        if (n == candidatos.length) {
+                            ejecuciones.add(volcar(candidatos, n, directorio));
+                            n = 0;
+                        }
+                        candidatos[n++] = (long) nf * columnas + nc;
+                    }
+                }
+            }
+        }
+        enMemoria = 0;
+        if (ejecuciones.isEmpty()) {
+            Arrays.sort(candidatos, 0, n);
+            for (int i = 0; i < n; i++) {
+                if (enMemoria == 0 || candidatos[i] != candidatos[enMemoria - 1]) {
+                    candidatos[enMemoria++] = candidatos[i];
+                }
+            }
+        } else if (n > 0) {
+            ejecuciones.add(volcar(candidatos, n, directorio));
+        }
+        return ejecuciones;
+    }
+
+    private Path volcar(long[] candidatos, int n, Path directorio) throws IOException {
+        Arrays.sort(candidatos, 0, n);
+        Path ejecucion = Files.createTempFile(directorio, "run", ".tmp");
+        try (Escritor e = new Escritor(ejecucion)) {
+            long anterior = -1;
+            for (int i = 0; i < n; i++) {
+                if (candidatos[i] != anterior) {
+                    e.escribir(candidatos[i]);
+                    anterior = candidatos[i];
+                }
+            }
+        }
+        informe.ejecuciones++;
+        return ejecucion;
+    }
+
+    /**
+     * Fusiona ejecuciones por grupos hasta que quedan las suficientes para
+     * abrirlas todas a la vez.
+     */
+    private List<Path> reducirEjecuciones(List<Path> ejecuciones, Path directorio) throws IOException {
+        while (ejecuciones.size() > maxFusion) {
+            List<Path> reducidas = new ArrayList<>();
+            for (int i = 0; i < ejecuciones.size(); i += maxFusion) {
+                List<Path> grupo = ejecuciones.subList(i, Math.min(ejecuciones.size(), i + maxFusion));
+                Path fusion = Files.createTempFile(directorio, "run", ".tmp");
+                try (Escritor e = new Escritor(fusion)) {
+                    fusionarNivel(grupo, null, null, e, -1);
+                }
+                borrar(grupo);
+                reducidas.add(fusion);
+            }
+            informe.pasadasFusion++;
+            ejecuciones = reducidas;
+        }
+        return ejecuciones;
+    }
+
+    /**
+     * Mezcla ejecuciones ordenadas en una secuencia ordenada sin duplicados,
+     * descartando las celdas presentes en los niveles dados (que pueden ser
+     * {@code null}). Si no hay ejecuciones, la fuente son los {@code enMemoria}
+     * candidatos del búfer.
+     *
+     * @return [celdas escritas, 1 si apareció el destino, última celda escrita].
+     */
+    private long[] fusionarNivel(List<Path> ejecuciones, Lector actual, Lector anterior, Escritor e, long destino)
+            throws IOException {
+        List<Lector> lectores = new ArrayList<>();
+        long escritas = 0;
+        long ultimaEscrita = -1;
+        boolean encontrado = false;
+        try {
+            PriorityQueue<Lector> cola = new PriorityQueue<>((a, b) -> Long.compare(a.cabeza(), b.cabeza()));
+            for (Path p : ejecuciones) {
+                Lector l = new Lector(p);
+                lectores.add(l);
+                if (l.hayMas()) {
+                    l.siguiente();
+                    cola.add(l);
+                }
+            }
+            long ultima = -1;
+            int enBufer = ejecuciones.isEmpty() ? enMemoria : 0;
+            for (int i = 0; i < enBufer || !cola.isEmpty(); i++) {
+                long celda;
+                if (i < enBufer) {
+                    celda = candidatos[i];
+                } else {
+                    Lector l = cola.poll();
+                    celda = l.cabeza();
+                    if (l.hayMas()) {
+                        l.siguiente();
+                        cola.add(l);
+                    }
+                }
+                if (celda == ultima) continue;
+                ultima = celda;
+                if (contiene(actual, celda) || contiene(anterior, celda)) continue;
+                e.escribir(celda);
+                escritas++;
+                ultimaEscrita = celda;
+                encontrado |= celda == destino;
+            }
+        } finally {
+            for (Lector l : lectores) {
+                l.close();
+            }
+        }
+        return new long[]{escritas, encontrado ? 1 : 0, ultimaEscrita};
+    }
+
+    /**
+     * Avanza un lector ordenado hasta la celda y dice si está. Las consultas deben
+     * llegar en orden creciente.
+     */
+    private static boolean contiene(Lector lector, long celda) throws IOException {
+        if (lector == null) return false;
+        while (lector.cabeza() < celda && lector.hayMas()) {
+            lector.siguiente();
+        }
+        return lector.cabeza() == celda;
+    }
+
+    /**
+     * Recorre los niveles hacia atrás buscando en cada uno un vecino de la celda
+     * siguiente de la ruta. Cada nivel se lee una vez, de forma secuencial, y
+     * cada paso se anota como movimiento de 2 bits, así que la ruta no guarda celdas.
+     */
+    private RutaCompacta reconstruir(FileChannel niveles, IndiceNiveles indice, int numNiveles, long destino, int columnas)
+            throws IOException {
+        int pasos = numNiveles - 1;
+        long[] movimientos = new long[(pasos + 31) / 32];
+        long siguiente = destino;
+        for (int t = pasos - 1; t >= 0; t--) {
+            long fila = siguiente / columnas;
+            long columna = siguiente % columnas;
+            // Vecinos en orden creciente: arriba, izquierda, derecha, abajo
+            long[] vecinos = {
+                    fila > 0 ? siguiente - columnas : -1,
+                    columna > 0 ? siguiente - 1 : -1,
+                    columna < columnas - 1 ? siguiente + 1 : -1,
+                    siguiente + columnas
+            };
+            // Dirección del movimiento desde cada vecino hasta la celda siguiente
+            long[] direcciones = {RutaCompacta.ABAJO, RutaCompacta.DERECHA, RutaCompacta.IZQUIERDA, RutaCompacta.ARRIBA};
+            int elegido = -1;
+            try (Lector lector = new Lector(niveles, t == 0 ? 0 : indice.fin(t - 1), indice.fin(t))) {
+                for (int k = 0; k < vecinos.length; k++) {
+                    if (vecinos[k] >= 0 && contiene(lector, vecinos[k])) {
+                        elegido = k;
+                        break;
+                    }
+                }
+            }
+            if (elegido < 0) {
+                throw new IOException("Niveles inconsistentes: la celda " + siguiente + " no tiene predecesor en el nivel " + t);
+            }
+            movimientos[t / 32] |= direcciones[elegido] << (2 * (t % 32));
+            siguiente = vecinos[elegido];
+        }
+        return RutaCompacta.desdeMovimientos((int) (siguiente / columnas), (int) (siguiente % columnas), pasos, movimientos);
+    }
+
+    private static boolean dentro(int fila, int columna, int filas, int columnas) {
+        return fila >= 0 && columna >= 0 && fila < filas && columna < columnas;
+    }
+
+    private void cerrar(FileChannel canal) throws IOException {
+        long inicio = System.nanoTime();
+        canal.close();
+        informe.nanosES += System.nanoTime() - inicio;
+    }
+
+    private ByteBuffer tomarBufer() {
+        ByteBuffer bufer = buferesLibres.poll();
+        return bufer != null ? bufer.clear() : ByteBuffer.allocateDirect(TAMANO_BUFER).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void borrar(List<Path> archivos) throws IOException {
+        for (Path p : archivos) {
+            Files.deleteIfExists(p);
+        }
+    }
+
+    /**
+     * Escritura secuencial de {@code long} por bloques, en un archivo propio o a
+     * partir de una posición de un canal compartido (que entonces no se cierra).
+     */
+    private final class Escritor implements AutoCloseable {
+        private final FileChannel canal;
+        private final boolean propio;
+        private final ByteBuffer bufer = tomarBufer();
+        private long posicion;
+
+        Escritor(Path archivo) throws IOException {
+            long inicio = System.nanoTime();
+            this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            informe.nanosES += System.nanoTime() - inicio;
+            this.propio = true;
+        }
+
+        Escritor(FileChannel canal, long posicion) {
+            this.canal = canal;
+            this.propio = false;
+            this.posicion = posicion;
+        }
+
+        void escribir(long valor) throws IOException {
+            if (!bufer.hasRemaining()) {
+                vaciar();
+            }
+            bufer.putLong(valor);
+        }
+
+        private void vaciar() throws IOException {
+            bufer.flip();
+            long inicio = System.nanoTime();
+            while (bufer.hasRemaining()) {
+                int n = canal.write(bufer, posicion);
+                posicion += n;
+                informe.bytesEscritos += n;
+            }
+            informe.nanosES += System.nanoTime() - inicio;
+            informe.escrituras++;
+            bufer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (bufer.position() > 0) {
+                    vaciar();
+                }
+            } finally {
+                if (propio) {
+                    cerrar(canal);
+                }
+                buferesLibres.push(bufer);
+            }
+        }
+    }
+
+    /**
+     * Lectura secuencial de {@code long} por bloques, con la última leída a la
+     * vista. Lee un archivo propio o un tramo {@code [desde, hasta)} de un canal
+     * compartido, que entonces no se cierra.
+     */
+    private final class Lector implements AutoCloseable {
+        private final FileChannel canal;
+        private final boolean propio;
+        private final ByteBuffer bufer = tomarBufer();
+        private long posicion;
+        private final long hasta;
+        private long cabeza = -1;
+
+        Lector(Path archivo) throws IOException {
+            long inicio = System.nanoTime();
+            this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+            informe.nanosES += System.nanoTime() - inicio;
+            this.propio = true;
+            this.hasta = Long.MAX_VALUE;
+            bufer.limit(0);
+        }
+
+        Lector(FileChannel canal, long desde, long hasta) {
+            this.canal = canal;
+            this.propio = false;
+            this.posicion = desde;
+            this.hasta = hasta;
+            bufer.limit(0);
+        }
+
+        boolean hayMas() throws IOException {
+            if (bufer.hasRemaining()) return true;
+            bufer.clear().limit((int) Math.min(bufer.capacity(), hasta - posicion));
+            long inicio = System.nanoTime();
+            int leidos = 0;
+            while (bufer.hasRemaining()) {
+                int n = canal.read(bufer, posicion);
+                if (n < 0) break;
+                posicion += n;
+                leidos += n;
+            }
+            informe.nanosES += System.nanoTime() - inicio;
+            if (leidos > 0) {
+                informe.bytesLeidos += leidos;
+                informe.lecturas++;
+            }
+            bufer.flip();
+            return bufer.hasRemaining();
+        }
+
+        /** Lee la siguiente celda; antes debe comprobarse {@link #hayMas()}. */
+        long siguiente() {
+            cabeza = bufer.getLong();
+            return cabeza;
+        }
+
+        /** @return La última celda leída, o -1 si aún no se ha leído ninguna. */
+        long cabeza() {
+            return cabeza;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (propio) {
+                cerrar(canal);
+            }
+            buferesLibres.push(bufer);
+        }
+    }
+
+    /**
+     * Lectura del índice de niveles (el final en bytes de cada nivel dentro del
+     * archivo de niveles). La reconstrucción lo recorre hacia atrás, así que se
+     * carga por bloques que terminan en el nivel pedido.
+     */
+    private final class IndiceNiveles {
+        private final FileChannel canal;
+        private final ByteBuffer bloque = ByteBuffer.allocateDirect(TAMANO_BUFER).order(ByteOrder.LITTLE_ENDIAN);
+        private int primero = 0;
+        private int cargados = 0;
+
+        IndiceNiveles(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        long fin(int nivel) throws IOException {
+            if (nivel < primero || nivel >= primero + cargados) {
+                int capacidad = bloque.capacity() / Long.BYTES;
+                primero = Math.max(0, nivel - capacidad + 1);
+                cargados = nivel - primero + 1;
+                bloque.clear().limit(cargados * Long.BYTES);
+                long inicio = System.nanoTime();
+                while (bloque.hasRemaining()) {
+                    if (canal.read(bloque, (long) primero * Long.BYTES + bloque.position()) < 0) {
+                        throw new IOException("El índice de niveles termina antes de lo esperado.");
+                    }
+                }
+                informe.nanosES += System.nanoTime() - inicio;
+                informe.bytesLeidos += bloque.limit();
+                informe.lecturas++;
+            }
+            return bloque.getLong((nivel - primero) * Long.BYTES);
+        }
+    }
+
+    /**
+     * Franja de filas consecutivas del laberinto leída del archivo. Como los
+     * niveles están ordenados, las filas se piden en orden creciente y la franja
+     * solo avanza. Nunca se leen filas más allá de la última del nivel, así que en
+     * los niveles pequeños de un laberinto profundo la franja se suele reutilizar.
+     */
+    private final class VentanaFilas {
+        private final FileChannel canal;
+        private final int filas;
+        private final int palabrasPorFila;
+        private final int filasPorFranja;
+        private final ByteBuffer franja;
+        private int primera = 0;
+        private int cargadas = 0;
+        private int filaMaxima;
+
+        VentanaFilas(FileChannel canal, int filas, int columnas) {
+            this.canal = canal;
+            this.filas = filas;
+            this.palabrasPorFila = ArchivoLaberinto.palabrasPorFila(columnas);
+            long bytesFila = (long) palabrasPorFila * Long.BYTES;
+            // Al menos tres filas: la de cada celda del nivel y sus vecinas
+            long maxFilas = Math.max(3, Math.min(bytesVentana, Integer.MAX_VALUE - 8) / Math.max(1, bytesFila));
+            this.filasPorFranja = (int) Math.min(filas, maxFilas);
+            this.franja = ByteBuffer.allocateDirect((int) (filasPorFranja * bytesFila)).order(ByteOrder.LITTLE_ENDIAN);
+            this.filaMaxima = filas - 1;
+        }
+
+        /**
+         * Indica la última fila que se va a pedir en el nivel actual.
+         */
+        void setFilaMaxima(int fila) {
+            this.filaMaxima = fila;
+        }
+
+        /**
+         * Garantiza que la fila dada y sus dos vecinas están en la franja.
+         */
+        void asegurar(int fila) throws IOException {
+            int desde = Math.max(0, fila - 1);
+            int hasta = Math.min(filas - 1, fila + 1);
+            if (desde >= primera && hasta < primera + cargadas) return;
+            // Se cubre hasta la última fila del nivel y el hueco sobrante se reparte por
+            // encima y por debajo, porque el siguiente nivel estará cerca en ambos sentidos
+            int ultima = Math.min(filas - 1, Math.max(hasta, filaMaxima + 1));
+            int sobrante = Math.max(0, filasPorFranja - (ultima - desde + 1));
+            primera = Math.max(0, desde - sobrante / 2);
+            cargadas = Math.min(filasPorFranja, filas - primera);
+            franja.clear().limit((int) ((long) cargadas * palabrasPorFila * Long.BYTES));
+            long posicion = ArchivoLaberinto.TAMANO_CABECERA + (long) primera * palabrasPorFila * Long.BYTES;
+            long inicio = System.nanoTime();
+            while (franja.hasRemaining()) {
+                int n = canal.read(franja, posicion + franja.position());
+                if (n < 0) throw new IOException("El archivo del laberinto termina antes de lo esperado.");
+            }
+            informe.nanosES += System.nanoTime() - inicio;
+            informe.bytesLeidos += franja.limit();
+            informe.lecturas++;
+        }
+
+        boolean transitable(int fila, int columna) {
+            int indice = ((fila - primera) * palabrasPorFila + (columna >>> 6)) * Long.BYTES;
+            return ((franja.getLong(indice) >>> (columna & 63)) & 1L) != 0;
+        }
+    }
+
+    /**
+     * Resuelve un archivo de laberinto desde la línea de comandos e imprime la
+     * distancia y el informe de E/S.
+     *
+     * @param args {@code laberinto.lab [filaInicio columnaInicio filaFin columnaFin] [directorio] [memoriaMB]}.
+     * @throws Exception Si falla la búsqueda.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 && args.length < 5) {
+            System.err.println("Uso: SolverExterno laberinto.lab [filaInicio columnaInicio filaFin columnaFin] [directorio] [memoriaMB]");
+            return;
+        }
+        Path archivo = Paths.get(args[0]);
+        int[] extremos = new int[4];
+        if (args.length >= 5) {
+            for (int i = 0; i < 4; i++) {
+                extremos[i] = Integer.parseInt(args[i + 1]);
+            }
+        } else {
+            // Sin extremos se usan los guardados en el archivo
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                int[] cabecera = ArchivoLaberinto.leerCabecera(canal);
+                extremos = Arrays.copyOfRange(cabecera, 2, 6);
+            }
+            if (extremos[0] < 0 || extremos[2] < 0) {
+                System.err.println("El archivo no tiene inicio y fin guardados: indíquelos en la línea de comandos.");
+                return;
+            }
+        }
+        Path directorio = args.length > 5 ? Paths.get(args[5]) : Paths.get(System.getProperty("java.io.tmpdir"));
+        long memoria = args.length > 6 ? Long.parseLong(args[6]) * 1024 * 1024 : MEMORIA_POR_DEFECTO;
+
+        Resultado r = new SolverExterno(directorio, memoria).resolver(archivo, extremos[0], extremos[1], extremos[2], extremos[3]);
+        System.out.println(r.getDistancia() < 0 ? "No hay ruta." : "Distancia: " + r.getDistancia() + " pasos");
+        System.out.println(r.getInforme());
+    }
+}
@@ -0,0 +1,363 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solver incremental basado en LPA* (Lifelong Planning A*).
+ *
+ * A diferencia de los demás solvers, conserva el estado de la búsqueda entre
+ * llamadas: para cada celda guarda su distancia actual {@code g}, su estimación
+ * a un paso {@code rhs} y una cola de prioridad con las celdas inconsistentes.
+ * Cuando el usuario cambia una celda (recibida como {@link ObservadorLaberinto}),
+ * solo se marcan como inconsistentes esa celda y sus vecinas, y la siguiente
+ * búsqueda repara únicamente la región afectada en lugar de repetir el recorrido
+ * completo.
+ *
+ * Características:
+ * <ul>
+ *   <li>Encuentra el camino más corto (movimientos en 4 direcciones, coste 1)</li>
+ *   <li>Usa la distancia Manhattan al destino como heurística</li>
+ *   <li>Reutiliza el estado mientras no cambien el tamaño, el inicio ni el destino</li>
+ *   <li>Trabaja con arreglos primitivos indexados por celda, sin objetos por celda</li>
+ * </ul>
+ */
+public class SolverIncremental implements ObservadorLaberinto {
+
+    private static final int INFINITO = Integer.MAX_VALUE / 2;
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private int filas;
+    private int columnas;
+    private boolean[] transitable;
+    private int[] g;
+    private int[] rhs;
+    private int origen = -1;
+    private int destino = -1;
+    private boolean inicializado;
+
+    // Montículo binario de celdas con su clave empaquetada y su posición en el montículo
+    private int[] monticulo;
+    private long[] claves;
+    private int[] posicion;
+    private int tamanoMonticulo;
+
+    /** Celdas expandidas durante la última búsqueda, como índices lineales. */
+    private int[] expandidas = new int[16];
+    private int numExpandidas;
+
+    /**
+     * Busca la ruta más corta entre dos celdas. Si el laberinto tiene el mismo
+     * tamaño y los mismos extremos que en la llamada anterior, se reutiliza el
+     * estado guardado y solo se repara lo que cambió desde entonces; en caso
+     * contrario se empieza una búsqueda nueva a partir de {@code datos}.
+     *
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta más corta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> resolver(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        int nuevasFilas = datos.length;
+        int nuevasColumnas = nuevasFilas == 0 ? 0 : datos[0].length;
+        int nuevoOrigen = filaInicio * nuevasColumnas + columnaInicio;
+        int nuevoDestino = filaFin * nuevasColumnas + columnaFin;
+        if (!inicializado || nuevasFilas != filas || nuevasColumnas != columnas
+                || nuevoOrigen != origen || nuevoDestino != destino) {
+            inicializar(datos, nuevoOrigen, nuevoDestino);
+        }
+
+        numExpandidas = 0;
+        calcularRutaMasCorta();
+        return reconstruirRuta();
+    }
+
+    /**
+     * Indica si la próxima llamada a {@link #resolver} podrá reutilizar el estado
+     * de la búsqueda anterior para los extremos indicados.
+     *
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return {@code true} si hay estado reutilizable.
+     */
+    public boolean tieneEstado(int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return inicializado
+                && origen == filaInicio * columnas + columnaInicio
+                && destino == filaFin * columnas + columnaFin;
+    }
+
+    /**
+     * Devuelve las celdas expandidas en la última búsqueda, en orden. Tras una
+     * edición pequeña suele ser una fracción mínima del laberinto.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getCeldasExpandidas() {
+        List<int[]> coordenadas = new ArrayList<>(numExpandidas);
+        for (int i = 0; i < numExpandidas; i++) {
+            coordenadas.add(new int[]{expandidas[i] / columnas, expandidas[i] % columnas});
+        }
+        return coordenadas;
+    }
+
+    /**
+     * Obtiene el número de celdas expandidas en la última búsqueda.
+     *
+     * @return El número de expansiones.
+     */
+    public int getNumExpandidas() {
+        return numExpandidas;
+    }
+
+    @Override
+    public void celdaCambiada(int fila, int columna, int valor) {
+        if (!inicializado || fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return;
+        }
+        int celda = fila * columnas + columna;
+        boolean nuevo = valor == 1;
+        if (transitable[celda] == nuevo) {
+            return;
+        }
+        transitable[celda] = nuevo;
+        // Cambian el coste de todas las aristas que entran y salen de la celda:
+        // hay que revisar la propia celda y sus vecinas.
+        actualizarVertice(celda);
+        for (int i = 0; i < 4; i++) {
+            int vecino = vecino(celda, i);
+            if (vecino >= 0) {
+                actualizarVertice(vecino);
+            }
+        }
+    }
+
+    @Override
+    public void laberintoReemplazado(int[][] datos) {
+        // Un cambio completo invalida el estado; se reconstruirá en la próxima búsqueda
+        inicializado = false;
+    }
+
+    // --- LPA* ---
+
+    private void inicializar(int[][] datos, int nuevoOrigen, int nuevoDestino) {
+        filas = datos.length;
+        columnas = filas == 0 ? 0 : datos[0].length;
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para una búsqueda en memoria: " + filas + "x" + columnas);
+        }
+        int n = (int) totalCeldas;
+        if (transitable == null || transitable.length != n) {
+            transitable = new boolean[n];
+            g = new int[n];
+            rhs = new int[n];
+            posicion = new int[n];
+            monticulo = new int[Math.max(16, Math.min(n, 1 << 16))];
+            claves = new long[monticulo.length];
+        }
+        for (int i = 0; i < filas; i++) {
+            int[] fila = datos[i];
+            int base = i * columnas;
+            for (int j = 0; j < columnas; j++) {
+                transitable[base + j] = fila[j] == 1;
+            }
+        }
+        Arrays.fill(g, INFINITO);
+        Arrays.fill(rhs, INFINITO);
+        Arrays.fill(posicion, -1);
+        tamanoMonticulo = 0;
+        origen = nuevoOrigen;
+        destino = nuevoDestino;
+        rhs[origen] = 0;
+        insertar(origen, calcularClave(origen));
+        inicializado = true;
+    }
+
+    private void calcularRutaMasCorta() {
+        while (tamanoMonticulo > 0
+                && (claves[0] < calcularClave(destino) || rhs[destino] != g[destino])) {
+            int u = extraerMinimo();
+            registrarExpansion(u);
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                for (int i = 0; i < 4; i++) {
+                    int s = vecino(u, i);
+                    if (s >= 0) {
+                        actualizarVertice(s);
+                    }
+                }
+            } else {
+                g[u] = INFINITO;
+                actualizarVertice(u);
+                for (int i = 0; i < 4; i++) {
+                    int s = vecino(u, i);
+                    if (s >= 0) {
+                        actualizarVertice(s);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcula {@code rhs} de una celda a partir de sus vecinas y la coloca o
+     * retira de la cola según sea inconsistente o no.
+     */
+    private void actualizarVertice(int u) {
+        if (u != origen) {
+            int mejor = INFINITO;
+            if (transitable[u]) {
+                for (int i = 0; i < 4; i++) {
+                    int p = vecino(u, i);
+                    if (p >= 0 && transitable[p] && g[p] + 1 < mejor) {
+                        mejor = g[p] + 1;
+                    }
+                }
+            }
+            rhs[u] = mejor;
+        }
+        if (posicion[u] >= 0) {
+            eliminar(u);
+        }
+        if (g[u] != rhs[u]) {
+            insertar(u, calcularClave(u));
+        }
+    }
+
+    /**
+     * La clave (min(g, rhs) + h, min(g, rhs)) se empaqueta en un {@code long}
+     * para que el orden lexicográfico sea una comparación de enteros.
+     */
+    private long calcularClave(int u) {
+        int k2 = Math.min(g[u], rhs[u]);
+        int fila = u / columnas;
+        int columna = u - fila * columnas;
+        int h = Math.abs(fila - destino / columnas) + Math.abs(columna - destino % columnas);
+        int k1 = k2 >= INFINITO ? INFINITO : k2 + h;
+        return ((long) k1 << 32) | k2;
+    }
+
+    /**
+     * Devuelve la vecina en la dirección indicada, o -1 si queda fuera del laberinto.
+     */
+    private int vecino(int celda, int direccion) {
+        int fila = celda / columnas + dx[direccion];
+        int columna = celda % columnas + dy[direccion];
+        if (fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return -1;
+        }
+        return fila * columnas + columna;
+    }
+
+    private List<int[]> reconstruirRuta() {
+        if (!transitable[origen] || !transitable[destino] || g[destino] >= INFINITO) {
+            return Collections.emptyList(); // No se encontró ruta
+        }
+        // Desde el destino se retrocede siempre hacia una vecina con g una unidad menor
+        List<int[]> ruta = new ArrayList<>(g[destino] + 1);
+        int actual = destino;
+        ruta.add(new int[]{actual / columnas, actual % columnas});
+        while (actual != origen) {
+            int siguiente = -1;
+            for (int i = 0; i < 4 && siguiente < 0; i++) {
+                int p = vecino(actual, i);
+                if (p >= 0 && transitable[p] && g[p] == g[actual] - 1) {
+                    siguiente = p;
+                }
+            }
+            if (siguiente < 0) {
+                return Collections.emptyList(); // No debería ocurrir con un estado consistente
+            }
+            actual = siguiente;
+            ruta.add(new int[]{actual / columnas, actual % columnas});
+        }
+        Collections.reverse(ruta);
+        return ruta;
+    }
+
+    private void registrarExpansion(int u) {
+        if (numExpandidas == expandidas.length) {
+            expandidas = Arrays.copyOf(expandidas, expandidas.length * 2);
+        }
+        expandidas[numExpandidas++] = u;
+    }
+
+    // --- Montículo binario con posiciones, para poder eliminar cualquier celda ---
+
+    private void insertar(int u, long clave) {
+        if (tamanoMonticulo == monticulo.length) {
+            monticulo = Arrays.copyOf(monticulo, monticulo.length * 2);
+            claves = Arrays.copyOf(claves, claves.length * 2);
+        }
+        int i = tamanoMonticulo++;
+        colocar(i, u, clave);
+        subir(i);
+    }
+
+    private int extraerMinimo() {
+        int u = monticulo[0];
+        eliminarEn(0);
+        return u;
+    }
+
+    private void eliminar(int u) {
+        eliminarEn(posicion[u]);
+    }
+
+    private void eliminarEn(int i) {
+        posicion[monticulo[i]] = -1;
+        int ultimo = --tamanoMonticulo;
+        if (i == ultimo) {
+            return;
+        }
+        colocar(i, monticulo[ultimo], claves[ultimo]);
+        if (i > 0 && claves[i] < claves[(i - 1) >>> 1]) {
+            subir(i);
+        } else {
+            bajar(i);
+        }
+    }
+
+    private void subir(int i) {
+        int u = monticulo[i];
+        long clave = claves[i];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (claves[padre] <= clave) break;
+            colocar(i, monticulo[padre], claves[padre]);
+            i = padre;
+        }
+        colocar(i, u, clave);
+    }
+
+    private void bajar(int i) {
+        int u = monticulo[i];
+        long clave = claves[i];
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanoMonticulo) break;
+            if (hijo + 1 < tamanoMonticulo && claves[hijo + 1] < claves[hijo]) {
+                hijo++;
+            }
+            if (claves[hijo] >= clave) break;
+            colocar(i, monticulo[hijo], claves[hijo]);
+            i = hijo;
+        }
+        colocar(i, u, clave);
+    }
+
+    private void colocar(int i, int u, long clave) {
+        monticulo[i] = u;
+        claves[i] = clave;
+        posicion[u] = i;
+    }
+}
@@ -0,0 +1,754 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Solver jerárquico HPA* (Hierarchical Path-Finding A*) para laberintos muy grandes.
+ *
+ * El laberinto se divide en bloques cuadrados de tamaño fijo. En cada frontera
+ * entre dos bloques vecinos, cada tramo continuo de celdas abiertas a ambos lados
+ * es una entrada, representada por una o dos parejas de celdas (nodos abstractos).
+ * Dentro de cada bloque se precalcula la distancia entre todos sus nodos. Una
+ * consulta conecta el inicio y el destino con los nodos de su bloque, busca con
+ * A* en el grafo abstracto y, por último, refina la ruta abstracta en celdas
+ * buscando solo dentro de los bloques por los que pasa.
+ *
+ * La ruta puede ser algo más larga que la óptima porque obliga a cruzar las
+ * fronteras por las entradas; {@link #suavizar(List)} recorta los rodeos locales
+ * y {@link #medirBrecha} compara el resultado con BFS.
+ *
+ * Características:
+ * <ul>
+ *   <li>Las distancias dentro de cada bloque se calculan en paralelo</li>
+ *   <li>Al editar una celda solo se recalculan su bloque y, si está en una frontera, el vecino</li>
+ *   <li>La búsqueda abstracta y el refinamiento tocan una pequeña parte de las celdas</li>
+ * </ul>
+ */
+public class SolverJerarquico implements ObservadorLaberinto {
+
+    /** Tamaño de bloque por defecto (celdas por lado). */
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 32;
+
+    /** Los tramos de frontera de esta longitud o más se representan con dos entradas. */
+    private static final int TRAMO_DOBLE_ENTRADA = 6;
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    private final int tamanoBloque;
+
+    private MatrizBits cuadricula;
+    private int filas;
+    private int columnas;
+    private int bloquesFila;
+    private int bloquesColumna;
+    private boolean preparado;
+
+    /** Entradas de la frontera inferior de cada bloque: celdas del lado de arriba. */
+    private int[][] entradasInferiores;
+    /** Entradas de la frontera derecha de cada bloque: celdas del lado izquierdo. */
+    private int[][] entradasDerechas;
+    /** Nodos abstractos de cada bloque (celdas, ordenadas). */
+    private int[][] nodosBloque;
+    /** Distancias entre los nodos de cada bloque (matriz m×m, -1 si no se alcanzan dentro del bloque). */
+    private short[][] distanciasBloque;
+
+    private final List<int[]> nodosExpandidos = new ArrayList<>();
+
+    // Estado del A* abstracto, indexado por identificador de nodo (ver idNodo) y
+    // reutilizado entre consultas: una entrada solo vale si su sello es el de la consulta actual
+    private int[] primerNodo;
+    private int[] costeNodo = new int[0];
+    private int[] previoNodo = new int[0];
+    private int[] selloNodo = new int[0];
+    private int[] selloCerrado = new int[0];
+    private int consulta;
+    private long[] monticulo = new long[16];
+    private int tamanoMonticulo;
+
+    /**
+     * Crea el solver con el tamaño de bloque por defecto.
+     */
+    public SolverJerarquico() {
+        this(TAMANO_BLOQUE_POR_DEFECTO);
+    }
+
+    /**
+     * Crea el solver con un tamaño de bloque concreto.
+     *
+     * @param tamanoBloque Celdas por lado de cada bloque (entre 4 y 128).
+     */
+    public SolverJerarquico(int tamanoBloque) {
+        if (tamanoBloque < 4 || tamanoBloque > 128) {
+            throw new IllegalArgumentException("El tamaño de bloque debe estar entre 4 y 128: " + tamanoBloque);
+        }
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Prepara (si hace falta) la estructura jerárquica de un laberinto.
+     *
+     * @param datos La matriz del laberinto (1 = transitable, 0 = muro).
+     */
+    public synchronized void preparar(int[][] datos) {
+        if (!preparado) {
+            preparar(MatrizBits.desdeMatrizEnteros(datos));
+        }
+    }
+
+    /**
+     * Construye la estructura jerárquica completa sobre una cuadrícula compacta.
+     * La cuadrícula pasa a ser del solver, que la actualiza con las ediciones.
+     *
+     * @param matriz La cuadrícula del laberinto.
+     */
+    public synchronized void preparar(MatrizBits matriz) {
+        this.cuadricula = matriz;
+        this.filas = matriz.getFilas();
+        this.columnas = matriz.getColumnas();
+        this.bloquesFila = (filas + tamanoBloque - 1) / tamanoBloque;
+        this.bloquesColumna = (columnas + tamanoBloque - 1) / tamanoBloque;
+        int totalBloques = bloquesFila * bloquesColumna;
+        entradasInferiores = new int[totalBloques][];
+        entradasDerechas = new int[totalBloques][];
+        nodosBloque = new int[totalBloques][];
+        distanciasBloque = new short[totalBloques][];
+        IntStream.range(0, totalBloques).parallel().forEach(b -> {
+            entradasInferiores[b] = calcularEntradasInferiores(b);
+            entradasDerechas[b] = calcularEntradasDerechas(b);
+        });
+        IntStream.range(0, totalBloques).parallel().forEach(this::calcularBloque);
+        preparado = true;
+    }
+
+    /**
+     * Obtiene el número total de nodos abstractos.
+     *
+     * @return Los nodos de todos los bloques.
+     */
+    public synchronized int getNumNodosAbstractos() {
+        int total = 0;
+        if (nodosBloque != null) {
+            for (int[] nodos : nodosBloque) total += nodos.length;
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve los nodos abstractos expandidos en la última búsqueda, en orden.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    /**
+     * Busca una ruta entre dos celdas con HPA*.
+     *
+     * @param datos         La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public synchronized List<int[]> resolver(int[][] datos, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        preparar(datos);
+        nodosExpandidos.clear();
+        if (!cuadricula.esTransitable(filaInicio, columnaInicio) || !cuadricula.esTransitable(filaFin, columnaFin)) {
+            return Collections.emptyList();
+        }
+        int origen = filaInicio * columnas + columnaInicio;
+        int meta = filaFin * columnas + columnaFin;
+        if (origen == meta) {
+            return Collections.singletonList(new int[]{filaInicio, columnaInicio});
+        }
+
+        int bloqueOrigen = bloqueDe(origen);
+        int bloqueMeta = bloqueDe(meta);
+        int area = tamanoBloque * tamanoBloque;
+        int[] distanciaOrigen = new int[area];
+        int[] distanciaMeta = new int[area];
+        int[] cola = new int[area];
+        buscarEnBloque(bloqueOrigen, origen, -1, distanciaOrigen, null, cola);
+        buscarEnBloque(bloqueMeta, meta, -1, distanciaMeta, null, cola);
+
+        // A* sobre el grafo abstracto; el montículo guarda celdas y el estado se indexa por nodo
+        prepararBusquedaAbstracta();
+        tamanoMonticulo = 0;
+        relajar(origen, 0, -1, origen, meta);
+        boolean encontrado = false;
+        while (tamanoMonticulo > 0) {
+            int x = (int) monticulo[0];
+            tamanoMonticulo = extraer(monticulo, tamanoMonticulo);
+            int idX = idNodo(x, origen, meta);
+            if (selloCerrado[idX] == consulta) continue;
+            selloCerrado[idX] = consulta;
+            if (x == meta) {
+                encontrado = true;
+                break;
+            }
+            nodosExpandidos.add(new int[]{x / columnas, x % columnas});
+            int g = costeNodo[idX];
+            int bloque = bloqueDe(x);
+            int[] nodos = nodosBloque[bloque];
+            int local = Arrays.binarySearch(nodos, x);
+
+            if (x == origen) {
+                for (int nodo : nodos) {
+                    int d = distanciaOrigen[indiceLocal(bloque, nodo)];
+                    if (d > 0) relajar(nodo, g + d, x, origen, meta);
+                }
+                if (bloque == bloqueMeta && distanciaOrigen[indiceLocal(bloque, meta)] >= 0) {
+                    relajar(meta, g + distanciaOrigen[indiceLocal(bloque, meta)], x, origen, meta);
+                }
+            } else if (local >= 0) {
+                short[] distancias = distanciasBloque[bloque];
+                int m = nodos.length;
+                for (int b = 0; b < m; b++) {
+                    if (b != local && distancias[local * m + b] > 0) {
+                        relajar(nodos[b], g + distancias[local * m + b], x, origen, meta);
+                    }
+                }
+            }
+            if (local >= 0) {
+                for (int d = 0; d < 4; d++) {
+                    int pareja = pareja(x, d);
+                    if (pareja >= 0) relajar(pareja, g + 1, x, origen, meta);
+                }
+            }
+            if (bloque == bloqueMeta && x != origen && distanciaMeta[indiceLocal(bloque, x)] >= 0) {
+                relajar(meta, g + distanciaMeta[indiceLocal(bloque, x)], x, origen, meta);
+            }
+        }
+        if (!encontrado) {
+            return Collections.emptyList(); // No se encontró ruta
+        }
+
+        // Refinamiento: cada tramo abstracto se convierte en celdas dentro de su bloque
+        List<Integer> abstracta = new ArrayList<>();
+        for (int at = meta; at != -1; at = previoNodo[idNodo(at, origen, meta)]) {
+            abstracta.add(at);
+        }
+        Collections.reverse(abstracta);
+        GrafoCorredores.RutaIndices ruta = new GrafoCorredores.RutaIndices();
+        ruta.agregar(origen);
+        int[] distancia = new int[area];
+        int[] padre = new int[area];
+        for (int i = 1; i < abstracta.size(); i++) {
+            int a = abstracta.get(i - 1);
+            int b = abstracta.get(i);
+            if (bloqueDe(a) != bloqueDe(b)) {
+                ruta.agregar(b); // Cruce de frontera entre dos celdas vecinas
+            } else {
+                agregarTramo(bloqueDe(a), a, b, distancia, padre, cola, ruta);
+            }
+        }
+        List<int[]> coordenadas = new ArrayList<>(ruta.tamano);
+        for (int i = 0; i < ruta.tamano; i++) {
+            coordenadas.add(new int[]{ruta.celdas[i] / columnas, ruta.celdas[i] % columnas});
+        }
+        return coordenadas;
+    }
+
+    /**
+     * Acorta los rodeos locales de una ruta: por ventanas, busca con BFS dentro del
+     * rectángulo que ocupa cada tramo (ampliado medio bloque) y lo sustituye si
+     * encuentra uno más corto. Se hacen dos pasadas desfasadas para cubrir también
+     * los rodeos que caen entre dos ventanas.
+     *
+     * @param ruta La ruta a suavizar, como coordenadas [fila, columna].
+     * @return Una ruta válida entre los mismos extremos, nunca más larga que la original.
+     */
+    public synchronized List<int[]> suavizar(List<int[]> ruta) {
+        if (ruta.size() < 3 || cuadricula == null) {
+            return ruta;
+        }
+        int ventana = 2 * tamanoBloque;
+        int margen = tamanoBloque / 2;
+        int[] celdas = new int[ruta.size()];
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] = ruta.get(i)[0] * columnas + ruta.get(i)[1];
+        }
+        for (int pasada = 0; pasada < 2; pasada++) {
+            GrafoCorredores.RutaIndices nueva = new GrafoCorredores.RutaIndices();
+            nueva.agregar(celdas[0]);
+            int i = 0;
+            if (pasada == 1) {
+                int primero = Math.min(celdas.length - 1, ventana / 2);
+                for (int k = 1; k <= primero; k++) nueva.agregar(celdas[k]);
+                i = primero;
+            }
+            while (i < celdas.length - 1) {
+                int j = Math.min(celdas.length - 1, i + ventana);
+                int f0 = Integer.MAX_VALUE, f1 = 0, c0 = Integer.MAX_VALUE, c1 = 0;
+                for (int k = i; k <= j; k++) {
+                    int f = celdas[k] / columnas;
+                    int c = celdas[k] % columnas;
+                    f0 = Math.min(f0, f);
+                    f1 = Math.max(f1, f);
+                    c0 = Math.min(c0, c);
+                    c1 = Math.max(c1, c);
+                }
+                f0 = Math.max(0, f0 - margen);
+                c0 = Math.max(0, c0 - margen);
+                f1 = Math.min(filas, f1 + margen + 1);
+                c1 = Math.min(columnas, c1 + margen + 1);
+                int areaCaja = (f1 - f0) * (c1 - c0);
+                int[] distancia = new int[areaCaja];
+                int[] padre = new int[areaCaja];
+                int[] cola = new int[areaCaja];
+                buscarEnCaja(f0, f1, c0, c1, celdas[i], celdas[j], distancia, padre, cola);
+                int destinoLocal = (celdas[j] / columnas - f0) * (c1 - c0) + (celdas[j] % columnas - c0);
+                if (distancia[destinoLocal] >= 0 && distancia[destinoLocal] < j - i) {
+                    agregarDesdePadres(f0, c0, c1 - c0, celdas[i], celdas[j], padre, nueva);
+                } else {
+                    for (int k = i + 1; k <= j; k++) nueva.agregar(celdas[k]);
+                }
+                i = j;
+            }
+            celdas = Arrays.copyOf(nueva.celdas, nueva.tamano);
+        }
+        List<int[]> coordenadas = new ArrayList<>(celdas.length);
+        for (int celda : celdas) {
+            coordenadas.add(new int[]{celda / columnas, celda % columnas});
+        }
+        return coordenadas;
+    }
+
+    /**
+     * Mide cuánto más larga es una ruta que la óptima, calculando esta con BFS.
+     * Para medir varias rutas entre los mismos extremos conviene calcular la
+     * distancia óptima una vez con {@link #distanciaOptima} y usar {@link #brecha}.
+     *
+     * @param ruta          La ruta a evaluar, como coordenadas [fila, columna].
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La brecha relativa ({@code 0.05} = un 5 % más larga), o -1 si no hay ruta.
+     */
+    public synchronized double medirBrecha(List<int[]> ruta, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        if (ruta.isEmpty()) {
+            return -1;
+        }
+        return brecha(ruta, distanciaOptima(filaInicio, columnaInicio, filaFin, columnaFin));
+    }
+
+    /**
+     * Calcula la distancia de la ruta más corta sobre la cuadrícula del solver,
+     * con la BFS por palabras de {@link SolverOndaBits} (sin reconstruir la ruta).
+     *
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El número de pasos, o -1 si no hay ruta o el solver no está preparado.
+     */
+    public synchronized int distanciaOptima(int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        if (cuadricula == null) {
+            return -1;
+        }
+        return new SolverOndaBits().distancia(cuadricula, filaInicio, columnaInicio, filaFin, columnaFin);
+    }
+
+    /**
+     * Mide cuánto más larga es una ruta que una distancia óptima ya calculada.
+     *
+     * @param ruta            La ruta a evaluar, como coordenadas [fila, columna].
+     * @param distanciaOptima Los pasos de la ruta más corta (ver {@link #distanciaOptima}).
+     * @return La brecha relativa ({@code 0.05} = un 5 % más larga), o -1 si no hay ruta.
+     */
+    public static double brecha(List<int[]> ruta, int distanciaOptima) {
+        if (ruta.isEmpty() || distanciaOptima < 0) {
+            return -1;
+        }
+        if (distanciaOptima == 0) {
+            return 0;
+        }
+        return (double) (ruta.size() - 1 - distanciaOptima) / distanciaOptima;
+    }
+
+    @Override
+    public synchronized void celdaCambiada(int fila, int columna, int valor) {
+        if (!preparado || fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return;
+        }
+        cuadricula.setTransitable(fila, columna, valor == 1);
+        int bf = fila / tamanoBloque;
+        int bc = columna / tamanoBloque;
+        int bloque = bf * bloquesColumna + bc;
+        // Las fronteras que toca la celda cambian de entradas, y con ellas los nodos de ambos lados
+        Set<Integer> afectados = new HashSet<>();
+        afectados.add(bloque);
+        if (fila % tamanoBloque == 0 && bf > 0) {
+            int arriba = bloque - bloquesColumna;
+            entradasInferiores[arriba] = calcularEntradasInferiores(arriba);
+            afectados.add(arriba);
+        }
+        if (fila % tamanoBloque == tamanoBloque - 1 && bf < bloquesFila - 1) {
+            entradasInferiores[bloque] = calcularEntradasInferiores(bloque);
+            afectados.add(bloque + bloquesColumna);
+        }
+        if (columna % tamanoBloque == 0 && bc > 0) {
+            int izquierda = bloque - 1;
+            entradasDerechas[izquierda] = calcularEntradasDerechas(izquierda);
+            afectados.add(izquierda);
+        }
+        if (columna % tamanoBloque == tamanoBloque - 1 && bc < bloquesColumna - 1) {
+            entradasDerechas[bloque] = calcularEntradasDerechas(bloque);
+            afectados.add(bloque + 1);
+        }
+        for (int b : afectados) {
+            calcularBloque(b);
+        }
+    }
+
+    @Override
+    public synchronized void laberintoReemplazado(int[][] datos) {
+        preparado = false;
+        cuadricula = null;
+    }
+
+    // --- Construcción ---
+
+    private int[] calcularEntradasInferiores(int bloque) {
+        int bf = bloque / bloquesColumna;
+        int bc = bloque % bloquesColumna;
+        if (bf >= bloquesFila - 1) {
+            return new int[0];
+        }
+        int fila = (bf + 1) * tamanoBloque - 1;
+        int desde = bc * tamanoBloque;
+        int hasta = Math.min(columnas, desde + tamanoBloque);
+        GrafoCorredores.RutaIndices entradas = new GrafoCorredores.RutaIndices();
+        int inicioTramo = -1;
+        for (int c = desde; c <= hasta; c++) {
+            boolean abierta = c < hasta && cuadricula.esTransitable(fila, c) && cuadricula.esTransitable(fila + 1, c);
+            if (abierta && inicioTramo < 0) {
+                inicioTramo = c;
+            } else if (!abierta && inicioTramo >= 0) {
+                agregarEntradas(entradas, fila * columnas + inicioTramo, c - inicioTramo, 1);
+                inicioTramo = -1;
+            }
+        }
+        return Arrays.copyOf(entradas.celdas, entradas.tamano);
+    }
+
+    private int[] calcularEntradasDerechas(int bloque) {
+        int bf = bloque / bloquesColumna;
+        int bc = bloque % bloquesColumna;
+        if (bc >= bloquesColumna - 1) {
+            return new int[0];
+        }
+        int columna = (bc + 1) * tamanoBloque - 1;
+        int desde = bf * tamanoBloque;
+        int hasta = Math.min(filas, desde + tamanoBloque);
+        GrafoCorredores.RutaIndices entradas = new GrafoCorredores.RutaIndices();
+        int inicioTramo = -1;
+        for (int f = desde; f <= hasta; f++) {
+            boolean abierta = f < hasta && cuadricula.esTransitable(f, columna) && cuadricula.esTransitable(f, columna + 1);
+            if (abierta && inicioTramo < 0) {
+                inicioTramo = f;
+            } else if (!abierta && inicioTramo >= 0) {
+                agregarEntradas(entradas, inicioTramo * columnas + columna, f - inicioTramo, columnas);
+                inicioTramo = -1;
+            }
+        }
+        return Arrays.copyOf(entradas.celdas, entradas.tamano);
+    }
+
+    /**
+     * Un tramo corto se representa con su celda central; uno largo, con sus dos extremos.
+     */
+    private static void agregarEntradas(GrafoCorredores.RutaIndices entradas, int primera, int longitud, int paso) {
+        if (longitud < TRAMO_DOBLE_ENTRADA) {
+            entradas.agregar(primera + (longitud / 2) * paso);
+        } else {
+            entradas.agregar(primera);
+            entradas.agregar(primera + (longitud - 1) * paso);
+        }
+    }
+
+    /**
+     * Reúne los nodos de un bloque a partir de las entradas de sus cuatro fronteras
+     * y calcula con BFS dentro del bloque la distancia entre cada par.
+     */
+    private void calcularBloque(int bloque) {
+        int bf = bloque / bloquesColumna;
+        int bc = bloque % bloquesColumna;
+        GrafoCorredores.RutaIndices nodos = new GrafoCorredores.RutaIndices();
+        for (int celda : entradasInferiores[bloque]) nodos.agregar(celda);
+        for (int celda : entradasDerechas[bloque]) nodos.agregar(celda);
+        if (bf > 0) {
+            for (int celda : entradasInferiores[bloque - bloquesColumna]) nodos.agregar(celda + columnas);
+        }
+        if (bc > 0) {
+            for (int celda : entradasDerechas[bloque - 1]) nodos.agregar(celda + 1);
+        }
+        int[] unicos = Arrays.stream(nodos.celdas, 0, nodos.tamano).sorted().distinct().toArray();
+        int m = unicos.length;
+        short[] distancias = new short[m * m];
+        int area = tamanoBloque * tamanoBloque;
+        int[] distancia = new int[area];
+        int[] cola = new int[area];
+        // Copia local de las celdas del bloque: las m búsquedas la consultan sin pasar por la cuadrícula
+        int f0 = bf * tamanoBloque;
+        int c0 = bc * tamanoBloque;
+        boolean[] abiertas = new boolean[area];
+        for (int f = f0; f < Math.min(filas, f0 + tamanoBloque); f++) {
+            for (int c = c0; c < Math.min(columnas, c0 + tamanoBloque); c++) {
+                abiertas[(f - f0) * tamanoBloque + (c - c0)] = cuadricula.esTransitable(f, c);
+            }
+        }
+        for (int a = 0; a < m; a++) {
+            buscarEnBloque(bloque, unicos[a], abiertas, distancia, cola);
+            for (int b = 0; b < m; b++) {
+                distancias[a * m + b] = (short) distancia[indiceLocal(bloque, unicos[b])];
+            }
+        }
+        nodosBloque[bloque] = unicos;
+        distanciasBloque[bloque] = distancias;
+    }
+
+    // --- Búsqueda ---
+
+    private void relajar(int y, int nuevoCoste, int desde, int origen, int meta) {
+        int id = idNodo(y, origen, meta);
+        if (selloNodo[id] != consulta || nuevoCoste < costeNodo[id]) {
+            selloNodo[id] = consulta;
+            costeNodo[id] = nuevoCoste;
+            previoNodo[id] = desde;
+            monticulo = insertar(monticulo, tamanoMonticulo++, clave(nuevoCoste + heuristica(y, meta), y));
+        }
+    }
+
+    /**
+     * Numera los nodos abstractos (los de cada bloque, seguidos) y prepara el
+     * estado de una nueva consulta sin borrar los arreglos: basta con cambiar el sello.
+     */
+    private void prepararBusquedaAbstracta() {
+        int totalBloques = nodosBloque.length;
+        if (primerNodo == null || primerNodo.length != totalBloques + 1) {
+            primerNodo = new int[totalBloques + 1];
+        }
+        for (int b = 0; b < totalBloques; b++) {
+            primerNodo[b + 1] = primerNodo[b] + nodosBloque[b].length;
+        }
+        int necesarios = primerNodo[totalBloques] + 2; // Más el inicio y el destino si no son nodos
+        if (costeNodo.length < necesarios) {
+            int capacidad = Math.max(necesarios, costeNodo.length + costeNodo.length / 2);
+            costeNodo = new int[capacidad];
+            previoNodo = new int[capacidad];
+            selloNodo = new int[capacidad];
+            selloCerrado = new int[capacidad];
+            consulta = 0;
+        }
+        if (consulta == Integer.MAX_VALUE) {
+            Arrays.fill(selloNodo, 0);
+            Arrays.fill(selloCerrado, 0);
+            consulta = 0;
+        }
+        consulta++;
+    }
+
+    /**
+     * Identificador de una celda en el A* abstracto: su posición entre todos los
+     * nodos si es nodo de su bloque, o una de las dos posiciones finales si es el
+     * inicio o el destino.
+     */
+    private int idNodo(int celda, int origen, int meta) {
+        int bloque = bloqueDe(celda);
+        int local = Arrays.binarySearch(nodosBloque[bloque], celda);
+        if (local >= 0) {
+            return primerNodo[bloque] + local;
+        }
+        int extra = primerNodo[primerNodo.length - 1];
+        return celda == origen ? extra : extra + 1;
+    }
+
+    private static long[] insertar(long[] monticulo, int i, long valor) {
+        if (i == monticulo.length) {
+            monticulo = Arrays.copyOf(monticulo, i * 2);
+        }
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (monticulo[padre] <= valor) break;
+            monticulo[i] = monticulo[padre];
+            i = padre;
+        }
+        monticulo[i] = valor;
+        return monticulo;
+    }
+
+    private static int extraer(long[] monticulo, int tamano) {
+        long valor = monticulo[--tamano];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamano) break;
+            if (hijo + 1 < tamano && monticulo[hijo + 1] < monticulo[hijo]) hijo++;
+            if (monticulo[hijo] >= valor) break;
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = valor;
+        return tamano;
+    }
+
+    /**
+     * Devuelve la celda del bloque vecino con la que una entrada forma pareja en la
+     * dirección indicada, o -1 si la celda no es entrada en esa frontera.
+     */
+    private int pareja(int celda, int direccion) {
+        int fila = celda / columnas;
+        int columna = celda % columnas;
+        int bloque = bloqueDe(celda);
+        switch (direccion) {
+            case 0:
+                if (fila % tamanoBloque != 0 || fila == 0) return -1;
+                return Arrays.binarySearch(entradasInferiores[bloque - bloquesColumna], celda - columnas) >= 0 ? celda - columnas : -1;
+            case 1:
+                if (fila % tamanoBloque != tamanoBloque - 1) return -1;
+                return Arrays.binarySearch(entradasInferiores[bloque], celda) >= 0 ? celda + columnas : -1;
+            case 2:
+                if (columna % tamanoBloque != 0 || columna == 0) return -1;
+                return Arrays.binarySearch(entradasDerechas[bloque - 1], celda - 1) >= 0 ? celda - 1 : -1;
+            default:
+                if (columna % tamanoBloque != tamanoBloque - 1) return -1;
+                return Arrays.binarySearch(entradasDerechas[bloque], celda) >= 0 ? celda + 1 : -1;
+        }
+    }
+
+    private void agregarTramo(int bloque, int desde, int hasta, int[] distancia, int[] padre, int[] cola,
+                              GrafoCorredores.RutaIndices ruta) {
+        buscarEnBloque(bloque, desde, hasta, distancia, padre, cola);
+        int f0 = (bloque / bloquesColumna) * tamanoBloque;
+        int c0 = (bloque % bloquesColumna) * tamanoBloque;
+        agregarDesdePadres(f0, c0, tamanoBloque, desde, hasta, padre, ruta);
+    }
+
+    /**
+     * Añade a la ruta las celdas desde {@code desde} (excluida) hasta {@code hasta}
+     * (incluida) siguiendo los padres locales de una búsqueda en un rectángulo.
+     */
+    private void agregarDesdePadres(int f0, int c0, int ancho, int desde, int hasta, int[] padre,
+                                    GrafoCorredores.RutaIndices ruta) {
+        int inicioTramo = ruta.tamano;
+        for (int at = hasta; at != desde; ) {
+            ruta.agregar(at);
+            int local = padre[(at / columnas - f0) * ancho + (at % columnas - c0)];
+            at = (f0 + local / ancho) * columnas + (c0 + local % ancho);
+        }
+        // Las celdas se añadieron del final al principio: se invierte el tramo
+        for (int i = inicioTramo, j = ruta.tamano - 1; i < j; i++, j--) {
+            int tmp = ruta.celdas[i];
+            ruta.celdas[i] = ruta.celdas[j];
+            ruta.celdas[j] = tmp;
+        }
+    }
+
+    /**
+     * BFS completo dentro de un bloque usando su copia local de celdas abiertas.
+     */
+    private void buscarEnBloque(int bloque, int origen, boolean[] abiertas, int[] distancia, int[] cola) {
+        int f0 = (bloque / bloquesColumna) * tamanoBloque;
+        int c0 = (bloque % bloquesColumna) * tamanoBloque;
+        int altoBloque = Math.min(filas, f0 + tamanoBloque) - f0;
+        int anchoBloque = Math.min(columnas, c0 + tamanoBloque) - c0;
+        Arrays.fill(distancia, -1);
+        int local = indiceLocal(bloque, origen);
+        distancia[local] = 0;
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = local;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int fila = actual / tamanoBloque;
+            int columna = actual - fila * tamanoBloque;
+            int siguiente = distancia[actual] + 1;
+            if (fila > 0 && abiertas[actual - tamanoBloque] && distancia[actual - tamanoBloque] < 0) {
+                distancia[actual - tamanoBloque] = siguiente;
+                cola[fin++] = actual - tamanoBloque;
+            }
+            if (fila < altoBloque - 1 && abiertas[actual + tamanoBloque] && distancia[actual + tamanoBloque] < 0) {
+                distancia[actual + tamanoBloque] = siguiente;
+                cola[fin++] = actual + tamanoBloque;
+            }
+            if (columna > 0 && abiertas[actual - 1] && distancia[actual - 1] < 0) {
+                distancia[actual - 1] = siguiente;
+                cola[fin++] = actual - 1;
+            }
+            if (columna < anchoBloque - 1 && abiertas[actual + 1] && distancia[actual + 1] < 0) {
+                distancia[actual + 1] = siguiente;
+                cola[fin++] = actual + 1;
+            }
+        }
+    }
+
+    private void buscarEnBloque(int bloque, int origen, int destino, int[] distancia, int[] padre, int[] cola) {
+        int f0 = (bloque / bloquesColumna) * tamanoBloque;
+        int c0 = (bloque % bloquesColumna) * tamanoBloque;
+        // Se usa siempre un ancho de tamanoBloque para que los índices locales no dependan del bloque
+        buscarEnCaja(f0, Math.min(filas, f0 + tamanoBloque), c0, c0 + tamanoBloque, origen, destino, distancia, padre, cola);
+    }
+
+    /**
+     * BFS limitado al rectángulo [f0, f1) × [c0, c1). Las distancias y padres se
+     * guardan con índices locales {@code (fila - f0) * (c1 - c0) + (columna - c0)}.
+     */
+    private void buscarEnCaja(int f0, int f1, int c0, int c1, int origen, int destino,
+                              int[] distancia, int[] padre, int[] cola) {
+        int ancho = c1 - c0;
+        int limiteColumna = Math.min(c1, columnas);
+        Arrays.fill(distancia, 0, (f1 - f0) * ancho, -1);
+        int local = (origen / columnas - f0) * ancho + (origen % columnas - c0);
+        distancia[local] = 0;
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = local;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int fila = f0 + actual / ancho;
+            int columna = c0 + actual % ancho;
+            if (fila * columnas + columna == destino) return;
+            for (int d = 0; d < 4; d++) {
+                int nf = fila + dx[d];
+                int nc = columna + dy[d];
+                if (nf < f0 || nf >= f1 || nc < c0 || nc >= limiteColumna || !cuadricula.esTransitable(nf, nc)) continue;
+                int vecino = (nf - f0) * ancho + (nc - c0);
+                if (distancia[vecino] < 0) {
+                    distancia[vecino] = distancia[actual] + 1;
+                    if (padre != null) padre[vecino] = actual;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+    }
+
+    private int indiceLocal(int bloque, int celda) {
+        int f0 = (bloque / bloquesColumna) * tamanoBloque;
+        int c0 = (bloque % bloquesColumna) * tamanoBloque;
+        return (celda / columnas - f0) * tamanoBloque + (celda % columnas - c0);
+    }
+
+    private int bloqueDe(int celda) {
+        return (celda / columnas / tamanoBloque) * bloquesColumna + (celda % columnas) / tamanoBloque;
+    }
+
+    private int heuristica(int celda, int meta) {
+        return Math.abs(celda / columnas - meta / columnas) + Math.abs(celda % columnas - meta % columnas);
+    }
+
+    private static long clave(int prioridad, int celda) {
+        return ((long) prioridad << 32) | celda;
+    }
+}
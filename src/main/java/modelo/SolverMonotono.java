@@ -0,0 +1,224 @@
+package modelo;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resuelve el laberinto con movimientos solo hacia la derecha y hacia abajo
+ * mediante programación dinámica, en lugar de enumerar caminos con backtracking.
+ *
+ * Con esos dos movimientos ninguna ruta puede volver sobre sí misma, así que una
+ * celda del rectángulo entre inicio y destino llega al destino si y solo si es
+ * transitable y llega su vecina derecha o su vecina de abajo. Un único barrido
+ * del rectángulo, de abajo arriba y de derecha a izquierda, responde a todas las
+ * celdas en O(filas × columnas), mientras que el backtracking es exponencial en
+ * zonas abiertas.
+ *
+ * La ruta devuelta es la misma que encuentra el backtracking de
+ * {@link SolverRecursivo} (que prueba primero la derecha): desde el inicio se
+ * avanza a la derecha siempre que esa celda llegue al destino y, si no, hacia
+ * abajo.
+ *
+ * Características:
+ * <ul>
+ *   <li>Resuelve en O(filas × columnas) con un bit por celda del rectángulo</li>
+ *   <li>Cuenta las rutas monótonas con {@code long} y pasa a {@link BigInteger} si se desborda</li>
+ *   <li>La existencia de ruta y el conteo solo guardan una fila, O(columnas) de memoria</li>
+ * </ul>
+ */
+public class SolverMonotono {
+
+    private List<int[]> celdasVisitadas = new ArrayList<>();
+    private MetricasBusqueda metricas = new MetricasBusqueda();
+
+    /**
+     * Devuelve los contadores de la última búsqueda: las celdas del rectángulo que
+     * evaluó la programación dinámica y las que quedaron en alguna ruta.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Devuelve las celdas que están en alguna ruta monótona entre el inicio y el
+     * destino de la última búsqueda, por filas.
+     *
+     * @return Una lista de coordenadas [fila, columna].
+     */
+    public List<int[]> getCeldasVisitadas() {
+        return celdasVisitadas;
+    }
+
+    /**
+     * Busca una ruta que solo avance hacia la derecha y hacia abajo.
+     *
+     * @param laberinto La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param fila      Fila de la celda de inicio.
+     * @param col       Columna de la celda de inicio.
+     * @param finFila   Fila de la celda de destino.
+     * @param finCol    Columna de la celda de destino.
+     * @return La ruta como coordenadas [fila, columna], o una lista vacía si no existe.
+     */
+    public List<int[]> resolver(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        celdasVisitadas = new ArrayList<>();
+        metricas = new MetricasBusqueda();
+        if (!rectanguloValido(laberinto, fila, col, finFila, finCol)) {
+            return new ArrayList<>();
+        }
+        int alto = finFila - fila + 1;
+        int ancho = finCol - col + 1;
+
+        // 1. Barrido hacia atrás: bit (i, j) = la celda llega al destino
+        long[] llega = new long[(int) (((long) alto * ancho + 63) >>> 6)];
+        for (int i = alto - 1; i >= 0; i--) {
+            int[] filaLab = laberinto[fila + i];
+            for (int j = ancho - 1; j >= 0; j--) {
+                if (filaLab[col + j] != 1) continue;
+                boolean valor = (i == alto - 1 && j == ancho - 1)
+                        || (j + 1 < ancho && bit(llega, i, j + 1, ancho))
+                        || (i + 1 < alto && bit(llega, i + 1, j, ancho));
+                if (valor) {
+                    long k = (long) i * ancho + j;
+                    llega[(int) (k >>> 6)] |= 1L << k;
+                }
+            }
+        }
+        metricas.expandidos = (long) alto * ancho;
+        metricas.picoFrontera = ancho; // Una fila de la programación dinámica
+        if (!bit(llega, 0, 0, ancho)) {
+            return new ArrayList<>(); // No existe ruta monótona
+        }
+
+        // 2. Barrido hacia delante con una sola fila: celdas alcanzables desde el inicio
+        //    que además llegan al destino, es decir, las que están en alguna ruta
+        boolean[] alcanzable = new boolean[ancho];
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                boolean desdeInicio = (i == 0 && j == 0) || alcanzable[j] || (j > 0 && alcanzable[j - 1]);
+                alcanzable[j] = desdeInicio && bit(llega, i, j, ancho);
+                if (alcanzable[j]) {
+                    celdasVisitadas.add(new int[]{fila + i, col + j});
+                }
+            }
+        }
+
+        metricas.generados = celdasVisitadas.size();
+
+        // 3. Reconstrucción: primero la derecha, como el backtracking
+        List<int[]> ruta = new ArrayList<>(alto + ancho - 1);
+        int i = 0;
+        int j = 0;
+        ruta.add(new int[]{fila, col});
+        while (i != alto - 1 || j != ancho - 1) {
+            if (j + 1 < ancho && bit(llega, i, j + 1, ancho)) {
+                j++;
+            } else {
+                i++;
+            }
+            ruta.add(new int[]{fila + i, col + j});
+        }
+        return ruta;
+    }
+
+    /**
+     * Indica si existe una ruta que solo avance hacia la derecha y hacia abajo.
+     * Usa una única fila de memoria.
+     *
+     * @param laberinto La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param fila      Fila de la celda de inicio.
+     * @param col       Columna de la celda de inicio.
+     * @param finFila   Fila de la celda de destino.
+     * @param finCol    Columna de la celda de destino.
+     * @return {@code true} si el destino es alcanzable.
+     */
+    public static boolean existeRuta(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        if (!rectanguloValido(laberinto, fila, col, finFila, finCol)) {
+            return false;
+        }
+        int ancho = finCol - col + 1;
+        boolean[] alcanzable = new boolean[ancho];
+        for (int i = fila; i <= finFila; i++) {
+            boolean alguna = false;
+            for (int j = 0; j < ancho; j++) {
+                boolean desdeInicio = (i == fila && j == 0) || alcanzable[j] || (j > 0 && alcanzable[j - 1]);
+                alcanzable[j] = desdeInicio && laberinto[i][col + j] == 1;
+                alguna |= alcanzable[j];
+            }
+            if (!alguna) return false; // Una fila sin celdas alcanzables corta todas las rutas
+        }
+        return alcanzable[ancho - 1];
+    }
+
+    /**
+     * Cuenta las rutas distintas que solo avanzan hacia la derecha y hacia abajo.
+     * El conteo se hace con {@code long} y, si se desborda, se repite con
+     * {@link BigInteger}. Usa una única fila de memoria.
+     *
+     * @param laberinto La matriz del laberinto (1 = transitable, 0 = muro).
+     * @param fila      Fila de la celda de inicio.
+     * @param col       Columna de la celda de inicio.
+     * @param finFila   Fila de la celda de destino.
+     * @param finCol    Columna de la celda de destino.
+     * @return El número de rutas (0 si no hay ninguna).
+     */
+    public static BigInteger contarRutas(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        if (!rectanguloValido(laberinto, fila, col, finFila, finCol)) {
+            return BigInteger.ZERO;
+        }
+        try {
+            return BigInteger.valueOf(contarRutasLong(laberinto, fila, col, finFila, finCol));
+        } catch (ArithmeticException e) {
+            return contarRutasGrande(laberinto, fila, col, finFila, finCol);
+        }
+    }
+
+    private static long contarRutasLong(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        int ancho = finCol - col + 1;
+        long[] rutas = new long[ancho];
+        for (int i = fila; i <= finFila; i++) {
+            for (int j = 0; j < ancho; j++) {
+                if (laberinto[i][col + j] != 1) {
+                    rutas[j] = 0;
+                } else if (i == fila && j == 0) {
+                    rutas[j] = 1;
+                } else if (j > 0) {
+                    rutas[j] = Math.addExact(rutas[j], rutas[j - 1]); // rutas[j] aún guarda la fila de arriba
+                }
+            }
+        }
+        return rutas[ancho - 1];
+    }
+
+    private static BigInteger contarRutasGrande(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        int ancho = finCol - col + 1;
+        BigInteger[] rutas = new BigInteger[ancho];
+        Arrays.fill(rutas, BigInteger.ZERO);
+        for (int i = fila; i <= finFila; i++) {
+            for (int j = 0; j < ancho; j++) {
+                if (laberinto[i][col + j] != 1) {
+                    rutas[j] = BigInteger.ZERO;
+                } else if (i == fila && j == 0) {
+                    rutas[j] = BigInteger.ONE;
+                } else if (j > 0) {
+                    rutas[j] = rutas[j].add(rutas[j - 1]);
+                }
+            }
+        }
+        return rutas[ancho - 1];
+    }
+
+    private static boolean rectanguloValido(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        return laberinto != null && laberinto.length > 0
+                && fila >= 0 && col >= 0 && finFila < laberinto.length && finCol < laberinto[0].length
+                && finFila >= fila && finCol >= col;
+    }
+
+    private static boolean bit(long[] bits, int i, int j, int ancho) {
+        long k = (long) i * ancho + j;
+        return (bits[(int) (k >>> 6)] & (1L << k)) != 0;
+    }
+}
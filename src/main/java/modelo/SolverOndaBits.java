@@ -0,0 +1,318 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Búsqueda en anchura que avanza el frente de onda 64 celdas a la vez sobre una
+ * {@link MatrizBits}.
+ *
+ * El frente de cada nivel se guarda como las palabras de 64 bits no nulas de sus
+ * filas. El siguiente frente se obtiene de cada palabra con desplazamientos y
+ * OR (izquierda y derecha dentro de la fila, con el acarreo a la palabra
+ * vecina, y la misma palabra en las filas de arriba y de abajo) y un AND con la
+ * máscara de celdas abiertas y no visitadas. No hay cola de celdas ni objetos
+ * por celda: el trabajo de cada nivel es proporcional a las palabras del frente.
+ *
+ * Para recuperar la ruta no se guardan distancias ni predecesores: cada celda
+ * visitada se etiqueta con su nivel módulo 3 en dos planos de bits. Dos celdas
+ * vecinas están a distancias que difieren como mucho en uno, así que desde una
+ * celda a distancia d el vecino etiquetado con (d - 1) mod 3 está exactamente a
+ * distancia d - 1, y la ruta se reconstruye hacia atrás desde el destino en
+ * tiempo proporcional a su longitud. Si solo interesa la distancia o la
+ * alcanzabilidad, {@link #distancia} no etiqueta nada.
+ *
+ * Características:
+ * <ul>
+ *   <li>Garantiza el camino más corto, igual que {@link SolverBFS}</li>
+ *   <li>Procesa 64 celdas por operación con máscaras de bits</li>
+ *   <li>Se detiene en cuanto el frente alcanza el destino</li>
+ *   <li>Dos bits por celda para reconstruir la ruta</li>
+ * </ul>
+ */
+public class SolverOndaBits {
+
+    // Movimientos para 4 direcciones: arriba, abajo, izquierda, derecha
+    private static final int[] dx = {-1, 1, 0, 0};
+    private static final int[] dy = {0, 0, -1, 1};
+
+    /** Contadores de la última búsqueda. */
+    private MetricasBusqueda metricas = new MetricasBusqueda();
+
+    /**
+     * Etiquetas de nivel de la búsqueda en curso: el nivel k se guarda como
+     * k mod 3 + 1 (bit bajo en {@code nivelBajo}, bit alto en {@code nivelAlto});
+     * 0 significa no visitada.
+     */
+    private long[] nivelBajo;
+    private long[] nivelAlto;
+    private int palabrasPorFila;
+    private int columnas;
+
+    /**
+     * Devuelve los contadores de la última búsqueda.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Calcula la distancia más corta entre dos celdas sin etiquetar los niveles.
+     *
+     * @param matriz        La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return El número de pasos de la ruta más corta, o -1 si el destino no es alcanzable.
+     */
+    public int distancia(MatrizBits matriz, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return propagar(matriz, filaInicio, columnaInicio, filaFin, columnaFin, false, null);
+    }
+
+    /**
+     * Indica si hay algún camino entre dos celdas.
+     *
+     * @param matriz        La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return {@code true} si el destino es alcanzable desde el inicio.
+     */
+    public boolean esAlcanzable(MatrizBits matriz, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return distancia(matriz, filaInicio, columnaInicio, filaFin, columnaFin) >= 0;
+    }
+
+    /**
+     * Busca la ruta más corta entre dos celdas.
+     *
+     * @param matriz        La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @return La ruta más corta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> buscarRuta(MatrizBits matriz, int filaInicio, int columnaInicio, int filaFin, int columnaFin) {
+        return buscarRuta(matriz, filaInicio, columnaInicio, filaFin, columnaFin, null);
+    }
+
+    /**
+     * Busca la ruta más corta entre dos celdas y anota las celdas visitadas.
+     * Anotarlas cuesta un objeto por celda, así que solo conviene para la animación.
+     *
+     * @param matriz        La cuadrícula a recorrer.
+     * @param filaInicio    Fila de la celda de inicio.
+     * @param columnaInicio Columna de la celda de inicio.
+     * @param filaFin       Fila de la celda de destino.
+     * @param columnaFin    Columna de la celda de destino.
+     * @param recorrido     Si no es {@code null}, recibe las celdas visitadas nivel a nivel.
+     * @return La ruta más corta como coordenadas [fila, columna], o una lista vacía si no hay ruta.
+     */
+    public List<int[]> buscarRuta(MatrizBits matriz, int filaInicio, int columnaInicio, int filaFin, int columnaFin,
+                                  List<int[]> recorrido) {
+        int d = propagar(matriz, filaInicio, columnaInicio, filaFin, columnaFin, true, recorrido);
+        List<int[]> ruta = d < 0 ? Collections.emptyList() : reconstruirRuta(filaFin, columnaFin, d, matriz.getFilas());
+        nivelBajo = null;
+        nivelAlto = null;
+        return ruta;
+    }
+
+    /**
+     * Avanza el frente nivel a nivel hasta alcanzar el destino o agotarlo.
+     *
+     * @return La distancia al destino, o -1 si no es alcanzable (o se canceló la búsqueda).
+     */
+    private int propagar(MatrizBits matriz, int filaInicio, int columnaInicio, int filaFin, int columnaFin,
+                         boolean etiquetar, List<int[]> recorrido) {
+        this.metricas = new MetricasBusqueda();
+        this.nivelBajo = null;
+        this.nivelAlto = null;
+        if (matriz == null || !matriz.esTransitable(filaInicio, columnaInicio)
+                || !matriz.esTransitable(filaFin, columnaFin)) {
+            return -1;
+        }
+        int ppf = matriz.getPalabrasPorFila();
+        this.palabrasPorFila = ppf;
+        this.columnas = matriz.getColumnas();
+        // Celdas abiertas aún no visitadas: una sola máscara para el AND de cada palabra
+        long[] pendientes = matriz.getPalabras().clone();
+        int total = pendientes.length;
+        long[] siguiente = new long[total];
+        // Si la última palabra de cada fila tiene relleno, los bits que cruzan de
+        // fila caen en el relleno, que siempre es muro: no hace falta comprobarlo
+        boolean sinRelleno = (columnas & 63) == 0;
+        if (etiquetar) {
+            nivelBajo = new long[total];
+            nivelAlto = new long[total];
+        }
+
+        int[] frenteIndices = {filaInicio * ppf + (columnaInicio >>> 6)};
+        long[] frenteBits = {1L << (columnaInicio & 63)};
+        int numFrente = 1;
+        pendientes[frenteIndices[0]] &= ~frenteBits[0];
+        etiquetarNivel(frenteIndices, frenteBits, numFrente, 0, recorrido);
+        int[] tocadas = new int[0];
+        long[] nuevoBits = new long[0];
+        int palabraDestino = filaFin * ppf + (columnaFin >>> 6);
+        long bitDestino = 1L << (columnaFin & 63);
+
+        long expandidos = 0;
+        long generados = 1;
+        long celdasFrente = 1;
+        long picoFrontera = 1;
+        int distancia = 0;
+        try {
+            while ((pendientes[palabraDestino] & bitDestino) != 0) {
+                if (numFrente == 0 || Thread.currentThread().isInterrupted()) {
+                    return -1; // Frente agotado o búsqueda cancelada (por ejemplo, al perder una carrera)
+                }
+                distancia++;
+                expandidos += celdasFrente;
+                if (tocadas.length < 5 * numFrente) { // Cada palabra del frente toca como mucho cinco
+                    tocadas = new int[Math.max(64, 10 * numFrente)];
+                }
+
+                // Vecinos de cada palabra del frente: 64 celdas por desplazamiento
+                int numTocadas = 0;
+                for (int k = 0; k < numFrente; k++) {
+                    int indice = frenteIndices[k];
+                    long f = frenteBits[k];
+                    numTocadas = acumular(siguiente, tocadas, numTocadas, indice, (f << 1) | (f >>> 1));
+                    int palabraEnFila = sinRelleno ? indice % ppf : 1;
+                    if ((f & 1L) != 0 && indice > 0 && palabraEnFila > 0) {
+                        // La columna 0 de la palabra pasa al bit 63 de la anterior
+                        numTocadas = acumular(siguiente, tocadas, numTocadas, indice - 1, Long.MIN_VALUE);
+                    }
+                    if (f < 0 && indice + 1 < total && (!sinRelleno || palabraEnFila < ppf - 1)) {
+                        // El bit 63 pasa a la columna 0 de la siguiente
+                        numTocadas = acumular(siguiente, tocadas, numTocadas, indice + 1, 1L);
+                    }
+                    if (indice >= ppf) {
+                        numTocadas = acumular(siguiente, tocadas, numTocadas, indice - ppf, f);
+                    }
+                    if (indice + ppf < total) {
+                        numTocadas = acumular(siguiente, tocadas, numTocadas, indice + ppf, f);
+                    }
+                }
+
+                // Se quedan las celdas abiertas que aún no se habían visitado; el
+                // nuevo frente se escribe sobre las propias palabras tocadas
+                if (nuevoBits.length < numTocadas) {
+                    nuevoBits = new long[tocadas.length];
+                }
+                int numNuevo = 0;
+                celdasFrente = 0;
+                for (int t = 0; t < numTocadas; t++) {
+                    int indice = tocadas[t];
+                    long bits = siguiente[indice] & pendientes[indice];
+                    siguiente[indice] = 0;
+                    if (bits != 0) {
+                        pendientes[indice] &= ~bits;
+                        tocadas[numNuevo] = indice;
+                        nuevoBits[numNuevo++] = bits;
+                        celdasFrente += Long.bitCount(bits);
+                    }
+                }
+                etiquetarNivel(tocadas, nuevoBits, numNuevo, distancia, recorrido);
+                generados += celdasFrente;
+                picoFrontera = Math.max(picoFrontera, celdasFrente);
+
+                int[] indices = frenteIndices;
+                frenteIndices = tocadas;
+                tocadas = indices;
+                long[] bits = frenteBits;
+                frenteBits = nuevoBits;
+                nuevoBits = bits;
+                numFrente = numNuevo;
+            }
+            return distancia;
+        } finally {
+            metricas.expandidos = expandidos;
+            metricas.generados = generados;
+            metricas.picoFrontera = picoFrontera;
+        }
+    }
+
+    /**
+     * Añade bits a una palabra del siguiente frente, anotándola la primera vez
+     * que se toca. Los bits que se añaden nunca son todos cero.
+     *
+     * @return El nuevo número de palabras tocadas.
+     */
+    private static int acumular(long[] siguiente, int[] tocadas, int numTocadas, int indice, long bits) {
+        if (siguiente[indice] == 0) {
+            tocadas[numTocadas++] = indice;
+        }
+        siguiente[indice] |= bits;
+        return numTocadas;
+    }
+
+    /**
+     * Etiqueta las celdas de un nivel en los planos de bits y, si se pide, las
+     * añade al recorrido.
+     */
+    private void etiquetarNivel(int[] indices, long[] bits, int n, int nivel, List<int[]> recorrido) {
+        if (nivelBajo != null) {
+            int etiqueta = nivel % 3 + 1;
+            for (int k = 0; k < n; k++) {
+                if ((etiqueta & 1) != 0) {
+                    nivelBajo[indices[k]] |= bits[k];
+                }
+                if ((etiqueta & 2) != 0) {
+                    nivelAlto[indices[k]] |= bits[k];
+                }
+            }
+        }
+        if (recorrido != null) {
+            for (int k = 0; k < n; k++) {
+                int fila = indices[k] / palabrasPorFila;
+                int base = (indices[k] - fila * palabrasPorFila) << 6;
+                for (long b = bits[k]; b != 0; b &= b - 1) {
+                    recorrido.add(new int[]{fila, base + Long.numberOfTrailingZeros(b)});
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstruye la ruta hacia atrás: desde el destino, en cada paso se elige
+     * el primer vecino (en el orden de {@code dx}/{@code dy}) etiquetado con el
+     * nivel anterior.
+     */
+    private List<int[]> reconstruirRuta(int filaFin, int columnaFin, int distancia, int filas) {
+        EventosBusqueda.Reconstruccion evento = new EventosBusqueda.Reconstruccion();
+        evento.begin();
+        int[][] ruta = new int[distancia + 1][];
+        int fila = filaFin;
+        int columna = columnaFin;
+        ruta[distancia] = new int[]{fila, columna};
+        for (int nivel = distancia - 1; nivel >= 0; nivel--) {
+            int etiqueta = nivel % 3 + 1;
+            for (int i = 0; i < 4; i++) {
+                int nuevaFila = fila + dx[i];
+                int nuevaColumna = columna + dy[i];
+                if (nuevaFila >= 0 && nuevaFila < filas && nuevaColumna >= 0 && nuevaColumna < columnas
+                        && etiqueta(nuevaFila, nuevaColumna) == etiqueta) {
+                    fila = nuevaFila;
+                    columna = nuevaColumna;
+                    break;
+                }
+            }
+            ruta[nivel] = new int[]{fila, columna};
+        }
+        evento.terminar(EjecutorAlgoritmos.BFS_BITS, filas, columnas, ruta.length);
+        return new ArrayList<>(Arrays.asList(ruta));
+    }
+
+    private int etiqueta(int fila, int columna) {
+        int indice = fila * palabrasPorFila + (columna >>> 6);
+        int bit = columna & 63;
+        return (int) ((nivelBajo[indice] >>> bit) & 1L) | (int) (((nivelAlto[indice] >>> bit) & 1L) << 1);
+    }
+}
@@ -7,7 +7,7 @@ import java.util.List;
  * Implementa soluciones recursivas para encontrar caminos en el laberinto.
  * Incluye tres variantes de algoritmos recursivos:
  * <ul>
- *   <li>Recursivo de 2 direcciones (solo derecha y abajo)</li>
+ *   <li>Recursivo de 2 direcciones (solo derecha y abajo), resuelto por programación dinámica</li>
  *   <li>Recursivo de 4 direcciones (todas las direcciones)</li>
  *   <li>Backtracking con optimización para encontrar el camino más corto</li>
  * </ul>
@@ -36,6 +36,7 @@ public class SolverRecursivo {
     private List<int[]> rutaActual;
     private List<int[]> mejorRuta;
     private List<int[]> celdasVisitadas = new ArrayList<>(); // Guarda TODAS las celdas exploradas
+    private MetricasBusqueda metricas = new MetricasBusqueda();
 
     /**
      * Inicializa las variables de estado antes de cada búsqueda.
@@ -48,6 +49,17 @@ public class SolverRecursivo {
         this.rutaActual = new ArrayList<>();
         this.mejorRuta = new ArrayList<>();
         this.celdasVisitadas = new ArrayList<>(); // ¡Importante inicializar aquí!
+        this.metricas = new MetricasBusqueda();
+    }
+
+    /**
+     * Devuelve los contadores de la última búsqueda. En el backtracking, los
+     * generados son las llamadas recursivas y la frontera es la pila de la ruta actual.
+     *
+     * @return Las métricas de la búsqueda.
+     */
+    public MetricasBusqueda getMetricas() {
+        return metricas;
     }
 
     /**
@@ -61,10 +73,25 @@ public class SolverRecursivo {
     }
 
     /**
-     * Resuelve el laberinto usando backtracking con solo 2 direcciones (abajo y derecha).
-     * Encuentra la única ruta posible si existe.
+     * Resuelve el laberinto con solo 2 direcciones (abajo y derecha).
+     * Usa la programación dinámica de {@link SolverMonotono}, que devuelve la misma
+     * ruta que el backtracking en O(filas × columnas); las celdas visitadas son las
+     * que están en alguna ruta válida.
      */
     public List<int[]> resolver2Direcciones(int[][] laberinto, int fila, int col, int finFila, int finCol) {
+        SolverMonotono monotono = new SolverMonotono();
+        List<int[]> ruta = monotono.resolver(laberinto, fila, col, finFila, finCol);
+        this.celdasVisitadas = monotono.getCeldasVisitadas();
+        this.metricas = monotono.getMetricas();
+        return ruta;
+    }
+
+    /**
+     * Resuelve el laberinto usando backtracking con solo 2 direcciones (abajo y derecha).
+     * Es exponencial en zonas abiertas; se conserva como referencia de
+     * {@link #resolver2Direcciones}.
+     */
+    public List<int[]> resolver2DireccionesBacktracking(int[][] laberinto, int fila, int col, int finFila, int finCol) {
         inicializar(laberinto);
         if (finFila < fila || finCol < col) {
             return mejorRuta; // Imposible llegar
@@ -105,8 +132,10 @@ public class SolverRecursivo {
      * @param movesY   Array de movimientos en Y.
      */
     private void backtrack(int[][] lab, int x, int y, int finX, int finY, int[] movesX, int[] movesY) {
-        // Condición de parada: fuera de límites, es un muro o ya se visitó en esta ruta.
-        if (!esValido(lab, x, y) || visitado[x][y]) {
+        metricas.generados++;
+        // Condición de parada: fuera de límites, es un muro, ya se visitó en esta ruta
+        // o la búsqueda se canceló (por ejemplo, al perder una carrera).
+        if (!esValido(lab, x, y) || visitado[x][y] || Thread.currentThread().isInterrupted()) {
             return;
         }
 
@@ -114,6 +143,9 @@ public class SolverRecursivo {
         visitado[x][y] = true;
         rutaActual.add(new int[]{x, y});
         celdasVisitadas.add(new int[]{x, y}); // Registra la celda como explorada
+        metricas.expandidos++;
+        metricas.profundidad(rutaActual.size());
+        metricas.frontera(rutaActual.size());
 
         // Si llegamos al destino
         if (x == finX && y == finY) {
@@ -0,0 +1,404 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Campo de distancias de BFS (4 vecinos, coste 1) calculado por barridos de
+ * filas completas en lugar de con una cola, para poder procesar cada fila con
+ * instrucciones SIMD.
+ *
+ * Es una transformada de distancia geodésica al estilo chamfer: una pasada de
+ * arriba abajo relaja cada fila con la anterior ({@code d = min(d, arriba + 1)})
+ * y después la recorre de izquierda a derecha y de derecha a izquierda; otra
+ * pasada hace lo mismo de abajo arriba. Las pasadas se repiten hasta que
+ * ninguna cambia nada, y entonces el campo coincide con el de
+ * {@link CampoDistancias}. Los muros valen "infinito" y se mantienen con un
+ * {@code max} contra una máscara, de modo que la relajación entre filas no
+ * tiene ramas.
+ *
+ * La relajación entre filas usa la Vector API ({@code jdk.incubator.vector})
+ * si está disponible: la clase {@code RelajacionVectorial} está en
+ * {@code src/vector/java}, se compila aparte con
+ * {@code javac --add-modules jdk.incubator.vector} y se carga por reflexión.
+ * Si no está compilada o la JVM no arrancó con
+ * {@code --add-modules jdk.incubator.vector}, se usa el mismo cálculo escalar.
+ * Los recorridos horizontales son secuenciales y siempre son escalares.
+ *
+ * El número de pasadas crece con las vueltas de las rutas: en laberintos
+ * abiertos bastan unas pocas, pero en laberintos serpenteantes una búsqueda en
+ * anchura es más rápida.
+ *
+ * Características:
+ * <ul>
+ *   <li>Uno o varios orígenes (distancia al origen más cercano)</li>
+ *   <li>Consultas de varias metas sobre el mismo campo
+ *       ({@link EjecutorAlgoritmos#distanciasAMetas}) y rutas bajando por el campo</li>
+ *   <li>Distancia máxima alcanzada, para escalar un mapa de calor</li>
+ * </ul>
+ */
+public class TransformadaDistancias {
+
+    /** Distancia de las celdas no alcanzables y de los muros. */
+    public static final int INALCANZABLE = -1;
+
+    /** "Infinito" de los barridos; sumarle 1 no desborda. */
+    private static final int INFINITO = Integer.MAX_VALUE / 2;
+
+    /** Implementación vectorial cargada por reflexión, o {@code null} si no está disponible. */
+    private static final RelajacionFilas VECTORIAL = cargarVectorial();
+
+    /**
+     * Relajación de una fila con su vecina vertical.
+     */
+    interface RelajacionFilas {
+        /**
+         * Aplica {@code campo[destino + i] = max(min(campo[destino + i], campo[origen + i] + 1), muro[destino + i])}
+         * para {@code i} en {@code [0, n)}.
+         *
+         * @return {@code true} si cambió alguna celda.
+         */
+        boolean relajar(int[] campo, int[] muro, int origen, int destino, int n);
+    }
+
+    /** Cálculo escalar de referencia y alternativa cuando no hay Vector API. */
+    static final RelajacionFilas ESCALAR = (campo, muro, origen, destino, n) -> {
+        boolean cambio = false;
+        for (int i = 0; i < n; i++) {
+            int nuevo = Math.max(Math.min(campo[destino + i], campo[origen + i] + 1), muro[destino + i]);
+            if (nuevo < campo[destino + i]) {
+                campo[destino + i] = nuevo;
+                cambio = true;
+            }
+        }
+        return cambio;
+    };
+
+    private final RelajacionFilas relajacion;
+    private int filas;
+    private int columnas;
+    private int[] distancia;
+    private int pasadas;
+    private int maximaDistancia;
+    private int celdasAlcanzadas;
+
+    /**
+     * Crea una transformada que usa la Vector API si está disponible.
+     */
+    public TransformadaDistancias() {
+        this(true);
+    }
+
+    /**
+     * Crea una transformada.
+     *
+     * @param usarVectorial {@code false} para forzar el cálculo escalar (por ejemplo, para comparar).
+     */
+    public TransformadaDistancias(boolean usarVectorial) {
+        this.relajacion = usarVectorial && VECTORIAL != null ? VECTORIAL : ESCALAR;
+    }
+
+    /**
+     * Indica si la Vector API está disponible en esta JVM.
+     *
+     * @return {@code true} si se cargó la implementación vectorial.
+     */
+    public static boolean vectorialDisponible() {
+        return VECTORIAL != null;
+    }
+
+    /**
+     * Indica si esta transformada usa la implementación vectorial.
+     *
+     * @return {@code true} si las filas se relajan con la Vector API.
+     */
+    public boolean esVectorial() {
+        return relajacion != ESCALAR;
+    }
+
+    /**
+     * Calcula el campo de distancias desde un origen.
+     *
+     * @param cuadricula    La cuadrícula.
+     * @param filaOrigen    Fila del origen.
+     * @param columnaOrigen Columna del origen.
+     */
+    public void calcular(Cuadricula cuadricula, int filaOrigen, int columnaOrigen) {
+        calcular(cuadricula, List.of(new int[]{filaOrigen, columnaOrigen}));
+    }
+
+    /**
+     * Calcula el campo de distancias hasta el más cercano de varios orígenes.
+     * Los orígenes que son muros se ignoran.
+     *
+     * @param cuadricula La cuadrícula.
+     * @param origenes   Los orígenes como [fila, columna].
+     */
+    public void calcular(Cuadricula cuadricula, List<int[]> origenes) {
+        filas = cuadricula.getFilas();
+        columnas = cuadricula.getColumnas();
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("El laberinto es demasiado grande para una búsqueda en memoria: " + filas + "x" + columnas);
+        }
+        int n = (int) totalCeldas;
+        int[] campo = new int[n];
+        int[] muro = new int[n];
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                if (!cuadricula.esTransitable(i, j)) {
+                    muro[i * columnas + j] = INFINITO;
+                }
+            }
+        }
+        Arrays.fill(campo, INFINITO);
+        for (int[] origen : origenes) {
+            int indice = origen[0] * columnas + origen[1];
+            if (muro[indice] == 0) {
+                campo[indice] = 0;
+            }
+        }
+
+        // version[i] cambia cada vez que cambia la fila i; una fila solo se relaja
+        // con su vecina si esta cambió desde la última vez, y solo se recorre en
+        // horizontal si cambió ella misma, así que las últimas pasadas apenas tocan filas
+        int[] version = new int[filas];
+        int[] vistaArriba = new int[filas];
+        int[] vistaAbajo = new int[filas];
+        boolean[] pendiente = new boolean[filas];
+        for (int[] origen : origenes) {
+            if (campo[origen[0] * columnas + origen[1]] == 0) {
+                version[origen[0]] = 1;
+                pendiente[origen[0]] = true;
+            }
+        }
+
+        pasadas = 0;
+        boolean cambio = true;
+        while (cambio) {
+            // De arriba abajo y de abajo arriba; cada fila se relaja con la ya tratada y luego en horizontal
+            cambio = false;
+            for (int i = 0; i < filas; i++) {
+                if (i > 0 && vistaArriba[i] != version[i - 1]) {
+                    vistaArriba[i] = version[i - 1];
+                    cambio |= actualizarFila(campo, muro, i - 1, i, version, pendiente);
+                }
+                cambio |= barrerSiPendiente(campo, muro, i, version, pendiente);
+            }
+            for (int i = filas - 1; i >= 0; i--) {
+                if (i < filas - 1 && vistaAbajo[i] != version[i + 1]) {
+                    vistaAbajo[i] = version[i + 1];
+                    cambio |= actualizarFila(campo, muro, i + 1, i, version, pendiente);
+                }
+                cambio |= barrerSiPendiente(campo, muro, i, version, pendiente);
+            }
+            pasadas += 2;
+        }
+
+        maximaDistancia = INALCANZABLE;
+        celdasAlcanzadas = 0;
+        for (int i = 0; i < n; i++) {
+            if (campo[i] >= INFINITO) {
+                campo[i] = INALCANZABLE;
+            } else {
+                celdasAlcanzadas++;
+                if (campo[i] > maximaDistancia) {
+                    maximaDistancia = campo[i];
+                }
+            }
+        }
+        distancia = campo;
+    }
+
+    private boolean actualizarFila(int[] campo, int[] muro, int origen, int destino, int[] version, boolean[] pendiente) {
+        if (relajacion.relajar(campo, muro, origen * columnas, destino * columnas, columnas)) {
+            version[destino]++;
+            pendiente[destino] = true;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean barrerSiPendiente(int[] campo, int[] muro, int fila, int[] version, boolean[] pendiente) {
+        if (!pendiente[fila]) {
+            return false;
+        }
+        pendiente[fila] = false;
+        if (barrerFila(campo, muro, fila * columnas)) {
+            version[fila]++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Relaja una fila de izquierda a derecha y de derecha a izquierda.
+     */
+    private boolean barrerFila(int[] campo, int[] muro, int inicio) {
+        boolean cambio = false;
+        int fin = inicio + columnas;
+        for (int k = inicio + 1; k < fin; k++) {
+            if (campo[k - 1] + 1 < campo[k] && muro[k] == 0) {
+                campo[k] = campo[k - 1] + 1;
+                cambio = true;
+            }
+        }
+        for (int k = fin - 2; k >= inicio; k--) {
+            if (campo[k + 1] + 1 < campo[k] && muro[k] == 0) {
+                campo[k] = campo[k + 1] + 1;
+                cambio = true;
+            }
+        }
+        return cambio;
+    }
+
+    /**
+     * Obtiene la distancia de una celda al origen más cercano.
+     *
+     * @param fila    La fila de la celda.
+     * @param columna La columna de la celda.
+     * @return El número de pasos, o {@link #INALCANZABLE}.
+     */
+    public int getDistancia(int fila, int columna) {
+        comprobarCalculado();
+        return distancia[fila * columnas + columna];
+    }
+
+    /**
+     * Obtiene las distancias de varias metas sobre el campo calculado.
+     *
+     * @param metas Las metas como [fila, columna].
+     * @return La distancia de cada meta, en el mismo orden, o {@link #INALCANZABLE}
+     *         (también para las metas fuera de la cuadrícula).
+     */
+    public int[] distanciasA(List<int[]> metas) {
+        comprobarCalculado();
+        int[] resultado = new int[metas.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            int[] meta = metas.get(i);
+            boolean dentro = meta[0] >= 0 && meta[0] < filas && meta[1] >= 0 && meta[1] < columnas;
+            resultado[i] = dentro ? distancia[meta[0] * columnas + meta[1]] : INALCANZABLE;
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene una ruta más corta desde el origen más cercano hasta una celda como
+     * índices lineales ({@code fila * columnas + columna}). El campo no guarda
+     * predecesores: la ruta se reconstruye bajando por él, pasando en cada paso a
+     * una vecina con una unidad menos de distancia (arriba, abajo, izquierda o
+     * derecha, en ese orden de preferencia).
+     *
+     * @param fila    La fila del destino.
+     * @param columna La columna del destino.
+     * @return Los índices de la ruta desde el origen, o un arreglo vacío si no es alcanzable.
+     */
+    public int[] rutaIndices(int fila, int columna) {
+        comprobarCalculado();
+        int actual = fila * columnas + columna;
+        int pasos = distancia[actual];
+        if (pasos < 0) {
+            return new int[0];
+        }
+        int[] ruta = new int[pasos + 1];
+        for (int i = pasos; i > 0; i--) {
+            ruta[i] = actual;
+            int f = actual / columnas;
+            int c = actual - f * columnas;
+            int anterior = i - 1;
+            if (f > 0 && distancia[actual - columnas] == anterior) {
+                actual -= columnas;
+            } else if (f < filas - 1 && distancia[actual + columnas] == anterior) {
+                actual += columnas;
+            } else if (c > 0 && distancia[actual - 1] == anterior) {
+                actual--;
+            } else {
+                actual++;
+            }
+        }
+        ruta[0] = actual;
+        return ruta;
+    }
+
+    /**
+     * Obtiene una ruta más corta desde el origen más cercano hasta una celda.
+     *
+     * @param fila    La fila del destino.
+     * @param columna La columna del destino.
+     * @return La ruta como coordenadas [fila, columna] (una vista de una {@link RutaCompacta}),
+     *         o una lista vacía si no es alcanzable.
+     */
+    public List<int[]> rutaHacia(int fila, int columna) {
+        return RutaCompacta.desdeIndices(rutaIndices(fila, columna), columnas).comoLista();
+    }
+
+    /**
+     * Devuelve el campo completo por filas ({@code fila * columnas + columna}).
+     * Es el arreglo interno: no debe modificarse.
+     *
+     * @return Las distancias, con {@link #INALCANZABLE} en muros y celdas no alcanzables.
+     */
+    public int[] getDistancias() {
+        comprobarCalculado();
+        return distancia;
+    }
+
+    /**
+     * Obtiene la mayor distancia finita del campo, para normalizar un mapa de calor.
+     *
+     * @return La distancia máxima, o {@link #INALCANZABLE} si no se alcanzó ninguna celda.
+     */
+    public int getMaximaDistancia() {
+        comprobarCalculado();
+        return maximaDistancia;
+    }
+
+    /**
+     * Obtiene las pasadas completas (de arriba abajo o de abajo arriba) que
+     * necesitó el último cálculo, incluida la última, que no cambia nada.
+     *
+     * @return El número de pasadas.
+     */
+    public int getPasadas() {
+        return pasadas;
+    }
+
+    /**
+     * Obtiene el número de celdas con distancia finita en el último cálculo.
+     *
+     * @return Las celdas alcanzadas desde algún origen.
+     */
+    public int getCeldasAlcanzadas() {
+        return celdasAlcanzadas;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    private void comprobarCalculado() {
+        if (distancia == null) {
+            throw new IllegalStateException("El campo de distancias no está calculado.");
+        }
+    }
+
+    /**
+     * Carga la implementación vectorial si la clase está compilada y el módulo
+     * {@code jdk.incubator.vector} está en la JVM.
+     */
+    private static RelajacionFilas cargarVectorial() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Class<?> clase = Class.forName("modelo.RelajacionVectorial");
+            return (RelajacionFilas) clase.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // No se compiló src/vector/java: se usa el cálculo escalar
+        }
+    }
+}
@@ -2,6 +2,7 @@ package vista;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.ChangeListener;
 import java.awt.*;
 import java.awt.event.ActionListener;
 
@@ -12,8 +13,11 @@ import java.awt.event.ActionListener;
  * Componentes principales:
  * <ul>
  *   <li>Selector de tamaño del laberinto (filas y columnas)</li>
- *   <li>Selector de algoritmo a utilizar</li>
+ *   <li>Pincel de costes de terreno</li>
+ *   <li>Selector de algoritmo a utilizar y opción de podar callejones sin salida</li>
  *   <li>Botones de acción (resolver, mostrar camino, paso a paso)</li>
+ *   <li>Medición repetida del algoritmo (calentamiento y repeticiones)</li>
+ *   <li>Controles de reproducción de la exploración (velocidad, celdas por frame, pausa y posición)</li>
  *   <li>Área de resultados para mostrar estadísticas</li>
  *   <li>Botón de limpieza general</li>
  * </ul>
@@ -22,16 +26,33 @@ import java.awt.event.ActionListener;
  */
 public class ControlPanel extends JPanel {
     private JComboBox<String> algorithmSelector;
+    private JCheckBox pruneDeadEndsCheckBox;
+    private JCheckBox storePathCheckBox;
     private JTextArea resultsArea;
     private JTextField rowsField;
     private JTextField colsField;
     private JButton generateButton;
+    private JCheckBox terrainBrushCheckBox;
+    private JSpinner terrainCostSpinner;
 
     private JButton solveButton;
     private JButton showFullPathButton;
     private JButton stepByStepButton;
     private JButton clearAllButton;
 
+    // --- Medición de rendimiento ---
+    private JSpinner warmUpSpinner;
+    private JSpinner repetitionsSpinner;
+    private JButton benchmarkButton;
+
+    // --- Controles de reproducción ---
+    private JButton playButton;
+    private JButton pauseButton;
+    private JSlider speedSlider;
+    private JSpinner cellsPerFrameSpinner;
+    private JSlider seekSlider;
+    private boolean updatingSeek; // Evita tratar como búsqueda los cambios hechos por el propio reproductor
+
     /**
      * Construye el panel de control, inicializando y organizando todos
      * sus componentes de interfaz.
@@ -40,7 +61,7 @@ public class ControlPanel extends JPanel {
         // Configuración del layout principal del panel
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        setPreferredSize(new Dimension(250, 600)); // Aumentamos la altura preferida
+        setPreferredSize(new Dimension(250, 950)); // Aumentamos la altura preferida
 
         // --- Panel de configuración ---
         JPanel configPanel = new JPanel(new GridLayout(0, 2, 5, 5));
@@ -60,12 +81,32 @@ public class ControlPanel extends JPanel {
 
         add(Box.createRigidArea(new Dimension(0, 10)));
 
+        // --- Panel del pincel de terreno ---
+        JPanel terrainPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        terrainPanel.setBorder(new TitledBorder("Terreno"));
+        terrainBrushCheckBox = new JCheckBox("Pintar coste");
+        terrainCostSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 255, 1));
+        terrainPanel.add(terrainBrushCheckBox);
+        terrainPanel.add(terrainCostSpinner);
+        add(terrainPanel);
+
+        add(Box.createRigidArea(new Dimension(0, 10)));
+
         // --- Panel de selección de algoritmo y acciones ---
         JPanel algoPanel = new JPanel(new BorderLayout(5, 5));
         algoPanel.setBorder(new TitledBorder("Algoritmo y Acciones"));
-        String[] algorithms = {"BFS", "DFS", "Recursivo (2 dir)", "Recursivo (4 dir)", "Backtracking"};
+        String[] algorithms = {"BFS", "DFS", "Recursivo (2 dir)", "Recursivo (4 dir)", "Backtracking",
+                "Incremental (LPA*)", "BFS (campo de distancias)", "BFS (64 bits)", "BFS (barridos de filas)", "Dijkstra (corredores)",
+                "HPA* (jerárquico)", "Dijkstra (terreno)",
+                "Carrera (primera ruta)", "Carrera (primera óptima)"};
         algorithmSelector = new JComboBox<>(algorithms);
-        algoPanel.add(algorithmSelector, BorderLayout.NORTH);
+        pruneDeadEndsCheckBox = new JCheckBox("Podar callejones sin salida");
+        storePathCheckBox = new JCheckBox("Guardar la ruta en el CSV");
+        JPanel selectorPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        selectorPanel.add(algorithmSelector);
+        selectorPanel.add(pruneDeadEndsCheckBox);
+        selectorPanel.add(storePathCheckBox);
+        algoPanel.add(selectorPanel, BorderLayout.NORTH);
 
         // --- Panel para agrupar los botones de acción ---
         JPanel actionButtonsPanel = new JPanel(new GridLayout(0, 1, 5, 5));
@@ -84,6 +125,49 @@ public class ControlPanel extends JPanel {
 
         add(Box.createRigidArea(new Dimension(0, 10)));
 
+        // --- Panel de medición de rendimiento ---
+        JPanel benchmarkPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        benchmarkPanel.setBorder(new TitledBorder("Medición"));
+        warmUpSpinner = new JSpinner(new SpinnerNumberModel(20, 0, 100_000, 1));
+        repetitionsSpinner = new JSpinner(new SpinnerNumberModel(50, 1, 100_000, 1));
+        benchmarkButton = new JButton("Medir este laberinto");
+        benchmarkPanel.add(new JLabel("Calentamiento:"));
+        benchmarkPanel.add(warmUpSpinner);
+        benchmarkPanel.add(new JLabel("Repeticiones:"));
+        benchmarkPanel.add(repetitionsSpinner);
+        benchmarkPanel.add(benchmarkButton);
+        benchmarkPanel.add(new JLabel()); // Espacio vacío para alinear
+        add(benchmarkPanel);
+
+        add(Box.createRigidArea(new Dimension(0, 10)));
+
+        // --- Panel de reproducción de la exploración ---
+        JPanel playbackPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        playbackPanel.setBorder(new TitledBorder("Reproducción"));
+        JPanel playButtonsPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+        playButton = new JButton("Reproducir");
+        pauseButton = new JButton("Pausa");
+        playButtonsPanel.add(playButton);
+        playButtonsPanel.add(pauseButton);
+        playbackPanel.add(playButtonsPanel);
+
+        playbackPanel.add(new JLabel("Velocidad (frames/s):"));
+        speedSlider = new JSlider(1, ExplorationPlayer.MAX_FRAMES_POR_SEGUNDO, 30);
+        playbackPanel.add(speedSlider);
+
+        JPanel batchPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+        batchPanel.add(new JLabel("Celdas/frame:"));
+        cellsPerFrameSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10_000_000, 1));
+        batchPanel.add(cellsPerFrameSpinner);
+        playbackPanel.add(batchPanel);
+
+        playbackPanel.add(new JLabel("Posición:"));
+        seekSlider = new JSlider(0, 0, 0);
+        playbackPanel.add(seekSlider);
+        add(playbackPanel);
+
+        add(Box.createRigidArea(new Dimension(0, 10)));
+
         // --- Panel de resultados con scroll ---
         JPanel resultsPanel = new JPanel(new BorderLayout());
         resultsPanel.setBorder(new TitledBorder("Resultados"));
@@ -140,6 +224,24 @@ public class ControlPanel extends JPanel {
         return (String) algorithmSelector.getSelectedItem();
     }
 
+    /**
+     * Indica si el usuario quiere rellenar los callejones sin salida antes de resolver.
+     *
+     * @return {@code true} si la casilla de poda está marcada.
+     */
+    public boolean isPruneDeadEndsSelected() {
+        return pruneDeadEndsCheckBox.isSelected();
+    }
+
+    /**
+     * Indica si el usuario quiere guardar la ruta codificada en el registro CSV.
+     *
+     * @return {@code true} si la casilla de guardar la ruta está marcada.
+     */
+    public boolean isStorePathSelected() {
+        return storePathCheckBox.isSelected();
+    }
+
     /**
      * Establece el texto que se mostrará en el área de resultados.
      *
@@ -194,4 +296,155 @@ public class ControlPanel extends JPanel {
     public void addClearAllListener(ActionListener listener) {
         clearAllButton.addActionListener(listener);
     }
-}
\ No newline at end of file
+
+    /**
+     * Añade un listener para el evento de clic en el botón "Reproducir".
+     *
+     * @param listener El ActionListener a ejecutar.
+     */
+    public void addPlayListener(ActionListener listener) {
+        playButton.addActionListener(listener);
+    }
+
+    /**
+     * Añade un listener para el evento de clic en el botón "Pausa".
+     *
+     * @param listener El ActionListener a ejecutar.
+     */
+    public void addPauseListener(ActionListener listener) {
+        pauseButton.addActionListener(listener);
+    }
+
+    /**
+     * Añade un listener que se ejecuta cuando cambia la velocidad o el número
+     * de celdas por frame de la reproducción.
+     *
+     * @param listener El ChangeListener a ejecutar.
+     */
+    public void addPlaybackSettingsListener(ChangeListener listener) {
+        speedSlider.addChangeListener(listener);
+        cellsPerFrameSpinner.addChangeListener(listener);
+    }
+
+    /**
+     * Añade un listener que se ejecuta cuando el usuario mueve el control de posición.
+     * Los cambios hechos con {@link #setPlaybackProgress(int, int)} no lo disparan.
+     *
+     * @param listener El ChangeListener a ejecutar.
+     */
+    public void addSeekListener(ChangeListener listener) {
+        seekSlider.addChangeListener(e -> {
+            if (!updatingSeek) {
+                listener.stateChanged(e);
+            }
+        });
+    }
+
+    /**
+     * Registra un listener para el botón de medición de rendimiento.
+     *
+     * @param listener El ActionListener a ejecutar.
+     */
+    public void addBenchmarkListener(ActionListener listener) {
+        benchmarkButton.addActionListener(listener);
+    }
+
+    /**
+     * Activa o desactiva el botón de medición (se desactiva mientras se mide).
+     *
+     * @param enabled {@code true} para activarlo.
+     */
+    public void setBenchmarkEnabled(boolean enabled) {
+        benchmarkButton.setEnabled(enabled);
+    }
+
+    /**
+     * Activa o desactiva el botón de resolver (se desactiva mientras corre una carrera).
+     *
+     * @param enabled {@code true} para activarlo.
+     */
+    public void setSolveEnabled(boolean enabled) {
+        solveButton.setEnabled(enabled);
+    }
+
+    /**
+     * Obtiene el número de búsquedas de calentamiento de la medición.
+     *
+     * @return Las búsquedas de calentamiento.
+     */
+    public int getBenchmarkWarmUp() {
+        return (Integer) warmUpSpinner.getValue();
+    }
+
+    /**
+     * Obtiene el número de búsquedas medidas.
+     *
+     * @return Las repeticiones.
+     */
+    public int getBenchmarkRepetitions() {
+        return (Integer) repetitionsSpinner.getValue();
+    }
+
+    /**
+     * Añade un listener que se ejecuta cuando se activa o desactiva el pincel de
+     * terreno o cambia su coste.
+     *
+     * @param listener El ChangeListener a ejecutar.
+     */
+    public void addTerrainBrushListener(ChangeListener listener) {
+        terrainBrushCheckBox.addChangeListener(listener);
+        terrainCostSpinner.addChangeListener(listener);
+    }
+
+    /**
+     * Obtiene el coste que debe pintar el pincel de terreno.
+     *
+     * @return El coste seleccionado, o 0 si el pincel está desactivado.
+     */
+    public int getTerrainBrushCost() {
+        return terrainBrushCheckBox.isSelected() ? (Integer) terrainCostSpinner.getValue() : 0;
+    }
+
+    /**
+     * Obtiene la velocidad de reproducción seleccionada.
+     *
+     * @return Los frames por segundo.
+     */
+    public int getPlaybackSpeed() {
+        return speedSlider.getValue();
+    }
+
+    /**
+     * Obtiene el número de celdas que se dibujan en cada frame de la reproducción.
+     *
+     * @return Las celdas por frame.
+     */
+    public int getCellsPerFrame() {
+        return (Integer) cellsPerFrameSpinner.getValue();
+    }
+
+    /**
+     * Obtiene la posición seleccionada en el control de posición.
+     *
+     * @return La posición, en eventos de la reproducción.
+     */
+    public int getSeekPosition() {
+        return seekSlider.getValue();
+    }
+
+    /**
+     * Actualiza el control de posición para reflejar el avance de la reproducción.
+     *
+     * @param position La posición actual.
+     * @param total    El número total de eventos.
+     */
+    public void setPlaybackProgress(int position, int total) {
+        updatingSeek = true;
+        try {
+            seekSlider.setMaximum(total);
+            seekSlider.setValue(position);
+        } finally {
+            updatingSeek = false;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package vista;
+
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import java.util.List;
+
+/**
+ * Reproduce sobre un {@link MazePanel} el orden de exploración de un algoritmo
+ * y, a continuación, la ruta final encontrada.
+ *
+ * La reproducción la dirige un {@link Timer} de Swing, por lo que todo el trabajo
+ * ocurre en el Event Dispatch Thread. Para que un recorrido de millones de celdas
+ * no bloquee la interfaz:
+ * <ul>
+ *   <li>Cada frame aplica como mucho {@code celdasPorFrame} celdas a la capa de estado del panel.</li>
+ *   <li>Además, un frame nunca dedica más de {@link #PRESUPUESTO_FRAME_NS} a aplicar celdas.</li>
+ *   <li>Se repinta una sola vez por frame y el panel solo pinta las celdas visibles.</li>
+ *   <li>El recorrido y la ruta se guardan como índices lineales en arreglos {@code int[]}.</li>
+ * </ul>
+ *
+ * Admite pausa y búsqueda ({@link #seek(int)}) a cualquier posición de la secuencia.
+ */
+public final class ExplorationPlayer {
+
+    /** Velocidad máxima de reproducción: el presupuesto por frame está pensado para ~60 fps. */
+    public static final int MAX_FRAMES_POR_SEGUNDO = 60;
+
+    /** Tiempo máximo por frame dedicado a aplicar celdas (8 ms, para mantener ~60 fps). */
+    private static final long PRESUPUESTO_FRAME_NS = 8_000_000L;
+    /** Cada cuántas celdas se consulta el reloj dentro de un frame. */
+    private static final int CELDAS_ENTRE_CONSULTAS_RELOJ = 4096;
+
+    private final MazePanel panel;
+    private final Timer timer;
+    private ChangeListener progressListener;
+
+    private int[] recorrido = new int[0]; // Celdas exploradas, en orden
+    private int[] ruta = new int[0];      // Celdas de la ruta final, en orden
+    private int posicion;                 // Número de eventos ya aplicados
+    private int celdasPorFrame = 1;
+
+    /**
+     * Crea un reproductor asociado a un panel de laberinto.
+     *
+     * @param panel El panel sobre el que se dibuja la reproducción.
+     */
+    public ExplorationPlayer(MazePanel panel) {
+        this.panel = panel;
+        this.timer = new Timer(1000 / 30, e -> avanzarFrame());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Carga un nuevo recorrido y una nueva ruta, detiene cualquier reproducción
+     * en curso y limpia el panel.
+     *
+     * @param visited Las celdas exploradas en orden, como pares [fila, columna].
+     * @param path    La ruta final, como pares [fila, columna]. Puede ser {@code null}.
+     */
+    public void load(List<int[]> visited, List<int[]> path) {
+        timer.stop();
+        int cols = panel.getCols();
+        this.recorrido = aIndices(visited, cols);
+        this.ruta = aIndices(path, cols);
+        this.posicion = 0;
+        panel.clearVisuals();
+        notificarProgreso();
+    }
+
+    /**
+     * Inicia o reanuda la reproducción. Si ya había terminado, vuelve a empezar.
+     */
+    public void play() {
+        if (getTotal() == 0) return;
+        if (posicion >= getTotal()) {
+            seek(0);
+        }
+        timer.start();
+    }
+
+    /** Pausa la reproducción manteniendo la posición actual. */
+    public void pause() {
+        timer.stop();
+    }
+
+    /** Detiene la reproducción y descarta el recorrido cargado. */
+    public void stop() {
+        timer.stop();
+        recorrido = new int[0];
+        ruta = new int[0];
+        posicion = 0;
+        notificarProgreso();
+    }
+
+    /**
+     * Indica si la reproducción está en curso.
+     *
+     * @return {@code true} si el temporizador está activo.
+     */
+    public boolean isPlaying() {
+        return timer.isRunning();
+    }
+
+    /**
+     * Establece la velocidad de reproducción.
+     *
+     * @param framesPerSecond Frames por segundo (se limita al rango 1..{@value #MAX_FRAMES_POR_SEGUNDO}).
+     */
+    public void setFramesPerSecond(int framesPerSecond) {
+        int fps = Math.max(1, Math.min(MAX_FRAMES_POR_SEGUNDO, framesPerSecond));
+        timer.setDelay(1000 / fps);
+    }
+
+    /**
+     * Establece cuántas celdas se aplican, como máximo, en cada frame.
+     *
+     * @param cellsPerFrame Número de celdas por frame (mínimo 1).
+     */
+    public void setCellsPerFrame(int cellsPerFrame) {
+        this.celdasPorFrame = Math.max(1, cellsPerFrame);
+    }
+
+    /**
+     * Salta a una posición de la secuencia. Avanzar solo aplica las celdas
+     * pendientes; retroceder reconstruye la capa de estado desde el inicio.
+     *
+     * @param nuevaPosicion Número de eventos que deben quedar aplicados.
+     */
+    public void seek(int nuevaPosicion) {
+        int destino = Math.max(0, Math.min(getTotal(), nuevaPosicion));
+        if (destino < posicion) {
+            panel.resetOverlay();
+            posicion = 0;
+        }
+        aplicarHasta(destino);
+        panel.repaint();
+        notificarProgreso();
+    }
+
+    /**
+     * Obtiene la posición actual de la reproducción.
+     *
+     * @return El número de eventos ya aplicados.
+     */
+    public int getPosition() {
+        return posicion;
+    }
+
+    /**
+     * Obtiene la longitud total de la secuencia a reproducir.
+     *
+     * @return El número de celdas exploradas más el número de celdas de la ruta.
+     */
+    public int getTotal() {
+        return recorrido.length + ruta.length;
+    }
+
+    /**
+     * Registra el listener que se notifica cada vez que cambia la posición.
+     *
+     * @param listener El listener a notificar.
+     */
+    public void setProgressListener(ChangeListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Ejecutado por el temporizador: aplica un lote de celdas respetando el
+     * presupuesto de tiempo del frame y repinta una única vez.
+     */
+    private void avanzarFrame() {
+        int total = getTotal();
+        int limite = (int) Math.min(total, (long) posicion + celdasPorFrame);
+        long inicioFrame = System.nanoTime();
+        while (posicion < limite) {
+            int siguienteConsulta = Math.min(limite, posicion + CELDAS_ENTRE_CONSULTAS_RELOJ);
+            aplicarHasta(siguienteConsulta);
+            if (System.nanoTime() - inicioFrame > PRESUPUESTO_FRAME_NS) {
+                break; // El resto del lote queda para el siguiente frame
+            }
+        }
+        if (posicion >= total) {
+            timer.stop();
+        }
+        panel.repaint();
+        notificarProgreso();
+    }
+
+    /**
+     * Aplica los eventos desde la posición actual hasta {@code destino} (exclusivo).
+     */
+    private void aplicarHasta(int destino) {
+        int n = recorrido.length;
+        for (; posicion < destino; posicion++) {
+            if (posicion < n) {
+                panel.markCell(recorrido[posicion], MazePanel.VISITADA);
+            } else {
+                panel.markCell(ruta[posicion - n], MazePanel.RUTA);
+            }
+        }
+    }
+
+    private void notificarProgreso() {
+        if (progressListener != null) {
+            progressListener.stateChanged(new ChangeEvent(this));
+        }
+    }
+
+    /**
+     * Convierte una lista de coordenadas [fila, columna] en índices lineales.
+     */
+    private static int[] aIndices(List<int[]> celdas, int cols) {
+        if (celdas == null) return new int[0];
+        int[] indices = new int[celdas.size()];
+        int i = 0;
+        for (int[] celda : celdas) {
+            indices[i++] = celda[0] * cols + celda[1];
+        }
+        return indices;
+    }
+}
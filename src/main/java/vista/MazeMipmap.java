@@ -0,0 +1,186 @@
+package vista;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Pirámide de niveles de detalle (mipmap) del laberinto que usa {@link MazePanel}
+ * cuando el zoom es tan lejano que varias celdas caen en un mismo píxel.
+ *
+ * Cada nivel {@code k >= 1} agrupa bloques de {@code 2^k × 2^k} celdas y guarda,
+ * en un byte por bloque:
+ * <ul>
+ *   <li>La densidad de celdas transitables (0 = todo muro, 255 = todo transitable).</li>
+ *   <li>El estado de visualización máximo del bloque (visitada, ruta o paso).</li>
+ * </ul>
+ * El nivel 0 no se almacena: son directamente la matriz del laberinto y la capa
+ * {@code overlay} del panel. La pirámide completa ocupa aproximadamente un tercio
+ * de byte por celda para cada una de las dos capas.
+ *
+ * Los cambios de una sola celda (un muro o una marca) se propagan hacia arriba
+ * en O(niveles), por lo que no hace falta reconstruir la pirámide al editar.
+ */
+class MazeMipmap {
+    private final int rows;
+    private final int cols;
+    private final int[] levelRows;
+    private final int[] levelCols;
+    private final byte[][] density;  // density[k]: densidad de transitables del nivel k (k >= 1)
+    private final byte[][] overlay;  // overlay[k]: estado máximo de visualización del nivel k (k >= 1)
+
+    /**
+     * Crea la pirámide para un laberinto del tamaño indicado, con todas las
+     * capas vacías. Hay que llamar a {@link #rebuildWalls(int[][])} antes de usarla.
+     *
+     * @param rows Número de filas del laberinto.
+     * @param cols Número de columnas del laberinto.
+     */
+    MazeMipmap(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        int levels = 1;
+        while ((rows >> (levels - 1)) > 1 || (cols >> (levels - 1)) > 1) {
+            levels++;
+        }
+        levelRows = new int[levels];
+        levelCols = new int[levels];
+        density = new byte[levels][];
+        overlay = new byte[levels][];
+        levelRows[0] = rows;
+        levelCols[0] = cols;
+        for (int k = 1; k < levels; k++) {
+            levelRows[k] = (levelRows[k - 1] + 1) / 2;
+            levelCols[k] = (levelCols[k - 1] + 1) / 2;
+            density[k] = new byte[levelRows[k] * levelCols[k]];
+            overlay[k] = new byte[levelRows[k] * levelCols[k]];
+        }
+    }
+
+    /**
+     * Recalcula la capa de densidad completa a partir de la matriz del laberinto.
+     * Cada nivel se calcula en paralelo por filas a partir del anterior.
+     *
+     * @param mazeData La matriz del laberinto (1 = transitable, 0 = muro).
+     */
+    void rebuildWalls(int[][] mazeData) {
+        if (levelCount() < 2) return;
+        byte[] first = density[1];
+        int firstCols = levelCols[1];
+        IntStream.range(0, levelRows[1]).parallel().forEach(r -> {
+            for (int c = 0; c < firstCols; c++) {
+                first[r * firstCols + c] = (byte) densityFromCells(mazeData, r, c);
+            }
+        });
+        for (int k = 2; k < levelCount(); k++) {
+            final int level = k;
+            IntStream.range(0, levelRows[k]).parallel().forEach(r -> {
+                for (int c = 0; c < levelCols[level]; c++) {
+                    density[level][r * levelCols[level] + c] = (byte) averageOfChildren(density, level, r, c);
+                }
+            });
+        }
+    }
+
+    /**
+     * Propaga a los niveles superiores el cambio de una celda del laberinto.
+     *
+     * @param mazeData La matriz del laberinto, ya modificada.
+     * @param row      Fila de la celda cambiada.
+     * @param col      Columna de la celda cambiada.
+     */
+    void updateCell(int[][] mazeData, int row, int col) {
+        if (levelCount() < 2) return;
+        int r = row >> 1;
+        int c = col >> 1;
+        density[1][r * levelCols[1] + c] = (byte) densityFromCells(mazeData, r, c);
+        for (int k = 2; k < levelCount(); k++) {
+            r >>= 1;
+            c >>= 1;
+            density[k][r * levelCols[k] + c] = (byte) averageOfChildren(density, k, r, c);
+        }
+    }
+
+    /**
+     * Eleva el estado de visualización de los bloques que contienen la celda.
+     * Como los estados solo crecen hasta que se limpia la capa, la propagación
+     * se detiene en cuanto un ancestro ya tiene un estado igual o mayor.
+     *
+     * @param row   Fila de la celda marcada.
+     * @param col   Columna de la celda marcada.
+     * @param state El nuevo estado de la celda.
+     */
+    void markCell(int row, int col, byte state) {
+        int r = row;
+        int c = col;
+        for (int k = 1; k < levelCount(); k++) {
+            r >>= 1;
+            c >>= 1;
+            int idx = r * levelCols[k] + c;
+            if (overlay[k][idx] >= state) return;
+            overlay[k][idx] = state;
+        }
+    }
+
+    /** Borra la capa de visualización de todos los niveles. */
+    void clearOverlay() {
+        for (int k = 1; k < levelCount(); k++) {
+            Arrays.fill(overlay[k], MazePanel.SIN_MARCA);
+        }
+    }
+
+    /**
+     * Devuelve el número de niveles, incluido el nivel 0.
+     *
+     * @return El número de niveles de la pirámide.
+     */
+    int levelCount() {
+        return levelRows.length;
+    }
+
+    int levelRows(int level) { return levelRows[level]; }
+    int levelCols(int level) { return levelCols[level]; }
+    byte[] density(int level) { return density[level]; }
+    byte[] overlay(int level) { return overlay[level]; }
+
+    /**
+     * Densidad (0..255) del bloque 2×2 de celdas del nivel 0 cuya esquina es (2r, 2c).
+     * Las celdas fuera del laberinto no cuentan.
+     */
+    private int densityFromCells(int[][] mazeData, int r, int c) {
+        int open = 0;
+        int total = 0;
+        for (int dr = 0; dr < 2; dr++) {
+            int row = 2 * r + dr;
+            if (row >= rows) break;
+            for (int dc = 0; dc < 2; dc++) {
+                int col = 2 * c + dc;
+                if (col >= cols) break;
+                open += mazeData[row][col];
+                total++;
+            }
+        }
+        return open * 255 / total;
+    }
+
+    /**
+     * Media de las densidades de los (hasta) cuatro hijos de un bloque del nivel {@code k}.
+     */
+    private int averageOfChildren(byte[][] layer, int k, int r, int c) {
+        byte[] children = layer[k - 1];
+        int childRows = levelRows[k - 1];
+        int childCols = levelCols[k - 1];
+        int sum = 0;
+        int total = 0;
+        for (int dr = 0; dr < 2; dr++) {
+            int row = 2 * r + dr;
+            if (row >= childRows) break;
+            for (int dc = 0; dc < 2; dc++) {
+                int col = 2 * c + dc;
+                if (col >= childCols) break;
+                sum += children[row * childCols + col] & 0xFF;
+                total++;
+            }
+        }
+        return sum / total;
+    }
+}
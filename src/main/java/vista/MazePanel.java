@@ -1,10 +1,18 @@
 package vista;
 
+import modelo.CostesTerreno;
+import modelo.EventosBusqueda;
+import modelo.ObservadorLaberinto;
+import modelo.RutaCompacta;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -19,35 +27,77 @@ import java.util.List;
  *   <li>Colocación y eliminación de muros (clic izquierdo).</li>
  *   <li>Visualización de rutas de solución y nodos visitados.</li>
  *   <li>Animación paso a paso de la solución.</li>
+ *   <li>Reproducción de la exploración mediante {@link ExplorationPlayer}.</li>
+ *   <li>Zoom con Ctrl + rueda del ratón y ajuste a la ventana.</li>
+ *   <li>Pintado de costes de terreno con el pincel activo (clic izquierdo y arrastre).</li>
  * </ul>
  *
- * @version 1.2 - Añadida lógica para visualización completa y paso a paso manual.
+ * Los nodos visitados, la ruta y los pasos animados se guardan en una capa
+ * {@code overlay} de un byte por celda, de modo que el coste de pintar depende
+ * solo de las celdas visibles y no del tamaño de la ruta o del recorrido.
+ * Con zoom lejano (menos de {@link #LOD_THRESHOLD} píxeles por celda) se pinta a
+ * partir de una pirámide de niveles de detalle ({@link MazeMipmap}) que agrega
+ * varias celdas en cada píxel.
+ *
+ * Los costes de terreno se guardan en una {@link CostesTerreno} aparte de la
+ * matriz de muros; las celdas con coste mayor que 1 se pintan en tonos marrones
+ * más oscuros cuanto más cuestan.
+ *
+ * @version 1.5 - Costes de terreno.
  */
 public class MazePanel extends JPanel {
+    // --- Estados posibles de una celda en la capa de visualización ---
+    static final byte SIN_MARCA = 0;
+    static final byte VISITADA = 1;
+    static final byte RUTA = 2;
+    static final byte PASO = 3;
+
+    private static final Color COLOR_VISITADA = new Color(220, 220, 220); // Un gris más claro
+    private static final Color COLOR_RUTA = new Color(66, 135, 245);      // Un azul claro
+    private static final Color COLOR_PASO = new Color(255, 165, 0);       // Naranja para el paso a paso
+    private static final Color[] TERRAIN_COLORS = createTerrainPalette();
+
     private int rows;
     private int cols;
     private int[][] mazeData;
     private Point startPoint;
     private Point endPoint;
+    private CostesTerreno terrainCosts;
+    private int terrainBrush; // Coste que pinta el clic izquierdo; 0 = el clic pone y quita muros
 
     // --- Atributos para la visualización ---
-    private List<int[]> visitedNodes; // Nodos visitados (gris)
-    private List<int[]> finalPath;    // Camino final (azul)
+    private byte[] overlay; // Estado visual de cada celda, indexado como fila * cols + columna
 
-    // --- NUEVO: Atributos para la animación paso a paso ---
-    private List<int[]> stepByStepPathToAnimate; // La ruta completa a animar
+    // --- Atributos para la animación paso a paso ---
+    private RutaCompacta stepByStepPathToAnimate; // La ruta completa a animar (inmutable, no se copia)
     private int stepByStepCurrentIndex;      // El índice del paso actual
+    private int stepByStepRow;               // Celda del paso actual, para avanzar sin decodificar desde el inicio
+    private int stepByStepCol;
 
-    private final int CELL_SIZE = 25;
+    // --- Zoom y nivel de detalle ---
+    private static final double DEFAULT_CELL_SIZE = 25;
+    private static final double MIN_CELL_SIZE = 1.0 / 1024;
+    private static final double MAX_CELL_SIZE = 64;
+    private static final double ZOOM_FACTOR = 1.25;
+    /** Por debajo de este tamaño (en píxeles) las celdas se pintan desde la pirámide de detalle. */
+    private static final double LOD_THRESHOLD = 4;
+
+    private double cellSize = DEFAULT_CELL_SIZE; // Píxeles por celda con el zoom actual
+    private MazeMipmap mipmap;
+    private BufferedImage lodImage; // Búfer reutilizado para el pintado con nivel de detalle
+
+    // --- Observadores de los cambios en el laberinto ---
+    private final List<ObservadorLaberinto> mazeObservers = new ArrayList<>();
 
     public MazePanel(int rows, int cols) {
         this.rows = rows;
         this.cols = cols;
         this.mazeData = new int[rows][cols];
-        this.visitedNodes = new ArrayList<>();
-        this.finalPath = new ArrayList<>();
+        this.terrainCosts = new CostesTerreno(rows, cols);
+        this.overlay = new byte[rows * cols];
+        this.mipmap = new MazeMipmap(rows, cols);
         clearMaze();
-        setPreferredSize(new Dimension(cols * CELL_SIZE, rows * CELL_SIZE));
+        setPreferredSize(getZoomedSize());
         addMouseListeners();
     }
 
@@ -55,8 +105,8 @@ public class MazePanel extends JPanel {
         addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
-                int col = e.getX() / CELL_SIZE;
-                int row = e.getY() / CELL_SIZE;
+                int col = (int) (e.getX() / cellSize);
+                int row = (int) (e.getY() / cellSize);
                 if (row >= rows || col >= cols) return;
                 // Solo permitir inicio/fin en celdas transitables
                 if (e.isShiftDown() && SwingUtilities.isLeftMouseButton(e)) {
@@ -71,69 +121,224 @@ public class MazePanel extends JPanel {
                     } else {
                         JOptionPane.showMessageDialog(MazePanel.this, "El punto de inicio debe estar en una celda transitable.", "Error", JOptionPane.ERROR_MESSAGE);
                     }
+                } else if (SwingUtilities.isLeftMouseButton(e) && terrainBrush > 0) {
+                    paintTerrain(row, col);
                 } else if (SwingUtilities.isLeftMouseButton(e)) {
                     mazeData[row][col] = (mazeData[row][col] == 1) ? 0 : 1;
+                    mipmap.updateCell(mazeData, row, col);
+                    for (ObservadorLaberinto observer : mazeObservers) {
+                        observer.celdaCambiada(row, col, mazeData[row][col]);
+                    }
                 }
                 repaint();
             }
         });
+
+        // Con el pincel de terreno activo, arrastrar pinta todas las celdas por las que pasa
+        addMouseMotionListener(new MouseAdapter() {
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (terrainBrush <= 0 || !SwingUtilities.isLeftMouseButton(e) || e.isShiftDown()) return;
+                int col = (int) (e.getX() / cellSize);
+                int row = (int) (e.getY() / cellSize);
+                if (row < 0 || col < 0 || row >= rows || col >= cols) return;
+                paintTerrain(row, col);
+                int x = toPixel(col);
+                int y = toPixel(row);
+                repaint(x, y, toPixel(col + 1) - x, toPixel(row + 1) - y);
+            }
+        });
+
+        // Ctrl + rueda: zoom centrado en el cursor. Sin Ctrl, la rueda se reenvía
+        // al JScrollPane para que siga desplazando la vista.
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                double factor = Math.pow(ZOOM_FACTOR, -e.getPreciseWheelRotation());
+                zoomAt(cellSize * factor, e.getPoint());
+            } else if (getParent() != null) {
+                getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+            }
+        });
     }
 
     @Override
     protected void paintComponent(Graphics g) {
+        EventosBusqueda.Pintado evento = new EventosBusqueda.Pintado();
+        evento.begin();
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
 
-        // 1. Dibuja las celdas base (muros y caminos)
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                g2d.setColor(mazeData[row][col] == 0 ? Color.BLACK : Color.WHITE);
-                g2d.fillRect(col * CELL_SIZE, row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-            }
+        // Solo se recorren las celdas que intersectan el área a repintar; dentro de
+        // un JScrollPane esto es el viewport, así que el coste no crece con el laberinto.
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            Dimension size = getZoomedSize();
+            clip = new Rectangle(0, 0, size.width, size.height);
         }
 
-        // 2. Dibuja los nodos visitados (en gris claro)
-        g2d.setColor(new Color(220, 220, 220)); // Un gris más claro
-        for (int[] node : visitedNodes) {
-            g2d.fillRect(node[1] * CELL_SIZE, node[0] * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        if (cellSize < LOD_THRESHOLD) {
+            paintLevelOfDetail(g2d, clip);
+        } else {
+            paintCells(g2d, clip);
         }
 
-        // 3. Dibuja el camino final completo (si está activo)
-        g2d.setColor(new Color(66, 135, 245)); // Un azul claro
-        for (int[] step : finalPath) {
-            g2d.fillRect(step[1] * CELL_SIZE, step[0] * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        // Dibuja los puntos de inicio y fin encima de todo
+        paintEndpoint(g2d, startPoint, Color.GREEN, Color.BLACK, "A");
+        paintEndpoint(g2d, endPoint, Color.RED, Color.WHITE, "B");
+
+        // Celdas de la región repintada, para la grabación de Flight Recorder
+        long visibleRows = Math.min(rows, (long) Math.ceil(clip.height / cellSize) + 1);
+        long visibleCols = Math.min(cols, (long) Math.ceil(clip.width / cellSize) + 1);
+        evento.terminar(rows, cols, visibleRows * visibleCols);
+    }
+
+    /**
+     * Pinta celda a celda la región visible. Se usa cuando cada celda ocupa
+     * varios píxeles.
+     */
+    private void paintCells(Graphics2D g2d, Rectangle clip) {
+        int firstRow = Math.max(0, (int) (clip.y / cellSize));
+        int lastRow = Math.min(rows - 1, (int) ((clip.y + clip.height) / cellSize));
+        int firstCol = Math.max(0, (int) (clip.x / cellSize));
+        int lastCol = Math.min(cols - 1, (int) ((clip.x + clip.width) / cellSize));
+
+        // 1. Dibuja las celdas base (muros y caminos) y su estado de visualización
+        //    (visitada en gris, ruta en azul, paso a paso en naranja)
+        for (int row = firstRow; row <= lastRow; row++) {
+            int base = row * cols;
+            int y = toPixel(row);
+            int h = toPixel(row + 1) - y;
+            for (int col = firstCol; col <= lastCol; col++) {
+                int x = toPixel(col);
+                g2d.setColor(colorForCell(mazeData[row][col], overlay[base + col], terrainCosts.getCoste(row, col)));
+                g2d.fillRect(x, y, toPixel(col + 1) - x, h);
+            }
         }
 
-        // 4. Dibuja la animación paso a paso (si está activa)
-        if (stepByStepPathToAnimate != null && !stepByStepPathToAnimate.isEmpty()) {
-            g2d.setColor(new Color(255, 165, 0)); // Naranja para destacar el paso a paso
-            // Dibuja solo los pasos hasta el índice actual
-            for (int i = 0; i <= stepByStepCurrentIndex && i < stepByStepPathToAnimate.size(); i++) {
-                int[] step = stepByStepPathToAnimate.get(i);
-                g2d.fillRect(step[1] * CELL_SIZE, step[0] * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        // 2. Dibuja la cuadrícula (solo si las celdas son suficientemente grandes)
+        if (cellSize >= 2 * LOD_THRESHOLD) {
+            g2d.setColor(Color.GRAY);
+            for (int row = firstRow; row <= lastRow + 1; row++) {
+                g2d.drawLine(toPixel(firstCol), toPixel(row), toPixel(lastCol + 1), toPixel(row));
             }
+            for (int col = firstCol; col <= lastCol + 1; col++) {
+                g2d.drawLine(toPixel(col), toPixel(firstRow), toPixel(col), toPixel(lastRow + 1));
+            }
+        }
+    }
+
+    /**
+     * Pinta la región visible agregando varias celdas por píxel. Se elige el
+     * nivel de la pirámide cuyos bloques ocupan como mucho un píxel, se vuelca
+     * en un búfer de tamaño proporcional al área visible y se escala al destino.
+     * El coste depende del tamaño de la ventana, no del laberinto.
+     */
+    private void paintLevelOfDetail(Graphics2D g2d, Rectangle clip) {
+        int level = 0;
+        while (level + 1 < mipmap.levelCount() && (1 << (level + 1)) * cellSize <= 1.0) {
+            level++;
         }
+        int block = 1 << level;
+        double blockSize = block * cellSize; // Píxeles por bloque del nivel elegido
+        int levelRows = mipmap.levelRows(level);
+        int levelCols = mipmap.levelCols(level);
 
-        // 5. Dibuja la cuadrícula
-        g2d.setColor(Color.GRAY);
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                g2d.drawRect(col * CELL_SIZE, row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        int firstRow = Math.max(0, (int) (clip.y / blockSize));
+        int lastRow = Math.min(levelRows - 1, (int) ((clip.y + clip.height) / blockSize));
+        int firstCol = Math.max(0, (int) (clip.x / blockSize));
+        int lastCol = Math.min(levelCols - 1, (int) ((clip.x + clip.width) / blockSize));
+        if (firstRow > lastRow || firstCol > lastCol) return;
+        int width = lastCol - firstCol + 1;
+        int height = lastRow - firstRow + 1;
+
+        if (lodImage == null || lodImage.getWidth() < width || lodImage.getHeight() < height) {
+            lodImage = new BufferedImage(Math.max(width, 64), Math.max(height, 64), BufferedImage.TYPE_INT_RGB);
+        }
+        int stride = lodImage.getWidth();
+        int[] pixels = ((DataBufferInt) lodImage.getRaster().getDataBuffer()).getData();
+        byte[] density = level == 0 ? null : mipmap.density(level);
+        byte[] states = level == 0 ? overlay : mipmap.overlay(level);
+
+        for (int r = 0; r < height; r++) {
+            int row = firstRow + r;
+            int src = row * levelCols + firstCol;
+            int dst = r * stride;
+            for (int c = 0; c < width; c++) {
+                byte state = states[src + c];
+                if (state != SIN_MARCA) {
+                    pixels[dst + c] = colorForCell(1, state, CostesTerreno.COSTE_MINIMO).getRGB();
+                } else {
+                    int gray = density == null ? mazeData[row][firstCol + c] * 255 : density[src + c] & 0xFF;
+                    pixels[dst + c] = (gray << 16) | (gray << 8) | gray;
+                }
             }
         }
 
-        // 6. Dibuja los puntos de inicio y fin encima de todo
-        if (startPoint != null) {
-            g2d.setColor(Color.GREEN);
-            g2d.fillRect(startPoint.x * CELL_SIZE, startPoint.y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-            g2d.setColor(Color.BLACK);
-            g2d.drawString("A", startPoint.x * CELL_SIZE + 8, startPoint.y * CELL_SIZE + 18);
+        int dx1 = (int) Math.round(firstCol * blockSize);
+        int dy1 = (int) Math.round(firstRow * blockSize);
+        int dx2 = (int) Math.round(Math.min((lastCol + 1) * blockSize, cols * cellSize));
+        int dy2 = (int) Math.round(Math.min((lastRow + 1) * blockSize, rows * cellSize));
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(lodImage, dx1, dy1, Math.max(dx2, dx1 + 1), Math.max(dy2, dy1 + 1),
+                0, 0, width, height, null);
+    }
+
+    /**
+     * Pinta el punto de inicio o fin. Con zoom lejano se dibuja con un tamaño
+     * mínimo para que siga siendo visible.
+     */
+    private void paintEndpoint(Graphics2D g2d, Point p, Color fill, Color text, String label) {
+        if (p == null) return;
+        int x = toPixel(p.x);
+        int y = toPixel(p.y);
+        int size = Math.max(4, toPixel(p.x + 1) - x);
+        g2d.setColor(fill);
+        g2d.fillRect(x, y, size, size);
+        if (cellSize >= 16) {
+            g2d.setColor(text);
+            g2d.drawString(label, x + (int) (cellSize * 0.32), y + (int) (cellSize * 0.72));
         }
-        if (endPoint != null) {
-            g2d.setColor(Color.RED);
-            g2d.fillRect(endPoint.x * CELL_SIZE, endPoint.y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-            g2d.setColor(Color.WHITE);
-            g2d.drawString("B", endPoint.x * CELL_SIZE + 8, endPoint.y * CELL_SIZE + 18);
+    }
+
+    /** Convierte una coordenada de celda en una coordenada en píxeles con el zoom actual. */
+    private int toPixel(int cell) {
+        return (int) Math.round(cell * cellSize);
+    }
+
+    /**
+     * Devuelve el color con el que se pinta una celda según su valor en el
+     * laberinto y su estado en la capa de visualización.
+     */
+    private Color colorForCell(int value, byte state, int cost) {
+        switch (state) {
+            case VISITADA: return COLOR_VISITADA;
+            case RUTA: return COLOR_RUTA;
+            case PASO: return COLOR_PASO;
+            default: return value == 0 ? Color.BLACK : TERRAIN_COLORS[cost];
+        }
+    }
+
+    /**
+     * Crea la paleta de colores del terreno: blanco para coste 1 y tonos marrones
+     * cada vez más oscuros hasta el coste máximo.
+     */
+    private static Color[] createTerrainPalette() {
+        Color[] palette = new Color[CostesTerreno.COSTE_MAXIMO + 1];
+        palette[0] = Color.WHITE;
+        palette[CostesTerreno.COSTE_MINIMO] = Color.WHITE;
+        for (int cost = CostesTerreno.COSTE_MINIMO + 1; cost <= CostesTerreno.COSTE_MAXIMO; cost++) {
+            double t = (double) cost / CostesTerreno.COSTE_MAXIMO;
+            palette[cost] = new Color((int) (235 - 135 * t), (int) (210 - 150 * t), (int) (160 - 130 * t));
+        }
+        return palette;
+    }
+
+    /**
+     * Aplica el coste del pincel a una celda transitable. Los muros no tienen coste.
+     */
+    private void paintTerrain(int row, int col) {
+        if (mazeData[row][col] == 1) {
+            terrainCosts.setCoste(row, col, terrainBrush);
         }
     }
 
@@ -143,6 +348,9 @@ public class MazePanel extends JPanel {
                 mazeData[i][j] = 1;
             }
         }
+        terrainCosts = new CostesTerreno(rows, cols);
+        mipmap.rebuildWalls(mazeData);
+        notifyMazeReplaced();
         startPoint = null;
         endPoint = null;
         clearVisuals();
@@ -150,9 +358,9 @@ public class MazePanel extends JPanel {
     }
 
     public void clearVisuals() {
-        visitedNodes.clear();
-        finalPath.clear();
-        // --- NUEVO: Limpiar estado de paso a paso ---
+        Arrays.fill(overlay, SIN_MARCA);
+        mipmap.clearOverlay();
+        // Limpiar estado de paso a paso
         stepByStepPathToAnimate = null;
         stepByStepCurrentIndex = -1;
         repaint();
@@ -165,10 +373,15 @@ public class MazePanel extends JPanel {
      * Usado por el botón "¡Resolver!".
      */
     public void drawSimplePath(List<int[]> path) {
+        drawSimplePath(path == null ? null : RutaCompacta.desde(path));
+    }
+
+    /**
+     * Dibuja instantáneamente solo la ruta, en forma compacta.
+     */
+    public void drawSimplePath(RutaCompacta path) {
         clearVisuals();
-        if (path != null) {
-            this.finalPath = new ArrayList<>(path);
-        }
+        markRoute(path);
         repaint();
     }
 
@@ -177,13 +390,16 @@ public class MazePanel extends JPanel {
      * Usado por el botón "Mostrar Camino Completo".
      */
     public void drawFullPath(List<int[]> visited, List<int[]> path) {
+        drawFullPath(visited, path == null ? null : RutaCompacta.desde(path));
+    }
+
+    /**
+     * Dibuja los nodos visitados y la ruta final en forma compacta.
+     */
+    public void drawFullPath(List<int[]> visited, RutaCompacta path) {
         clearVisuals();
-        if (visited != null) {
-            this.visitedNodes = new ArrayList<>(visited);
-        }
-        if (path != null) {
-            this.finalPath = new ArrayList<>(path);
-        }
+        markCells(visited, VISITADA);
+        markRoute(path);
         repaint();
     }
 
@@ -192,9 +408,17 @@ public class MazePanel extends JPanel {
      * Guarda la ruta y reinicia el contador.
      */
     public void prepareForStepByStep(List<int[]> path) {
+        prepareForStepByStep(path == null ? null : RutaCompacta.desde(path));
+    }
+
+    /**
+     * Prepara la animación paso a paso de una ruta compacta. La ruta es
+     * inmutable, así que se guarda sin copiarla.
+     */
+    public void prepareForStepByStep(RutaCompacta path) {
         clearVisuals(); // Limpia cualquier dibujo anterior
         if (path != null && !path.isEmpty()) {
-            this.stepByStepPathToAnimate = new ArrayList<>(path);
+            this.stepByStepPathToAnimate = path;
             this.stepByStepCurrentIndex = -1; // Empezamos antes del primer paso
         }
     }
@@ -206,24 +430,119 @@ public class MazePanel extends JPanel {
     public void nextStep() {
         if (stepByStepPathToAnimate != null && stepByStepCurrentIndex < stepByStepPathToAnimate.size() - 1) {
             stepByStepCurrentIndex++;
+            if (stepByStepCurrentIndex == 0) {
+                int[] start = stepByStepPathToAnimate.getInicio();
+                stepByStepRow = start[0];
+                stepByStepCol = start[1];
+            } else {
+                // Se avanza con la dirección del movimiento en lugar de decodificar la celda desde el inicio
+                switch (stepByStepPathToAnimate.getDireccion(stepByStepCurrentIndex - 1)) {
+                    case RutaCompacta.ARRIBA:
+                        stepByStepRow--;
+                        break;
+                    case RutaCompacta.ABAJO:
+                        stepByStepRow++;
+                        break;
+                    case RutaCompacta.IZQUIERDA:
+                        stepByStepCol--;
+                        break;
+                    default:
+                        stepByStepCol++;
+                }
+            }
+            setState(stepByStepRow, stepByStepCol, PASO);
             repaint();
         }
     }
 
-    // --- Getters y Setters (sin cambios) ---
+    // --- MÉTODOS PARA LA REPRODUCCIÓN DE LA EXPLORACIÓN ---
+
+    /**
+     * Marca una celda de la capa de visualización sin repintar. Lo usa
+     * {@link ExplorationPlayer} para aplicar lotes de celdas y repintar una sola
+     * vez por frame. Una celda de la ruta no se degrada a visitada.
+     *
+     * @param cellIndex Índice lineal de la celda ({@code fila * columnas + columna}).
+     * @param state     Nuevo estado ({@link #VISITADA} o {@link #RUTA}).
+     */
+    void markCell(int cellIndex, byte state) {
+        setState(cellIndex / cols, cellIndex % cols, state);
+    }
+
+    /**
+     * Borra la capa de visualización sin repintar, para que la reproducción
+     * pueda reconstruirla desde el principio al retroceder.
+     */
+    void resetOverlay() {
+        Arrays.fill(overlay, SIN_MARCA);
+        mipmap.clearOverlay();
+        stepByStepPathToAnimate = null;
+        stepByStepCurrentIndex = -1;
+    }
+
+    private void markCells(List<int[]> cells, byte state) {
+        if (cells == null) return;
+        for (int[] cell : cells) {
+            setState(cell[0], cell[1], state);
+        }
+    }
+
+    private void markRoute(RutaCompacta route) {
+        if (route == null) return;
+        route.paraCada((row, col) -> setState(row, col, RUTA));
+    }
+
+    /**
+     * Eleva el estado de una celda en la capa de visualización y en la pirámide
+     * de detalle. Los estados tienen prioridad creciente (visitada &lt; ruta &lt; paso),
+     * así que una celda nunca se degrada hasta que se limpia la capa.
+     */
+    private void setState(int row, int col, byte state) {
+        int idx = row * cols + col;
+        if (overlay[idx] >= state) return;
+        overlay[idx] = state;
+        mipmap.markCell(row, col, state);
+    }
+
+    // --- Getters y Setters ---
     public void setMazeData(int[][] mazeData) {
         if (mazeData == null || mazeData.length == 0) return;
         this.rows = mazeData.length;
         this.cols = mazeData[0].length;
         this.mazeData = mazeData;
+        this.terrainCosts = new CostesTerreno(rows, cols);
+        if (overlay.length != rows * cols) {
+            this.overlay = new byte[rows * cols];
+        } else {
+            Arrays.fill(overlay, SIN_MARCA);
+        }
+        this.mipmap = new MazeMipmap(rows, cols);
+        mipmap.rebuildWalls(mazeData);
+        notifyMazeReplaced();
+        stepByStepPathToAnimate = null;
+        stepByStepCurrentIndex = -1;
         updatePreferredSize();
         repaint();
     }
 
+    /**
+     * Registra un observador que será notificado de cada cambio en el laberinto:
+     * muros editados con el ratón, limpieza y reemplazo de la matriz.
+     *
+     * @param observer El observador a registrar.
+     */
+    public void addMazeObserver(ObservadorLaberinto observer) {
+        mazeObservers.add(observer);
+    }
+
+    private void notifyMazeReplaced() {
+        for (ObservadorLaberinto observer : mazeObservers) {
+            observer.laberintoReemplazado(mazeData);
+        }
+    }
+
     private void updatePreferredSize() {
-        int width = cols * CELL_SIZE;
-        int height = rows * CELL_SIZE;
-        setPreferredSize(new Dimension(width, height));
+        setPreferredSize(getZoomedSize());
         revalidate(); // Fuerza el recálculo del layout
         Container parent = getParent();
         if (parent != null) {
@@ -235,7 +554,104 @@ public class MazePanel extends JPanel {
         }
     }
 
+    // --- Zoom ---
+
+    /** Acerca la vista un paso, manteniendo centrada la zona visible. */
+    public void zoomIn() {
+        zoomAt(cellSize * ZOOM_FACTOR, null);
+    }
+
+    /** Aleja la vista un paso, manteniendo centrada la zona visible. */
+    public void zoomOut() {
+        zoomAt(cellSize / ZOOM_FACTOR, null);
+    }
+
+    /** Vuelve al tamaño de celda original. */
+    public void resetZoom() {
+        zoomAt(DEFAULT_CELL_SIZE, null);
+    }
+
+    /**
+     * Ajusta el zoom para que el laberinto completo quepa en el área visible
+     * del JScrollPane que contiene al panel.
+     */
+    public void zoomToFit() {
+        Dimension extent = getParent() instanceof JViewport
+                ? ((JViewport) getParent()).getExtentSize()
+                : getSize();
+        if (extent.width <= 0 || extent.height <= 0) return;
+        zoomAt(Math.min((double) extent.width / cols, (double) extent.height / rows), null);
+    }
+
+    /**
+     * Obtiene el tamaño actual de una celda en píxeles.
+     *
+     * @return Los píxeles por celda (puede ser menor que 1 con zoom lejano).
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Cambia el tamaño de celda conservando bajo {@code anchor} (o bajo el centro
+     * de la vista si es {@code null}) el mismo punto del laberinto.
+     */
+    private void zoomAt(double newCellSize, Point anchor) {
+        newCellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, newCellSize));
+        if (newCellSize == cellSize) return;
+        JViewport viewport = getParent() instanceof JViewport ? (JViewport) getParent() : null;
+        Point viewPos = viewport != null ? viewport.getViewPosition() : new Point();
+        if (anchor == null) {
+            Dimension extent = viewport != null ? viewport.getExtentSize() : getSize();
+            anchor = new Point(viewPos.x + extent.width / 2, viewPos.y + extent.height / 2);
+        }
+        double scale = newCellSize / cellSize;
+        cellSize = newCellSize;
+
+        Dimension size = getZoomedSize();
+        setPreferredSize(size);
+        setSize(size);
+        if (viewport != null) {
+            Dimension extent = viewport.getExtentSize();
+            int x = (int) Math.round(anchor.x * scale) - (anchor.x - viewPos.x);
+            int y = (int) Math.round(anchor.y * scale) - (anchor.y - viewPos.y);
+            x = Math.max(0, Math.min(x, size.width - extent.width));
+            y = Math.max(0, Math.min(y, size.height - extent.height));
+            viewport.setViewPosition(new Point(x, y));
+        }
+        revalidate();
+        repaint();
+    }
+
+    private Dimension getZoomedSize() {
+        return new Dimension(Math.max(1, (int) Math.ceil(cols * cellSize)),
+                Math.max(1, (int) Math.ceil(rows * cellSize)));
+    }
+
     public int[][] getMazeData() { return mazeData; }
     public Point getStartPoint() { return startPoint; }
     public Point getEndPoint() { return endPoint; }
-}
\ No newline at end of file
+    public void setStartPoint(Point startPoint) { this.startPoint = startPoint; repaint(); }
+    public void setEndPoint(Point endPoint) { this.endPoint = endPoint; repaint(); }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    /**
+     * Obtiene la capa de costes de terreno del laberinto actual. Se reemplaza por
+     * una capa de coste unitario cada vez que se limpia o reemplaza el laberinto.
+     *
+     * @return La capa de costes.
+     */
+    public CostesTerreno getTerrainCosts() { return terrainCosts; }
+
+    /**
+     * Activa o desactiva el pincel de terreno. Con el pincel activo, el clic
+     * izquierdo (y el arrastre) asigna su coste a las celdas transitables en lugar
+     * de poner y quitar muros.
+     *
+     * @param cost El coste a pintar (1 a {@link CostesTerreno#COSTE_MAXIMO}), o 0 para desactivarlo.
+     */
+    public void setTerrainBrush(int cost) {
+        this.terrainBrush = Math.max(0, Math.min(CostesTerreno.COSTE_MAXIMO, cost));
+    }
+}
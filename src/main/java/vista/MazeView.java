@@ -1,9 +1,15 @@
 // /src/main/java/vista/MazeView.java
 package vista;
 
+import modelo.ArchivoLaberinto;
+
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
 import java.util.List;
 
 /**
@@ -26,6 +32,9 @@ public class MazeView extends JFrame {
     private ControlPanel controlPanel;
 
     // --- Atributos para los items del menú ---
+    private JMenuItem openMazeMenuItem;
+    private JMenuItem saveMazeMenuItem;
+    private JMenuItem importImageMenuItem;
     private JMenuItem listResultsMenuItem;
     private JMenuItem showTimesChartMenuItem;
 
@@ -68,6 +77,21 @@ public class MazeView extends JFrame {
     private void createMenuBar() {
         JMenuBar menuBar = new JMenuBar();
 
+        JMenu fileMenu = new JMenu("Archivo");
+        menuBar.add(fileMenu);
+
+        openMazeMenuItem = new JMenuItem("Abrir Laberinto...");
+        openMazeMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, InputEvent.CTRL_DOWN_MASK));
+        saveMazeMenuItem = new JMenuItem("Guardar Laberinto...");
+        saveMazeMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, InputEvent.CTRL_DOWN_MASK));
+
+        importImageMenuItem = new JMenuItem("Importar Imagen...");
+
+        fileMenu.add(openMazeMenuItem);
+        fileMenu.add(saveMazeMenuItem);
+        fileMenu.addSeparator();
+        fileMenu.add(importImageMenuItem);
+
         JMenu reportsMenu = new JMenu("Reportes");
         menuBar.add(reportsMenu);
 
@@ -77,6 +101,27 @@ public class MazeView extends JFrame {
         reportsMenu.add(listResultsMenuItem);
         reportsMenu.add(showTimesChartMenuItem);
 
+        // El zoom es un cambio puramente visual, así que se resuelve aquí sin pasar por el Controlador
+        JMenu viewMenu = new JMenu("Ver");
+        menuBar.add(viewMenu);
+
+        JMenuItem zoomInMenuItem = new JMenuItem("Acercar");
+        zoomInMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_PLUS, InputEvent.CTRL_DOWN_MASK));
+        zoomInMenuItem.addActionListener(e -> mazePanel.zoomIn());
+        JMenuItem zoomOutMenuItem = new JMenuItem("Alejar");
+        zoomOutMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, InputEvent.CTRL_DOWN_MASK));
+        zoomOutMenuItem.addActionListener(e -> mazePanel.zoomOut());
+        JMenuItem fitMenuItem = new JMenuItem("Ajustar a la Ventana");
+        fitMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_0, InputEvent.CTRL_DOWN_MASK));
+        fitMenuItem.addActionListener(e -> mazePanel.zoomToFit());
+        JMenuItem resetZoomMenuItem = new JMenuItem("Tamaño Original");
+        resetZoomMenuItem.addActionListener(e -> mazePanel.resetZoom());
+
+        viewMenu.add(zoomInMenuItem);
+        viewMenu.add(zoomOutMenuItem);
+        viewMenu.add(fitMenuItem);
+        viewMenu.add(resetZoomMenuItem);
+
         setJMenuBar(menuBar);
     }
 
@@ -101,8 +146,94 @@ public class MazeView extends JFrame {
         chartDialog.setVisible(true);
     }
 
+    /**
+     * Muestra un diálogo para elegir un archivo de laberinto a abrir.
+     * @return El archivo elegido, o {@code null} si el usuario cancela.
+     */
+    public File chooseMazeFileToOpen() {
+        JFileChooser chooser = createMazeFileChooser();
+        return chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile() : null;
+    }
+
+    /**
+     * Muestra un diálogo para elegir dónde guardar el laberinto. Si el nombre no
+     * tiene extensión, se le añade la extensión de los archivos de laberinto.
+     * @return El archivo elegido, o {@code null} si el usuario cancela.
+     */
+    public File chooseMazeFileToSave() {
+        JFileChooser chooser = createMazeFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File file = chooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            file = new File(file.getParentFile(), file.getName() + "." + ArchivoLaberinto.EXTENSION);
+        }
+        return file;
+    }
+
+    /**
+     * Muestra un diálogo para elegir una imagen (plano) a importar como laberinto.
+     * @return El archivo elegido, o {@code null} si el usuario cancela.
+     */
+    public File chooseImageFileToImport() {
+        JFileChooser chooser = new JFileChooser(new File("."));
+        chooser.setFileFilter(new FileNameExtensionFilter("Imágenes (*.png, *.bmp, *.gif, *.jpg)",
+                "png", "bmp", "gif", "jpg", "jpeg"));
+        return chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile() : null;
+    }
+
+    /**
+     * Pregunta al usuario cuántos píxeles (N×N) de la imagen forman cada celda.
+     * @return El factor de reducción, o {@code null} si el usuario cancela o el valor no es válido.
+     */
+    public Integer askImportBlockSize() {
+        String value = JOptionPane.showInputDialog(this,
+                "Píxeles por celda (N para bloques de N×N píxeles):", "1");
+        if (value == null) return null;
+        try {
+            int block = Integer.parseInt(value.trim());
+            if (block >= 1) return block;
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        showError("El factor de reducción debe ser un entero mayor o igual que 1.");
+        return null;
+    }
+
+    private JFileChooser createMazeFileChooser() {
+        JFileChooser chooser = new JFileChooser(new File("."));
+        chooser.setFileFilter(new FileNameExtensionFilter("Laberintos (*." + ArchivoLaberinto.EXTENSION + ")",
+                ArchivoLaberinto.EXTENSION));
+        return chooser;
+    }
+
     // --- MÉTODOS PARA QUE EL CONTROLADOR AÑADA LISTENERS ---
 
+    /**
+     * Añade un listener para el evento de clic en el item de menú "Abrir Laberinto...".
+     * @param listener El ActionListener a ejecutar, típicamente proporcionado por el Controlador.
+     */
+    public void addOpenMazeListener(ActionListener listener) {
+        openMazeMenuItem.addActionListener(listener);
+    }
+
+    /**
+     * Añade un listener para el evento de clic en el item de menú "Guardar Laberinto...".
+     * @param listener El ActionListener a ejecutar, típicamente proporcionado por el Controlador.
+     */
+    public void addSaveMazeListener(ActionListener listener) {
+        saveMazeMenuItem.addActionListener(listener);
+    }
+
+    /**
+     * Añade un listener para el evento de clic en el item de menú "Importar Imagen...".
+     * @param listener El ActionListener a ejecutar, típicamente proporcionado por el Controlador.
+     */
+    public void addImportImageListener(ActionListener listener) {
+        importImageMenuItem.addActionListener(listener);
+    }
+
     /**
      * Añade un listener para el evento de clic en el item de menú "Listar Historial de Resultados".
      * @param listener El ActionListener a ejecutar, típicamente proporcionado por el Controlador.
@@ -19,6 +19,8 @@ import java.io.IOException;
  * Características:
  * <ul>
  *   <li>Lee datos del archivo CSV de resultados</li>
+ *   <li>Solo grafica las búsquedas calculadas (Source {@code solver}); las filas
+ *       de la caché, de las carreras y de los benchmarks miden otra cosa</li>
  *   <li>Genera gráfica de líneas usando JFreeChart</li>
  *   <li>Muestra diferentes algoritmos con colores distintos</li>
  *   <li>Permite comparar rendimiento visual y numéricamente</li>
@@ -52,7 +54,9 @@ public class TimesChartView extends JDialog {
             String line;
             while ((line = br.readLine()) != null) {
                 String[] parts = line.split(",");
-                if (parts.length >= 5) {
+                // Las filas anteriores a la columna Source son todas del solver
+                boolean delSolver = parts.length < 6 || parts[5].trim().equals("solver");
+                if (parts.length >= 5 && delSolver && !parts[4].trim().isEmpty()) {
                     String timestamp = parts[0].trim();
                     String algoritmo = parts[1].trim();
                     double tiempo = Double.parseDouble(parts[4].trim());
@@ -0,0 +1,47 @@
+package modelo;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Relajación entre filas de {@link TransformadaDistancias} con la Vector API:
+ * procesa tantas celdas por instrucción como enteros caben en el registro
+ * SIMD preferido de la máquina (8 con AVX2, 16 con AVX-512).
+ *
+ * Está fuera de {@code src/main/java} porque {@code jdk.incubator.vector} es un
+ * módulo en incubación: se compila y se ejecuta con
+ * {@code --add-modules jdk.incubator.vector}, y {@link TransformadaDistancias}
+ * la carga por reflexión solo si está disponible.
+ *
+ * Características:
+ * <ul>
+ *   <li>Misma operación que la relajación escalar, sin ramas por celda</li>
+ *   <li>Solo escribe los bloques que cambian</li>
+ *   <li>Cola escalar para las celdas que no llenan un vector</li>
+ * </ul>
+ */
+final class RelajacionVectorial implements TransformadaDistancias.RelajacionFilas {
+
+    private static final VectorSpecies<Integer> ESPECIE = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean relajar(int[] campo, int[] muro, int origen, int destino, int n) {
+        boolean cambio = false;
+        int i = 0;
+        for (int limite = ESPECIE.loopBound(n); i < limite; i += ESPECIE.length()) {
+            IntVector actual = IntVector.fromArray(ESPECIE, campo, destino + i);
+            IntVector nuevo = IntVector.fromArray(ESPECIE, campo, origen + i).add(1)
+                    .min(actual)
+                    .max(IntVector.fromArray(ESPECIE, muro, destino + i));
+            if (nuevo.compare(VectorOperators.LT, actual).anyTrue()) {
+                nuevo.intoArray(campo, destino + i);
+                cambio = true;
+            }
+        }
+        if (i < n) {
+            cambio |= TransformadaDistancias.ESCALAR.relajar(campo, muro, origen + i, destino + i, n - i);
+        }
+        return cambio;
+    }
+}